@@ -0,0 +1,163 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+*/
+
+/*
+ * Internal header file supporting Python
+ * for com.ibm.streamsx.topology.
+ *
+ * This is not part of any public api for
+ * the toolkit or toolkit with decorated
+ * SPL Python operators.
+ *
+ * Support for functional operators that pass
+ * batches of tuples to their callable.
+ */
+
+#ifndef __SPL__SPLPY_BATCH_H
+#define __SPL__SPLPY_BATCH_H
+
+#include "splpy_tuple.h"
+
+#include <time.h>
+#include <vector>
+
+namespace streamsx {
+  namespace topology {
+
+  /**
+   * A batch of SPL tuples waiting to be passed to
+   * a Python callable in a single call.
+   *
+   * A batch is complete when it contains size tuples
+   * or, if timeout is positive, the first tuple in the
+   * batch has waited timeout seconds.
+   *
+   * Not thread safe, the operator serializes access.
+   */
+  template <typename T>
+  class SplpyBatch {
+    public:
+      SplpyBatch(int32_t size, double timeout) :
+          size_(size < 1 ? 1 : size), timeout_(timeout), start_(0)
+      {
+          tuples_.reserve(size_);
+      }
+
+      /**
+       * Add a tuple to the batch, returns true if the batch is full.
+       */
+      bool add(const T & tuple) {
+          if (tuples_.empty())
+              start_ = now();
+          tuples_.push_back(tuple);
+          return tuples_.size() >= size_;
+      }
+
+      std::vector<T> & tuples() { return tuples_; }
+      bool empty() const { return tuples_.empty(); }
+      size_t size() const { return tuples_.size(); }
+      void clear() { tuples_.clear(); }
+
+      bool hasTimeout() const { return timeout_ > 0.0; }
+      double timeout() const { return timeout_; }
+
+      /**
+       * True if the first tuple in the batch has waited
+       * at least timeout seconds.
+       */
+      bool expired() const {
+          return !tuples_.empty() && (now() - start_) >= timeout_;
+      }
+
+      /**
+       * Seconds until the batch expires, timeout if it is empty.
+       */
+      double remaining() const {
+          if (tuples_.empty())
+              return timeout_;
+          double r = start_ + timeout_ - now();
+          return r > 0.0 ? r : 0.0;
+      }
+
+    private:
+      static double now() {
+          struct timespec ts;
+          clock_gettime(CLOCK_MONOTONIC, &ts);
+          return ts.tv_sec + (ts.tv_nsec / 1e9);
+      }
+
+      const size_t size_;
+      const double timeout_;
+      double start_;
+      std::vector<T> tuples_;
+  };
+
+  /**
+   *  A batch of SPL tuples is passed to Python through pySplProcessBatch.
+   *  Each tuple is converted to the same value as it would
+   *  be for pySplProcessTuple (through pyspltuple2value.cgt)
+   *  and then set as an item in a Python list using pySplBatchValue.
+   *
+   *  The batched wrapper function is then called with the list:
+   *
+   *  CommonSchema.Python (pickle): fn(values, pms) where pms is
+   *      a list of pickle markers, None when the corresponding
+   *      value was passed by reference, otherwise a non-None value
+   *      indicating the value is a memory view of pickled bytes.
+   *  Other styles: fn(values)
+   *
+   *  The return is a list with the result for each value,
+   *  None if no result is to be submitted.
+   */
+  inline void pySplBatchValue(PyObject * values, PyObject * pms, Py_ssize_t i, const SPL::blob & pyo) {
+      unsigned char const *data = pyo.getData();
+      unsigned char fmt = *data;
+
+      PyObject *value;
+      PyObject *pm;
+      if (fmt == STREAMSX_TPP_PTR) {
+          // Steal the reference passed with the tuple.
+          __SPLTuplePyPtr *stp = (__SPLTuplePyPtr *)(data);
+          value = stp->pyptr;
+          pm = SplpyGeneral::getNone(NULL);
+      }
+      else if (fmt <= STREAMSX_TPP_PICKLE) {
+          value = pySplValueToPyObject(pyo);
+          Py_INCREF(value);
+          pm = value;
+      }
+      else {
+          throw SPL::SPLRuntimeDeserializationException("pySplBatchValue", "Invalid blob");
+      }
+      PyList_SET_ITEM(values, i, value);
+      PyList_SET_ITEM(pms, i, pm);
+  }
+
+  inline void pySplBatchValue(PyObject * values, PyObject * pms, Py_ssize_t i, const SPL::rstring & pys) {
+      PyList_SET_ITEM(values, i, pySplValueToPyObject(pys));
+  }
+
+  /**
+   * Steals the reference to pyv.
+   */
+  inline void pySplBatchValue(PyObject * values, PyObject * pms, Py_ssize_t i, PyObject * pyv) {
+      PyList_SET_ITEM(values, i, pyv);
+  }
+
+  /**
+   * Call the batched wrapper function.
+   * Steals the references to values and pms.
+   */
+  inline PyObject * pySplProcessBatch(PyObject * function, PyObject * values, PyObject * pms) {
+      PyObject * pyTuple = PyTuple_New(pms == NULL ? 1 : 2);
+      PyTuple_SET_ITEM(pyTuple, 0, values);
+      if (pms != NULL)
+          PyTuple_SET_ITEM(pyTuple, 1, pms);
+
+      return pyCallTupleFunc(function, pyTuple);
+  }
+}
+}
+#endif
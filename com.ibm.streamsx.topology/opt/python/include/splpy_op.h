@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015,2016
+# Copyright IBM Corp. 2015,2019
 */
 
 /*
@@ -174,7 +174,27 @@ class SplpyOp : public OperatorWithCallable {
           }
           return 0;
       }
-     
+
+      /**
+       * Account for exceptions suppressed by the callable's __exit__
+       * method during a call to a batched wrapper. The wrapper
+       * suppresses exceptions itself so that processing continues
+       * with the remaining tuples in the batch, and records the
+       * number suppressed in _splpy_suppressed.
+       *
+       * Requires that the GIL is held.
+       */
+      void batchExceptionsSuppressed() {
+          if (exc_suppresses && callable()
+              && PyObject_HasAttrString(callable(), "_splpy_suppressed")) {
+              PyObject *pyCount = PyObject_GetAttrString(callable(), "_splpy_suppressed");
+              long count = PyLong_AsLong(pyCount);
+              Py_DECREF(pyCount);
+              if (count > 0)
+                  exc_suppresses->incrementValue(count);
+          }
+      }
+
       /**
        * Register a state handler for the operator.  The state handler
        * handles checkpointing and supports consistent regions.  Checkpointing
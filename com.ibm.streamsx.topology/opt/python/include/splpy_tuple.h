@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
 */
 
 /*
@@ -189,6 +189,41 @@ namespace streamsx {
 
        retSplVal.setData((unsigned char const *) &stpp, sizeof(__SPLTuplePyPtr));
     }
+
+    /**
+     * Return the Python object held by a blob that
+     * was passed by reference, NULL if the blob holds
+     * pickled bytes. The reference count is not modified.
+     */
+    inline PyObject * pySplByRefObject(const SPL::blob & pyo) {
+       unsigned char const *data = pyo.getData();
+       if (*data == STREAMSX_TPP_PTR)
+           return ((__SPLTuplePyPtr *)(data))->pyptr;
+       return NULL;
+    }
+
+    /**
+     * Set a blob in an output tuple to a Python object
+     * received by reference that an operator (e.g. Filter)
+     * is forwarding unchanged. Steals the reference to value.
+     *
+     * occ >= 1 - pass by reference, see pyTupleByRef.
+     * Otherwise the object is pickled using dumps.
+     */
+    inline void pyTupleForward(SPL::blob & retSplVal, PyObject *value, int32_t occ, PyObject *dumps) {
+       if (occ > 0) {
+           pyTupleByRef(retSplVal, value, occ);
+           return;
+       }
+
+       PyObject * pickled = PyObject_CallFunctionObjArgs(dumps, value, NULL);
+       Py_DECREF(value);
+       if (pickled == NULL)
+           throw SplpyExceptionInfo::pythonError("pickle");
+
+       pySplValueFromPyObject(retSplVal, pickled);
+       Py_DECREF(pickled);
+    }
 }
 }
 #endif
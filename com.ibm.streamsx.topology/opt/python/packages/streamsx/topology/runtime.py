@@ -1,6 +1,6 @@
 # coding=utf-8
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016
+# Copyright IBM Corp. 2016,2019
 
 import os
 import sys
@@ -95,6 +95,10 @@ class _PickleInObjectOut(_FunctionalCallable):
 class _PickleInPickleOut(_FunctionalCallable):
     def __call__(self, tuple_, pm=None):
         if pm is not None:
+            # Identity of pickled bytes (e.g. pickling objects passed
+            # by reference for consumers that require bytes) is a no-op.
+            if self._callable is _identity:
+                return tuple_
             tuple_ = pickle.loads(tuple_)
         rv =  self._callable(tuple_)
         if rv is None:
@@ -417,6 +421,66 @@ tuple_in__json_out = object_in__json_out
 tuple_in__dict_out = object_in__dict_out
 tuple_in = object_in
 
+# Batched wrappers used when a functional operator passes
+# a batch of tuples to its callable in a single call
+# (see Stream.batch_calls).
+#
+# The operator passes a list of values, converted as for a single
+# tuple, and for the pickle style a list of the corresponding pickle
+# markers. A list containing the result for each value is returned,
+# each result converted by the single tuple wrapper.
+#
+# An exception suppressed by the callable's __exit__ method
+# results in None for its value and processing continues
+# with the remainder of the batch. The number of suppressed
+# exceptions is available to the operator as _splpy_suppressed.
+class _BatchIn(object):
+    def __call__(self, tuples_):
+        call = super(_BatchIn, self).__call__
+        self._splpy_suppressed = 0
+        rvs = []
+        for tuple_ in tuples_:
+            try:
+                rvs.append(call(tuple_))
+            except:
+                self._batch_exception(sys.exc_info())
+                rvs.append(None)
+        return rvs
+
+    def _batch_exception(self, ei):
+        if not streamsx._streams._runtime._call_exit(self, ei):
+            raise ei[1]
+        self._splpy_suppressed += 1
+
+class _BatchPickleIn(_BatchIn):
+    def __call__(self, tuples_, pms):
+        call = super(_BatchIn, self).__call__
+        self._splpy_suppressed = 0
+        rvs = []
+        for tuple_, pm in zip(tuples_, pms):
+            try:
+                rvs.append(call(tuple_, pm))
+            except:
+                self._batch_exception(sys.exc_info())
+                rvs.append(None)
+        return rvs
+
+# Add the batched variant of each wrapper function, with
+# the suffix __batch, e.g. pickle_in__pickle_out__batch
+def _add_batch_wrappers():
+    import re
+    g = globals()
+    wrap_re = re.compile(r'^(object|pickle|string|json|dict|tuple)_in(__\w+_(out|iter))?$')
+    for name in [n for n in g if wrap_re.match(n)]:
+        cls = g[name]
+        batch_name = '_Batch' + cls.__name__.lstrip('_')
+        if batch_name not in g:
+            mixin = _BatchPickleIn if name.startswith('pickle_in') else _BatchIn
+            g[batch_name] = type(batch_name, (mixin, cls), {})
+        g[name + '__batch'] = g[batch_name]
+
+_add_batch_wrappers()
+
 # Get the named tuple class for a schema.
 # used by functional operators.
 def _get_namedtuple_cls(schema, name):
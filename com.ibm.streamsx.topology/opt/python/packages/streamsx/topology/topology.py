@@ -344,6 +344,26 @@ class _SourceLocation(object):
             sl['api.method'] = self.method
         return sl
 
+_BATCH_CALL_KINDS = frozenset(['com.ibm.streamsx.topology.functional.python::Map',
+    'com.ibm.streamsx.topology.functional.python::Filter',
+    'com.ibm.streamsx.topology.functional.python::FlatMap',
+    'com.ibm.streamsx.topology.functional.python::ForEach'])
+
+def _batch_calls(op, size, timeout):
+    if op.kind not in _BATCH_CALL_KINDS:
+        raise TypeError("Callable invocations cannot be batched for " + op.kind)
+    size = int(size)
+    if size < 1:
+        raise ValueError(size)
+    op.params['batchSize'] = streamsx.spl.types.int32(size)
+    if timeout is not None:
+        if isinstance(timeout, datetime.timedelta):
+            timeout = timeout.total_seconds()
+        timeout = float(timeout)
+        if timeout <= 0.0:
+            raise ValueError(timeout)
+        op.params['batchTimeout'] = streamsx.spl.types.float64(timeout)
+
 """
 Determine whether a callable has state that needs to be saved during
 checkpointing.  
@@ -1634,6 +1654,54 @@ class Stream(_placement._Placement, object):
         oport = op.addOutputPort(schema=self.oport.schema)
         return Stream(self.topology, oport, other=self)
     
+    def batch_calls(self, size, timeout=None):
+        """
+        Batch the calls to the callable that created this stream.
+
+        By default the callable passed to :py:meth:`map`,
+        :py:meth:`flat_map` or :py:meth:`filter` is invoked as each
+        tuple arrives, with the overhead of passing the tuple into
+        Python for every tuple. With batching up to `size` tuples
+        are held and then passed into Python together, the callable
+        is still invoked once for each tuple, in order.
+
+        Batching reduces the per-tuple overhead for high rate streams
+        at the cost of increased latency. Held tuples are processed
+        when a batch reaches `size` tuples, when a window or final
+        punctuation arrives and, if `timeout` is set, when the first
+        tuple in a partial batch has been held for `timeout`.
+
+        Example of mapping a high rate stream in batches of 100 tuples::
+
+            s = ...
+            m = s.map(lambda x : x * 2).batch_calls(100, timeout=0.5)
+
+        If ``func`` is a callable object that suppresses an exception
+        with its ``__exit__`` method then processing continues with
+        the remaining tuples in the batch.
+
+        Batching is not supported in a consistent region, as held
+        tuples are not drained or reset by the region, the application
+        fails to compile when a batched callable is in a consistent region.
+
+        Args:
+            size(int): Maximum number of tuples passed into Python in a single call.
+            timeout: Maximum time a tuple is held in a partial batch, either
+                a `float` number of seconds or `datetime.timedelta`.
+                Defaults to no timeout.
+
+        Returns:
+            Stream: this stream.
+
+        Raises:
+            TypeError: This stream was not created by :py:meth:`map`, :py:meth:`flat_map` or :py:meth:`filter`.
+
+        .. seealso:: :py:meth:`Sink.batch_calls`
+        .. versionadded:: 1.14
+        """
+        _batch_calls(self._op(), size, timeout)
+        return self
+
     def parallel(self, width, routing=Routing.ROUND_ROBIN, func=None, name=None):
         """
         Split stream into channels and start a parallel region.
@@ -2689,3 +2757,28 @@ class Sink(_placement._Placement, object):
     def _op(self):
         return self.__op
 
+    def batch_calls(self, size, timeout=None):
+        """
+        Batch the calls to the callable that created this sink.
+
+        Tuples are passed into Python for the callable passed to
+        :py:meth:`Stream.for_each` in batches, see :py:meth:`Stream.batch_calls`.
+        Batching is not supported in a consistent region.
+
+        Args:
+            size(int): Maximum number of tuples passed into Python in a single call.
+            timeout: Maximum time a tuple is held in a partial batch, either
+                a `float` number of seconds or `datetime.timedelta`.
+                Defaults to no timeout.
+
+        Returns:
+            Sink: this sink.
+
+        Raises:
+            TypeError: This sink was not created by :py:meth:`Stream.for_each`.
+
+        .. versionadded:: 1.14
+        """
+        _batch_calls(self._op(), size, timeout)
+        return self
+
@@ -47,6 +47,7 @@ class Stream(object):
     def isolate(self) -> 'Stream': ...
     def low_latency(self) -> 'Stream': ...
     def end_low_latency(self) -> 'Stream': ...
+    def batch_calls(self, size: int, timeout: Union[float,datetime.timedelta]=None) -> 'Stream': ...
     def parallel(self, width: int, routing: Routing=Routing.ROUND_ROBIN, func: Callable[[Any],int]=None, name: str=None) -> 'Stream': ...
     def set_parallel(self, width: int, name: str=None) -> 'Stream': ...
     def end_parallel(self) -> 'Stream': ...
@@ -75,7 +76,8 @@ class PendingStream(object):
     def complete(self, stream: Stream) -> None: ...
     def is_complete(self) -> bool: ...
 
-class Sink(object): ...
+class Sink(object):
+    def batch_calls(self, size: int, timeout: Union[float,datetime.timedelta]=None) -> 'Sink': ...
 
 class Window(object):
     def trigger(self, when: Union[int,datetime.timedelta]=1) -> 'Window': ...
@@ -0,0 +1,65 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static com.ibm.streamsx.topology.internal.logic.ObjectUtils.serializeLogic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.ibm.streams.flow.declare.OperatorGraph;
+import com.ibm.streams.flow.declare.OperatorInvocation;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionTransform;
+
+/**
+ * Handoff of tuples through the {@code FunctionalQueue}
+ * of a {@code map} operator to its reader thread.
+ * <BR>
+ * A queue size of zero executes the function on the
+ * submitting thread, as the baseline for the handoff cost.
+ * Once the queue is full the throughput is that of the reader,
+ * as submitters wait for space in the queue.
+ */
+public class FunctionalQueueBenchmark extends OperatorBenchmark {
+
+    @Param({"0", "1024"})
+    public int queueSize;
+
+    @Param({"0", "64"})
+    public int queueBatchSize;
+
+    @Override
+    void declare(OperatorGraph graph) throws Exception {
+        OperatorInvocation<FunctionTransform> op = graph.addOperator(FunctionTransform.class);
+        op.setStringParameter("functionalLogic", serializeLogic(new Identity()));
+        op.setIntParameter("queueSize", queueSize);
+        op.setIntParameter("queueBatchSize", queueBatchSize);
+        inputPort = op.addInput("input", JAVA_OBJECT);
+        outputPort = op.addOutput("output", JAVA_OBJECT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void handoff(Cursor cursor) throws Exception {
+        submit(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void handoffConcurrent(Cursor cursor) throws Exception {
+        submit(cursor);
+    }
+
+    public static final class Identity implements Function<Object, Object> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Object apply(Object v) {
+            return v;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.generator.spl.SPLGenerator;
+
+/**
+ * SPL generation from the JSON graph of a large topology.
+ * <BR>
+ * The {@code parallel} topology is a union of parallel regions,
+ * each a chain of operators containing a low latency region.
+ * The {@code isolated} topology is a single pipeline split
+ * into isolated regions.
+ * <BR>
+ * Generation modifies the graph so each invocation generates
+ * from a new copy of the graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class GeneratorBenchmark {
+
+    /**
+     * Operators in each parallel region or isolated region.
+     */
+    private static final int REGION_SIZE = 100;
+
+    @Param({"1000", "10000"})
+    public int operators;
+
+    @Param({"parallel", "isolated"})
+    public String shape;
+
+    private String graph;
+    private JsonObject copy;
+
+    @Setup(Level.Trial)
+    public void declare() {
+        Topology topology = new Topology("GeneratorBenchmark");
+        if ("parallel".equals(shape))
+            parallel(topology);
+        else
+            isolated(topology);
+        graph = topology.builder()._complete().toString();
+    }
+
+    @Setup(Level.Iteration)
+    public void copy() {
+        copy = new JsonParser().parse(graph).getAsJsonObject();
+    }
+
+    @Benchmark
+    public String generate() throws Exception {
+        return new SPLGenerator().generateSPL(copy);
+    }
+
+    private void parallel(Topology topology) {
+        Set<TStream<String>> ends = new HashSet<>();
+        for (int r = 0; r < operators / REGION_SIZE; r++) {
+            TStream<String> s = topology.strings("a", "b").parallel(3);
+            for (int i = 0; i < REGION_SIZE; i++) {
+                if (i == REGION_SIZE / 2)
+                    s = s.lowLatency();
+                s = s.modify(v -> v + "!");
+                if (i == REGION_SIZE / 2 + 5)
+                    s = s.endLowLatency();
+            }
+            ends.add(s.endParallel());
+        }
+        TStream<String> first = ends.iterator().next();
+        ends.remove(first);
+        first.union(ends).print();
+    }
+
+    private void isolated(Topology topology) {
+        TStream<String> s = topology.strings("a", "b");
+        for (int i = 0; i < operators; i++) {
+            if (i % REGION_SIZE == 0)
+                s = s.isolate();
+            s = i % 2 == 0 ? s.modify(v -> v + "!") : s.filter(v -> !v.isEmpty());
+        }
+        s.print();
+    }
+}
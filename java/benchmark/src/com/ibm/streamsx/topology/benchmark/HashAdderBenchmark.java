@@ -0,0 +1,37 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static com.ibm.streamsx.topology.internal.functional.ObjectSchemas.JAVA_OBJECT_SCHEMA;
+import static com.ibm.streamsx.topology.internal.functional.ObjectSchemas.schemaWithHash;
+import static com.ibm.streamsx.topology.internal.logic.ObjectUtils.serializeLogic;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import com.ibm.streams.flow.declare.OperatorGraph;
+import com.ibm.streams.flow.declare.OperatorInvocation;
+import com.ibm.streams.operator.Type;
+import com.ibm.streamsx.topology.internal.functional.operators.HashAdder;
+
+/**
+ * {@code HashAdder.process}, adding the hash used to
+ * partition a stream at the start of a parallel region.
+ */
+public class HashAdderBenchmark extends OperatorBenchmark {
+
+    @Override
+    void declare(OperatorGraph graph) throws Exception {
+        OperatorInvocation<HashAdder> op = graph.addOperator(HashAdder.class);
+        op.setStringParameter("functionalLogic", serializeLogic(new Reading.IdHash()));
+        inputPort = op.addInput("input", JAVA_OBJECT);
+        outputPort = op.addOutput("output",
+                Type.Factory.getStreamSchema(schemaWithHash(JAVA_OBJECT_SCHEMA)));
+    }
+
+    @Benchmark
+    public void process(Cursor cursor) throws Exception {
+        submit(cursor);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static com.ibm.streamsx.topology.internal.functional.ObjectSchemas.JAVA_OBJECT_SCHEMA;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.Type;
+import com.ibm.streams.operator.types.Blob;
+import com.ibm.streams.operator.types.ValueFactory;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.window.KeyPartitioner;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+import com.ibm.streamsx.topology.internal.spljava.Schemas;
+
+/**
+ * {@code KeyPartitioner.getPartition} for a keyed window
+ * of Java object tuples.
+ * <BR>
+ * A serialized tuple has been received from another
+ * processing element and must be deserialized to obtain its key,
+ * otherwise the tuple was submitted in the same processing
+ * element and contains a reference to the Java object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyPartitionerBenchmark {
+
+    @Param({"true", "false"})
+    public boolean serialized;
+
+    private KeyPartitioner partitioner;
+    private Tuple tuple;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() {
+        StreamSchema schema = Type.Factory.getStreamSchema(JAVA_OBJECT_SCHEMA);
+        SPLMapping<Object> mapping = (SPLMapping<Object>) Schemas.getSPLMapping(schema);
+        Function<?, ?> keyGetter = new Reading.Id();
+        partitioner = new KeyPartitioner(mapping, (Function<Object, Object>) keyGetter);
+
+        tuple = mapping.convertTo(Reading.create(42, 64));
+        if (serialized)
+            tuple = schema.getTuple(new Blob[] {
+                    ValueFactory.newBlob(tuple.getBlob(0).getData()) });
+    }
+
+    @Benchmark
+    public Object getPartition() {
+        return partitioner.getPartition(tuple);
+    }
+}
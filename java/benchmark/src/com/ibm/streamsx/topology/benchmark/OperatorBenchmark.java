@@ -0,0 +1,144 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static com.ibm.streamsx.topology.internal.functional.ObjectSchemas.JAVA_OBJECT_SCHEMA;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streams.flow.declare.InputPortDeclaration;
+import com.ibm.streams.flow.declare.OperatorGraph;
+import com.ibm.streams.flow.declare.OperatorGraphFactory;
+import com.ibm.streams.flow.declare.OutputPortDeclaration;
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.flow.javaprimitives.JavaOperatorTester;
+import com.ibm.streams.flow.javaprimitives.JavaTestableGraph;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.Type;
+import com.ibm.streams.operator.types.Blob;
+import com.ibm.streams.operator.types.ValueFactory;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+import com.ibm.streamsx.topology.internal.spljava.Schemas;
+
+/**
+ * Benchmark of a single functional operator executing
+ * in a local operator graph.
+ * <BR>
+ * Input tuples are {@link Reading} Java object tuples
+ * that have been serialized, as though they were received
+ * from another processing element.
+ * Tuples submitted by the operator are discarded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class OperatorBenchmark {
+
+    static final StreamSchema JAVA_OBJECT = Type.Factory.getStreamSchema(JAVA_OBJECT_SCHEMA);
+
+    /**
+     * Number of distinct input tuples, a power of two.
+     */
+    private static final int TUPLES = 1024;
+
+    /**
+     * Number of distinct sensors (keys) in the input tuples.
+     */
+    @Param({"1", "1024"})
+    public int sensors;
+
+    private final Tuple[] tuples = new Tuple[TUPLES];
+
+    private JavaTestableGraph graph;
+    private StreamingOutput<OutputTuple> input;
+
+    /**
+     * Input port of the operator being benchmarked,
+     * set by {@link #declare(OperatorGraph)}.
+     */
+    InputPortDeclaration inputPort;
+
+    /**
+     * Output port of the operator being benchmarked,
+     * set by {@link #declare(OperatorGraph)}.
+     */
+    OutputPortDeclaration outputPort;
+
+    /**
+     * Position of a benchmark thread in the input tuples.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    /**
+     * Declare the operator being benchmarked.
+     */
+    abstract void declare(OperatorGraph graph) throws Exception;
+
+    @Setup(Level.Trial)
+    public void startGraph() throws Exception {
+        @SuppressWarnings("unchecked")
+        SPLMapping<Object> mapping = (SPLMapping<Object>) Schemas.getSPLMapping(JAVA_OBJECT);
+        for (int i = 0; i < TUPLES; i++) {
+            Blob serialized = ValueFactory.newBlob(
+                    mapping.convertTo(Reading.create(i, sensors)).getBlob(0).getData());
+            tuples[i] = JAVA_OBJECT.getTuple(new Blob[] { serialized });
+        }
+
+        OperatorGraph decl = OperatorGraphFactory.newGraph();
+        declare(decl);
+
+        graph = new JavaOperatorTester().executable(decl);
+        graph.registerStreamHandler(outputPort, DISCARD);
+        input = graph.getInputTester(inputPort);
+
+        graph.initialize().get();
+        graph.allPortsReady().get();
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdownGraph() throws Exception {
+        graph.shutdown().get();
+    }
+
+    /**
+     * Submit the thread's next input tuple to the operator.
+     */
+    final void submit(Cursor cursor) throws Exception {
+        input.submit(tuples[cursor.next++ & (TUPLES - 1)]);
+    }
+
+    private static final StreamHandler<Tuple> DISCARD = new StreamHandler<Tuple>() {
+        @Override
+        public void tuple(Tuple tuple) {
+        }
+
+        @Override
+        public void mark(Punctuation mark) {
+        }
+    };
+}
@@ -0,0 +1,74 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import java.io.Serializable;
+
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.ToIntFunction;
+
+/**
+ * Typical small Java object tuple used by the benchmarks,
+ * a sensor reading.
+ */
+public class Reading implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+    private long timestamp;
+    private double value;
+
+    public Reading() {
+    }
+
+    public Reading(String id, long timestamp, double value) {
+        this.id = id;
+        this.timestamp = timestamp;
+        this.value = value;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Create a reading for one of {@code sensors} sensors.
+     */
+    public static Reading create(int n, int sensors) {
+        return new Reading("sensor-" + (n % sensors), 1546300800000L + n, n * 0.5);
+    }
+
+    /**
+     * Key function for a reading, its sensor identifier.
+     */
+    public static final class Id implements Function<Reading, String> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String apply(Reading v) {
+            return v.getId();
+        }
+    }
+
+    /**
+     * Hash function for a reading, the hash code of its sensor identifier.
+     */
+    public static final class IdHash implements ToIntFunction<Reading> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public int applyAsInt(Reading v) {
+            return v.getId().hashCode();
+        }
+    }
+}
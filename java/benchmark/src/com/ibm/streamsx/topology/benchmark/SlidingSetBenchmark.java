@@ -0,0 +1,66 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.benchmark;
+
+import static com.ibm.streamsx.topology.internal.logic.ObjectUtils.serializeLogic;
+
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.ibm.streams.flow.declare.OperatorGraph;
+import com.ibm.streams.flow.declare.OperatorInvocation;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionAggregate;
+
+/**
+ * {@code SlidingSet.handleEvent} for a partitioned
+ * count window that is aggregated on every insertion.
+ * <BR>
+ * The aggregate function is trivial so that the cost is
+ * dominated by the window handling. With a single sensor
+ * all events are for the same partition, with more sensors
+ * concurrent events are spread over the partition locks.
+ */
+@SuppressWarnings("rawtypes")
+public class SlidingSetBenchmark extends OperatorBenchmark {
+
+    private static final int WINDOW_SIZE = 100;
+
+    @Override
+    void declare(OperatorGraph graph) throws Exception {
+        OperatorInvocation<FunctionAggregate> op = graph.addOperator(FunctionAggregate.class);
+        op.setStringParameter("functionalLogic", serializeLogic(new Count()));
+        op.setStringParameter("keyGetter", serializeLogic(new Reading.Id()));
+        inputPort = op.addInput("input", JAVA_OBJECT);
+        inputPort.sliding();
+        inputPort.evictCount(WINDOW_SIZE);
+        inputPort.triggerCount(1);
+        inputPort.partitioned();
+        outputPort = op.addOutput("output", JAVA_OBJECT);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void handleEvent(Cursor cursor) throws Exception {
+        submit(cursor);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void handleEventConcurrent(Cursor cursor) throws Exception {
+        submit(cursor);
+    }
+
+    public static final class Count implements Function<List<Reading>, Integer> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Integer apply(List<Reading> v) {
+            return v.size();
+        }
+    }
+}
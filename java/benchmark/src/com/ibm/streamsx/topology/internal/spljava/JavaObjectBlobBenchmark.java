@@ -0,0 +1,76 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streamsx.topology.benchmark.Reading;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+/**
+ * Serialization of a Java object tuple by {@code JavaObjectBlob},
+ * for a single reading and a list of readings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaObjectBlobBenchmark {
+
+    @Param({"java", "compact"})
+    public String serializer;
+
+    /**
+     * Number of readings in the tuple, zero is a single reading.
+     */
+    @Param({"0", "100"})
+    public int readings;
+
+    private TupleSerializer tupleSerializer;
+    private Object tuple;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        tupleSerializer = "compact".equals(serializer)
+                ? TupleSerializer.compact(Reading.class) : TupleSerializer.JAVA_SERIALIZER;
+        if (readings == 0) {
+            tuple = Reading.create(42, 64);
+        } else {
+            ArrayList<Reading> list = new ArrayList<>(readings);
+            for (int i = 0; i < readings; i++)
+                list.add(Reading.create(i, 64));
+            tuple = list;
+        }
+        buffer = ByteBuffer.allocate(64 * 1024);
+    }
+
+    @Benchmark
+    public long getLength() {
+        return new JavaObjectBlob(tupleSerializer, tuple).getLength();
+    }
+
+    @Benchmark
+    public ByteBuffer put() {
+        buffer.clear();
+        return new JavaObjectBlob(tupleSerializer, tuple).put(buffer);
+    }
+}
@@ -0,0 +1,83 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.types.Blob;
+import com.ibm.streams.operator.types.ValueFactory;
+import com.ibm.streamsx.topology.benchmark.Reading;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+/**
+ * {@code SPLJavaObject.convertTo} and {@code SPLJavaObject.convertFrom},
+ * mapping a Java object tuple to and from its SPL tuple.
+ * <BR>
+ * {@code convertTo} does not serialize the object,
+ * {@code convertToSerialized} includes the serialization that occurs
+ * when the tuple is sent to another processing element.
+ * {@code convertFrom} deserializes a tuple received from another
+ * processing element, {@code convertFromLocal} is a tuple
+ * submitted in the same processing element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SPLJavaObjectBenchmark {
+
+    @Param({"java", "compact"})
+    public String serializer;
+
+    private SPLJavaObject mapping;
+    private Reading reading;
+    private Tuple local;
+    private Tuple serialized;
+
+    @Setup
+    public void setup() {
+        mapping = new SPLJavaObject(Schemas.JAVA_OBJECT, "compact".equals(serializer)
+                ? TupleSerializer.compact(Reading.class) : TupleSerializer.JAVA_SERIALIZER);
+        reading = Reading.create(42, 64);
+        local = mapping.convertTo(reading);
+        serialized = Schemas.JAVA_OBJECT.getTuple(new Blob[] {
+                ValueFactory.newBlob(local.getBlob(0).getData()) });
+    }
+
+    @Benchmark
+    public Tuple convertTo() {
+        return mapping.convertTo(reading);
+    }
+
+    @Benchmark
+    public long convertToSerialized() {
+        return mapping.convertTo(reading).getBlob(0).getLength();
+    }
+
+    @Benchmark
+    public Object convertFrom() {
+        return mapping.convertFrom(serialized);
+    }
+
+    @Benchmark
+    public Object convertFromLocal() {
+        return mapping.convertFrom(local);
+    }
+}
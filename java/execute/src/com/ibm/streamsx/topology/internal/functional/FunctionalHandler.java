@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016  
+# Copyright IBM Corp. 2016, 2019
  */
 package com.ibm.streamsx.topology.internal.functional;
 
@@ -9,6 +9,8 @@ import java.io.IOException;
 import com.ibm.streams.operator.logging.TraceLevel;
 import com.ibm.streamsx.topology.function.FunctionContext;
 import com.ibm.streamsx.topology.function.Initializable;
+import com.ibm.streamsx.topology.function.ThreadSafe;
+import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
 import com.ibm.streamsx.topology.internal.logic.WrapperFunction;
 
 public abstract class FunctionalHandler<T> {
@@ -25,6 +27,23 @@ public abstract class FunctionalHandler<T> {
        
     public abstract T getLogic();
     
+    /**
+     * Can the logic be called concurrently without holding its monitor.
+     * This implementation returns false.
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+    
+    /**
+     * Is the logic instance thread safe, either it is marked
+     * as {@link ThreadSafe} or it has no state.
+     */
+    static boolean isThreadSafe(Object logicInstance) {
+        return logicInstance instanceof ThreadSafe
+                || ObjectUtils.isStateless(logicInstance.getClass());
+    }
+    
     public void close() throws IOException {       
         closeLogic(getLogic());
     }
@@ -1,17 +1,21 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional;
 
 import java.io.File;
 import java.net.MalformedURLException;
+import java.util.List;
 import java.util.logging.Logger;
 
 import com.ibm.streams.operator.AbstractOperator;
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streamsx.topology.function.ToIntFunction;
 import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
 import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 import com.ibm.streamsx.topology.internal.spljava.Schemas;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 
 public class FunctionalHelper {
     
@@ -31,7 +35,7 @@ public class FunctionalHelper {
         }
         
         return (SPLMapping<T>) Schemas.getSPLMapping(operator.getInput(port)
-                .getStreamSchema());
+                .getStreamSchema(), getObjectSerializer(operator));
     }
 
     public static <T> SPLMapping<T> getOutputMapping(AbstractOperator operator,
@@ -39,16 +43,62 @@ public class FunctionalHelper {
         return getOutputMapping(operator, port, null);
     }
     
+    /**
+     * Get the mapping for an output port.
+     * <BR>
+     * When the operator computes the hash for a keyed parallel
+     * region (its {@code outputHasher} parameter is set) the hash
+     * attribute of port 0 is set from each Java object as it is converted.
+     */
     @SuppressWarnings("unchecked")
     public static <T> SPLMapping<T> getOutputMapping(AbstractOperator operator,
             int port, String serializer) throws ClassNotFoundException {
         
+        final StreamSchema schema = operator.getOutput(port).getStreamSchema();
+        final String hasher = port == 0 ? getOutputHasher(operator) : null;
+        
+        final SPLMapping<Object> mapping;
         if (serializer != null && !serializer.isEmpty()) {
-            return (SPLMapping<T>) Schemas.getObjectMapping(serializer);
+            mapping = (SPLMapping<Object>) Schemas.getObjectMapping(serializer);
+        } else {
+            mapping = (SPLMapping<Object>) Schemas.getSPLMapping(
+                    hasher == null ? schema : Schemas.withoutHash(schema),
+                    getObjectSerializer(operator));
         }
         
-        return (SPLMapping<T>) Schemas.getSPLMapping(operator.getOutput(port)
-                .getStreamSchema());
+        if (hasher == null)
+            return (SPLMapping<T>) mapping;
+        
+        ToIntFunction<Object> hashFunction = getLogicObject(hasher);
+        return (SPLMapping<T>) Schemas.getHashMapping(schema, mapping, hashFunction);
+    }
+
+    private static String getOutputHasher(AbstractOperator operator) {
+        List<String> values = operator.getOperatorContext().getParameterValues(
+                FunctionalOpProperties.OUTPUT_HASHER_PARAM);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Get the operator's serializer for Java object tuples,
+     * null if the default serializer is to be used.
+     */
+    private static String getObjectSerializer(AbstractOperator operator) {
+        List<String> values = operator.getOperatorContext().getParameterValues(
+                FunctionalOpProperties.OBJECT_SERIALIZER_PARAM);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Get the operator's serializer for Java objects,
+     * Java serialization if no serializer is set.
+     */
+    public static TupleSerializer getTupleSerializer(AbstractOperator operator)
+            throws ClassNotFoundException {
+        String serializer = getObjectSerializer(operator);
+        if (serializer == null || serializer.isEmpty())
+            return TupleSerializer.JAVA_SERIALIZER;
+        return (TupleSerializer) ObjectUtils.deserializeLogic(serializer);
     }
 
     @SuppressWarnings("unchecked")
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016  
+# Copyright IBM Corp. 2016, 2019
  */
 package com.ibm.streamsx.topology.internal.functional;
 
@@ -16,10 +16,12 @@ import com.ibm.streamsx.topology.function.FunctionContext;
 public final class StatelessFunctionalHandler<T> extends FunctionalHandler<T> {
     
     private final T logic;
+    private final boolean threadSafe;
    
     public StatelessFunctionalHandler(FunctionContext context, T initialLogic) throws Exception {
         super(context);
         this.logic = initialLogic;
+        this.threadSafe = isThreadSafe(initialLogic);
         initializeLogic();
     }
     
@@ -27,4 +29,9 @@ public final class StatelessFunctionalHandler<T> extends FunctionalHandler<T> {
     public T getLogic() {
         return logic;
     }
+    
+    @Override
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
 }
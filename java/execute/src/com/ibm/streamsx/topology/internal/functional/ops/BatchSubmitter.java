@@ -0,0 +1,66 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+
+/**
+ * Converts and submits all the Java objects of an {@code Iterable}
+ * returned by functional logic as tuples on an output port.
+ * <BR>
+ * If the port's mapping allows it each value is set directly
+ * into a new output tuple, rather than being converted to an
+ * intermediate tuple. An output tuple is never reused once submitted,
+ * as a downstream operator in the same processing element,
+ * such as a window, may hold a reference to it. Null values are skipped.
+ */
+final class BatchSubmitter {
+
+    private final StreamingOutput<OutputTuple> output;
+    private final SPLMapping<Object> mapping;
+    private final boolean direct;
+
+    BatchSubmitter(StreamingOutput<OutputTuple> output, SPLMapping<Object> mapping) {
+        this.output = output;
+        this.mapping = mapping;
+        this.direct = mapping.canSetOutput();
+    }
+
+    /**
+     * Convert and submit all non-null values.
+     */
+    void submit(Iterable<?> values) throws Exception {
+        submit(values, false);
+    }
+
+    /**
+     * Convert and submit all non-null values.
+     * @param values Values to submit, may be null.
+     * @param interruptible True if submission stops when the thread is interrupted.
+     * @return False if submission was stopped due to an interrupt, true otherwise.
+     */
+    boolean submit(Iterable<?> values, boolean interruptible) throws Exception {
+        if (values == null)
+            return true;
+
+        for (Object value : values) {
+            if (interruptible && Thread.interrupted())
+                return false;
+            if (value == null)
+                continue;
+
+            if (direct) {
+                final OutputTuple tuple = output.newTuple();
+                mapping.setOutput(tuple, value);
+                output.submit(tuple);
+            } else {
+                output.submit(mapping.convertTo(value));
+            }
+        }
+        return true;
+    }
+}
@@ -1,16 +1,23 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getLogicObject;
+
+import java.util.EnumSet;
+
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.model.Icons;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streams.operator.window.StreamWindow.Policy;
+import com.ibm.streams.operator.window.StreamWindowEvent.Type;
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
 import com.ibm.streamsx.topology.internal.functional.window.ContinuousAggregatorCountEvict;
 import com.ibm.streamsx.topology.internal.functional.window.ContinuousAggregatorTimeEvict;
+import com.ibm.streamsx.topology.internal.functional.window.IncrementalAggregation;
 import com.ibm.streamsx.topology.internal.functional.window.PeriodicAggregator;
 
 @PrimitiveOperator(name="Aggregate")
@@ -20,6 +27,11 @@ public class FunctionAggregate<T, A> extends FunctionWindow {
     void createWindowListener(StreamWindow<Tuple> window)
             throws Exception {
         
+        if (getLogicObject(getFunctionalLogic()) instanceof IncrementalAggregator) {
+            createIncrementalListener(window);
+            return;
+        }
+        
         if (window.getTriggerPolicy() == Policy.TIME)
             new PeriodicAggregator<T,A>(this, window);
         else if (window.getEvictionPolicy() == Policy.TIME)
@@ -27,4 +39,21 @@ public class FunctionAggregate<T, A> extends FunctionWindow {
         else
             new ContinuousAggregatorCountEvict<T,A>(this, window);
     }
+    
+    /**
+     * Incremental aggregation submits on the same events as
+     * the set based aggregators.
+     */
+    private void createIncrementalListener(StreamWindow<Tuple> window)
+            throws Exception {
+        final EnumSet<Type> aggregateOn;
+        if (window.getTriggerPolicy() == Policy.TIME)
+            aggregateOn = EnumSet.of(Type.TRIGGER);
+        else if (window.getEvictionPolicy() == Policy.TIME)
+            aggregateOn = EnumSet.of(Type.INSERTION, Type.EVICTION);
+        else
+            aggregateOn = EnumSet.of(Type.INSERTION);
+        
+        new IncrementalAggregation<T,Object,A>(this, window, aggregateOn);
+    }
 }
@@ -0,0 +1,296 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getOutputMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.logging.TraceLevel;
+import com.ibm.streams.operator.model.Icons;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.Parameter;
+import com.ibm.streams.operator.model.PrimitiveOperator;
+import com.ibm.streams.operator.state.Checkpoint;
+import com.ibm.streams.operator.state.ConsistentRegionContext;
+import com.ibm.streams.operator.state.StateHandler;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+
+/**
+ * Asynchronous map, the function returns a {@code CompletableFuture}
+ * and its result is submitted when the future completes.
+ * <BR>
+ * At most {@code maxInFlight} futures are outstanding, processing
+ * of an input tuple blocks until a slot is available.
+ * When {@code ordered} is true results are submitted in input order,
+ * using a reorder buffer, otherwise as futures complete.
+ * <BR>
+ * A punctuation mark is only forwarded once all results for
+ * the tuples preceding it have been submitted.
+ * A future that completes exceptionally fails the operator
+ * when the next tuple or punctuation mark is processed.
+ * <BR>
+ * In a consistent region a drain waits for all outstanding futures
+ * so that no results are submitted during a checkpoint. A reset
+ * waits for outstanding futures discarding their results, as their
+ * tuples will be replayed, and restarts the reorder sequence.
+ */
+@PrimitiveOperator(name="MapAsync")
+@InputPortSet(cardinality = 1)
+@OutputPortSet(cardinality = 1)
+@Icons(location16 = "opt/icons/functor_16.gif", location32 = "opt/icons/functor_32.gif")
+public class FunctionAsyncTransform extends FunctionQueueableFunctor implements StateHandler {
+
+    /**
+     * Place holder in the reorder buffer for a null result.
+     */
+    private static final Object NO_RESULT = new Object();
+
+    private int maxInFlight;
+    private boolean ordered;
+
+    private FunctionalHandler<Function<Object, CompletableFuture<Object>>> transformHandler;
+    private SPLMapping<Object> outputMapping;
+    private StreamingOutput<OutputTuple> output;
+
+    private Semaphore inFlight;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // Results of outstanding futures are discarded during a reset
+    private volatile boolean discard;
+
+    // Ordered processing, guarded by sequence
+    private final Object sequence = new Object();
+    private long nextSequence;
+
+    // Reorder buffer, guarded by reorder
+    private final Map<Long, Object> reorder = new HashMap<>();
+    private long nextSubmit;
+
+    @Override
+    public synchronized void initialize(OperatorContext context)
+            throws Exception {
+        super.initialize(context);
+
+        if (getMaxInFlight() <= 0)
+            throw new IllegalArgumentException("maxInFlight: " + getMaxInFlight());
+
+        transformHandler = createLogicHandler();
+        output = getOutput(0);
+        outputMapping = getOutputMapping(this, 0);
+        inFlight = new Semaphore(getMaxInFlight());
+
+        if (context.getOptionalContext(ConsistentRegionContext.class) != null)
+            context.registerStateHandler(this);
+    }
+
+    @Override
+    public void tuple(Object value) throws Exception {
+        checkFailure();
+
+        inFlight.acquire();
+        if (isOrdered())
+            tupleOrdered(value);
+        else
+            tupleUnordered(value);
+    }
+
+    private void tupleUnordered(Object value) throws Exception {
+        final CompletableFuture<Object> future;
+        try {
+            future = apply(value);
+        } catch (Exception | Error e) {
+            inFlight.release();
+            throw e;
+        }
+        if (future == null)
+            inFlight.release();
+        else
+            future.whenComplete(this::completeUnordered);
+    }
+
+    private void tupleOrdered(Object value) throws Exception {
+        // The sequence number must follow the input order
+        // so the function is called holding the sequence lock.
+        synchronized (sequence) {
+            final long seq = nextSequence++;
+            final CompletableFuture<Object> future;
+            try {
+                future = apply(value);
+            } catch (Exception | Error e) {
+                completeOrdered(seq, null, null);
+                throw e;
+            }
+            if (future == null)
+                completeOrdered(seq, null, null);
+            else
+                future.whenComplete((r, t) -> completeOrdered(seq, r, t));
+        }
+    }
+
+    private CompletableFuture<Object> apply(Object value) throws Exception {
+        final Function<Object, CompletableFuture<Object>> transform = transformHandler.getLogic();
+        if (transformHandler.isThreadSafe())
+            return transform.apply(value);
+        synchronized (transform) {
+            return transform.apply(value);
+        }
+    }
+
+    private void completeUnordered(Object result, Throwable t) {
+        try {
+            if (t == null)
+                submit(result);
+            else
+                failed(t);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Complete the future with the given sequence number,
+     * submitting all results that are now in order.
+     */
+    private void completeOrdered(long seq, Object result, Throwable t) {
+        if (t != null) {
+            failed(t);
+            result = null;
+        }
+        synchronized (reorder) {
+            if (seq != nextSubmit) {
+                reorder.put(seq, result == null ? NO_RESULT : result);
+                return;
+            }
+            for (;;) {
+                try {
+                    if (result != null && result != NO_RESULT)
+                        submit(result);
+                } finally {
+                    nextSubmit++;
+                    inFlight.release();
+                }
+                result = reorder.remove(nextSubmit);
+                if (result == null)
+                    break;
+            }
+        }
+    }
+
+    private void submit(Object result) {
+        if (result == null || discard)
+            return;
+        try {
+            output.submit(outputMapping.convertTo(result));
+        } catch (Exception e) {
+            failed(e);
+        }
+    }
+
+    private void failed(Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null)
+            t = t.getCause();
+        if (discard)
+            return;
+        if (failure.compareAndSet(null, t))
+            trace.log(TraceLevel.ERROR, "Asynchronous map failed: " + t.getMessage(), t);
+    }
+
+    private void checkFailure() throws Exception {
+        Throwable t = failure.get();
+        if (t != null)
+            throw FunctionalOpUtils.throwError(t);
+    }
+
+    /**
+     * Wait for all outstanding futures to complete
+     * and their results to be submitted.
+     */
+    private void awaitInFlight() throws InterruptedException {
+        inFlight.acquire(getMaxInFlight());
+        inFlight.release(getMaxInFlight());
+    }
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+        drain();
+        output.punctuate(mark);
+    }
+
+    @Override
+    public void drain() throws Exception {
+        awaitInFlight();
+        checkFailure();
+    }
+
+    @Override
+    public void reset(Checkpoint checkpoint) throws Exception {
+        discard();
+    }
+
+    @Override
+    public void resetToInitialState() throws Exception {
+        discard();
+    }
+
+    /**
+     * Wait for outstanding futures discarding their results
+     * and any failure, and restart the reorder sequence.
+     */
+    private void discard() throws InterruptedException {
+        discard = true;
+        try {
+            awaitInFlight();
+            synchronized (sequence) {
+                nextSequence = 0;
+            }
+            synchronized (reorder) {
+                reorder.clear();
+                nextSubmit = 0;
+            }
+            failure.set(null);
+        } finally {
+            discard = false;
+        }
+    }
+
+    @Override
+    public void checkpoint(Checkpoint checkpoint) throws Exception {
+    }
+
+    @Override
+    public void retireCheckpoint(long id) throws Exception {
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @Parameter
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    @Parameter(optional = true)
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getOutputMapping;
+
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.logging.TraceLevel;
+import com.ibm.streams.operator.model.Icons;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.Parameter;
+import com.ibm.streams.operator.model.PrimitiveOperator;
+import com.ibm.streams.operator.state.Checkpoint;
+import com.ibm.streams.operator.state.ConsistentRegionContext;
+import com.ibm.streams.operator.state.StateHandler;
+import com.ibm.streamsx.topology.function.Supplier;
+import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+
+/**
+ * Collects input tuples into batches, each batch is
+ * submitted as a single {@code List} tuple.
+ * <BR>
+ * A batch is submitted when it contains {@code maxSize} tuples,
+ * or {@code maxDelay} seconds after its first tuple arrived,
+ * whichever is first. A {@code maxDelay} of zero disables the
+ * time trigger.
+ * <BR>
+ * Any incomplete batch is submitted before a punctuation mark is forwarded,
+ * and when a consistent region is drained. A reset discards the
+ * incomplete batch as its tuples will be replayed.
+ * <BR>
+ * The functional logic supplies the empty list for each batch.
+ */
+@PrimitiveOperator(name="Batch")
+@InputPortSet(cardinality = 1)
+@OutputPortSet(cardinality = 1)
+@Icons(location16 = "opt/icons/functor_16.gif", location32 = "opt/icons/functor_32.gif")
+public class FunctionBatch extends FunctionQueueableFunctor implements StateHandler {
+
+    private int maxSize;
+    private double maxDelay;
+
+    private FunctionalHandler<Supplier<List<Object>>> batchHandler;
+    private SPLMapping<Object> outputMapping;
+    private StreamingOutput<OutputTuple> output;
+    private long delayNanos;
+
+    // Current batch, guarded by this
+    private List<Object> batch;
+    private long batchSequence;
+    private ScheduledFuture<?> timeout;
+
+    @Override
+    public synchronized void initialize(OperatorContext context)
+            throws Exception {
+        super.initialize(context);
+
+        if (getMaxSize() <= 0)
+            throw new IllegalArgumentException("maxSize: " + getMaxSize());
+        if (getMaxDelay() < 0)
+            throw new IllegalArgumentException("maxDelay: " + getMaxDelay());
+
+        batchHandler = createLogicHandler();
+        output = getOutput(0);
+        outputMapping = getOutputMapping(this, 0);
+        delayNanos = (long) (getMaxDelay() * 1_000_000_000L);
+
+        if (context.getOptionalContext(ConsistentRegionContext.class) != null)
+            context.registerStateHandler(this);
+    }
+
+    @Override
+    public void tuple(Object value) throws Exception {
+        synchronized (this) {
+            if (batch == null)
+                newBatch();
+            batch.add(value);
+            if (batch.size() >= getMaxSize())
+                flush();
+        }
+    }
+
+    private void newBatch() {
+        batch = batchHandler.getLogic().get();
+        final long seq = ++batchSequence;
+        if (delayNanos > 0)
+            timeout = getOperatorContext().getScheduledExecutorService().schedule(
+                    () -> timeout(seq), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Submit the batch that was started with sequence {@code seq},
+     * unless it has already been submitted due to its size.
+     */
+    private synchronized void timeout(long seq) {
+        if (seq != batchSequence || batch == null)
+            return;
+        try {
+            flush();
+        } catch (Exception e) {
+            trace.log(TraceLevel.ERROR, "Batch submission failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Submit the current batch, if any. Batches are
+     * submitted holding the lock to maintain the order of tuples.
+     */
+    private synchronized void flush() throws Exception {
+        final List<Object> full = discard();
+        if (full != null && !full.isEmpty())
+            output.submit(outputMapping.convertTo(full));
+    }
+
+    private synchronized List<Object> discard() {
+        final List<Object> current = batch;
+        batch = null;
+        if (timeout != null) {
+            timeout.cancel(false);
+            timeout = null;
+        }
+        return current;
+    }
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+        flush();
+        output.punctuate(mark);
+    }
+
+    @Override
+    public void drain() throws Exception {
+        flush();
+    }
+
+    @Override
+    public void reset(Checkpoint checkpoint) throws Exception {
+        discard();
+    }
+
+    @Override
+    public void resetToInitialState() throws Exception {
+        discard();
+    }
+
+    @Override
+    public void checkpoint(Checkpoint checkpoint) throws Exception {
+    }
+
+    @Override
+    public void retireCheckpoint(long id) throws Exception {
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Parameter
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public double getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Maximum delay in seconds.
+     */
+    @Parameter(optional = true)
+    public void setMaxDelay(double maxDelay) {
+        this.maxDelay = maxDelay;
+    }
+}
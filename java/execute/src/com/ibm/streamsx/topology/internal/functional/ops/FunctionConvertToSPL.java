@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
@@ -48,8 +48,12 @@ public class FunctionConvertToSPL extends FunctionFunctor {
         
         OutputTuple outTuple = output.newTuple();
         
-        synchronized (convert) {
+        if (convertHandler.isThreadSafe()) {
             outTuple = convert.apply(value, outTuple);
+        } else {
+            synchronized (convert) {
+                outTuple = convert.apply(value, outTuple);
+            }
         }
         if (outTuple != null)
             output.submit(outTuple);
@@ -1,10 +1,13 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getInputMapping;
+import static com.ibm.streamsx.topology.internal.functional.ops.FunctionalOpUtils.getProjectedFields;
+
+import java.util.Set;
 
 import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.OutputTuple;
@@ -27,6 +30,7 @@ public class FunctionFilter extends FunctionFunctor {
 
     private FunctionalHandler<Predicate<Object>> filterHandler;
     private SPLMapping<?> mapping;
+    private Set<String> projection;
     private StreamingOutput<OutputTuple> passed;
 
     @Override
@@ -37,17 +41,25 @@ public class FunctionFilter extends FunctionFunctor {
         
         passed = getOutput(0);
         mapping = getInputMapping(this, 0);
+        projection = getProjectedFields(filterHandler.getLogic());
     }
 
     @Override
     public void process(StreamingInput<Tuple> stream, Tuple tuple)
             throws Exception {
-        Object value = mapping.convertFrom(tuple);
+        // The input tuple is submitted as-is, so a tuple from another
+        // PE is forwarded without being serialized again, and only the
+        // fields the function reads need to be deserialized.
+        Object value = mapping.convertFrom(tuple, projection);
 
         final Predicate<Object> filter = filterHandler.getLogic();
         boolean submitTuple;
-        synchronized (filter) {
+        if (filterHandler.isThreadSafe()) {
             submitTuple = filter.test(value);
+        } else {
+            synchronized (filter) {
+                submitTuple = filter.test(value);
+            }
         }
         if (submitTuple)
             passed.submit(tuple);
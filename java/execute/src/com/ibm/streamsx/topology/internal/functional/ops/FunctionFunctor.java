@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
@@ -47,6 +47,8 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
     private String[] jar;
     private String[] submissionParamNames;
     private String[] submissionParamValues;
+    private String objectSerializer;
+    private String outputHasher;
     
     private FunctionOperatorContext functionContext;
     
@@ -92,6 +94,33 @@ public abstract class FunctionFunctor extends AbstractOperator implements Functi
         this.submissionParamValues = SubmissionParamValues;
     }
 
+    public final String getObjectSerializer() {
+        return objectSerializer;
+    }
+
+    /**
+     * Serializer for Java object tuples on all ports,
+     * overridden by any port specific serializer.
+     */
+    @Parameter(optional = true)
+    public final void setObjectSerializer(String objectSerializer) {
+        this.objectSerializer = objectSerializer;
+    }
+
+    public final String getOutputHasher() {
+        return outputHasher;
+    }
+
+    /**
+     * Hash function for a keyed parallel region fed by
+     * output port 0, set by the SPL generator when the
+     * operator sets the hash attribute in place of a {@code HashAdder}.
+     */
+    @Parameter(optional = true)
+    public final void setOutputHasher(String outputHasher) {
+        this.outputHasher = outputHasher;
+    }
+
     @Override
     public synchronized void initialize(OperatorContext context)
             throws Exception {
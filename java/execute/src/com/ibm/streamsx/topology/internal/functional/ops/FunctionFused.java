@@ -0,0 +1,186 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getOutputMapping;
+
+import java.io.IOException;
+
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.model.Icons;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.Parameter;
+import com.ibm.streams.operator.model.PrimitiveOperator;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.Predicate;
+import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+
+/**
+ * A chain of {@code Filter}, {@code Map} and {@code FlatMap}
+ * functions fused into a single operator by the SPL generator.
+ * <BR>
+ * Each stage's function is called directly with the value returned
+ * by the previous stage, only the input to the first stage and
+ * the output of the last stage are converted to and from tuples.
+ * <BR>
+ * Parameter {@code functionalLogic} is the first stage's function,
+ * {@code fusedLogic} the functions of the remaining stages and
+ * {@code fusedKinds} the operator kind of every stage.
+ */
+@PrimitiveOperator(name="Fused")
+@InputPortSet(cardinality = 1)
+@OutputPortSet(cardinality = 1)
+@Icons(location16 = "opt/icons/functor_16.gif", location32 = "opt/icons/functor_32.gif")
+public class FunctionFused extends FunctionQueueableFunctor {
+
+    private static final int FILTER = 0;
+    private static final int MAP = 1;
+    private static final int FLAT_MAP = 2;
+
+    private String[] fusedKinds;
+    private String[] fusedLogic;
+
+    private int[] kinds;
+    private FunctionalHandler<?>[] handlers;
+
+    private SPLMapping<Object> outputMapping;
+    private StreamingOutput<OutputTuple> output;
+    private BatchSubmitter submitter;
+
+    @Override
+    public synchronized void initialize(OperatorContext context)
+            throws Exception {
+        super.initialize(context);
+
+        final String[] fk = getFusedKinds();
+        final String[] fl = getFusedLogic() == null ? new String[0] : getFusedLogic();
+        if (fk.length != fl.length + 1)
+            throw new IllegalStateException("fusedKinds:" + fk.length + " fusedLogic:" + fl.length);
+
+        kinds = new int[fk.length];
+        handlers = new FunctionalHandler<?>[fk.length];
+        for (int i = 0; i < fk.length; i++) {
+            switch (fk[i]) {
+            case "Filter": kinds[i] = FILTER; break;
+            case "Map": kinds[i] = MAP; break;
+            case "FlatMap": kinds[i] = FLAT_MAP; break;
+            default:
+                throw new IllegalStateException(fk[i]);
+            }
+            handlers[i] = i == 0 ? createLogicHandler()
+                    : FunctionalOpUtils.createFunctionHandler(context, getFunctionContext(), fl[i - 1]);
+        }
+
+        output = getOutput(0);
+        outputMapping = getOutputMapping(this, 0);
+        submitter = new BatchSubmitter(output, outputMapping);
+    }
+
+    @Override
+    public void tuple(Object value) throws Exception {
+        stage(0, value);
+    }
+
+    /**
+     * Pass a value through the stages starting at {@code first},
+     * submitting any value that passes all of them.
+     */
+    @SuppressWarnings("unchecked")
+    private void stage(final int first, Object value) throws Exception {
+        final int last = kinds.length - 1;
+        for (int i = first; i <= last; i++) {
+            final Object logic = handlers[i].getLogic();
+            switch (kinds[i]) {
+            case FILTER:
+                final Predicate<Object> filter = (Predicate<Object>) logic;
+                final boolean passed;
+                if (handlers[i].isThreadSafe()) {
+                    passed = filter.test(value);
+                } else {
+                    synchronized (filter) {
+                        passed = filter.test(value);
+                    }
+                }
+                if (!passed)
+                    return;
+                break;
+            case MAP:
+                final Function<Object, Object> transform = (Function<Object, Object>) logic;
+                if (handlers[i].isThreadSafe()) {
+                    value = transform.apply(value);
+                } else {
+                    synchronized (transform) {
+                        value = transform.apply(value);
+                    }
+                }
+                if (value == null)
+                    return;
+                break;
+            case FLAT_MAP:
+                final Function<Object, Iterable<Object>> multi = (Function<Object, Iterable<Object>>) logic;
+                final Iterable<Object> values;
+                if (handlers[i].isThreadSafe()) {
+                    values = multi.apply(value);
+                } else {
+                    synchronized (multi) {
+                        values = multi.apply(value);
+                    }
+                }
+                if (i == last) {
+                    submitter.submit(values);
+                } else if (values != null) {
+                    for (Object v : values) {
+                        if (v != null)
+                            stage(i + 1, v);
+                    }
+                }
+                return;
+            }
+        }
+        output.submit(outputMapping.convertTo(value));
+    }
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+        output.punctuate(mark);
+    }
+
+    /**
+     * Close the logic of all stages after the first,
+     * the first stage's logic is closed by {@code FunctionFunctor}.
+     */
+    @Override
+    public void close() throws IOException {
+        if (handlers == null)
+            return;
+        for (int i = 1; i < handlers.length; i++) {
+            if (handlers[i] != null)
+                handlers[i].close();
+        }
+    }
+
+    public String[] getFusedKinds() {
+        return fusedKinds;
+    }
+
+    @Parameter
+    public void setFusedKinds(String[] fusedKinds) {
+        this.fusedKinds = fusedKinds;
+    }
+
+    public String[] getFusedLogic() {
+        return fusedLogic;
+    }
+
+    @Parameter(optional = true)
+    public void setFusedLogic(String[] fusedLogic) {
+        this.fusedLogic = fusedLogic;
+    }
+}
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
@@ -16,6 +16,7 @@ import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.window.IndexedSlidingJoin;
 import com.ibm.streamsx.topology.internal.functional.window.PartitionedSlidingJoin;
 import com.ibm.streamsx.topology.internal.functional.window.SlidingJoin;
 
@@ -29,11 +30,18 @@ public class FunctionJoin extends FunctionWindow {
     private SlidingJoin<Object, Object, Object> joiner;
     
     private String joinKeyGetter;
+    private String joinMatchKeyGetter;
+    private String windowMatchKeyGetter;
 
     @Override
     void createWindowListener(StreamWindow<Tuple> window)
             throws Exception {
-        if (window.isPartitioned()) {
+        if (getWindowMatchKeyGetter() != null) {
+            Function<Object,Object> matchKeyGetter = getLogicObject(getJoinMatchKeyGetter());
+            Function<Object,Object> windowMatchKeyGetter = getLogicObject(getWindowMatchKeyGetter());
+            joiner = new IndexedSlidingJoin<Object, Object, Object>(
+                    this, window, matchKeyGetter, windowMatchKeyGetter);
+        } else if (window.isPartitioned()) {
             Function<Object,Object> joinKeyGetter = getLogicObject(getJoinKeyGetter());
             joiner = new PartitionedSlidingJoin<Object, Object, Object>(
                     this, window, joinKeyGetter);
@@ -62,4 +70,28 @@ public class FunctionJoin extends FunctionWindow {
     public void setJoinKeyGetter(String joinKeyGetter) {
         this.joinKeyGetter = joinKeyGetter;
     }
+
+    public String getJoinMatchKeyGetter() {
+        return joinMatchKeyGetter;
+    }
+
+    /**
+     * Match key getter for port 1 tuples of an indexed join.
+     */
+    @Parameter(optional=true)
+    public void setJoinMatchKeyGetter(String joinMatchKeyGetter) {
+        this.joinMatchKeyGetter = joinMatchKeyGetter;
+    }
+
+    public String getWindowMatchKeyGetter() {
+        return windowMatchKeyGetter;
+    }
+
+    /**
+     * Match key getter for windowed port 0 tuples of an indexed join.
+     */
+    @Parameter(optional=true)
+    public void setWindowMatchKeyGetter(String windowMatchKeyGetter) {
+        this.windowMatchKeyGetter = windowMatchKeyGetter;
+    }
 }
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
@@ -16,7 +16,6 @@ import com.ibm.streams.operator.model.OutputPortSet;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streamsx.topology.function.Function;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
-import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
 @PrimitiveOperator(name="FlatMap")
 @InputPortSet(cardinality = 1)
@@ -25,8 +24,8 @@ import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 public class FunctionMultiTransform extends FunctionQueueableFunctor {
 
     private FunctionalHandler<Function<Object, Iterable<Object>>> transformHandler;
-    private SPLMapping<Object> outputMapping;
     private StreamingOutput<OutputTuple> output;
+    private BatchSubmitter submitter;
 
     @Override
     public synchronized void initialize(OperatorContext context)
@@ -35,7 +34,7 @@ public class FunctionMultiTransform extends FunctionQueueableFunctor {
 
         transformHandler = createLogicHandler();
         output = getOutput(0);
-        outputMapping = getOutputMapping(this, 0);
+        submitter = new BatchSubmitter(output, getOutputMapping(this, 0));
     }
 
     @Override
@@ -44,15 +43,14 @@ public class FunctionMultiTransform extends FunctionQueueableFunctor {
         
         final Function<Object, Iterable<Object>> transform = transformHandler.getLogic();
         Iterable<Object> modValues;
-        synchronized (transform) {
+        if (transformHandler.isThreadSafe()) {
             modValues = transform.apply(tuple);
-        }
-        if (modValues != null) {
-            for (Object modValue : modValues) {
-                if (modValue != null)
-                    output.submit(outputMapping.convertTo(modValue));
+        } else {
+            synchronized (transform) {
+                modValues = transform.apply(tuple);
             }
         }
+        submitter.submit(modValues);
     }
     
     @Override
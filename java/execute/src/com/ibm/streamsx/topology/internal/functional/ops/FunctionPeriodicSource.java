@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
@@ -20,7 +20,6 @@ import com.ibm.streamsx.topology.function.FunctionContext;
 import com.ibm.streamsx.topology.function.Supplier;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHelper;
-import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
 @PrimitiveOperator
 @OutputPortSet(cardinality = 1)
@@ -33,12 +32,13 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
     }
 
     private FunctionalHandler<Supplier<Iterable<Object>>> dataHandler;
-    private SPLMapping<Object> mapping;
+    private BatchSubmitter submitter;
 
     private String functionalLogic;
     private String[] jar;
     private String[] submissionParamNames;
     private String[] submissionParamValues;
+    private String objectSerializer;
     private StreamingOutput<OutputTuple> output;
     
     private FunctionContext functionContext;
@@ -53,7 +53,7 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
         functionContext = new FunctionOperatorContext(context);
         
         output = getOutput(0);
-        mapping = getOutputMapping(this, 0);
+        submitter = new BatchSubmitter(output, getOutputMapping(this, 0));
         
         dataHandler = FunctionalOpUtils.createFunctionHandler(
                 getOperatorContext(), getFunctionContext(), getFunctionalLogic());
@@ -98,17 +98,24 @@ public class FunctionPeriodicSource extends PollingTupleProducer implements Func
     public final void setSubmissionParamValues(String[] SubmissionParamValues) {
         this.submissionParamValues = SubmissionParamValues;
     }
+
+    public final String getObjectSerializer() {
+        return objectSerializer;
+    }
+
+    /**
+     * Serializer for Java object tuples on all ports,
+     * overridden by any port specific serializer.
+     */
+    @Parameter(optional = true)
+    public final void setObjectSerializer(String objectSerializer) {
+        this.objectSerializer = objectSerializer;
+    }
     
     @Override
     protected void fetchTuples() throws Exception {
 
-        for (Object tuple : dataHandler.getLogic().get()) {
-            if (Thread.interrupted())
-                return;
-            if (tuple == null)
-                continue;
-            output.submit(mapping.convertTo(tuple));
-        }
+        submitter.submit(dataHandler.getLogic().get(), true);
     }
     
     @Override
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016  
+# Copyright IBM Corp. 2016, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
@@ -17,14 +17,20 @@ import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 /**
  * Queuing functional operator with a queue on port 0 if:
  * 
- * Parameter queueSize >= 0
+ * Parameter queueSize > 0
  * AND
  * The input port is not connected to a PE port. In this case
  * there is already a thread for the processing.
+ * 
+ * When queued the function is executed by a reader thread
+ * that processes up to queueBatchSize tuples at a time.
  */
 abstract class FunctionQueueableFunctor extends FunctionFunctor implements StreamHandler<Object> {
     
+    private static final int DEFAULT_QUEUE_BATCH_SIZE = 64;
+
     private int queueSize;
+    private int queueBatchSize;
     
     private SPLMapping<?> inputMapping;
     private StreamHandler<Object> handler;
@@ -37,7 +43,8 @@ abstract class FunctionQueueableFunctor extends FunctionFunctor implements Strea
         if (getQueueSize() <=0 || getInput(0).isConnectedToPEPort())
             handler = this; // not queued
         else
-            handler = new FunctionalQueue<Object>(context, getQueueSize(), this);
+            handler = new FunctionalQueue<Object>(context, getQueueSize(),
+                    getQueueBatchSize() <= 0 ? DEFAULT_QUEUE_BATCH_SIZE : getQueueBatchSize(), this);
     }
     
     @Override
@@ -62,4 +69,13 @@ abstract class FunctionQueueableFunctor extends FunctionFunctor implements Strea
     public void setQueueSize(int queueSize) {
         this.queueSize = queueSize;
     }
+
+    public int getQueueBatchSize() {
+        return queueBatchSize;
+    }
+
+    @Parameter(optional=true)
+    public void setQueueBatchSize(int queueBatchSize) {
+        this.queueBatchSize = queueBatchSize;
+    }
 }
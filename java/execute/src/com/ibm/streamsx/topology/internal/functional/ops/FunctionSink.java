@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
@@ -44,8 +44,12 @@ public abstract class FunctionSink extends FunctionFunctor {
             throws Exception {
         Object value = mapping.convertFrom(tuple);
         final Consumer<Object> sinker = sinkerHandler.getLogic();
-        synchronized (sinker) {
+        if (sinkerHandler.isThreadSafe()) {
             sinker.accept(value);
+        } else {
+            synchronized (sinker) {
+                sinker.accept(value);
+            }
         }
     }
 }
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
@@ -21,7 +21,6 @@ import com.ibm.streamsx.topology.function.FunctionContext;
 import com.ibm.streamsx.topology.function.Supplier;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHelper;
-import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 import com.ibm.streamsx.topology.spi.operators.FunctionalOperator;
 
 public abstract class FunctionSource extends ProcessTupleProducer implements Functional, Closeable, FunctionalOperator {
@@ -32,13 +31,14 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
     }
 
     private FunctionalHandler<Supplier<Iterable<Object>>> dataHandler;
-    private SPLMapping<Object> mapping;
+    private BatchSubmitter submitter;
 
     private String functionalLogic;
     private String outputSerializer;
     private String[] jar;
     private String[] submissionParamNames;
     private String[] submissionParamValues;
+    private String objectSerializer;
     private StreamingOutput<OutputTuple> output;
      
     private FunctionOperatorContext functionContext;
@@ -56,7 +56,7 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
             
             output = getOutput(0);
                 
-            mapping = getOutputMapping(this, 0, outputSerializer);
+            submitter = new BatchSubmitter(output, getOutputMapping(this, 0, outputSerializer));
             
             dataHandler = FunctionalOpUtils.createFunctionHandler(
                     getOperatorContext(), getFunctionContext(), getFunctionalLogic());
@@ -111,6 +111,19 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
     public final void setSubmissionParamValues(String[] SubmissionParamValues) {
         this.submissionParamValues = SubmissionParamValues;
     }
+
+    public final String getObjectSerializer() {
+        return objectSerializer;
+    }
+
+    /**
+     * Serializer for Java object tuples on all ports,
+     * overridden by any port specific serializer.
+     */
+    @Parameter(optional = true)
+    public final void setObjectSerializer(String objectSerializer) {
+        this.objectSerializer = objectSerializer;
+    }
     
     @Parameter(optional=true)
     public final void setOutputSerializer(String outputSerializer) {
@@ -122,13 +135,8 @@ public abstract class FunctionSource extends ProcessTupleProducer implements Fun
 
         try {
             Supplier<Iterable<Object>> data = getLogic();
-            for (Object tuple : data.get()) {
-                if (Thread.interrupted())
-                    return;
-                if (tuple == null)
-                    continue;
-                output.submit(mapping.convertTo(tuple));
-            }
+            if (!submitter.submit(data.get(), true))
+                return;
         } catch (Exception e) {
             throw throwError(exception(e));
         } finally {
@@ -1,12 +1,14 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getInputMapping;
+import static com.ibm.streamsx.topology.internal.functional.ops.FunctionalOpUtils.getProjectedFields;
 
 import java.util.List;
+import java.util.Set;
 
 import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.OutputTuple;
@@ -29,6 +31,7 @@ public class FunctionSplit extends FunctionFunctor {
 
     private FunctionalHandler<ToIntFunction<Object>> splitterHandler;
     private SPLMapping<?> mapping;
+    private Set<String> projection;
     private int n;
     private List<StreamingOutput<OutputTuple>> oports;
 
@@ -43,18 +46,24 @@ public class FunctionSplit extends FunctionFunctor {
         n = oports.size();
         
         mapping = getInputMapping(this, 0);
+        projection = getProjectedFields(splitterHandler.getLogic());
     }
 
     @Override
     public void process(StreamingInput<Tuple> stream, Tuple tuple)
             throws Exception {
-        Object value = mapping.convertFrom(tuple);
+        // Only the splitter's projected fields are deserialized,
+        // the input tuple is forwarded unchanged.
+        Object value = mapping.convertFrom(tuple, projection);
 
-        
         final ToIntFunction<Object> splitter = splitterHandler.getLogic();
         int r;
-        synchronized (splitter) {
+        if (splitterHandler.isThreadSafe()) {
             r = splitter.applyAsInt(value);
+        } else {
+            synchronized (splitter) {
+                r = splitter.applyAsInt(value);
+            }
         }
         if (r >= 0)
             oports.get(r % n).submit(tuple);
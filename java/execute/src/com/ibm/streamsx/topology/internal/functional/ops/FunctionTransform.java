@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
@@ -42,8 +42,12 @@ public class FunctionTransform extends FunctionQueueableFunctor {
 
         Object modValue;
         Function<Object, Object> transform = transformHandler.getLogic();
-        synchronized (transform) {
+        if (transformHandler.isThreadSafe()) {
             modValue = transform.apply(value);
+        } else {
+            synchronized (transform) {
+                modValue = transform.apply(value);
+            }
         }
         if (modValue != null) {
             output.submit(outputMapping.convertTo(modValue));
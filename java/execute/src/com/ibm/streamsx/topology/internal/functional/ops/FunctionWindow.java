@@ -1,11 +1,17 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getInputMapping;
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getLogicObject;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getTupleSerializer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.Tuple;
@@ -21,6 +27,7 @@ import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.window.StreamWindow;
 import com.ibm.streamsx.topology.function.Function;
 import com.ibm.streamsx.topology.internal.functional.window.KeyPartitioner;
+import com.ibm.streamsx.topology.internal.functional.window.SpillStore;
 import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
 @InputPorts(@InputPortSet(cardinality = 1, windowingMode = WindowMode.Windowed))
@@ -28,8 +35,13 @@ import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 public abstract class FunctionWindow extends FunctionFunctor {
         
     private String keyGetter;
+    private int spillTuples;
+
+    private SpillStore spillStore;
+    private SPLMapping<Object> inputMapping;
 
     private Metric nPartitions;
+    private Metric nPartitionsEvicted;
 
     @Override
     public void initialize(OperatorContext context) throws Exception {
@@ -37,18 +49,55 @@ public abstract class FunctionWindow extends FunctionFunctor {
 
         StreamWindow<Tuple> window = getInput(0).getStreamWindow();
 
-        createWindowListener(window);
+        if (getSpillTuples() > 0)
+            spillStore = new SpillStore(spillDirectory(context), getTupleSerializer(this));
 
+        inputMapping = getInputMapping(this, 0);
+        KeyPartitioner partitioner = null;
         if (window.isPartitioned()) {
             if (getKeyGetter() == null)
                 throw new IllegalStateException("Missing keyGetter function");
             
-            SPLMapping<Object> input0Mapping = getInputMapping(
-                    this, 0);
             Function<Object,Object> functionKeyGetter = getLogicObject(getKeyGetter());
-            window.registerPartitioner(new KeyPartitioner(input0Mapping,
-                    functionKeyGetter));
+            partitioner = new KeyPartitioner(getInput(0).getStreamSchema(),
+                    inputMapping, functionKeyGetter);
+            inputMapping = partitioner;
+        }
+
+        createWindowListener(window);
+
+        if (partitioner != null)
+            window.registerPartitioner(partitioner);
+    }
+
+    /**
+     * Create the directory for spilled tuples in the
+     * PE's data directory, or the system temporary directory
+     * if the application has no data directory.
+     */
+    private static Path spillDirectory(OperatorContext context) throws IOException {
+        File dataDirectory;
+        try {
+            dataDirectory = context.getPE().getDataDirectory();
+        } catch (IllegalStateException e) {
+            dataDirectory = null;
+        }
+        if (dataDirectory == null) {
+            trace.info("No data directory, spilling window tuples to temporary directory: "
+                    + System.getProperty("java.io.tmpdir"));
+            return Files.createTempDirectory("window");
         }
+        return Files.createTempDirectory(dataDirectory.toPath(), "window");
+    }
+
+    /**
+     * Mapping for tuples inserted into the window. For a partitioned
+     * window this is the partitioner, so that a tuple is converted
+     * once for its key and insertion.
+     */
+    @SuppressWarnings("unchecked")
+    public <I> SPLMapping<I> getWindowInputMapping() {
+        return (SPLMapping<I>) inputMapping;
     }
 
     public Metric getnPartitions() {
@@ -60,9 +109,36 @@ public abstract class FunctionWindow extends FunctionFunctor {
         this.nPartitions = nPartitions;
     }
 
+    public Metric getnPartitionsEvicted() {
+        return nPartitionsEvicted;
+    }
+
+    /**
+     * Number of partitions evicted by the window's
+     * partition eviction policy.
+     */
+    @CustomMetric(kind = Kind.COUNTER)
+    public void setnPartitionsEvicted(Metric nPartitionsEvicted) {
+        this.nPartitionsEvicted = nPartitionsEvicted;
+    }
+
+    /**
+     * Track a partition evicted by the window.
+     */
+    public void partitionEvicted() {
+        nPartitions.incrementValue(-1);
+        nPartitionsEvicted.increment();
+    }
+
     abstract void createWindowListener(StreamWindow<Tuple> window)
             throws Exception;
 
+    @Override
+    public void close() throws IOException {
+        if (spillStore != null)
+            spillStore.close();
+    }
+
     public String getKeyGetter() {
         return keyGetter;
     }
@@ -74,4 +150,26 @@ public abstract class FunctionWindow extends FunctionFunctor {
     public void setKeyGetter(String keyGetter) {
         this.keyGetter = keyGetter;
     }
+
+    public int getSpillTuples() {
+        return spillTuples;
+    }
+
+    /**
+     * Maximum number of tuples held on the heap for
+     * each window partition, older tuples are spilled to disk.
+     * Zero (the default) disables spilling.
+     */
+    @Parameter(optional=true)
+    public void setSpillTuples(int spillTuples) {
+        this.spillTuples = spillTuples;
+    }
+
+    /**
+     * Storage for tuples spilled from window partitions,
+     * null if spilling is disabled.
+     */
+    public SpillStore getSpillStore() {
+        return spillStore;
+    }
 }
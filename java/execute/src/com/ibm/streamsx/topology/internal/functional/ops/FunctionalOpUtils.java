@@ -1,12 +1,14 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016  
+# Copyright IBM Corp. 2016, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getLogicObject;
 import static com.ibm.streamsx.topology.internal.functional.ops.FunctionFunctor.trace;
 
+import java.util.HashSet;
+import java.util.Set;
 import java.util.logging.Level;
 
 import com.ibm.streams.operator.OperatorContext;
@@ -14,7 +16,9 @@ import com.ibm.streams.operator.compile.OperatorContextChecker;
 import com.ibm.streams.operator.state.CheckpointContext;
 import com.ibm.streams.operator.state.CheckpointContext.Kind;
 import com.ibm.streams.operator.state.ConsistentRegionContext;
+import com.ibm.streamsx.topology.function.Checkpointable;
 import com.ibm.streamsx.topology.function.FunctionContext;
+import com.ibm.streamsx.topology.function.Projection;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 import com.ibm.streamsx.topology.internal.functional.StatelessFunctionalHandler;
 import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
@@ -56,7 +60,8 @@ class FunctionalOpUtils {
                 FunctionalHandler.closeLogic(initialLogic); 
                                 
                 StatefulFunctionalHandler<T> handler =
-                        new StatefulFunctionalHandler<T>(functionContext, functionalLogic);
+                        new StatefulFunctionalHandler<T>(functionContext, functionalLogic,
+                                initialLogic instanceof Checkpointable);
                 
                 context.registerStateHandler(handler);
                 
@@ -89,6 +94,17 @@ class FunctionalOpUtils {
             checker.setInvalidContext(Messages.getString("CONSISTENT_CHECK_1"), new String[] {context.getKind()});
     }
     
+    /**
+     * Get the fields of the input tuple read by a function,
+     * null if the function reads the complete tuple.
+     */
+    static Set<String> getProjectedFields(Object logic) {
+        if (!(logic instanceof Projection))
+            return null;
+        Set<String> fields = ((Projection) logic).getProjectedFields();
+        return fields == null ? null : new HashSet<>(fields);
+    }
+    
     static TupleSerializer createTupleSerializer(String tupleSerializer) throws ClassNotFoundException {
         return (TupleSerializer) ObjectUtils.deserializeLogic(tupleSerializer);
     }
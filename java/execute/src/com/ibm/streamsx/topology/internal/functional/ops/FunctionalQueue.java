@@ -1,80 +1,184 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016  
+# Copyright IBM Corp. 2016, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import com.ibm.streams.flow.handlers.StreamHandler;
 import com.ibm.streams.operator.OperatorContext;
 import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streams.operator.metrics.OperatorMetrics;
 
+/**
+ * Queue between the thread submitting tuples to a functional
+ * operator and a reader thread that executes the function.
+ *
+ * Tuples are passed through a single-producer, single-consumer
+ * ring buffer, submitting threads are serialized so that they
+ * act as the single producer. The reader drains the buffer in batches
+ * and when idle spins, yields and then parks until a tuple is added.
+ *
+ * Metrics:
+ * <UL>
+ * <LI>{@code queueDepth} - Number of tuples in the queue after the last batch.</LI>
+ * <LI>{@code queueBatchSize} - Number of tuples in the last batch processed by the reader.</LI>
+ * <LI>{@code queueStallTime} - Total time in milliseconds producers waited for space in a full queue.</LI>
+ * </UL>
+ */
 class FunctionalQueue<T> implements StreamHandler<T>, Runnable {
 
-    private BlockingQueue<T> queue;
-    
+    private static final int SPINS = 100;
+    private static final int YIELDS = 100;
+    // Maximum time a producer parks waiting for space in a full queue.
+    private static final long MAX_PARK = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final RingBuffer<T> queue;
+    private final int batchSize;
+
     private final StreamHandler<T> handler;
     private final Thread reader;
-        
-    FunctionalQueue(OperatorContext context, int size, StreamHandler<T> handler) {
-        this.queue = new ArrayBlockingQueue<>(size);
+
+    /**
+     * Sequence of the tuples completely processed by the reader.
+     */
+    private final AtomicLong processed = new AtomicLong();
+    private volatile boolean readerParked;
+
+    private final Metric queueDepth;
+    private final Metric queueBatchSize;
+    private final Metric queueStallTime;
+
+    // Only modified by the producer.
+    private long stallNanos;
+
+    FunctionalQueue(OperatorContext context, int size, int batchSize, StreamHandler<T> handler) {
+        this.queue = new RingBuffer<>(size);
+        this.batchSize = batchSize;
         this.handler = handler;
 
+        OperatorMetrics metrics = context.getMetrics();
+        queueDepth = metrics.createCustomMetric("queueDepth",
+                "Number of tuples in the queue.", Metric.Kind.GAUGE);
+        queueBatchSize = metrics.createCustomMetric("queueBatchSize",
+                "Number of tuples in the last batch processed from the queue.", Metric.Kind.GAUGE);
+        queueStallTime = metrics.createCustomMetric("queueStallTime",
+                "Time in milliseconds submitters waited for space in the queue.", Metric.Kind.TIME);
+
         reader = context.getThreadFactory().newThread(this);
         reader.setDaemon(false);
         start();
     }
-    
+
     @Override
     public void run() {
+        int idle = 0;
         while (!Thread.interrupted()) {
+            int n = 0;
             try {
-                T tuple = queue.take();
-                handler.tuple(tuple);
-
-            } catch (InterruptedException e) {
-                return;
+                T tuple;
+                while (n < batchSize && (tuple = queue.poll()) != null) {
+                    handler.tuple(tuple);
+                    n++;
+                }
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
+
+            if (n != 0) {
+                processed.set(queue.headSequence());
+                queueBatchSize.setValue(n);
+                queueDepth.setValue(queue.size());
+                idle = 0;
+            } else {
+                idle = idle(idle);
+            }
         }
     }
-    
-    
-    
+
+    /**
+     * Adaptive wait for the reader when the queue is empty,
+     * spin, then yield and then park.
+     * <BR>
+     * The reader sets {@code readerParked} before checking the queue
+     * is empty, and a producer adds to the queue before checking
+     * {@code readerParked}. Both are volatile, so either the reader
+     * sees the tuple or the producer sees the parked reader and unparks it.
+     */
+    private int idle(int idle) {
+        if (idle >= SPINS + YIELDS) {
+            readerParked = true;
+            if (queue.isEmpty())
+                LockSupport.park(this);
+            readerParked = false;
+            return idle;
+        }
+        if (idle >= SPINS)
+            Thread.yield();
+        return idle + 1;
+    }
+
+    /**
+     * Wait for the reader to make progress.
+     */
+    private void backoff(int attempt) throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        if (readerParked)
+            LockSupport.unpark(reader);
+        if (attempt < YIELDS)
+            Thread.yield();
+        else
+            LockSupport.parkNanos(MAX_PARK);
+    }
+
     @Override
     public synchronized void tuple(T tuple) throws Exception {
-        queue.put(tuple);
+        if (!queue.offer(tuple)) {
+            final long start = System.nanoTime();
+            int attempt = 0;
+            do {
+                backoff(attempt++);
+            } while (!queue.offer(tuple));
+            stallNanos += System.nanoTime() - start;
+            queueStallTime.setValue(TimeUnit.NANOSECONDS.toMillis(stallNanos));
+        }
+        if (readerParked)
+            LockSupport.unpark(reader);
     }
-       
+
     /**
      * Ensure all tuples seen before the mark
      * are processed before the mark.
      */
     @Override
-    public void mark(Punctuation mark) throws Exception {
-        if (!queue.isEmpty()) {
-            List<T> drained = new ArrayList<T>(queue.size());
-            queue.drainTo(drained);
-            if (!drained.isEmpty()) {
-                for (T tuple : drained)
+    public synchronized void mark(Punctuation mark) throws Exception {
+        final long marked = queue.tailSequence();
+        int attempt = 0;
+        while (processed.get() < marked) {
+            if (!reader.isAlive()) {
+                // No reader so process any remaining tuples directly.
+                T tuple;
+                while ((tuple = queue.poll()) != null)
                     handler.tuple(tuple);
+                break;
             }
+            backoff(attempt++);
         }
-        
+
         handler.mark(mark);
     }
-    
+
     void start() {
         reader.start();
     }
-    
+
     void stop() {
         reader.interrupt();
     }
-    
+
 }
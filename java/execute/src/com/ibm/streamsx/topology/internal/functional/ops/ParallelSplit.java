@@ -0,0 +1,105 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ibm.streams.operator.AbstractOperator;
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingInput;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.InputPorts;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.OutputPorts;
+import com.ibm.streams.operator.model.Parameter;
+
+/**
+ * Routes tuples to the channels of a parallel region,
+ * each output port is a channel.
+ * <BR>
+ * Used by the embedded runtime in place of the parallel
+ * region marker when the region is replicated. Routing is one of:
+ * <UL>
+ * <LI>{@code ROUND_ROBIN} - Each tuple is submitted to the next channel.</LI>
+ * <LI>{@code HASH_PARTITIONED} or {@code KEY_PARTITIONED} - The channel is
+ * selected by the {@code __spl_hash} attribute added by {@link HashAdder}.</LI>
+ * <LI>{@code BROADCAST} - Each tuple is submitted to all channels.</LI>
+ * </UL>
+ * Not an SPL operator.
+ */
+@InputPorts(@InputPortSet(cardinality = 1))
+@OutputPorts(@OutputPortSet(cardinality = -1))
+public class ParallelSplit extends AbstractOperator {
+
+    private static final String HASH_ATTRIBUTE = "__spl_hash";
+
+    private String routing;
+
+    private List<StreamingOutput<OutputTuple>> channels;
+    private int width;
+    private int hashIndex = -1;
+    private boolean broadcast;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public synchronized void initialize(OperatorContext context) throws Exception {
+        super.initialize(context);
+        channels = getOutputs();
+        width = channels.size();
+
+        switch (getRouting()) {
+        case "BROADCAST":
+            broadcast = true;
+            break;
+        case "HASH_PARTITIONED":
+        case "KEY_PARTITIONED":
+            hashIndex = getInput(0).getStreamSchema().getAttributeIndex(HASH_ATTRIBUTE);
+            if (hashIndex == -1)
+                throw new IllegalStateException(HASH_ATTRIBUTE);
+            break;
+        default:
+            break;
+        }
+    }
+
+    @Override
+    public void process(StreamingInput<Tuple> stream, Tuple tuple)
+            throws Exception {
+        if (broadcast) {
+            for (StreamingOutput<OutputTuple> channel : channels)
+                channel.submit(tuple);
+            return;
+        }
+
+        final int channel;
+        if (hashIndex != -1)
+            channel = Math.floorMod(tuple.getInt(hashIndex), width);
+        else
+            channel = Math.floorMod(next.getAndIncrement(), width);
+        channels.get(channel).submit(tuple);
+    }
+
+    @Override
+    public void processPunctuation(StreamingInput<Tuple> stream, Punctuation mark)
+            throws Exception {
+        for (StreamingOutput<OutputTuple> channel : channels)
+            channel.punctuate(mark);
+    }
+
+    public String getRouting() {
+        return routing;
+    }
+
+    @Parameter
+    public void setRouting(String routing) {
+        this.routing = routing;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.AbstractOperator;
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.StreamingInput;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.model.InputPortSet;
+import com.ibm.streams.operator.model.InputPorts;
+import com.ibm.streams.operator.model.OutputPortSet;
+import com.ibm.streams.operator.model.OutputPorts;
+import com.ibm.streams.operator.model.Parameter;
+
+/**
+ * Pass through where tuples are submitted by a reader thread
+ * through a bounded {@link FunctionalQueue}.
+ * <BR>
+ * Used by the embedded runtime at the start of an isolated
+ * region or a parallel channel so that the region executes
+ * on its own thread, decoupled from the submitting thread.
+ * Not an SPL operator.
+ */
+@InputPorts(@InputPortSet(cardinality = 1))
+@OutputPorts(@OutputPortSet(cardinality = 1))
+public class QueuedPassThrough extends AbstractOperator implements StreamHandler<Tuple> {
+
+    private static final int DEFAULT_QUEUE_BATCH_SIZE = 64;
+
+    private int queueSize;
+    private int queueBatchSize;
+
+    private StreamingOutput<OutputTuple> output;
+    private FunctionalQueue<Tuple> queue;
+
+    @Override
+    public synchronized void initialize(OperatorContext context) throws Exception {
+        super.initialize(context);
+        output = getOutput(0);
+        queue = new FunctionalQueue<>(context, getQueueSize(),
+                getQueueBatchSize() <= 0 ? DEFAULT_QUEUE_BATCH_SIZE : getQueueBatchSize(), this);
+    }
+
+    @Override
+    public void process(StreamingInput<Tuple> stream, Tuple tuple)
+            throws Exception {
+        queue.tuple(tuple);
+    }
+
+    @Override
+    public void processPunctuation(StreamingInput<Tuple> stream, Punctuation mark)
+            throws Exception {
+        queue.mark(mark);
+    }
+
+    /**
+     * Called by the reader thread.
+     */
+    @Override
+    public void tuple(Tuple tuple) throws Exception {
+        output.submit(tuple);
+    }
+
+    /**
+     * Called once all tuples before the mark have been submitted.
+     */
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+        output.punctuate(mark);
+    }
+
+    @Override
+    public synchronized void shutdown() throws Exception {
+        if (queue != null)
+            queue.stop();
+        super.shutdown();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    @Parameter
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getQueueBatchSize() {
+        return queueBatchSize;
+    }
+
+    @Parameter(optional = true)
+    public void setQueueBatchSize(int queueBatchSize) {
+        this.queueBatchSize = queueBatchSize;
+    }
+}
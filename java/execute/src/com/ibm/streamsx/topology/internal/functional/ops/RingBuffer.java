@@ -0,0 +1,117 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded single-producer, single-consumer ring buffer.
+ *
+ * Only one thread may call {@link #offer(Object)} at any time
+ * and only one thread may call {@link #poll()}, thus
+ * multiple producers must be serialized by the caller.
+ *
+ * The capacity is rounded up to a power of two so that
+ * slot indexes are a simple mask of the sequence number.
+ */
+final class RingBuffer<T> {
+
+    private final Object[] slots;
+    private final int mask;
+
+    /**
+     * Sequence of the next slot to be read,
+     * only modified by the consumer.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Sequence of the next slot to be written,
+     * only modified by the producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    // Cached copies to avoid reading the other
+    // side's volatile sequence on every call.
+    private long headCache;
+    private long tailCache;
+
+    RingBuffer(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException(Integer.toString(capacity));
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity)
+            size <<= 1;
+        slots = new Object[size];
+        mask = size - 1;
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Add an item to the tail of the buffer.
+     * @return {@code true} if the item was added, {@code false} if the buffer is full.
+     */
+    boolean offer(T item) {
+        final long t = tail.get();
+        if (t - headCache >= slots.length) {
+            headCache = head.get();
+            if (t - headCache >= slots.length)
+                return false;
+        }
+        slots[(int) (t & mask)] = item;
+        // Volatile store so that a consumer that checks for an empty
+        // buffer before parking and a producer that then checks if the
+        // consumer is parked cannot both miss each other's write.
+        tail.set(t + 1);
+        return true;
+    }
+
+    /**
+     * Remove the item at the head of the buffer.
+     * @return Item at the head of the buffer or {@code null} if the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        final long h = head.get();
+        if (h >= tailCache) {
+            tailCache = tail.get();
+            if (h >= tailCache)
+                return null;
+        }
+        final int index = (int) (h & mask);
+        final T item = (T) slots[index];
+        slots[index] = null;
+        head.lazySet(h + 1);
+        return item;
+    }
+
+    /**
+     * Sequence number of the next item to be added.
+     */
+    long tailSequence() {
+        return tail.get();
+    }
+
+    /**
+     * Sequence number of the next item to be removed.
+     */
+    long headSequence() {
+        return head.get();
+    }
+
+    /**
+     * Approximate number of items in the buffer.
+     */
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+}
@@ -1,13 +1,23 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016  
+# Copyright IBM Corp. 2016, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.ops;
 
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getLogicObject;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
 import com.ibm.streams.operator.state.Checkpoint;
 import com.ibm.streams.operator.state.StateHandler;
+import com.ibm.streamsx.topology.function.Checkpointable;
 import com.ibm.streamsx.topology.function.FunctionContext;
 import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
 
@@ -15,16 +25,20 @@ import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
  * Functional logic handler used when checkpointing/consistent region is configured
  * and the logic is not immutable.
  * 
+ * Logic that implements {@link Checkpointable} is checkpointed
+ * as a snapshot of its state, serialized without holding the logic's monitor.
  */
 class StatefulFunctionalHandler<T> extends FunctionalHandler<T> implements StateHandler {
     
     private final String initialLogic;
+    private final boolean snapshots;
     private T logic;
 
     StatefulFunctionalHandler(FunctionContext context,
-            String initialLogic) throws Exception {
+            String initialLogic, boolean snapshots) throws Exception {
         super(context);
         this.initialLogic = initialLogic;
+        this.snapshots = snapshots;
     }
     
     @Override
@@ -55,10 +69,62 @@ class StatefulFunctionalHandler<T> extends FunctionalHandler<T> implements State
     @Override
     public void checkpoint(Checkpoint checkpoint) throws Exception {
         final Object logic = getLogic();
+        if (logic instanceof Checkpointable) {
+            checkpointSnapshot(checkpoint, (Checkpointable<?>) logic);
+            return;
+        }
         synchronized (logic) {
             checkpoint.getOutputStream().writeObject(logic);
         }
     }
+    
+    /**
+     * Only the snapshot is taken holding the logic's monitor.
+     * Format is a boolean indicating compression followed by
+     * the snapshot, or when compressed its length and the
+     * GZIP compressed serialized snapshot.
+     */
+    private static void checkpointSnapshot(Checkpoint checkpoint,
+            Checkpointable<?> logic) throws IOException {
+        final Serializable snapshot;
+        final boolean compress;
+        synchronized (logic) {
+            snapshot = logic.snapshot();
+            compress = logic.compressCheckpoint();
+        }
+        
+        final ObjectOutputStream out = checkpoint.getOutputStream();
+        out.writeBoolean(compress);
+        if (!compress) {
+            out.writeObject(snapshot);
+            return;
+        }
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(new GZIPOutputStream(bytes))) {
+            oos.writeObject(snapshot);
+        }
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static void resetSnapshot(Checkpoint checkpoint,
+            Checkpointable<?> logic) throws IOException, ClassNotFoundException {
+        final ObjectInputStream in = checkpoint.getInputStream();
+        final Object snapshot;
+        if (in.readBoolean()) {
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            try (ObjectInputStream ois = new ObjectInputStream(
+                    new GZIPInputStream(new ByteArrayInputStream(data)))) {
+                snapshot = ois.readObject();
+            }
+        } else {
+            snapshot = in.readObject();
+        }
+        ((Checkpointable<Serializable>) logic).restore((Serializable) snapshot);
+    }
 
     @Override
     public void drain() throws Exception {
@@ -68,7 +134,13 @@ class StatefulFunctionalHandler<T> extends FunctionalHandler<T> implements State
     @Override
     public void reset(Checkpoint checkpoint) throws Exception {
         closeLogic();
-        final Object logic = checkpoint.getInputStream().readObject();
+        final Object logic;
+        if (snapshots) {
+            logic = getLogicObject(initialLogic);
+            resetSnapshot(checkpoint, (Checkpointable<?>) logic);
+        } else {
+            logic = checkpoint.getInputStream().readObject();
+        }
         setLogic((T) logic);
         initializeLogic();
     }
@@ -1,10 +1,9 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.window;
 
-import java.util.LinkedList;
 
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.window.StreamWindow;
@@ -37,7 +36,7 @@ public class ContinuousAggregatorTimeEvict<I, O> extends SlidingSetAggregator<I,
      */
     @Override
     protected void postSetUpdate(StreamWindowEvent<Tuple> event,
-            Object partition, LinkedList<I> tuples) throws Exception {
+            Object partition, WindowBuffer<I> tuples) throws Exception {
         switch (event.getType()) {
         case INSERTION:
         case EVICTION:
@@ -0,0 +1,153 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getOutputMapping;
+
+import java.util.Set;
+
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.window.StatefulWindowListener;
+import com.ibm.streams.operator.window.StreamWindow;
+import com.ibm.streams.operator.window.StreamWindowEvent;
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
+import com.ibm.streamsx.topology.internal.functional.FunctionalHandler;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionWindow;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+
+/**
+ * Incremental aggregation, the user's aggregator is passed
+ * each tuple as it is inserted and evicted, rather than the
+ * complete list of tuples in the window.
+ * State is the input tuples as their Java object, with the oldest
+ * tuple first, and the aggregator's state. The tuples are retained
+ * so that they can be passed to the aggregator on eviction
+ * without converting the evicted SPL tuples.
+ * <BR>
+ * Events are handled holding the lock for the event's partition,
+ * calls to the aggregator are synchronized on the aggregator
+ * unless it is thread safe, in which case calls for different
+ * partitions may run in parallel.
+ *
+ * @param <I>
+ *            Input tuple type
+ * @param <S>
+ *            Aggregation state type
+ * @param <O>
+ *            Output tuple type
+ */
+public class IncrementalAggregation<I, S, O> extends
+        StatefulWindowListener<IncrementalAggregation.Partition<I, S>, Tuple> {
+
+    static final class Partition<I, S> {
+        final WindowBuffer<I> tuples;
+        S state;
+
+        Partition(WindowBuffer<I> tuples) {
+            this.tuples = tuples;
+        }
+    }
+
+    private final FunctionWindow op;
+    private final SPLMapping<I> inputMapping;
+    private final SPLMapping<O> outputMapping;
+    private final StreamingOutput<?> output;
+
+    private final FunctionalHandler<IncrementalAggregator<I, S, O>> aggregatorHandler;
+
+    /**
+     * Event types that result in the aggregation being submitted.
+     */
+    private final Set<StreamWindowEvent.Type> aggregateOn;
+
+    public IncrementalAggregation(FunctionWindow op, StreamWindow<Tuple> window,
+            Set<StreamWindowEvent.Type> aggregateOn) throws Exception {
+        super(window);
+        this.op = op;
+        this.aggregateOn = aggregateOn;
+        inputMapping = op.getWindowInputMapping();
+        output = op.getOutput(0);
+        outputMapping = getOutputMapping(op, 0);
+        aggregatorHandler = op.createLogicHandler();
+    }
+
+    private final PartitionLocks locks = new PartitionLocks();
+
+    @Override
+    public final void handleEvent(StreamWindowEvent<Tuple> event)
+            throws Exception {
+        final Object partition = event.getPartition();
+        final IncrementalAggregator<I, S, O> aggregator = aggregatorHandler.getLogic();
+
+        final Object partitionLock = locks.lock(partition);
+        // A thread safe aggregator is only called holding the partition's lock.
+        final Object aggregatorLock = aggregatorHandler.isThreadSafe() ? partitionLock : aggregator;
+        synchronized (partitionLock) {
+            final Partition<I, S> state;
+            synchronized (locks) {
+                state = getPartitionState(partition);
+            }
+
+            switch (event.getType()) {
+            case INSERTION:
+                for (Tuple splTuple : event.getTuples()) {
+                    final I tuple = inputMapping.convertFrom(splTuple);
+                    state.tuples.addLast(tuple);
+                    synchronized (aggregatorLock) {
+                        state.state = aggregator.add(state.state, tuple);
+                    }
+                }
+                break;
+            case EVICTION:
+                // we only support count and time based eviction, which
+                // means any eviction is always the oldest N tuples.
+                for (@SuppressWarnings("unused") Tuple splTuple : event.getTuples()) {
+                    I tuple = state.tuples.removeFirst();
+                    synchronized (aggregatorLock) {
+                        state.state = aggregator.remove(state.state, tuple);
+                    }
+                }
+                break;
+            case PARTITION_EVICTION:
+                // State for the partition is discarded by the window,
+                // release any tuples it spilled.
+                state.tuples.release();
+                op.partitionEvicted();
+                break;
+            default:
+                break;
+            }
+
+            if (aggregateOn.contains(event.getType())) {
+                O aggregation;
+                synchronized (aggregatorLock) {
+                    aggregation = aggregator.result(state.state);
+                }
+                if (aggregation != null) {
+                    Tuple splTuple = outputMapping.convertTo(aggregation);
+                    output.submit(splTuple);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected final Partition<I, S> getInitializedState(Object partition,
+            Partition<I, S> state) {
+        op.getnPartitions().increment();
+        final IncrementalAggregator<I, S, O> aggregator = aggregatorHandler.getLogic();
+        Partition<I, S> initial = new Partition<>(SpillingWindowBuffer.newBuffer(op));
+        // Called holding the partition's lock.
+        if (aggregatorHandler.isThreadSafe()) {
+            initial.state = aggregator.initialState();
+        } else {
+            synchronized (aggregator) {
+                initial.state = aggregator.initialState();
+            }
+        }
+        return initial;
+    }
+}
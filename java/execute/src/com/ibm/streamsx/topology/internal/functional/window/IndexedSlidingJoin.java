@@ -0,0 +1,142 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streams.operator.window.StreamWindow;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionWindow;
+
+/**
+ * Join against a window that is indexed by a match key.
+ * Each port 1 tuple is joined only with the window tuples
+ * that have an equal match key, rather than all tuples in the window.
+ * <BR>
+ * The window is not partitioned so eviction is always of the
+ * oldest tuple in the window, which is also the oldest
+ * tuple for its match key.
+ * <BR>
+ * The index is held in the window's partition state, it is derived
+ * from the window tuples and is not serialized, thus a partition state
+ * restored from a checkpoint rebuilds its index when it is first used.
+ * The index is only accessed holding the lock for the single window partition.
+ *
+ * @param <T>
+ *            Input (port 1) tuple type
+ * @param <U>
+ *            Window (port 0) tuple type
+ * @param <J>
+ *            Output (joined) tuple type
+ */
+public class IndexedSlidingJoin<T, U, J> extends SlidingJoin<T, U, J> {
+
+    private final Function<Object, Object> matchKeyGetter;
+    private final Function<Object, Object> windowMatchKeyGetter;
+
+    public IndexedSlidingJoin(FunctionWindow op, StreamWindow<Tuple> window,
+            Function<Object, Object> matchKeyGetter,
+            Function<Object, Object> windowMatchKeyGetter) throws Exception {
+        super(op, window);
+        this.matchKeyGetter = matchKeyGetter;
+        this.windowMatchKeyGetter = windowMatchKeyGetter;
+    }
+
+    /**
+     * The window is not spilled as the index
+     * references every tuple in the window.
+     */
+    @Override
+    WindowBuffer<U> newBuffer() {
+        return new IndexedBuffer<>(windowMatchKeyGetter);
+    }
+
+    @Override
+    protected List<U> getJoinTuples(Object partition, T tTuple) {
+        final IndexedBuffer<U> tuples = (IndexedBuffer<U>) partitionState(partition);
+        final WindowBuffer<U> matches = tuples.index(windowMatchKeyGetter)
+                .get(matchKeyGetter.apply(tTuple));
+        if (matches == null)
+            return Collections.emptyList();
+        return matches;
+    }
+
+    /**
+     * Window tuples with an index of the tuples
+     * for each match key, oldest tuple first.
+     * <BR>
+     * The index is transient, a buffer restored from a
+     * checkpoint has no index until {@link #index(Function)}
+     * rebuilds it from the tuples.
+     */
+    static final class IndexedBuffer<U> extends WindowBuffer<U> {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient Function<Object, Object> keyGetter;
+        private transient Map<Object, WindowBuffer<U>> index;
+
+        IndexedBuffer(Function<Object, Object> keyGetter) {
+            this.keyGetter = keyGetter;
+            index = new HashMap<>();
+        }
+
+        /**
+         * Get the index, rebuilding it if this buffer was restored.
+         */
+        Map<Object, WindowBuffer<U>> index(Function<Object, Object> keyGetter) {
+            if (index == null) {
+                this.keyGetter = keyGetter;
+                index = new HashMap<>();
+                for (U tuple : this)
+                    indexTuple(tuple);
+            }
+            return index;
+        }
+
+        private void indexTuple(U tuple) {
+            final Object key = keyGetter.apply(tuple);
+            WindowBuffer<U> matches = index.get(key);
+            if (matches == null)
+                index.put(key, matches = new WindowBuffer<>());
+            matches.addLast(tuple);
+        }
+
+        @Override
+        void addLast(U tuple) {
+            super.addLast(tuple);
+            if (index != null)
+                indexTuple(tuple);
+        }
+
+        @Override
+        U removeFirst() {
+            final U tuple = super.removeFirst();
+            if (index == null)
+                return tuple;
+
+            final Object key = keyGetter.apply(tuple);
+            final WindowBuffer<U> matches = index.get(key);
+            if (matches == null || matches.get(0) != tuple)
+                throw new IllegalStateException(
+                        "Window match key of an evicted tuple differs from its key when inserted: " + key);
+            matches.removeFirst();
+            if (matches.isEmpty())
+                index.remove(key);
+            return tuple;
+        }
+
+        @Override
+        void release() {
+            super.release();
+            if (index != null)
+                index.clear();
+        }
+    }
+}
@@ -1,9 +1,10 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.window;
 
+import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.window.StreamWindowPartitioner;
 import com.ibm.streamsx.topology.function.Function;
@@ -11,21 +12,55 @@ import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
 /**
  * Partition a tuple for a window using a function.
- * 
+ * <BR>
+ * The partitioner is also the window's input mapping,
+ * the Java object converted from a tuple to obtain its key
+ * is retained so that it is not converted again
+ * (deserialized for a tuple from another PE) when the tuple
+ * is inserted into the window's partition state.
+ * The object is retained per-thread as the window calls the
+ * partitioner and then delivers the insertion event on the
+ * thread that inserted the tuple.
  */
-public class KeyPartitioner implements
+public class KeyPartitioner extends SPLMapping<Object> implements
         StreamWindowPartitioner<Tuple,Object> {
 
     private final SPLMapping<Object> mapping;
     private final Function<Object,Object> keyGetter;
 
-    public KeyPartitioner(SPLMapping<Object> mapping, Function<Object,Object> keyGetter) {
+    /**
+     * Last tuple partitioned by this thread and its Java object.
+     */
+    private final ThreadLocal<Object[]> last = ThreadLocal.withInitial(() -> new Object[2]);
+
+    public KeyPartitioner(StreamSchema schema, SPLMapping<Object> mapping, Function<Object,Object> keyGetter) {
+        super(schema);
         this.mapping = mapping;
         this.keyGetter = keyGetter;
     }
 
     @Override
     public Object getPartition(Tuple tuple) {
-        return keyGetter.apply(mapping.convertFrom(tuple));
+        final Object value = mapping.convertFrom(tuple);
+        final Object[] converted = last.get();
+        converted[0] = tuple;
+        converted[1] = value;
+        return keyGetter.apply(value);
+    }
+
+    @Override
+    public Object convertFrom(Tuple tuple) {
+        final Object[] converted = last.get();
+        if (converted[0] == tuple) {
+            final Object value = converted[1];
+            converted[0] = converted[1] = null;
+            return value;
+        }
+        return mapping.convertFrom(tuple);
+    }
+
+    @Override
+    public Tuple convertTo(Object tuple) {
+        return mapping.convertTo(tuple);
     }
 }
@@ -0,0 +1,46 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+/**
+ * Striped locks for window partitions.
+ * <BR>
+ * Each partition maps to one of a fixed number of lock objects
+ * by its hash code, so that events for partitions mapping to
+ * different locks can be handled in parallel without
+ * a lock object per partition.
+ * <BR>
+ * Lock ordering is a partition lock is acquired before the
+ * lock for any functional logic and at most one partition
+ * lock is held at any time.
+ */
+final class PartitionLocks {
+
+    private static final int MAX_STRIPES = 256;
+
+    private final Object[] locks;
+    private final int mask;
+
+    PartitionLocks() {
+        final int wanted = Math.min(MAX_STRIPES,
+                Runtime.getRuntime().availableProcessors() * 4);
+        int stripes = Integer.highestOneBit(wanted);
+        if (stripes < wanted)
+            stripes <<= 1;
+        locks = new Object[stripes];
+        for (int i = 0; i < stripes; i++)
+            locks[i] = new Object();
+        mask = stripes - 1;
+    }
+
+    /**
+     * Get the lock for a partition.
+     */
+    Object lock(Object partition) {
+        int h = partition == null ? 0 : partition.hashCode();
+        h ^= (h >>> 16);
+        return locks[h & mask];
+    }
+}
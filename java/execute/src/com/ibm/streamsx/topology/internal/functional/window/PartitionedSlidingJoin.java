@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015,2019
  */
 package com.ibm.streamsx.topology.internal.functional.window;
 
@@ -18,6 +18,11 @@ public class PartitionedSlidingJoin<T, U, J> extends SlidingJoin<T, U, J> {
         this.joinKeyGetter = joinKeyGetter;
     }
 
+    @Override
+    protected boolean isPort1Partitioned() {
+        return true;
+    }
+
     @Override
     protected Object getPort1PartitionKey(T tTuple) {
         return joinKeyGetter.apply(tTuple);
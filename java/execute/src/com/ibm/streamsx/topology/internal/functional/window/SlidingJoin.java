@@ -1,12 +1,11 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.window;
 
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getInputMapping;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import com.ibm.streams.operator.Tuple;
@@ -43,16 +42,24 @@ public class SlidingJoin<T, U, J> extends SlidingSet<U, J> {
      */
     @Override
     void postSetUpdate(StreamWindowEvent<Tuple> event, Object partition,
-            LinkedList<U> tuples) throws Exception {
+            WindowBuffer<U> tuples) throws Exception {
     }
 
     public void port1Join(Tuple splTuple) throws Exception {
-        final BiFunction<T, List<U>, J> joiner = joinerHandler.getLogic();
-        J jTuple;
-        synchronized (this) {
-            T tTuple = input1Mapping.convertFrom(splTuple);
-            LinkedList<U> tuples = getPartitionState(getPort1PartitionKey(tTuple));
-            jTuple = joiner.apply(tTuple, tuples);
+        final J jTuple;
+        if (isPort1Partitioned()) {
+            // The partition is the join key of the converted tuple.
+            // Port 1 tuples are not added to the window so converting
+            // before taking the partition's lock does not affect its order.
+            final T tTuple = input1Mapping.convertFrom(splTuple);
+            final Object partition = getPort1PartitionKey(tTuple);
+            synchronized (locks.lock(partition)) {
+                jTuple = join(partition, tTuple);
+            }
+        } else {
+            synchronized (locks.lock(ZERO)) {
+                jTuple = join(ZERO, input1Mapping.convertFrom(splTuple));
+            }
         }
         if (jTuple != null) {
             Tuple splOutTuple = outputMapping.convertTo(jTuple);
@@ -60,8 +67,37 @@ public class SlidingJoin<T, U, J> extends SlidingSet<U, J> {
         }
     }
 
+    /**
+     * Join a port 1 tuple with the window.
+     * Caller must hold the lock for {@code partition}.
+     */
+    private J join(Object partition, T tTuple) throws Exception {
+        final BiFunction<T, List<U>, J> joiner = joinerHandler.getLogic();
+        List<U> tuples = getJoinTuples(partition, tTuple);
+        if (joinerHandler.isThreadSafe())
+            return joiner.apply(tTuple, tuples);
+        synchronized (joiner) {
+            return joiner.apply(tTuple, tuples);
+        }
+    }
+
+    /**
+     * Get the window tuples that {@code tTuple} is joined with.
+     * Caller must hold the lock for {@code partition}.
+     */
+    protected List<U> getJoinTuples(Object partition, T tTuple) {
+        return partitionState(partition);
+    }
+
     private static final Integer ZERO = 0;
 
+    /**
+     * Is the window partitioned by the join key of port 1 tuples.
+     */
+    protected boolean isPort1Partitioned() {
+        return false;
+    }
+
     protected Object getPort1PartitionKey(T tTuple) {
         return ZERO;
     }
@@ -1,14 +1,11 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.window;
 
-import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getInputMapping;
 import static com.ibm.streamsx.topology.internal.functional.FunctionalHelper.getOutputMapping;
 
-import java.util.LinkedList;
-
 import com.ibm.streams.operator.StreamingOutput;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.window.StatefulWindowListener;
@@ -19,14 +16,19 @@ import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
 
 /**
  * 
- * State is LinkedList<I> input tuples as their Java object, with the oldest
+ * State is a WindowBuffer of input tuples as their Java object, with the oldest
  * tuple first.
+ * <BR>
+ * Events are handled holding the lock for the event's partition
+ * so that independent partitions can be updated in parallel.
+ * Input tuples are converted to their Java object holding the lock,
+ * so that tuples are added to a partition in window order.
  * 
  * @param <I>
  *            Input tuple type
  */
 public abstract class SlidingSet<I, O> extends
-        StatefulWindowListener<LinkedList<I>, Tuple> {
+        StatefulWindowListener<WindowBuffer<I>, Tuple> {
 
     private final FunctionWindow op;
     private final SPLMapping<I> inputMapping;
@@ -38,49 +40,76 @@ public abstract class SlidingSet<I, O> extends
             throws ClassNotFoundException {
         super(window);
         this.op = op;
-        inputMapping = getInputMapping(op, 0);
+        inputMapping = op.getWindowInputMapping();
         output = op.getOutput(0);
         outputMapping = getOutputMapping(op, 0);
     }
 
+    /**
+     * Locks for partition state.
+     */
+    final PartitionLocks locks = new PartitionLocks();
+
     @Override
-    public synchronized final void handleEvent(StreamWindowEvent<Tuple> event)
+    public final void handleEvent(StreamWindowEvent<Tuple> event)
             throws Exception {
         final Object partition = event.getPartition();
-        LinkedList<I> tuples = getPartitionState(partition);
 
-        switch (event.getType()) {
-        case INSERTION:
-            for (Tuple splTuple : event.getTuples()) {
-                I tuple = inputMapping.convertFrom(splTuple);
-                tuples.addLast(tuple);
-            }
+        synchronized (locks.lock(partition)) {
+            WindowBuffer<I> tuples = partitionState(partition);
 
-            break;
-        case EVICTION:
-            // we only support count and time based eviction, which
-            // means any eviction is always the oldest N tuples.
-            for (@SuppressWarnings("unused") Tuple splTuple : event.getTuples()) {
-                tuples.removeFirst();
+            switch (event.getType()) {
+            case INSERTION:
+                for (Tuple splTuple : event.getTuples())
+                    tuples.addLast(inputMapping.convertFrom(splTuple));
+                break;
+            case EVICTION:
+                // we only support count and time based eviction, which
+                // means any eviction is always the oldest N tuples.
+                for (@SuppressWarnings("unused") Tuple splTuple : event.getTuples()) {
+                    tuples.removeFirst();
+                }
+                break;
+            case PARTITION_EVICTION:
+                // State for the partition is discarded by the window,
+                // release any tuples it spilled.
+                tuples.release();
+                op.partitionEvicted();
+                break;
+            default:
+                break;
             }
-            break;
-        case PARTITION_EVICTION:
-            op.getnPartitions().incrementValue(-1);
-            break;
-        default:
-            break;
+
+            postSetUpdate(event, partition, tuples);
         }
+    }
 
-        postSetUpdate(event, partition, tuples);
+    /**
+     * Get the state for a partition, partition state
+     * is held by the window so access to it is serialized.
+     * Caller must hold the partition's lock.
+     */
+    final WindowBuffer<I> partitionState(Object partition) {
+        synchronized (locks) {
+            return getPartitionState(partition);
+        }
     }
 
     abstract void postSetUpdate(StreamWindowEvent<Tuple> event,
-            Object partition, LinkedList<I> tuples) throws Exception;
+            Object partition, WindowBuffer<I> tuples) throws Exception;
 
     @Override
-    protected final LinkedList<I> getInitializedState(Object partition,
-            LinkedList<I> state) {
+    protected final WindowBuffer<I> getInitializedState(Object partition,
+            WindowBuffer<I> state) {
         op.getnPartitions().increment();
-        return new LinkedList<I>();
+        return newBuffer();
+    }
+
+    /**
+     * Create the state for a partition, spilling to
+     * disk if configured for the window.
+     */
+    WindowBuffer<I> newBuffer() {
+        return SpillingWindowBuffer.newBuffer(op);
     }
 }
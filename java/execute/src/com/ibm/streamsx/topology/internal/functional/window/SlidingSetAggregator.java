@@ -1,10 +1,9 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.functional.window;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import com.ibm.streams.operator.Tuple;
@@ -16,8 +15,8 @@ import com.ibm.streamsx.topology.internal.functional.ops.FunctionWindow;
 /**
  * This is set based aggregation, the user's function is given
  * the complete list of tuples in the window.
- * State is LinkedList<I> input tuples as their Java object, with the newest
- * tuple at the front.
+ * State is a WindowBuffer of input tuples as their Java object, with the oldest
+ * tuple first.
  * 
  * @param <I>
  *            Input tuple type
@@ -34,10 +33,18 @@ public abstract class SlidingSetAggregator<I, O> extends SlidingSet<I, O> {
         aggregatorHandler = op.createLogicHandler();
     }
 
-    protected void aggregate(Object partition, LinkedList<I> tuples)
+    protected void aggregate(Object partition, WindowBuffer<I> tuples)
             throws Exception {
         final Function<List<I>, O> aggregator = aggregatorHandler.getLogic();
-        O aggregation = aggregator.apply(tuples);
+        O aggregation;
+        // Called holding the partition's lock.
+        if (aggregatorHandler.isThreadSafe()) {
+            aggregation = aggregator.apply(tuples);
+        } else {
+            synchronized (aggregator) {
+                aggregation = aggregator.apply(tuples);
+            }
+        }
         if (aggregation != null) {
             Tuple splTuple = outputMapping.convertTo(aggregation);
             output.submit(splTuple);
@@ -0,0 +1,232 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
+
+/**
+ * Memory-mapped storage for window tuples spilled from the heap,
+ * shared by all partitions of a window.
+ * <BR>
+ * Spilled data is appended to fixed size chunks, each a file
+ * in the spill directory that is memory-mapped and then deleted,
+ * so that the number of mappings is proportional to the volume
+ * of spilled data rather than the number of spills.
+ * Each chunk counts the spilled data referencing it, data is
+ * released when it is evicted from its partition or the partition
+ * is evicted. A chunk with no referenced data is kept on a
+ * free list and reused for later spills, thus the mapped memory
+ * and disk space is bounded by the peak volume of spilled data
+ * rather than growing until chunks are garbage collected.
+ * Chunks beyond the size of the free list, and all chunks when
+ * the store is closed, are released when the mapping is
+ * garbage collected.
+ * <BR>
+ * No files are left behind when partitions are evicted
+ * or the operator terminates.
+ */
+public final class SpillStore implements Closeable {
+
+    private static final int CHUNK_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Maximum number of unused chunks kept for reuse.
+     */
+    private static final int FREE_CHUNKS = 2;
+
+    private final Path directory;
+    private final TupleSerializer serializer;
+
+    /**
+     * Chunk being appended to, guarded by this.
+     */
+    private Chunk chunk;
+
+    /**
+     * Unused chunks, guarded by this.
+     */
+    private final Deque<Chunk> free = new ArrayDeque<>(FREE_CHUNKS);
+
+    private boolean closed;
+
+    /**
+     * A memory-mapped chunk, the buffer's position is
+     * where the next spilled data is appended.
+     */
+    private static final class Chunk {
+        final ByteBuffer buffer;
+        /**
+         * Number of unreleased spills in this chunk.
+         */
+        int references;
+
+        Chunk(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * Data spilled to a chunk.
+     */
+    static final class Spilled {
+        private final Chunk chunk;
+        private final ByteBuffer data;
+
+        private Spilled(Chunk chunk, ByteBuffer data) {
+            this.chunk = chunk;
+            this.data = data;
+        }
+
+        /**
+         * Read-only view of the spilled data.
+         */
+        ByteBuffer data() {
+            return data;
+        }
+    }
+
+    public SpillStore(Path directory, TupleSerializer serializer) {
+        this.directory = directory;
+        this.serializer = serializer;
+    }
+
+    /**
+     * Serialize a tuple.
+     */
+    void serialize(Object tuple, OutputStream out) throws IOException {
+        serializer.serialize(tuple, out);
+    }
+
+    /**
+     * Deserialize a tuple from spilled data.
+     */
+    Object deserialize(ByteBuffer data) {
+        try {
+            return serializer.deserialize(new ByteBufferInputStream(data));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Spill data, the returned spill must be
+     * {@link #release(Spilled) released} when its data
+     * is no longer required.
+     */
+    synchronized Spilled spill(byte[] data, int length) throws IOException {
+        if (closed)
+            throw new IllegalStateException("closed");
+        if (chunk == null || chunk.buffer.remaining() < length) {
+            final Chunk full = chunk;
+            chunk = allocate(length);
+            if (full != null && full.references == 0)
+                recycle(full);
+        }
+
+        final ByteBuffer spilled = chunk.buffer.slice();
+        spilled.limit(length);
+        spilled.put(data, 0, length);
+        chunk.buffer.position(chunk.buffer.position() + length);
+        chunk.references++;
+
+        spilled.flip();
+        return new Spilled(chunk, spilled.asReadOnlyBuffer());
+    }
+
+    /**
+     * Release spilled data, its chunk is reused
+     * once all of its spilled data is released.
+     */
+    synchronized void release(Spilled spilled) {
+        final Chunk owner = spilled.chunk;
+        if (--owner.references == 0 && owner != chunk)
+            recycle(owner);
+    }
+
+    private Chunk allocate(int length) throws IOException {
+        if (length <= CHUNK_SIZE && !free.isEmpty())
+            return free.pop();
+        return new Chunk(map(Math.max(CHUNK_SIZE, length)));
+    }
+
+    /**
+     * Keep an unused chunk for reuse if there
+     * is space in the free list.
+     */
+    private void recycle(Chunk unused) {
+        if (closed || unused.buffer.capacity() != CHUNK_SIZE || free.size() == FREE_CHUNKS)
+            return;
+        unused.buffer.clear();
+        free.push(unused);
+    }
+
+    private ByteBuffer map(int size) throws IOException {
+        final Path file = Files.createTempFile(directory, "window", ".spill");
+        try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+            return channel.map(MapMode.READ_WRITE, 0, size);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Remove the spill directory, chunk files
+     * are deleted once they are mapped.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        chunk = null;
+        free.clear();
+        Files.deleteIfExists(directory);
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0)
+                return 0;
+            if (!buffer.hasRemaining())
+                return -1;
+            len = Math.min(len, buffer.remaining());
+            buffer.get(b, off, len);
+            return len;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+import com.ibm.streamsx.topology.internal.functional.ops.FunctionWindow;
+
+/**
+ * Tuples in a window partition where only the newest tuples
+ * are held on the heap.
+ * <BR>
+ * When the number of tuples on the heap exceeds {@code heapTuples}
+ * the oldest half are serialized into a segment that is
+ * written to the window's memory-mapped {@link SpillStore}. Spilled
+ * segments are older than any tuple on the heap, so the list
+ * is the spilled segments, oldest first, followed by the heap tuples.
+ * <BR>
+ * A spilled tuple is deserialized each time it is accessed,
+ * including when it is evicted. Thus spilling is suited to
+ * very large windows where the window is not iterated on every
+ * insertion, such as a periodic or incremental aggregation,
+ * or a join against a partitioned window.
+ * <BR>
+ * When serialized all tuples, including spilled tuples,
+ * are written as a {@link WindowBuffer}, thus a restored
+ * partition holds its tuples on the heap.
+ *
+ * @param <I> Input tuple type
+ */
+final class SpillingWindowBuffer<I> extends WindowBuffer<I> {
+
+    /**
+     * Create the state for a window partition of {@code op}.
+     */
+    static <I> WindowBuffer<I> newBuffer(FunctionWindow op) {
+        if (op.getSpillTuples() <= 0)
+            return new WindowBuffer<>();
+        return new SpillingWindowBuffer<>(op.getSpillStore(), op.getSpillTuples());
+    }
+
+    /**
+     * Spilled tuples, serialized in the spill store.
+     */
+    private static final class Segment {
+        private final SpillStore.Spilled spilled;
+        /**
+         * Start of each tuple in data, with an
+         * additional entry for the end of the last tuple.
+         */
+        private final int[] offsets;
+
+        /**
+         * Index of the oldest tuple that has not been evicted.
+         */
+        private int first;
+
+        Segment(SpillStore.Spilled spilled, int[] offsets) {
+            this.spilled = spilled;
+            this.offsets = offsets;
+        }
+
+        Object read(int index, SpillStore store) {
+            final ByteBuffer tuple = spilled.data().duplicate();
+            tuple.limit(offsets[index + 1]);
+            tuple.position(offsets[index]);
+            return store.deserialize(tuple);
+        }
+    }
+
+    private final SpillStore store;
+    private final int heapTuples;
+    private final int segmentTuples;
+
+    /**
+     * Spilled segments, oldest first, each containing
+     * segmentTuples tuples.
+     */
+    private final WindowBuffer<Segment> segments = new WindowBuffer<>();
+    private int spilled;
+
+    SpillingWindowBuffer(SpillStore store, int heapTuples) {
+        this.store = store;
+        this.heapTuples = heapTuples;
+        this.segmentTuples = Math.max(1, heapTuples / 2);
+    }
+
+    @Override
+    public int size() {
+        return spilled + super.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public I get(int index) {
+        if (index >= spilled)
+            return super.get(index - spilled);
+        if (index < 0)
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+
+        index += segments.get(0).first;
+        return (I) segments.get(index / segmentTuples).read(index % segmentTuples, store);
+    }
+
+    @Override
+    void addLast(I tuple) {
+        super.addLast(tuple);
+        if (super.size() > heapTuples)
+            spill();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    I removeFirst() {
+        if (spilled == 0)
+            return super.removeFirst();
+
+        final Segment segment = segments.get(0);
+        final I tuple = (I) segment.read(segment.first, store);
+        if (++segment.first == segmentTuples)
+            store.release(segments.removeFirst().spilled);
+        spilled--;
+        modCount++;
+        return tuple;
+    }
+
+    /**
+     * Release the spilled segments as the
+     * partition has been evicted.
+     */
+    @Override
+    void release() {
+        while (!segments.isEmpty())
+            store.release(segments.removeFirst().spilled);
+        spilled = 0;
+        super.release();
+    }
+
+    /**
+     * Spill the oldest heap tuples to a segment.
+     * The tuples are only removed from the heap
+     * once the segment has been spilled.
+     */
+    private void spill() {
+        final SpillOutput out = new SpillOutput();
+        final int[] offsets = new int[segmentTuples + 1];
+        try {
+            for (int i = 0; i < segmentTuples; i++) {
+                offsets[i] = out.size();
+                store.serialize(super.get(i), out);
+            }
+            offsets[segmentTuples] = out.size();
+
+            segments.addLast(new Segment(store.spill(out.data(), out.size()), offsets));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        for (int i = 0; i < segmentTuples; i++)
+            super.removeFirst();
+        spilled += segmentTuples;
+    }
+
+    /**
+     * Spilled segments are only valid for the store of
+     * this operator instance, so serialize as a heap buffer.
+     */
+    private Object writeReplace() {
+        final WindowBuffer<I> heap = new WindowBuffer<>();
+        for (I tuple : this)
+            heap.addLast(tuple);
+        return heap;
+    }
+
+    private static final class SpillOutput extends ByteArrayOutputStream {
+        byte[] data() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Tuples in a window partition, oldest tuple first.
+ * <BR>
+ * Tuples are held in a growable circular array
+ * so that inserting the newest tuple, evicting the oldest
+ * tuple and random access are all O(1).
+ * The array is only allocated when the first tuple is inserted
+ * and is released when the partition becomes empty, to minimize
+ * the overhead of windows with a large number of partitions.
+ * <BR>
+ * The list is read-only to functional logic,
+ * it is only modified by the window listener.
+ * <BR>
+ * The list is serializable, as the partition state of a window
+ * is serialized when the window is checkpointed. Only the tuples
+ * are serialized, oldest first.
+ * <BR>
+ * Subclassed by {@link SpillingWindowBuffer} to hold
+ * only the newest tuples on the heap.
+ *
+ * @param <I> Input tuple type
+ */
+class WindowBuffer<I> extends AbstractList<I> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Object[] EMPTY = {};
+    private static final int INITIAL_CAPACITY = 8;
+
+    private transient Object[] elements = EMPTY;
+    private transient int head;
+    private transient int size;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public I get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(Integer.toString(index));
+        return (I) elements[(head + index) & (elements.length - 1)];
+    }
+
+    /**
+     * Insert the newest tuple.
+     */
+    void addLast(I tuple) {
+        if (size == elements.length)
+            grow();
+        elements[(head + size) & (elements.length - 1)] = tuple;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Evict the oldest tuple.
+     */
+    @SuppressWarnings("unchecked")
+    I removeFirst() {
+        if (size == 0)
+            throw new IllegalStateException();
+        final I tuple = (I) elements[head];
+        elements[head] = null;
+        head = (head + 1) & (elements.length - 1);
+        modCount++;
+        if (--size == 0) {
+            elements = EMPTY;
+            head = 0;
+        }
+        return tuple;
+    }
+
+    /**
+     * Discard all tuples and release any resources held
+     * for them, called when the partition is evicted.
+     */
+    void release() {
+        elements = EMPTY;
+        head = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Grow the array, capacity is always a power of two
+     * so that positions are a mask of the index.
+     */
+    private void grow() {
+        if (elements.length == 0) {
+            elements = new Object[INITIAL_CAPACITY];
+            return;
+        }
+        final Object[] grown = Arrays.copyOfRange(elements, head, head + (elements.length << 1));
+        System.arraycopy(elements, 0, grown, elements.length - head, head);
+        elements = grown;
+        head = 0;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++)
+            out.writeObject(get(i));
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        final int count = in.readInt();
+        if (count < 0)
+            throw new InvalidObjectException(Integer.toString(count));
+        elements = EMPTY;
+        if (count != 0) {
+            int capacity = INITIAL_CAPACITY;
+            while (capacity < count)
+                capacity <<= 1;
+            elements = new Object[capacity];
+            for (int i = 0; i < count; i++)
+                elements[i] = in.readObject();
+        }
+        size = count;
+    }
+}
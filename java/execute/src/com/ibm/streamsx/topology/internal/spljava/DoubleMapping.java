@@ -0,0 +1,44 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.Tuple;
+
+/**
+ * SPL tuple for a TStream<Double> Uses the SPL schema Schemas.FLOAT64.
+ * The value is held as a native SPL {@code float64} attribute
+ * rather than a serialized Java object.
+ */
+class DoubleMapping extends SPLMapping<Double> {
+
+    // Singleton, as stateless.
+    DoubleMapping() {
+        super(Schemas.FLOAT64);
+    }
+
+    @Override
+    public Tuple convertTo(Double tuple) {
+        if (Double.doubleToRawLongBits(tuple) == 0L)
+            return getSchema().getTuple();
+
+        return getSchema().getTuple(new Object[] { tuple });
+    }
+
+    @Override
+    public Double convertFrom(Tuple tuple) {
+        return tuple.getDouble(0);
+    }
+    
+    @Override
+    public boolean canSetOutput() {
+        return true;
+    }
+    
+    @Override
+    public void setOutput(OutputTuple out, Double tuple) {
+        out.setDouble(0, tuple);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.function.ToIntFunction;
+
+/**
+ * Mapping for a Java object tuple with an additional
+ * {@code int32 __spl_hash} attribute, set from the object
+ * when it is converted to a tuple.
+ * <BR>
+ * Used by an operator that computes the partitioning hash of a keyed
+ * parallel region in place of a separate {@code HashAdder} operator,
+ * so that the hash is computed from the object while it is in hand,
+ * rather than by deserializing the tuple.
+ */
+class HashMapping<T> extends SPLMapping<T> {
+
+    private final SPLMapping<T> mapping;
+    private final ToIntFunction<T> hasher;
+
+    HashMapping(StreamSchema schema, SPLMapping<T> mapping, ToIntFunction<T> hasher) {
+        super(schema);
+        this.mapping = mapping;
+        this.hasher = hasher;
+    }
+
+    @Override
+    public Tuple convertTo(T tuple) {
+        Tuple object = mapping.convertTo(tuple);
+        return getSchema().getTuple(new Object[] {
+                object.getObject(0), hasher.applyAsInt(tuple) });
+    }
+
+    @Override
+    public T convertFrom(Tuple tuple) {
+        return mapping.convertFrom(tuple);
+    }
+
+    @Override
+    public boolean canSetOutput() {
+        return mapping.canSetOutput();
+    }
+
+    @Override
+    public void setOutput(OutputTuple out, T tuple) {
+        if (!mapping.canSetOutput()) {
+            super.setOutput(out, tuple);
+            return;
+        }
+        mapping.setOutput(out, tuple);
+        out.setInt(1, hasher.applyAsInt(tuple));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.Tuple;
+
+/**
+ * SPL tuple for a TStream<Integer> Uses the SPL schema Schemas.INT32.
+ * The value is held as a native SPL {@code int32} attribute
+ * rather than a serialized Java object.
+ */
+class IntegerMapping extends SPLMapping<Integer> {
+
+    // Singleton, as stateless.
+    IntegerMapping() {
+        super(Schemas.INT32);
+    }
+
+    @Override
+    public Tuple convertTo(Integer tuple) {
+        if (tuple == 0)
+            return getSchema().getTuple();
+
+        return getSchema().getTuple(new Object[] { tuple });
+    }
+
+    @Override
+    public Integer convertFrom(Tuple tuple) {
+        return tuple.getInt(0);
+    }
+    
+    @Override
+    public boolean canSetOutput() {
+        return true;
+    }
+    
+    @Override
+    public void setOutput(OutputTuple out, Integer tuple) {
+        out.setInt(0, tuple);
+    }
+}
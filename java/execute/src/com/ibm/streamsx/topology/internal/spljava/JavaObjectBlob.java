@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.spljava;
 
@@ -9,11 +9,24 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import com.ibm.streams.operator.types.Blob;
 import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 
 public class JavaObjectBlob implements Blob {
+    
+    /**
+     * Pooled serialization buffers are discarded if they grow larger than this.
+     */
+    private static final int POOLED_BUFFER_LIMIT = 64 * 1024;
+    
+    private static final ThreadLocal<AB> BUFFERS = new ThreadLocal<AB>() {
+        @Override
+        protected AB initialValue() {
+            return new AB();
+        }
+    };
 
     private final TupleSerializer serializer;
     private byte[] data;
@@ -81,15 +94,18 @@ public class JavaObjectBlob implements Blob {
 
     private synchronized void serializeObject() {
 
+        final AB baos = BUFFERS.get();
+        baos.reset();
         try {
-            AB baos = new AB();
-            
             serializer.serialize(object, baos);
             len = baos.size();
-            data = baos.data();
+            data = Arrays.copyOf(baos.data(), len);
 
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            if (baos.data().length > POOLED_BUFFER_LIMIT)
+                BUFFERS.remove();
         }
     }
 
@@ -0,0 +1,44 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.spljava;
+
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.Tuple;
+
+/**
+ * SPL tuple for a TStream<Long> Uses the SPL schema Schemas.INT64.
+ * The value is held as a native SPL {@code int64} attribute
+ * rather than a serialized Java object.
+ */
+class LongMapping extends SPLMapping<Long> {
+
+    // Singleton, as stateless.
+    LongMapping() {
+        super(Schemas.INT64);
+    }
+
+    @Override
+    public Tuple convertTo(Long tuple) {
+        if (tuple == 0L)
+            return getSchema().getTuple();
+
+        return getSchema().getTuple(new Object[] { tuple });
+    }
+
+    @Override
+    public Long convertFrom(Tuple tuple) {
+        return tuple.getLong(0);
+    }
+    
+    @Override
+    public boolean canSetOutput() {
+        return true;
+    }
+    
+    @Override
+    public void setOutput(OutputTuple out, Long tuple) {
+        out.setLong(0, tuple);
+    }
+}
@@ -1,10 +1,11 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.spljava;
 
 import java.io.IOException;
+import java.util.Set;
 
 import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.Tuple;
@@ -37,6 +38,16 @@ class SPLJavaObject extends SPLMapping<Object> {
 
     @Override
     public Object convertFrom(Tuple tuple) {
+        return convertFrom(tuple, null);
+    }
+
+    /**
+     * Convert a tuple, an object passed by reference is
+     * returned as-is, otherwise if {@code fields} is not null only
+     * those fields are deserialized, if supported by the serializer.
+     */
+    @Override
+    public Object convertFrom(Tuple tuple, Set<String> fields) {
         Blob blob = tuple.getBlob(0);
 
         if (blob instanceof JavaObjectBlob) {
@@ -45,6 +56,8 @@ class SPLJavaObject extends SPLMapping<Object> {
         }
         
         try {
+            if (fields != null)
+                return serializer.deserialize(blob.getInputStream(), fields);
             return serializer.deserialize(blob.getInputStream());
         } catch (IOException e) {
             throw new RuntimeException(e);
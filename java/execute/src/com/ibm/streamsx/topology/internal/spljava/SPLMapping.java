@@ -1,9 +1,12 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.spljava;
 
+import java.util.Set;
+
+import com.ibm.streams.operator.OutputTuple;
 import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.Tuple;
 
@@ -19,6 +22,9 @@ public abstract class SPLMapping<T> {
     static final StringMapping JavaString = new StringMapping();
     static final BlobMapping JavaBlob = new BlobMapping();
     static final XMLMapping JavaXML = new XMLMapping();
+    static final LongMapping JavaLong = new LongMapping();
+    static final IntegerMapping JavaInteger = new IntegerMapping();
+    static final DoubleMapping JavaDouble = new DoubleMapping();
 
     private final StreamSchema schema;
 
@@ -32,4 +38,31 @@ public abstract class SPLMapping<T> {
     public abstract Tuple convertTo(T tuple);
 
     public abstract T convertFrom(Tuple tuple);
+    
+    /**
+     * Convert a tuple where only {@code fields} of the
+     * Java object are read. By default the complete
+     * object is converted.
+     */
+    public T convertFrom(Tuple tuple, Set<String> fields) {
+        return convertFrom(tuple);
+    }
+    
+    /**
+     * Can this mapping set the attributes of an output tuple
+     * directly using {@link #setOutput(OutputTuple, Object)}, avoiding
+     * the creation of an intermediate tuple by {@link #convertTo(Object)}.
+     */
+    public boolean canSetOutput() {
+        return false;
+    }
+    
+    /**
+     * Set the attributes of {@code out} to represent {@code tuple}.
+     * By default {@code tuple} is converted using {@link #convertTo(Object)}
+     * and assigned to {@code out}.
+     */
+    public void setOutput(OutputTuple out, T tuple) {
+        out.assign(convertTo(tuple));
+    }
 }
\ No newline at end of file
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.spljava;
 
@@ -8,10 +8,13 @@ import static com.ibm.streams.operator.Type.Factory.getStreamSchema;
 import static com.ibm.streamsx.topology.internal.logic.ObjectUtils.deserializeLogic;
 
 import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
 
 import com.ibm.streams.operator.StreamSchema;
 import com.ibm.streams.operator.types.Blob;
 import com.ibm.streams.operator.types.XML;
+import com.ibm.streamsx.topology.function.ToIntFunction;
 import com.ibm.streamsx.topology.internal.functional.ObjectSchemas;
 import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 
@@ -23,6 +26,21 @@ public class Schemas {
     static final StreamSchema BLOB = getStreamSchema(ObjectSchemas.BLOB_SCHEMA);
     static final StreamSchema XML = getStreamSchema(ObjectSchemas.XML_SCHEMA);
     static final StreamSchema JAVA_OBJECT = getStreamSchema(ObjectSchemas.JAVA_OBJECT_SCHEMA);
+    static final StreamSchema INT64 = getStreamSchema(ObjectSchemas.INT64_SCHEMA);
+    static final StreamSchema INT32 = getStreamSchema(ObjectSchemas.INT32_SCHEMA);
+    static final StreamSchema FLOAT64 = getStreamSchema(ObjectSchemas.FLOAT64_SCHEMA);
+    
+    /**
+     * Schemas with the hash attribute of a keyed parallel
+     * region mapped to the schema without it.
+     */
+    private static final Map<StreamSchema, StreamSchema> HASHED = new HashMap<>();
+    static {
+        for (String schema : new String[] {ObjectSchemas.STRING_SCHEMA, ObjectSchemas.BLOB_SCHEMA,
+                ObjectSchemas.XML_SCHEMA, ObjectSchemas.JAVA_OBJECT_SCHEMA, ObjectSchemas.INT64_SCHEMA,
+                ObjectSchemas.INT32_SCHEMA, ObjectSchemas.FLOAT64_SCHEMA})
+            HASHED.put(getStreamSchema(ObjectSchemas.schemaWithHash(schema)), getStreamSchema(schema));
+    }
     
     /**
      * Return the SPL schema that will be used at runtime
@@ -39,6 +57,15 @@ public class Schemas {
         if (XML.class.equals(tupleType)) {
             return XML;
         }
+        if (Long.class.equals(tupleType)) {
+            return INT64;
+        }
+        if (Integer.class.equals(tupleType)) {
+            return INT32;
+        }
+        if (Double.class.equals(tupleType)) {
+            return FLOAT64;
+        }
 
         return JAVA_OBJECT;
     }
@@ -48,6 +75,40 @@ public class Schemas {
         return new SPLJavaObject(JAVA_OBJECT, serializer);
     }
 
+    /**
+     * Get the schema of a tuple without the hash attribute
+     * of a keyed parallel region.
+     * @throws IllegalStateException If {@code schema} is not a schema with the hash attribute.
+     */
+    public static StreamSchema withoutHash(StreamSchema schema) {
+        StreamSchema unhashed = HASHED.get(schema);
+        if (unhashed == null)
+            throw new IllegalStateException(schema.getLanguageType());
+        return unhashed;
+    }
+
+    /**
+     * Get a mapping for a schema with the hash attribute
+     * of a keyed parallel region, where the hash is set by {@code hasher}
+     * and the value converted by {@code mapping}.
+     */
+    public static <T> SPLMapping<T> getHashMapping(StreamSchema schema,
+            SPLMapping<T> mapping, ToIntFunction<T> hasher) {
+        return new HashMapping<>(schema, mapping, hasher);
+    }
+
+    /**
+     * Get the mapping for a schema using {@code objectSerializer}
+     * for Java object tuples if it is not null or empty.
+     */
+    public static SPLMapping<?> getSPLMapping(StreamSchema schema, String objectSerializer)
+            throws ClassNotFoundException {
+        if (objectSerializer != null && !objectSerializer.isEmpty()
+                && JAVA_OBJECT.equals(schema))
+            return getObjectMapping(objectSerializer);
+        return getSPLMapping(schema);
+    }
+
     public static SPLMapping<?> getSPLMapping(StreamSchema schema) {
 
         if (STRING.equals(schema)) {
@@ -62,6 +123,15 @@ public class Schemas {
         if (XML.equals(schema)) {
             return SPLMapping.JavaXML;
         }
+        if (INT64.equals(schema)) {
+            return SPLMapping.JavaLong;
+        }
+        if (INT32.equals(schema)) {
+            return SPLMapping.JavaInteger;
+        }
+        if (FLOAT64.equals(schema)) {
+            return SPLMapping.JavaDouble;
+        }
 
         return new SPLTuple(schema);
     }
@@ -1,9 +1,10 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.spljava;
 
+import com.ibm.streams.operator.OutputTuple;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.types.RString;
 
@@ -30,4 +31,14 @@ class StringMapping extends SPLMapping<String> {
     public String convertFrom(Tuple tuple) {
         return tuple.getString(0);
     }
+    
+    @Override
+    public boolean canSetOutput() {
+        return true;
+    }
+    
+    @Override
+    public void setOutput(OutputTuple out, String tuple) {
+        out.setString(0, tuple);
+    }
 }
@@ -0,0 +1,67 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.function;
+
+import java.io.Serializable;
+
+/**
+ * Optional interface that a stateful function can implement
+ * to control how its state is checkpointed.
+ * <P>
+ * When checkpointing or a consistent region is configured a stateful
+ * function is by default checkpointed by serializing the function
+ * while holding its monitor, thus tuple processing by the function
+ * is blocked for the duration of the serialization.
+ * <BR>
+ * A function that implements {@code Checkpointable} instead
+ * provides a snapshot of its state. Only {@link #snapshot()} is
+ * called holding the function's monitor, the returned snapshot
+ * is serialized without holding the monitor, so that the function
+ * can continue to process tuples.
+ * Thus {@link #snapshot()} must be quick and the returned snapshot
+ * must not be modified by subsequent processing, for example
+ * a copy of the state or an immutable view of a persistent
+ * or copy-on-write data structure.
+ * </P>
+ * <P>
+ * On a reset the function is recreated from its initial
+ * (declared) state and {@link #restore(Serializable)} is
+ * called with the snapshot read from the checkpoint, prior to the
+ * function being {@link Initializable#initialize(FunctionContext) initialized}.
+ * </P>
+ *
+ * @param <S> Type of the state snapshot.
+ *
+ * @since 1.14
+ */
+public interface Checkpointable<S extends Serializable> {
+
+    /**
+     * Take a snapshot of this function's state.
+     * Called holding this function's monitor.
+     * @return Snapshot of the state that is not modified by
+     * subsequent processing.
+     */
+    S snapshot();
+
+    /**
+     * Restore this function's state from a snapshot.
+     * @param snapshot Snapshot previously returned by {@link #snapshot()}.
+     */
+    void restore(S snapshot);
+
+    /**
+     * Should the serialized snapshot be compressed.
+     * Compression reduces the size of the checkpoint at
+     * the cost of additional processing when checkpointing
+     * and resetting.
+     * <BR>
+     * This implementation returns {@code false}.
+     * @return True if the checkpoint is compressed.
+     */
+    default boolean compressCheckpoint() {
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.function;
+
+import java.io.Serializable;
+
+/**
+ * Aggregation of a window that is maintained incrementally
+ * as tuples are inserted into and evicted from the window.
+ * <BR>
+ * Each window partition has its own aggregation state that is
+ * created by {@link #initialState()}. As each tuple is inserted
+ * into the window {@link #add(Object, Object)} is called and as each
+ * tuple is evicted {@link #remove(Object, Object)} is called. Tuples
+ * are always evicted in the order they were inserted.
+ * {@link #result(Object)} is called to produce an aggregation
+ * when the window is triggered.
+ * <BR>
+ * Thus the cost of each aggregation is independent of the
+ * number of tuples in the window, as opposed to
+ * {@link com.ibm.streamsx.topology.TWindow#aggregate(Function)}
+ * where the aggregation function is passed all tuples in the window.
+ * <BR>
+ * Each method may return a new state object or modify and return
+ * the passed in state.
+ * <BR>
+ * If an implementation also implements
+ * {@code java.lang.AutoCloseable} then it will be
+ * automatically closed when the application terminates.
+ *
+ * @param <T>
+ *            Type of the tuples in the window.
+ * @param <S>
+ *            Type of the aggregation state.
+ * @param <A>
+ *            Type of the aggregation result.
+ *
+ * @see com.ibm.streamsx.topology.TWindow#aggregate(IncrementalAggregator)
+ * @since 1.14
+ */
+public interface IncrementalAggregator<T, S, A> extends Serializable {
+
+    /**
+     * Create the aggregation state for an empty window partition.
+     * @return Initial aggregation state.
+     */
+    S initialState();
+
+    /**
+     * Add a tuple inserted into the window to the aggregation state.
+     * @param state Current aggregation state.
+     * @param tuple Tuple inserted into the window.
+     * @return Aggregation state including {@code tuple}.
+     */
+    S add(S state, T tuple);
+
+    /**
+     * Remove a tuple evicted from the window from the aggregation state.
+     * @param state Current aggregation state.
+     * @param tuple Tuple evicted from the window.
+     * @return Aggregation state excluding {@code tuple}.
+     */
+    S remove(S state, T tuple);
+
+    /**
+     * Produce the aggregation for the current state.
+     * @param state Current aggregation state.
+     * @return Aggregation to be submitted, if {@code null} then
+     * no tuple is submitted.
+     */
+    A result(S state);
+}
@@ -0,0 +1,42 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.function;
+
+import java.util.Set;
+
+/**
+ * Optional interface for a function that only reads
+ * some fields of its input tuple.
+ * <P>
+ * A {@link com.ibm.streamsx.topology.TStream#filter(Predicate) filter}
+ * or {@link com.ibm.streamsx.topology.TStream#split(int, ToIntFunction) split}
+ * function that implements {@code Projection} may be passed a tuple
+ * where only the fields returned by {@link #getProjectedFields()}
+ * have been deserialized, any other field having its default value
+ * ({@code null}, zero or {@code false}). This avoids decoding the
+ * remainder of a tuple that arrives serialized from another processing element.
+ * Tuples submitted by the filter or split are always the complete
+ * input tuples.
+ * </P>
+ * <P>
+ * Projection is a hint, it is only applied when the
+ * stream's {@link com.ibm.streamsx.topology.spi.runtime.TupleSerializer serializer}
+ * supports partial decoding, such as a
+ * {@link com.ibm.streamsx.topology.spi.runtime.TupleSerializer#compact(Class...) compact}
+ * serializer where the tuple's class is registered. Otherwise the
+ * function is passed the complete tuple.
+ * </P>
+ *
+ * @since 1.14
+ */
+public interface Projection {
+
+    /**
+     * Names of the fields of the input tuple read by this function.
+     * Called once when the function is initialized.
+     * @return Names of the fields read by this function.
+     */
+    Set<String> getProjectedFields();
+}
@@ -0,0 +1,41 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.function;
+
+/**
+ * Marker interface for a function that can be called
+ * concurrently by multiple threads.
+ * <P>
+ * By default a function is called while holding its own
+ * monitor ({@code synchronized}) so that a function with state
+ * never sees concurrent calls, even when the operator executing it
+ * has multiple threads delivering tuples, for example with
+ * {@link com.ibm.streamsx.topology.TStream#parallel(int) parallel}
+ * regions fused into a single processing element or
+ * threaded input ports.
+ * </P>
+ * <P>
+ * A function that implements {@code ThreadSafe} is called without
+ * holding its monitor, so that tuples can be processed concurrently.
+ * The function is responsible for the safety of any state it maintains.
+ * <BR>
+ * A function that has no instance fields, or only {@code final} fields
+ * of immutable types such as {@code String} or {@code Integer}, is
+ * detected as stateless and is also called without holding its monitor.
+ * <BR>
+ * Window aggregations and joins call a thread safe function holding
+ * only the lock for the tuple's window partition, so that
+ * different partitions are processed concurrently.
+ * </P>
+ * <P>
+ * When checkpointing or a consistent region is configured a function
+ * with state is always called holding its monitor, so that a checkpoint
+ * sees a consistent state.
+ * </P>
+ *
+ * @since 1.14
+ */
+public interface ThreadSafe {
+}
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016
+# Copyright IBM Corp. 2016, 2019
  */
 package com.ibm.streamsx.topology.internal.functional;
 
@@ -18,4 +18,21 @@ public interface FunctionalOpProperties {
     String JOIN_KEY_GETTER_PARAM = "joinKeyGetter";
     
     String WINDOW_KEY_GETTER_PARAM = "keyGetter";
+    
+    String JOIN_MATCH_KEY_GETTER_PARAM = "joinMatchKeyGetter";
+    
+    String WINDOW_MATCH_KEY_GETTER_PARAM = "windowMatchKeyGetter";
+    
+    /** The name of the windowed functional operator's SPL parameter
+     * for the number of tuples of a partition held on the heap. */
+    String WINDOW_SPILL_TUPLES_PARAM = "spillTuples";
+    
+    /** The name of the functional operator's SPL parameter
+     * for the serializer of Java object tuples. */
+    String OBJECT_SERIALIZER_PARAM = "objectSerializer";
+    
+    /** The name of the functional operator's SPL parameter
+     * for the hash function of a keyed parallel region, set when the
+     * operator's output port includes the hash attribute. */
+    String OUTPUT_HASHER_PARAM = "outputHasher";
 }
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017 
+# Copyright IBM Corp. 2017, 2019
  */
 package com.ibm.streamsx.topology.internal.functional;
 
@@ -16,6 +16,9 @@ public abstract class ObjectSchemas {
     public static final String XML_SCHEMA = "tuple<xml document>";
     public static final String JAVA_OBJECT_SCHEMA = "tuple<blob __spl_jo>";
     public static final String JSON_SCHEMA = "tuple<rstring jsonString>";
+    public static final String INT64_SCHEMA = "tuple<int64 __spl_int64>";
+    public static final String INT32_SCHEMA = "tuple<int32 __spl_int32>";
+    public static final String FLOAT64_SCHEMA = "tuple<float64 __spl_float64>";
     
     private static final Set<String> DIRECT_SCHEMA_CLASSES;
     static {
@@ -23,6 +26,9 @@ public abstract class ObjectSchemas {
         directSchemaClasses.add(String.class.getName());
         directSchemaClasses.add("com.ibm.streams.operator.types.Blob");
         directSchemaClasses.add("com.ibm.streams.operator.types.XML");
+        directSchemaClasses.add(Long.class.getName());
+        directSchemaClasses.add(Integer.class.getName());
+        directSchemaClasses.add(Double.class.getName());
         
         DIRECT_SCHEMA_CLASSES = Collections.unmodifiableSet(directSchemaClasses);
     }
@@ -33,11 +39,28 @@ public abstract class ObjectSchemas {
         return false;
     }
     
+    /**
+     * Classes with a native SPL schema that are published and subscribed
+     * to as Java objects ({@code PublishJava}/{@code SubscribeJava} with
+     * {@link #JAVA_OBJECT_SCHEMA}) so that applications built before
+     * the native schemas continue to match on the same topic.
+     */
+    public static boolean publishesAsJavaObject(Type type) {
+        return Long.class.equals(type) || Integer.class.equals(type)
+                || Double.class.equals(type);
+    }
+    
     public static String getMappingSchema(Type tupleType) {
         if (tupleType instanceof Class) {
 
             if (String.class.equals(tupleType))
                 return STRING_SCHEMA;
+            if (Long.class.equals(tupleType))
+                return INT64_SCHEMA;
+            if (Integer.class.equals(tupleType))
+                return INT32_SCHEMA;
+            if (Double.class.equals(tupleType))
+                return FLOAT64_SCHEMA;
 
             Class<?> clazz = (Class<?>) tupleType;
 
@@ -60,6 +83,9 @@ public abstract class ObjectSchemas {
         case BLOB_SCHEMA:
         case XML_SCHEMA:
         case JSON_SCHEMA:
+        case INT64_SCHEMA:
+        case INT32_SCHEMA:
+        case FLOAT64_SCHEMA:
             return schema.replace(">", HASH_ATTR_SCHEMA);
         default:
             throw new IllegalStateException(schema);
@@ -0,0 +1,58 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.Predicate;
+
+/**
+ * Filters the elements of a batch.
+ * <BR>
+ * A batch where every element passes the filter is returned
+ * as-is, otherwise a new batch containing the passing elements
+ * is returned. The input batch is not modified, as a tuple may be
+ * passed by reference to multiple downstream operators.
+ * A batch with no passing elements results in no tuple.
+ */
+public final class BatchFilter<T> implements Function<List<T>, List<T>>,
+        WrapperFunction {
+    private static final long serialVersionUID = 1L;
+
+    private final Predicate<T> filter;
+
+    public BatchFilter(Predicate<T> filter) {
+        this.filter = filter;
+    }
+
+    @Override
+    public Object getWrappedFunction() {
+        return filter;
+    }
+
+    @Override
+    public List<T> apply(List<T> batch) {
+        List<T> filtered = null;
+        int passed = 0;
+        for (T tuple : batch) {
+            final boolean pass = filter.test(tuple);
+            if (filtered != null) {
+                if (pass)
+                    filtered.add(tuple);
+            } else if (pass) {
+                passed++;
+            } else {
+                // First failing element, copy the preceding elements.
+                filtered = new ArrayList<>(batch.size() - 1);
+                filtered.addAll(batch.subList(0, passed));
+            }
+        }
+        if (filtered == null)
+            return batch;
+        return filtered.isEmpty() ? null : filtered;
+    }
+}
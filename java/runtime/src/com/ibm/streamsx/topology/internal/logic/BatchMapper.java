@@ -0,0 +1,45 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.streamsx.topology.function.Function;
+
+/**
+ * Applies a function to each element of a batch,
+ * returning a batch of the non-null results.
+ * <BR>
+ * The input batch is not modified, as a tuple may be
+ * passed by reference to multiple downstream operators.
+ * An empty batch results in no tuple.
+ */
+public final class BatchMapper<T, U> implements Function<List<T>, List<U>>,
+        WrapperFunction {
+    private static final long serialVersionUID = 1L;
+
+    private final Function<T, U> mapper;
+
+    public BatchMapper(Function<T, U> mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Object getWrappedFunction() {
+        return mapper;
+    }
+
+    @Override
+    public List<U> apply(List<T> batch) {
+        final List<U> mapped = new ArrayList<>(batch.size());
+        for (T tuple : batch) {
+            U result = mapper.apply(tuple);
+            if (result != null)
+                mapped.add(result);
+        }
+        return mapped.isEmpty() ? null : mapped;
+    }
+}
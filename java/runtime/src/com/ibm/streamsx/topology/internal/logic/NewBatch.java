@@ -0,0 +1,29 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.logic;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.streamsx.topology.function.Supplier;
+
+/**
+ * Supplies the empty list for each batch of tuples,
+ * sized for a full batch.
+ */
+public final class NewBatch<T> implements Supplier<List<T>> {
+    private static final long serialVersionUID = 1L;
+
+    private final int maxSize;
+
+    public NewBatch(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public List<T> get() {
+        return new ArrayList<>(maxSize);
+    }
+}
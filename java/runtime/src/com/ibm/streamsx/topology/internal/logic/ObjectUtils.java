@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.logic;
 
@@ -91,6 +91,21 @@ public class ObjectUtils {
     }
     
     public static boolean isImmutable(Class<?> clazz) {
+        return isImmutable(clazz, false);
+    }
+    
+    /**
+     * See if the functional logic has no state at all,
+     * so that it can be called concurrently without synchronization.
+     * 
+     * As {@link #isImmutable(Class)} but transient
+     * instance fields are also considered state.
+     */
+    public static boolean isStateless(Class<?> clazz) {
+        return isImmutable(clazz, true);
+    }
+    
+    private static boolean isImmutable(Class<?> clazz, boolean includeTransient) {
                
         do {
                Field[] fields = clazz.getDeclaredFields();
@@ -98,7 +113,7 @@ public class ObjectUtils {
                    if (Modifier.isStatic(field.getModifiers()))
                        continue;
                    
-                   if (Modifier.isTransient(field.getModifiers()))
+                   if (!includeTransient && Modifier.isTransient(field.getModifiers()))
                        continue;
                    
                    if (!Modifier.isFinal(field.getModifiers()))
@@ -111,7 +126,7 @@ public class ObjectUtils {
                        continue;
                    
                    if (field.getType().isEnum()) {
-                       if (isImmutable(field.getType()))
+                       if (isImmutable(field.getType(), includeTransient))
                            continue;
                    }
                    
@@ -0,0 +1,731 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.spi.runtime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact tuple serializer.
+ * <P>
+ * Common value types ({@code String}, boxed primitives, {@code byte[]},
+ * {@code ArrayList} and {@code HashMap}) are written with a single byte tag
+ * and variable length integer encoding. Instances of registered classes are
+ * written as the registration index followed by the non-transient
+ * instance fields of the class and its serializable super-classes, avoiding the class descriptors and reflective data
+ * written by {@code ObjectOutputStream} for every tuple.
+ * <BR>
+ * Any other object, and a registered class that defines custom
+ * serialization ({@code writeObject}, {@code writeReplace} etc.) or has no
+ * no-argument constructor, is written using Java serialization.
+ * </P>
+ * <P>
+ * Fields of a super-class that is not serializable are not written,
+ * as with Java serialization they are initialized by the
+ * no-argument constructor when the object is read.
+ * </P>
+ * <P>
+ * Object graphs of registered classes are written as trees,
+ * shared references are written once per reference.
+ * A tuple containing a cyclic reference is written
+ * using Java serialization.
+ * </P>
+ * <P>
+ * A tuple of a registered class can be partially decoded using
+ * {@link #deserialize(InputStream, Set)}, the values of fields
+ * that are not required are skipped without being deserialized.
+ * </P>
+ * <P>
+ * Operators producing and consuming a stream must use serializers with
+ * the same class registrations in the same order.
+ * </P>
+ */
+final class CompactSerializer implements TupleSerializer {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * First byte of a serialized tuple, distinct from the
+     * first byte of the Java serialization stream magic.
+     */
+    private static final int MAGIC = 0xC5;
+
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int LONG = 2;
+    private static final int INTEGER = 3;
+    private static final int DOUBLE = 4;
+    private static final int TRUE = 5;
+    private static final int FALSE = 6;
+    private static final int BYTES = 7;
+    private static final int JAVA = 8;
+    private static final int FLOAT = 9;
+    private static final int SHORT = 10;
+    private static final int BYTE = 11;
+    private static final int CHAR = 12;
+    private static final int ARRAY_LIST = 13;
+    private static final int HASH_MAP = 14;
+    private static final int REGISTERED = 16;
+
+    /**
+     * Pooled buffers are discarded if they grow larger than this.
+     */
+    private static final int POOLED_BUFFER_LIMIT = 64 * 1024;
+
+    private static final ThreadLocal<Buffer> BUFFERS = new ThreadLocal<Buffer>() {
+        @Override
+        protected Buffer initialValue() {
+            return new Buffer();
+        }
+    };
+
+    /**
+     * Registered class names, names are used rather than
+     * classes so that the serializer can be deserialized
+     * without the classes being loadable.
+     */
+    private final String[] registered;
+
+    private transient Map<String, Integer> ids;
+    private transient Map<String, ClassInfo> infos;
+
+    CompactSerializer(Class<?>... classes) {
+        registered = new String[classes.length];
+        for (int i = 0; i < classes.length; i++)
+            registered[i] = classes[i].getName();
+    }
+
+    private Object readResolve() {
+        init();
+        return this;
+    }
+
+    private synchronized void init() {
+        if (ids != null)
+            return;
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < registered.length; i++)
+            map.put(registered[i], i);
+        infos = new ConcurrentHashMap<>();
+        ids = map;
+    }
+
+    @Override
+    public void serialize(Object tuple, OutputStream output) throws IOException {
+        if (ids == null)
+            init();
+        final Buffer buffer = BUFFERS.get();
+        buffer.reset();
+        try {
+            buffer.writeByte(MAGIC);
+            try {
+                writeValue(buffer, tuple);
+            } catch (CyclicReferenceException e) {
+                buffer.reset();
+                buffer.writeByte(MAGIC);
+                writeJava(buffer, tuple);
+            }
+            output.write(buffer.data, 0, buffer.size);
+        } finally {
+            if (buffer.data.length > POOLED_BUFFER_LIMIT)
+                BUFFERS.remove();
+        }
+    }
+
+    @Override
+    public Object deserialize(InputStream input) throws IOException, ClassNotFoundException {
+        return deserialize(input, null);
+    }
+
+    /**
+     * Deserialize a tuple, if the tuple is an instance of a registered
+     * class then only {@code fields} are deserialized. Fields of
+     * nested objects are always deserialized.
+     */
+    @Override
+    public Object deserialize(InputStream input, Set<String> fields) throws IOException, ClassNotFoundException {
+        if (ids == null)
+            init();
+        final Buffer buffer = BUFFERS.get();
+        buffer.reset();
+        try {
+            buffer.readFrom(input);
+            if (buffer.size == 0 || buffer.readByte() != MAGIC)
+                throw new StreamCorruptedException("Not a compact serialized tuple");
+            return fields == null ? readValue(buffer) : readProjected(buffer, fields);
+        } finally {
+            if (buffer.data.length > POOLED_BUFFER_LIMIT)
+                BUFFERS.remove();
+        }
+    }
+
+    private void writeValue(Buffer out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        final Class<?> clazz = value.getClass();
+        if (clazz == String.class) {
+            out.writeByte(STRING);
+            out.writeBytes(((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (clazz == Long.class) {
+            out.writeByte(LONG);
+            out.writeVarLong(zigzag((Long) value));
+        } else if (clazz == Integer.class) {
+            out.writeByte(INTEGER);
+            out.writeVarLong(zigzag((Integer) value));
+        } else if (clazz == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeFixedLong(Double.doubleToRawLongBits((Double) value));
+        } else if (clazz == Boolean.class) {
+            out.writeByte(((Boolean) value) ? TRUE : FALSE);
+        } else if (clazz == byte[].class) {
+            out.writeByte(BYTES);
+            out.writeBytes((byte[]) value);
+        } else if (clazz == Float.class) {
+            out.writeByte(FLOAT);
+            out.writeVarLong(Float.floatToRawIntBits((Float) value) & 0xFFFFFFFFL);
+        } else if (clazz == Short.class) {
+            out.writeByte(SHORT);
+            out.writeVarLong(zigzag((Short) value));
+        } else if (clazz == Byte.class) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (clazz == Character.class) {
+            out.writeByte(CHAR);
+            out.writeVarLong((Character) value);
+        } else if (clazz == ArrayList.class) {
+            final List<?> list = (List<?>) value;
+            out.enter(value);
+            out.writeByte(ARRAY_LIST);
+            out.writeVarLong(list.size());
+            for (Object item : list)
+                writeValue(out, item);
+            out.exit(value);
+        } else if (clazz == HashMap.class) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            out.enter(value);
+            out.writeByte(HASH_MAP);
+            out.writeVarLong(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+            out.exit(value);
+        } else {
+            final Integer id = ids.get(clazz.getName());
+            final ClassInfo info = id == null ? null : classInfo(id, clazz);
+            if (info == null || info.fields == null) {
+                writeJava(out, value);
+                return;
+            }
+            out.enter(value);
+            out.writeVarLong(REGISTERED + id);
+            writeFields(out, info, value);
+            out.exit(value);
+        }
+    }
+
+    private Object readValue(Buffer in) throws IOException, ClassNotFoundException {
+        final int tag = (int) in.readVarLong();
+        switch (tag) {
+        case NULL:
+            return null;
+        case STRING:
+            return in.readString();
+        case LONG:
+            return unzigzag(in.readVarLong());
+        case INTEGER:
+            return (int) unzigzag(in.readVarLong());
+        case DOUBLE:
+            return Double.longBitsToDouble(in.readFixedLong());
+        case TRUE:
+            return Boolean.TRUE;
+        case FALSE:
+            return Boolean.FALSE;
+        case BYTES:
+            return in.readBytes();
+        case JAVA:
+            return readJava(in);
+        case FLOAT:
+            return Float.intBitsToFloat((int) in.readVarLong());
+        case SHORT:
+            return (short) unzigzag(in.readVarLong());
+        case BYTE:
+            return (byte) in.readByte();
+        case CHAR:
+            return (char) in.readVarLong();
+        case ARRAY_LIST: {
+            final int size = (int) in.readVarLong();
+            final ArrayList<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                list.add(readValue(in));
+            return list;
+        }
+        case HASH_MAP: {
+            final int size = (int) in.readVarLong();
+            final HashMap<Object, Object> map = new HashMap<>();
+            for (int i = 0; i < size; i++)
+                map.put(readValue(in), readValue(in));
+            return map;
+        }
+        default:
+            final int id = tag - REGISTERED;
+            if (id < 0 || id >= registered.length)
+                throw new StreamCorruptedException("Invalid tag:" + tag);
+            return readFields(in, classInfo(id, null));
+        }
+    }
+
+    /**
+     * Read a tuple where only {@code fields} of a registered class are read.
+     */
+    private Object readProjected(Buffer in, Set<String> fields) throws IOException, ClassNotFoundException {
+        final int start = in.position;
+        final int id = (int) in.readVarLong() - REGISTERED;
+        if (id < 0 || id >= registered.length) {
+            in.position = start;
+            return readValue(in);
+        }
+        return readFields(in, classInfo(id, null), fields);
+    }
+
+    /**
+     * Skip an encoded value without deserializing it.
+     */
+    private void skipValue(Buffer in) throws IOException {
+        final int tag = (int) in.readVarLong();
+        switch (tag) {
+        case NULL:
+        case TRUE:
+        case FALSE:
+            return;
+        case STRING:
+        case BYTES:
+        case JAVA:
+            in.skip((int) in.readVarLong());
+            return;
+        case LONG:
+        case INTEGER:
+        case FLOAT:
+        case SHORT:
+        case CHAR:
+            in.readVarLong();
+            return;
+        case DOUBLE:
+            in.skip(8);
+            return;
+        case BYTE:
+            in.skip(1);
+            return;
+        case ARRAY_LIST: {
+            final int size = (int) in.readVarLong();
+            for (int i = 0; i < size; i++)
+                skipValue(in);
+            return;
+        }
+        case HASH_MAP: {
+            final int size = (int) in.readVarLong();
+            for (int i = 0; i < 2 * size; i++)
+                skipValue(in);
+            return;
+        }
+        default:
+            final int id = tag - REGISTERED;
+            if (id < 0 || id >= registered.length)
+                throw new StreamCorruptedException("Invalid tag:" + tag);
+            for (Field field : classInfo(id, null).fields)
+                skipField(in, field.getType());
+        }
+    }
+
+    private void skipField(Buffer in, Class<?> type) throws IOException {
+        if (!type.isPrimitive())
+            skipValue(in);
+        else if (type == double.class)
+            in.skip(8);
+        else if (type == boolean.class || type == byte.class)
+            in.skip(1);
+        else
+            in.readVarLong();
+    }
+
+    private void writeFields(Buffer out, ClassInfo info, Object value) throws IOException {
+        try {
+            for (Field field : info.fields) {
+                final Class<?> type = field.getType();
+                if (!type.isPrimitive())
+                    writeValue(out, field.get(value));
+                else if (type == long.class)
+                    out.writeVarLong(zigzag(field.getLong(value)));
+                else if (type == int.class)
+                    out.writeVarLong(zigzag(field.getInt(value)));
+                else if (type == double.class)
+                    out.writeFixedLong(Double.doubleToRawLongBits(field.getDouble(value)));
+                else if (type == boolean.class)
+                    out.writeByte(field.getBoolean(value) ? 1 : 0);
+                else if (type == float.class)
+                    out.writeVarLong(Float.floatToRawIntBits(field.getFloat(value)) & 0xFFFFFFFFL);
+                else if (type == short.class)
+                    out.writeVarLong(zigzag(field.getShort(value)));
+                else if (type == byte.class)
+                    out.writeByte(field.getByte(value));
+                else
+                    out.writeVarLong(field.getChar(value));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private Object readFields(Buffer in, ClassInfo info) throws IOException, ClassNotFoundException {
+        return readFields(in, info, null);
+    }
+
+    /**
+     * Read the fields of a registered class, if {@code projected}
+     * is not null then values of fields not in {@code projected} are skipped.
+     */
+    private Object readFields(Buffer in, ClassInfo info, Set<String> projected)
+            throws IOException, ClassNotFoundException {
+        try {
+            final Object value = info.constructor.newInstance();
+            for (Field field : info.fields) {
+                final Class<?> type = field.getType();
+                if (projected != null && !projected.contains(field.getName()))
+                    skipField(in, type);
+                else if (!type.isPrimitive())
+                    field.set(value, readValue(in));
+                else if (type == long.class)
+                    field.setLong(value, unzigzag(in.readVarLong()));
+                else if (type == int.class)
+                    field.setInt(value, (int) unzigzag(in.readVarLong()));
+                else if (type == double.class)
+                    field.setDouble(value, Double.longBitsToDouble(in.readFixedLong()));
+                else if (type == boolean.class)
+                    field.setBoolean(value, in.readByte() != 0);
+                else if (type == float.class)
+                    field.setFloat(value, Float.intBitsToFloat((int) in.readVarLong()));
+                else if (type == short.class)
+                    field.setShort(value, (short) unzigzag(in.readVarLong()));
+                else if (type == byte.class)
+                    field.setByte(value, (byte) in.readByte());
+                else
+                    field.setChar(value, (char) in.readVarLong());
+            }
+            return value;
+        } catch (ReflectiveOperationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static void writeJava(Buffer out, Object value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(value);
+        }
+        out.writeByte(JAVA);
+        out.writeBytes(bytes.toByteArray());
+    }
+
+    private static Object readJava(Buffer in) throws IOException, ClassNotFoundException {
+        final int length = (int) in.readVarLong();
+        final InputStream bytes = new ByteArrayInputStream(in.data, in.position, length);
+        in.position += length;
+        try (ObjectInputStream ois = new ObjectInputStream(bytes)) {
+            return ois.readObject();
+        }
+    }
+
+    /**
+     * Get the information for a registered class,
+     * {@code clazz} is null when reading.
+     */
+    private ClassInfo classInfo(int id, Class<?> clazz) throws IOException {
+        final String name = registered[id];
+        ClassInfo info = infos.get(name);
+        if (info == null) {
+            try {
+                if (clazz == null)
+                    clazz = loadClass(name);
+            } catch (ClassNotFoundException e) {
+                throw new IOException(e);
+            }
+            info = new ClassInfo(clazz);
+            infos.put(name, info);
+        }
+        return info;
+    }
+
+    private Class<?> loadClass(String name) throws ClassNotFoundException {
+        try {
+            return Class.forName(name, false, getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            final ClassLoader context = Thread.currentThread().getContextClassLoader();
+            if (context == null)
+                throw e;
+            return Class.forName(name, false, context);
+        }
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Serialization information for a registered class,
+     * {@code fields} is null if the class is serialized
+     * using Java serialization.
+     */
+    private static final class ClassInfo {
+        private static final Comparator<Field> BY_NAME = new Comparator<Field>() {
+            @Override
+            public int compare(Field f1, Field f2) {
+                return f1.getName().compareTo(f2.getName());
+            }
+        };
+
+        final Constructor<?> constructor;
+        final Field[] fields;
+
+        ClassInfo(Class<?> clazz) {
+            Constructor<?> ctor = null;
+            Field[] classFields = null;
+            if (isCompact(clazz)) {
+                try {
+                    ctor = clazz.getDeclaredConstructor();
+                    ctor.setAccessible(true);
+                    classFields = fields(clazz);
+                } catch (NoSuchMethodException | SecurityException e) {
+                    ctor = null;
+                    classFields = null;
+                }
+            }
+            this.constructor = ctor;
+            this.fields = classFields;
+        }
+
+        /**
+         * Fields of the class and its serializable super-classes,
+         * super-class fields first, each class's fields
+         * in name order so the order is consistent across JVMs.
+         */
+        private static Field[] fields(Class<?> clazz) {
+            final List<Class<?>> hierarchy = new ArrayList<>();
+            for (Class<?> c = clazz; c != null && Serializable.class.isAssignableFrom(c); c = c.getSuperclass())
+                hierarchy.add(0, c);
+
+            final List<Field> all = new ArrayList<>();
+            for (Class<?> c : hierarchy) {
+                final Field[] declared = c.getDeclaredFields();
+                Arrays.sort(declared, BY_NAME);
+                for (Field field : declared) {
+                    final int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+                        continue;
+                    field.setAccessible(true);
+                    all.add(field);
+                }
+            }
+            return all.toArray(new Field[all.size()]);
+        }
+
+        /**
+         * A class can be serialized by its fields if neither it nor any
+         * serializable super-class defines custom Java serialization.
+         */
+        private static boolean isCompact(Class<?> clazz) {
+            if (!Serializable.class.isAssignableFrom(clazz))
+                return false;
+            if (Externalizable.class.isAssignableFrom(clazz))
+                return false;
+            if (clazz.isArray() || clazz.isEnum() || clazz.isInterface())
+                return false;
+            for (Class<?> c = clazz; c != null && Serializable.class.isAssignableFrom(c); c = c.getSuperclass()) {
+                if (hasMethod(c, "writeObject", ObjectOutputStream.class)
+                        || hasMethod(c, "readObject", ObjectInputStream.class)
+                        || hasMethod(c, "writeReplace")
+                        || hasMethod(c, "readResolve"))
+                    return false;
+            }
+            return true;
+        }
+
+        private static boolean hasMethod(Class<?> c, String name, Class<?>... parameterTypes) {
+            try {
+                final Method m = c.getDeclaredMethod(name, parameterTypes);
+                return !Modifier.isStatic(m.getModifiers());
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Thrown when a tuple being written contains a cyclic
+     * reference, the tuple is then written using Java serialization.
+     */
+    private static final class CyclicReferenceException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+
+    /**
+     * Growable byte buffer used for both writing and reading,
+     * one is pooled per thread.
+     */
+    private static final class Buffer {
+        byte[] data = new byte[256];
+        int size;
+        int position;
+
+        /**
+         * Objects containing references that are being written,
+         * from the tuple down to the current value.
+         */
+        final Set<Object> path = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        void reset() {
+            size = 0;
+            position = 0;
+            if (!path.isEmpty())
+                path.clear();
+        }
+
+        void enter(Object value) throws CyclicReferenceException {
+            if (!path.add(value))
+                throw new CyclicReferenceException();
+        }
+
+        void exit(Object value) {
+            path.remove(value);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > data.length)
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + extra));
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            data[size++] = (byte) b;
+        }
+
+        void writeVarLong(long v) {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                data[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            data[size++] = (byte) v;
+        }
+
+        void writeFixedLong(long v) {
+            ensure(8);
+            for (int i = 0; i < 8; i++) {
+                data[size++] = (byte) v;
+                v >>>= 8;
+            }
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, data, size, bytes.length);
+            size += bytes.length;
+        }
+
+        void readFrom(InputStream input) throws IOException {
+            int n;
+            ensure(Math.max(input.available(), 1));
+            while ((n = input.read(data, size, data.length - size)) != -1) {
+                size += n;
+                if (size == data.length)
+                    ensure(data.length);
+            }
+        }
+
+        private void check(int length) throws IOException {
+            if (length < 0 || position + length > size)
+                throw new StreamCorruptedException("Truncated tuple");
+        }
+
+        int readByte() throws IOException {
+            check(1);
+            return data[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final int b = readByte();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0)
+                    return v;
+            }
+            throw new StreamCorruptedException("Invalid variable length integer");
+        }
+
+        long readFixedLong() throws IOException {
+            check(8);
+            long v = 0;
+            for (int i = 0; i < 8; i++)
+                v |= (data[position++] & 0xFFL) << (8 * i);
+            return v;
+        }
+
+        void skip(int length) throws IOException {
+            check(length);
+            position += length;
+        }
+
+        byte[] readBytes() throws IOException {
+            final int length = (int) readVarLong();
+            check(length);
+            final byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() throws IOException {
+            final int length = (int) readVarLong();
+            check(length);
+            final String s = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return s;
+        }
+    }
+}
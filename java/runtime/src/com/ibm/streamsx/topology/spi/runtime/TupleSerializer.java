@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017  
+# Copyright IBM Corp. 2017, 2019
  */
 package com.ibm.streamsx.topology.spi.runtime;
 
@@ -8,13 +8,49 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.util.Set;
 
 
+@SuppressWarnings("serial")
 public interface TupleSerializer extends Serializable {
     
     TupleSerializer JAVA_SERIALIZER = new JavaSerializer();
     
+    /**
+     * Create a compact serializer that writes instances of
+     * {@code classes} using their registration index and fields
+     * rather than Java serialization.
+     * Common value types such as {@code String}, {@code Long}
+     * and {@code byte[]} are always written compactly, any other
+     * object is written using Java serialization.
+     * <BR>
+     * Operators producing and consuming a stream must use
+     * serializers with the same classes in the same order.
+     * @param classes Classes to register.
+     * @return Compact serializer.
+     */
+    static TupleSerializer compact(Class<?>... classes) {
+        return new CompactSerializer(classes);
+    }
+    
     void serialize(Object tuple, OutputStream output) throws IOException;
     
     Object deserialize(InputStream input) throws IOException, ClassNotFoundException;
+    
+    /**
+     * Deserialize a tuple where only {@code fields} are read
+     * by the caller. A serializer that supports partial decoding
+     * may return an object where only {@code fields} are set,
+     * skipping the encoded values of any other field.
+     * <BR>
+     * The default implementation deserializes the complete tuple.
+     * @param input Serialized tuple.
+     * @param fields Names of the fields to be deserialized.
+     * @return Tuple with at least {@code fields} deserialized.
+     * @since 1.14
+     */
+    default Object deserialize(InputStream input, Set<String> fields)
+            throws IOException, ClassNotFoundException {
+        return deserialize(input);
+    }
 }
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.rest;
 
@@ -27,6 +27,7 @@ abstract class AbstractStreamsConnection {
 
     protected Executor executor;
     private boolean verify;
+    private final ResponseCache responseCache = new ResponseCache();
     private String instancesUrl;
     
     private StreamsConnection streamsConnection;
@@ -70,6 +71,9 @@ abstract class AbstractStreamsConnection {
     }
     
     public boolean allowInsecureHosts(boolean allowInsecure) {
+        // Keep the existing client and its pooled connections.
+        if (this.executor != null && verify == !allowInsecure)
+            return allowInsecure;
     	this.executor = RestUtils.createExecutor(allowInsecure);
     	verify = !allowInsecure;
     	return allowInsecure;
@@ -95,7 +99,9 @@ abstract class AbstractStreamsConnection {
     }
 
     /**
-     * Gets a response to an HTTP call
+     * Gets a response to an HTTP call.
+     * A conditional request is made if a response
+     * for the same URL that has a validator is cached.
      * 
      * @param inputString
      *            REST call to make
@@ -103,7 +109,8 @@ abstract class AbstractStreamsConnection {
      * @throws IOException
      */
     String getResponseString(String inputString) throws IOException {
-        return StreamsRestUtils.getResponseString(executor, getAuthorization(), inputString);
+        return StreamsRestUtils.getResponseString(executor, getAuthorization(), inputString,
+                responseCache);
     }
 
     /* (non-Javadoc)
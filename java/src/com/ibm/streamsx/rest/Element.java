@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.rest;
 
@@ -133,8 +133,14 @@ public abstract class Element {
     	// Assume not supported if no associated URI.
     	if (uri == null)
     		return Collections.emptyList();
+        return createListFromResponse(sc, sc.getResponseString(uri), arrayClass);
+    }
+
+    final static <E extends Element, A extends ElementArray<E>> List<E> createListFromResponse(
+            AbstractStreamsConnection sc,
+            String response, Class<A> arrayClass) {
         try {
-            A array = gson.fromJson(sc.getResponseString(uri), arrayClass);
+            A array = gson.fromJson(response, arrayClass);
             for (Element e : array.elements()) {
                 e.setConnection(sc);
             }
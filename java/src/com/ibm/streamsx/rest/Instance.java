@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.rest;
 
@@ -287,6 +287,38 @@ public class Instance extends Element {
         return ResourceAllocation.createResourceAllocationList(connection(), resourceAllocations);
     }
 
+    /**
+     * Takes a snapshot of the {@link Job jobs}, {@link ProcessingElement processing elements},
+     * {@link Operator operators} and their {@link Metric metrics} for this instance.
+     * <P>
+     * The snapshot is retrieved using the instance level job, processing element
+     * and operator lists and a single metrics request per operator and processing
+     * element, rather than navigating each job and requesting each metric individually.
+     * {@link InstanceSnapshot#refresh()} updates the snapshot incrementally,
+     * so it is suited to periodically monitoring an instance.
+     * </P>
+     * 
+     * @return Snapshot of this instance.
+     * @throws IOException Error retrieving the snapshot.
+     * 
+     * @since 1.14
+     */
+    public InstanceSnapshot snapshot() throws IOException {
+        return new InstanceSnapshot(this);
+    }
+
+    String jobsUri() {
+        return jobs;
+    }
+
+    String pesUri() {
+        return pes;
+    }
+
+    String operatorsUri() {
+        return operators;
+    }
+
     /**
      * Gets the {@link Job} for a given jobId in this instance
      * 
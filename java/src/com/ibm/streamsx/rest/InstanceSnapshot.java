@@ -0,0 +1,260 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.rest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Snapshot of the {@link Job jobs}, {@link ProcessingElement processing elements},
+ * {@link Operator operators} and their {@link Metric metrics} for an instance.
+ * <P>
+ * A snapshot is created by {@link Instance#snapshot()} and is
+ * updated by {@link #refresh()}. A refresh only replaces the lists of jobs,
+ * processing elements and operators when they have changed, and updates
+ * existing {@code Metric} objects in place, thus references to metrics
+ * obtained from a snapshot remain valid across refreshes while the
+ * metric exists.
+ * </P>
+ * <P>
+ * Requests made by a snapshot are conditional, when the Streams REST
+ * server supports {@code ETag} or {@code Last-Modified} headers an
+ * unchanged resource is not sent again.
+ * </P>
+ * <P>
+ * A snapshot is not thread-safe.
+ * </P>
+ *
+ * @since 1.14
+ */
+public class InstanceSnapshot {
+
+    private final Instance instance;
+
+    private List<Job> jobs = Collections.emptyList();
+    private List<ProcessingElement> pes = Collections.emptyList();
+    private List<Operator> operators = Collections.emptyList();
+
+    // Keyed by the metrics URL of the owning operator or processing element.
+    private Map<String, List<Metric>> metrics = Collections.emptyMap();
+
+    // Last response for each URL to detect unchanged resources.
+    private Map<String, String> responses = new HashMap<>();
+
+    private long snapshotTime;
+    private long requestCount;
+
+    InstanceSnapshot(Instance instance) throws IOException {
+        this.instance = instance;
+        refresh();
+    }
+
+    /**
+     * Gets the instance this snapshot is for.
+     * @return Instance this snapshot is for.
+     */
+    public Instance getInstance() {
+        return instance;
+    }
+
+    /**
+     * Refresh this snapshot.
+     * <P>
+     * The lists of jobs, processing elements and operators
+     * are replaced if they have changed. The value of each
+     * metric is updated in place, metrics for operators or
+     * processing elements that no longer exist are discarded.
+     * </P>
+     * <P>
+     * Metric values are only updated once all resources have been
+     * retrieved, thus a failed refresh leaves the snapshot and its
+     * metrics unchanged.
+     * </P>
+     * @throws IOException Error refreshing the snapshot, the snapshot is unchanged.
+     */
+    public void refresh() throws IOException {
+        final AbstractStreamsConnection sc = instance.connection();
+        final Map<String, String> latest = new HashMap<>();
+
+        final List<Job> nj = refreshList(latest, instance.jobsUri(), jobs,
+                r -> Job.createJobListFromResponse(instance, r));
+        final List<ProcessingElement> np = refreshList(latest, instance.pesUri(), pes,
+                r -> ProcessingElement.createPEListFromResponse(sc, r));
+        final List<Operator> no = refreshList(latest, instance.operatorsUri(), operators,
+                r -> Operator.createOperatorListFromResponse(sc, r));
+
+        final Map<String, List<Metric>> nm = new HashMap<>();
+        final List<Runnable> updates = new ArrayList<>();
+        for (Operator op : no)
+            refreshMetrics(latest, nm, updates, op.metricsUri());
+        for (ProcessingElement pe : np)
+            refreshMetrics(latest, nm, updates, pe.metricsUri());
+
+        for (Runnable update : updates)
+            update.run();
+        jobs = nj;
+        pes = np;
+        operators = no;
+        metrics = nm;
+        responses = latest;
+        snapshotTime = System.currentTimeMillis();
+    }
+
+    private <E extends Element> List<E> refreshList(Map<String, String> latest,
+            String uri, List<E> current, Function<String, List<E>> parser) throws IOException {
+        if (uri == null)
+            return Collections.emptyList();
+        final String response = get(latest, uri);
+        if (response.equals(responses.get(uri)))
+            return current;
+        return Collections.unmodifiableList(parser.apply(response));
+    }
+
+    /**
+     * Refresh the metrics for an operator or processing element.
+     * Updates to existing metrics are added to {@code updates}
+     * rather than applied.
+     */
+    private void refreshMetrics(Map<String, String> latest,
+            Map<String, List<Metric>> nm, List<Runnable> updates, String uri) throws IOException {
+        if (uri == null || nm.containsKey(uri))
+            return;
+
+        final List<Metric> current = metrics.get(uri);
+        final String response = get(latest, uri);
+        if (current != null && response.equals(responses.get(uri))) {
+            nm.put(uri, current);
+            return;
+        }
+
+        final List<Metric> retrieved = Metric.getMetricList(instance.connection(), uri, response);
+        if (current == null) {
+            nm.put(uri, Collections.unmodifiableList(retrieved));
+            return;
+        }
+
+        final Map<String, Metric> existing = new HashMap<>();
+        for (Metric m : current)
+            existing.put(m.getName(), m);
+
+        final List<Metric> updated = new ArrayList<>(retrieved.size());
+        for (Metric m : retrieved) {
+            Metric em = existing.get(m.getName());
+            if (em != null) {
+                updates.add(() -> em.update(m));
+                updated.add(em);
+            } else {
+                updated.add(m);
+            }
+        }
+        nm.put(uri, Collections.unmodifiableList(updated));
+    }
+
+    private String get(Map<String, String> latest, String uri) throws IOException {
+        requestCount++;
+        final String response = instance.connection().getResponseString(uri);
+        latest.put(uri, response);
+        return response;
+    }
+
+    /**
+     * Gets the jobs in the instance.
+     * @return Unmodifiable list of jobs.
+     */
+    public List<Job> getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Gets the processing elements in the instance.
+     * @return Unmodifiable list of processing elements.
+     */
+    public List<ProcessingElement> getPes() {
+        return pes;
+    }
+
+    /**
+     * Gets the processing elements for a job.
+     * @param job Job to return the processing elements for.
+     * @return List of processing elements for {@code job}.
+     */
+    public List<ProcessingElement> getPes(Job job) {
+        List<ProcessingElement> jpes = new ArrayList<>();
+        for (ProcessingElement pe : pes) {
+            if (job.self().equals(pe.jobUri()))
+                jpes.add(pe);
+        }
+        return jpes;
+    }
+
+    /**
+     * Gets the operators in the instance.
+     * @return Unmodifiable list of operators.
+     */
+    public List<Operator> getOperators() {
+        return operators;
+    }
+
+    /**
+     * Gets the operators for a job.
+     * @param job Job to return the operators for.
+     * @return List of operators for {@code job}.
+     */
+    public List<Operator> getOperators(Job job) {
+        List<Operator> jops = new ArrayList<>();
+        for (Operator op : operators) {
+            if (job.self().equals(op.jobUri()))
+                jops.add(op);
+        }
+        return jops;
+    }
+
+    /**
+     * Gets the metrics for an operator.
+     * @param operator Operator from this snapshot.
+     * @return Unmodifiable list of the operator's metrics, empty if the
+     * operator is not in this snapshot.
+     */
+    public List<Metric> getMetrics(Operator operator) {
+        return metricsFor(operator.metricsUri());
+    }
+
+    /**
+     * Gets the metrics for a processing element.
+     * @param pe Processing element from this snapshot.
+     * @return Unmodifiable list of the processing element's metrics, empty if the
+     * processing element is not in this snapshot.
+     */
+    public List<Metric> getMetrics(ProcessingElement pe) {
+        return metricsFor(pe.metricsUri());
+    }
+
+    private List<Metric> metricsFor(String uri) {
+        List<Metric> ml = uri == null ? null : metrics.get(uri);
+        return ml == null ? Collections.<Metric>emptyList() : ml;
+    }
+
+    /**
+     * Gets the time this snapshot was last refreshed.
+     * @return Epoch time in milliseconds of the last refresh.
+     */
+    public long getSnapshotTime() {
+        return snapshotTime;
+    }
+
+    /**
+     * Gets the number of REST requests made by this snapshot.
+     * This includes requests satisfied by a {@code 304 Not Modified} response.
+     * @return Number of requests made by this snapshot.
+     */
+    public long getRequestCount() {
+        return requestCount;
+    }
+}
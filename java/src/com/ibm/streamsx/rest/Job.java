@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.rest;
 
@@ -97,6 +97,15 @@ public class Job extends Element {
         return jList;
     }
 
+    static final List<Job> createJobListFromResponse(Instance instance, String response) {
+        
+        List<Job> jList = createListFromResponse(instance.connection(), response, JobArray.class);
+        for (Job job : jList) {
+            job._instance = instance;
+        }
+        return jList;
+    }
+
     /**
      * Gets a list of {@link Operator operators} for this job
      * 
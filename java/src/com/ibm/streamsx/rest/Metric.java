@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.rest;
 
@@ -36,8 +36,11 @@ public class Metric extends Element {
     private long value;
 
     static final List<Metric> getMetricList(AbstractStreamsConnection sc, String uri) throws IOException {
-        
-        String metricsList = sc.getResponseString(uri);
+        return getMetricList(sc, uri, sc.getResponseString(uri));
+    }
+
+    static final List<Metric> getMetricList(AbstractStreamsConnection sc, String uri,
+            String metricsList) {
         List<Metric> mList;
         try {
             MetricArray mArray = gson.fromJson(metricsList, MetricArray.class);
@@ -133,11 +136,17 @@ public class Metric extends Element {
     @Override
     public void refresh() throws IOException {
         List<Metric> updates = getMetricList(connection(), self());
-        if (!updates.isEmpty()) {
-            Metric update = updates.get(0);
-            value = update.getValue();
-            lastTimeRetrieved = update.getLastTimeRetrieved();
-        }
+        if (!updates.isEmpty())
+            update(updates.get(0));
+    }
+
+    /**
+     * Update the value of this metric from a more recent
+     * retrieval of the same metric.
+     */
+    void update(Metric update) {
+        value = update.getValue();
+        lastTimeRetrieved = update.getLastTimeRetrieved();
     }
 
     private static class MetricArray {
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.rest;
 
@@ -54,6 +54,19 @@ public class Operator extends Element {
         return createList(sc, uri, OperatorArray.class);
     }
 
+    static final List<Operator> createOperatorListFromResponse(AbstractStreamsConnection sc,
+             String response) {
+        return createListFromResponse(sc, response, OperatorArray.class);
+    }
+
+    String metricsUri() {
+        return metrics;
+    }
+
+    String jobUri() {
+        return job;
+    }
+
     /**
      * The logical name of this operator.
      * 
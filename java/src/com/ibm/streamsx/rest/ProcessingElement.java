@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.rest;
 
@@ -78,6 +78,19 @@ public class ProcessingElement extends Element {
         return createList(sc, pes, ProcessingElementArray.class);
     }
 
+    final static List<ProcessingElement> createPEListFromResponse(AbstractStreamsConnection sc,
+            String response) {
+        return createListFromResponse(sc, response, ProcessingElementArray.class);
+    }
+
+    String metricsUri() {
+        return metrics;
+    }
+
+    String jobUri() {
+        return job;
+    }
+
     /**
      * Gets a list of {@link Metric metrics} for this processing element
      * 
@@ -0,0 +1,104 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.rest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.fluent.Request;
+
+/**
+ * Cache of REST responses used to make conditional GET requests.
+ *
+ * A response is cached when the server returned an {@code ETag}
+ * or {@code Last-Modified} header. A subsequent GET of the same
+ * URL sends {@code If-None-Match} or {@code If-Modified-Since}
+ * and a {@code 304 Not Modified} response returns the cached body,
+ * thus the server does not serialize and send an unchanged resource.
+ *
+ * The least recently used responses are discarded once the cache
+ * holds {@link #MAX_ENTRIES} responses.
+ */
+final class ResponseCache {
+
+    static final int MAX_ENTRIES = 1024;
+
+    private static final class Entry {
+        final String etag;
+        final String lastModified;
+        final String body;
+
+        Entry(String etag, String lastModified, String body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+    }
+
+    private final Map<String,Entry> entries = new LinkedHashMap<String,Entry>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String,Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private long notModified;
+
+    /**
+     * Add conditional headers to a GET request if
+     * a response for url is cached.
+     */
+    synchronized Request conditional(String url, Request request) {
+        Entry entry = entries.get(url);
+        if (entry != null) {
+            if (entry.etag != null)
+                request = request.addHeader(HttpHeaders.IF_NONE_MATCH, entry.etag);
+            if (entry.lastModified != null)
+                request = request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+        }
+        return request;
+    }
+
+    /**
+     * Get the cached body for a {@code 304 Not Modified} response.
+     * @return Cached body or {@code null} if the url is not cached.
+     */
+    synchronized String notModified(String url) {
+        Entry entry = entries.get(url);
+        if (entry == null)
+            return null;
+        notModified++;
+        return entry.body;
+    }
+
+    /**
+     * Cache the body of a successful response if it can be
+     * validated by a subsequent conditional request.
+     */
+    synchronized void put(String url, HttpResponse response, String body) {
+        String etag = value(response.getFirstHeader(HttpHeaders.ETAG));
+        String lastModified = value(response.getFirstHeader(HttpHeaders.LAST_MODIFIED));
+        if (etag == null && lastModified == null)
+            entries.remove(url);
+        else
+            entries.put(url, new Entry(etag, lastModified, body));
+    }
+
+    /**
+     * Number of requests satisfied from this cache.
+     */
+    synchronized long getNotModifiedCount() {
+        return notModified;
+    }
+
+    private static String value(Header header) {
+        return header == null ? null : header.getValue();
+    }
+}
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.rest;
 
@@ -142,6 +142,22 @@ class StreamsRestUtils {
      */
     static String getResponseString(Executor executor,
             String auth, String inputString) throws IOException {
+        return getResponseString(executor, auth, inputString, null);
+    }
+
+    /**
+     * Gets a response to an HTTP call as a string, using
+     * a conditional GET when cache holds a response for the URL.
+     * 
+     * @param executor HTTP client executor to use for call
+     * @param auth Authentication header contents, or null
+     * @param inputString REST call to make
+     * @param cache Cache of responses or null to not use conditional requests
+     * @return response from the inputString
+     * @throws IOException
+     */
+    static String getResponseString(Executor executor,
+            String auth, String inputString, ResponseCache cache) throws IOException {
         TRACE.fine("HTTP GET: " + inputString);
         String sReturn = "";
         Request request = Request
@@ -151,13 +167,26 @@ class StreamsRestUtils {
         if (null != auth) {
             request = request.addHeader(AUTH.WWW_AUTH_RESP, auth);
         }
+        if (null != cache) {
+            request = cache.conditional(inputString, request);
+        }
 
         Response response = executor.execute(request);
         HttpResponse hResponse = response.returnResponse();
         int rcResponse = hResponse.getStatusLine().getStatusCode();
 
-        if (HttpStatus.SC_OK == rcResponse) {
+        if (HttpStatus.SC_NOT_MODIFIED == rcResponse && null != cache) {
+            sReturn = cache.notModified(inputString);
+            if (sReturn == null) {
+                // Evicted since the request was made.
+                return getResponseString(executor, auth, inputString, null);
+            }
+            TRACE.finest(rcResponse + ": " + inputString);
+            return sReturn;
+        } else if (HttpStatus.SC_OK == rcResponse) {
             sReturn = EntityUtils.toString(hResponse.getEntity());
+            if (null != cache)
+                cache.put(inputString, hResponse, sReturn);
         } else if (HttpStatus.SC_NOT_FOUND == rcResponse) {
             // with a 404 message, we are likely to have a message from Streams
             // but if not, provide a better message
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.rest.internal;
 
@@ -29,10 +29,13 @@ import org.apache.http.auth.AUTH;
 import org.apache.http.client.fluent.Executor;
 import org.apache.http.client.fluent.Request;
 import org.apache.http.client.fluent.Response;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.conn.ssl.NoopHostnameVerifier;
 import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
 import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.ssl.SSLContexts;
 import org.apache.http.ssl.TrustStrategy;
@@ -92,19 +95,69 @@ public interface RestUtils {
     }
 
     static Executor createExecutor() {
-        return Executor.newInstance(createHttpClient(false));
+        return createExecutor(false);
     }
 
+    /**
+     * Create an executor using a HTTP client shared by all executors
+     * with the same {@code allowInsecure} setting. Executors are not
+     * closed, so sharing the client avoids a connection pool and its
+     * eviction thread per executor.
+     */
     static Executor createExecutor(boolean allowInsecure) {
-        return Executor.newInstance(createHttpClient(allowInsecure));
+        return Executor.newInstance(SharedHttpClients.get(allowInsecure));
     }
 
     static CloseableHttpClient createHttpClient() {
         return createHttpClient(false);
     }
 
+    /**
+     * Maximum pooled connections per route (Streams REST server),
+     * allows concurrent requests from a single connection
+     * without waiting for a pooled connection.
+     */
+    int MAX_CONNECTIONS_PER_ROUTE = 20;
+    int MAX_CONNECTIONS = 50;
+
+    /**
+     * Time in milliseconds an idle connection is kept alive
+     * when the server's response does not specify a timeout.
+     */
+    long KEEP_ALIVE_MS = 30_000L;
+
+    /**
+     * Keep-alive strategy honoring the server's Keep-Alive timeout,
+     * otherwise keeping connections alive for {@link #KEEP_ALIVE_MS}.
+     */
+    ConnectionKeepAliveStrategy KEEP_ALIVE = (response, context) -> {
+        long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                .getKeepAliveDuration(response, context);
+        return keepAlive > 0 ? keepAlive : KEEP_ALIVE_MS;
+    };
+
+    /**
+     * Create a HTTP client that pools persistent connections.
+     * Connections are kept alive between requests so that
+     * polling the REST API does not open a connection
+     * (and perform a TLS handshake) per request.
+     * <BR>
+     * The caller must close the returned client.
+     */
     static CloseableHttpClient createHttpClient(boolean allowInsecure) {
-        CloseableHttpClient client = null;
+        return httpClientBuilder(allowInsecure).build();
+    }
+
+    /**
+     * Create a builder for a HTTP client that pools persistent connections.
+     */
+    static HttpClientBuilder httpClientBuilder(boolean allowInsecure) {
+        HttpClientBuilder builder = HttpClients.custom()
+                .useSystemProperties()
+                .setMaxConnPerRoute(MAX_CONNECTIONS_PER_ROUTE)
+                .setMaxConnTotal(MAX_CONNECTIONS)
+                .setKeepAliveStrategy(KEEP_ALIVE);
+
         if (allowInsecure) {
             try {
                 SSLContext sslContext = SSLContexts.custom()
@@ -124,18 +177,13 @@ public interface RestUtils {
                                 new String[] {"TLSv1", "TLSv1.1","TLSv1.2"},
                                 null,
                                 NoopHostnameVerifier.INSTANCE);
-                client = HttpClients.custom()
-                        .setSSLSocketFactory(factory)
-                        .build();
+                builder.setSSLSocketFactory(factory);
                 TRACE.warning("Insecure host connections enabled.");
             } catch (KeyStoreException | KeyManagementException | NoSuchAlgorithmException e) {
                 TRACE.warning("Unable to allow insecure host connections.");
             }
         }
-        if (null == client) {
-            client = HttpClients.createSystem();
-        }
-        return client;
+        return builder;
     }
     
     /**
@@ -0,0 +1,44 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.rest.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.impl.client.CloseableHttpClient;
+
+/**
+ * HTTP clients shared by the executors created by
+ * {@link RestUtils#createExecutor(boolean)}.
+ * <BR>
+ * Each client pools connections across all REST objects
+ * and has a single thread evicting expired and idle connections.
+ * The clients are never closed.
+ */
+final class SharedHttpClients {
+
+    private static CloseableHttpClient secure;
+    private static CloseableHttpClient insecure;
+
+    private SharedHttpClients() {
+    }
+
+    static synchronized CloseableHttpClient get(boolean allowInsecure) {
+        if (allowInsecure) {
+            if (insecure == null)
+                insecure = create(true);
+            return insecure;
+        }
+        if (secure == null)
+            secure = create(false);
+        return secure;
+    }
+
+    private static CloseableHttpClient create(boolean allowInsecure) {
+        return RestUtils.httpClientBuilder(allowInsecure)
+                .evictExpiredConnections()
+                .evictIdleConnections(RestUtils.KEEP_ALIVE_MS, TimeUnit.MILLISECONDS)
+                .build();
+    }
+}
@@ -1,12 +1,13 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology;
 
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import com.ibm.streamsx.topology.builder.BInputPort;
@@ -299,6 +300,88 @@ public interface TStream<T> extends TopologyElement, Placeable<TStream<T>>  {
      */
     <U> TStream<U> map(Function<T, U> mapper);
 
+    /**
+     * Declare a new stream that asynchronously maps each tuple from this stream
+     * into one (or zero) tuple of a different type {@code U}. For each tuple
+     * {@code t} on this stream {@code mapper.apply(t)} is called, returning
+     * a {@code CompletableFuture}. When the future completes its result is
+     * added to the returned stream, unless the result is {@code null}.
+     * If {@code mapper.apply(t)} returns {@code null} then no tuple
+     * is added to the returned stream for {@code t}.
+     * <P>
+     * This allows a stream to be enriched by calls to a service with a
+     * significant latency, without the processing of each tuple
+     * waiting for the previous call to complete.
+     * At most {@code maxInFlight} futures are outstanding,
+     * processing of further tuples waits until a future completes.
+     * <BR>
+     * The function typically uses an executor to complete the future,
+     * for example the executor from
+     * {@link com.ibm.streamsx.topology.function.FunctionContext#getScheduledExecutorService()}
+     * obtained by implementing {@link com.ibm.streamsx.topology.function.Initializable}:
+     * <pre>
+     * <code>
+     * return CompletableFuture.supplyAsync(() -> lookup(t), executor);
+     * </code>
+     * </pre>
+     * </P>
+     * <P>
+     * If {@code ordered} is true then tuples are added to the returned stream
+     * in the order of this stream, otherwise in the order the futures complete.
+     * Any punctuation mark (for example the final marker) is only added
+     * to the returned stream after the results of all preceding tuples.
+     * <BR>
+     * A future that completes exceptionally causes the processing element
+     * to fail, as if {@code mapper.apply(t)} had thrown the exception.
+     * </P>
+     * 
+     * @param mapper
+     *            Mapping logic to be executed against each tuple.
+     * @param maxInFlight
+     *            Maximum number of outstanding futures, must be greater than zero.
+     * @param ordered
+     *            True if tuples are added to the returned stream in input order.
+     * @return Stream that will contain tuples of type {@code U} mapped from this
+     *         stream's tuples.
+     *
+     * @since 1.14
+     */
+    <U> TStream<U> mapAsync(Function<T, CompletableFuture<U>> mapper, int maxInFlight, boolean ordered);
+
+    /**
+     * Declare a new stream that contains batches of tuples from this stream.
+     * Tuples from this stream are collected into a list, in order, and the
+     * list is submitted as a single tuple on the returned stream when it
+     * contains {@code maxSize} tuples or {@code maxDelay} has passed
+     * since its first tuple arrived, whichever is first.
+     * <P>
+     * Batching reduces the per-tuple overhead of small tuples,
+     * a batch is a single tuple on the returned stream, thus a single
+     * serialized object when it is sent between processing elements.
+     * The tuples of a batch are processed by
+     * {@link com.ibm.streamsx.topology.streams.BatchStreams} and the
+     * batches converted back to a stream of tuples by
+     * {@link com.ibm.streamsx.topology.streams.BatchStreams#unbatch(TStream)}.
+     * </P>
+     * <P>
+     * Any incomplete batch is submitted before a punctuation mark
+     * (for example the final marker) is added to the returned stream.
+     * When a {@code maxDelay} of zero is specified batches are only
+     * submitted when full or on a punctuation mark.
+     * </P>
+     * 
+     * @param maxSize Maximum number of tuples in a batch, must be greater than zero.
+     * @param maxDelay Maximum delay before an incomplete batch is submitted,
+     *     zero disables the delay, must not be negative.
+     * @param unit Time unit for {@code maxDelay}.
+     * @return Stream of batches of this stream's tuples.
+     * 
+     * @see com.ibm.streamsx.topology.streams.BatchStreams
+     *
+     * @since 1.14
+     */
+    TStream<List<T>> batch(int maxSize, long maxDelay, TimeUnit unit);
+
     /**
      * Declare a new stream that modifies each tuple from this stream into one
      * (or zero) tuple of the same type {@code T}. For each tuple {@code t}
@@ -529,6 +612,49 @@ public interface TStream<T> extends TopologyElement, Placeable<TStream<T>>  {
             TWindow<U,K> window,
             BiFunction<T, List<U>, J> joiner);
     
+    /**
+     * Join this stream with the tuples in a window of type {@code U}
+     * that have a matching key of type {@code M}.
+     * For each tuple {@code t} on this stream, it is joined with the
+     * tuples {@code u} in {@code window} where
+     * {@code keyer.apply(t).equals(windowKeyer.apply(u))}
+     * is true. The list of matching tuples is passed into {@code joiner}
+     * in order of insertion into the window, from oldest to newest,
+     * and the return value is submitted to the returned stream.
+     * If call returns null then no tuple is submitted.
+     * If no tuples in the window match then an empty list is passed
+     * to {@code joiner}.
+     * <BR>
+     * The window contents are indexed by {@code windowKeyer}
+     * so that the cost of each join depends on the number of
+     * matching tuples rather than the number of tuples in {@code window},
+     * thus this is the preferred form for joins against windows
+     * containing a large number of tuples.
+     * <BR>
+     * {@code window} must not be keyed, its eviction policy applies to
+     * all its tuples, regardless of their matching key.
+     * The assumption is made that
+     * the key classes correctly implement the contract for {@code equals} and
+     * {@code hashCode()}, and that {@code windowKeyer} returns an equal
+     * key each time it is called for a tuple.
+     * 
+     * @param window Window to join this stream with.
+     * @param keyer Matching key function for this stream.
+     * @param windowKeyer Matching key function for tuples in {@code window}.
+     * @param joiner Join function.
+     * @return A stream that is the results of joining this stream with
+     *         {@code window}.
+     *         
+     * @throws IllegalArgumentException {@code window} is keyed.
+     * 
+     * @since 1.14
+     */
+    <J, U, M> TStream<J> join(
+            TWindow<U,?> window,
+            Function<? super T, ? extends M> keyer,
+            Function<? super U, ? extends M> windowKeyer,
+            BiFunction<T, List<U>, J> joiner);
+    
     /**
      * Join this stream with the last tuple seen on a stream of type {@code U}
      * with partitioning.
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology;
 
@@ -9,6 +9,7 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
 
 /**
  * Declares a window of tuples for a {@link TStream}. Logically a {@code Window}
@@ -84,6 +85,49 @@ public interface TWindow<T,K> extends TopologyElement {
     <A> TStream<A> aggregate(Function<List<T>, A> aggregator, long period,
             TimeUnit unit);
 
+    /**
+     * Declares a stream that containing tuples that represent an incremental
+     * aggregation of this window. Each time a tuple is inserted into the window
+     * {@code aggregator.add(state, tuple)} is called and each time a tuple is
+     * evicted from the window {@code aggregator.remove(state, tuple)} is called,
+     * maintaining an aggregation state for each window partition.
+     * Then {@code aggregator.result(state)} is called to produce the
+     * aggregation, with the same frequency as {@link #aggregate(Function)}.
+     * <BR>
+     * The cost of maintaining the aggregation is independent of
+     * the number of tuples in the window, thus this is the preferred
+     * form for windows containing a large number of tuples where the
+     * aggregation can be expressed incrementally, such as a moving sum or average.
+     * 
+     * @param aggregator
+     *            Logic to incrementally aggregate the window contents.
+     * @return A stream that contains the latest aggregations of this window.
+     * 
+     * @since 1.14
+     */
+    <S, A> TStream<A> aggregate(IncrementalAggregator<T, S, A> aggregator);
+
+    /**
+     * Declares a stream that containing tuples that represent an incremental
+     * aggregation of this window. The aggregation state is maintained as
+     * tuples are inserted into and evicted from the window as described
+     * in {@link #aggregate(IncrementalAggregator)}.
+     * Approximately every {@code period} (with unit {@code unit})
+     * {@code aggregator.result(state)} is called to produce the aggregation.
+     * 
+     * @param aggregator
+     *            Logic to incrementally aggregate the window contents.
+     * @param period
+     *            Approximately how often to perform the aggregation.
+     * @param unit
+     *            Time unit for {@code period}.
+     * @return A stream that contains the latest aggregations of this window.
+     * 
+     * @since 1.14
+     */
+    <S, A> TStream<A> aggregate(IncrementalAggregator<T, S, A> aggregator, long period,
+            TimeUnit unit);
+
     /**
      * Class of the tuples in this window. WIll be the same as {@link #getTupleType()}
      * is a {@code Class} object.
@@ -144,4 +188,101 @@ public interface TWindow<T,K> extends TopologyElement {
      * @see #key()
      */
     boolean isKeyed();
+    
+    /**
+     * Return a window that has the same configuration as this window
+     * with partitions evicted when they have been idle for {@code time}.
+     * A partition is idle when no tuples have been inserted into it.
+     * <P>
+     * Each key seen on a keyed window creates a partition that is
+     * otherwise retained for the life of the window, thus a window keyed
+     * by a high cardinality key, such as a session or device identifier,
+     * requires unbounded memory. When a partition is evicted all its tuples
+     * and state are discarded, a tuple with the same key subsequently
+     * starts a new partition.
+     * </P>
+     * <P>
+     * A window has at most one partition eviction policy, this replaces
+     * any policy set by {@link #maxPartitions(int)} or {@link #maxTuples(int)}.
+     * Partition eviction only applies to a {@link #isKeyed() keyed} window,
+     * the policy is retained by {@link #key(Function)}.
+     * <BR>
+     * Partition eviction is not supported by
+     * {@link com.ibm.streamsx.topology.context.StreamsContext.Type#EMBEDDED embedded} contexts.
+     * </P>
+     * @param time Time a partition must be idle for it to be evicted.
+     * @param unit Unit for {@code time}.
+     * @return Window with the same configuration as this window
+     * that evicts idle partitions.
+     * 
+     * @since 1.14
+     */
+    TWindow<T,K> evictIdlePartitions(long time, TimeUnit unit);
+    
+    /**
+     * Return a window that has the same configuration as this window
+     * with at most {@code count} partitions. When a tuple creates a new
+     * partition that exceeds {@code count} the least recently
+     * used partition is evicted.
+     * <BR>
+     * Partition eviction is described in {@link #evictIdlePartitions(long, TimeUnit)}.
+     * 
+     * @param count Maximum number of partitions.
+     * @return Window with the same configuration as this window
+     * limited to {@code count} partitions.
+     * 
+     * @since 1.14
+     */
+    TWindow<T,K> maxPartitions(int count);
+    
+    /**
+     * Return a window that has the same configuration as this window
+     * with at most {@code count} tuples across all its partitions.
+     * When the total number of tuples exceeds {@code count} the least
+     * recently used partitions are evicted until it does not.
+     * <BR>
+     * Partition eviction is described in {@link #evictIdlePartitions(long, TimeUnit)}.
+     * 
+     * @param count Maximum number of tuples across all partitions.
+     * @return Window with the same configuration as this window
+     * limited to {@code count} tuples.
+     * 
+     * @since 1.14
+     */
+    TWindow<T,K> maxTuples(int count);
+    
+    /**
+     * Return a window that has the same configuration as this window
+     * with older tuples spilled from the heap to disk.
+     * <P>
+     * At most {@code heapTuples} of the newest tuples of each window
+     * partition are held on the Java heap, older tuples are serialized
+     * into memory-mapped files in the processing element's data directory.
+     * This allows windows containing a very large number of tuples,
+     * such as {@code last(24, TimeUnit.HOURS)} on a high rate stream,
+     * without a correspondingly large heap.
+     * </P>
+     * <P>
+     * The contents of the window and the semantics of aggregations
+     * and joins are unchanged, but a spilled tuple is deserialized
+     * each time it is accessed. Thus spilling is best suited to
+     * windows that are not iterated on every tuple, for example
+     * a {@link #aggregate(Function, long, TimeUnit) periodic aggregation},
+     * an {@link #aggregate(IncrementalAggregator) incremental aggregation}
+     * or a join against a keyed window.
+     * The window of a join using match keys is not spilled.
+     * </P>
+     * <P>
+     * Spilled tuples are serialized using the topology's
+     * {@link Topology#setTupleSerializer(com.ibm.streamsx.topology.spi.runtime.TupleSerializer) tuple serializer},
+     * if one has been set, otherwise using Java serialization.
+     * </P>
+     * 
+     * @param heapTuples Maximum number of tuples of each partition held on the heap.
+     * @return Window with the same configuration as this window
+     * that spills older tuples to disk.
+     * 
+     * @since 1.14
+     */
+    TWindow<T,K> spillToDisk(int heapTuples);
 }
@@ -22,12 +22,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import com.google.gson.JsonObject;
 import com.ibm.streamsx.topology.builder.BOperatorInvocation;
+import com.ibm.streamsx.topology.builder.BVirtualMarker;
 import com.ibm.streamsx.topology.builder.GraphBuilder;
 import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.StreamsContext;
@@ -41,17 +43,21 @@ import com.ibm.streamsx.topology.internal.core.SPLStreamBridge;
 import com.ibm.streamsx.topology.internal.core.SourceInfo;
 import com.ibm.streamsx.topology.internal.core.SubmissionParameterFactory;
 import com.ibm.streamsx.topology.internal.core.TypeDiscoverer;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
+import com.ibm.streamsx.topology.internal.functional.ObjectSchemas;
 import com.ibm.streamsx.topology.internal.functional.SubmissionParameter;
 import com.ibm.streamsx.topology.internal.gson.GsonUtilities;
 import com.ibm.streamsx.topology.internal.logic.Constants;
 import com.ibm.streamsx.topology.internal.logic.EndlessSupplier;
 import com.ibm.streamsx.topology.internal.logic.LimitedSupplier;
 import com.ibm.streamsx.topology.internal.logic.LogicUtils;
+import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
 import com.ibm.streamsx.topology.internal.logic.SingleToIterableSupplier;
 import com.ibm.streamsx.topology.internal.messages.Messages;
 import com.ibm.streamsx.topology.internal.tester.ConditionTesterImpl;
 import com.ibm.streamsx.topology.json.JSONSchemas;
 import com.ibm.streamsx.topology.spi.builder.LayoutInfo;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 import com.ibm.streamsx.topology.tester.Tester;
 
 /**
@@ -97,6 +103,11 @@ public class Topology implements TopologyElement {
      * Optional tester of the topology.
      */
     private ConditionTesterImpl tester;
+    
+    /**
+     * Optional serializer for Java object tuples.
+     */
+    private TupleSerializer tupleSerializer;
 
     
     /**
@@ -573,12 +584,46 @@ public class Topology implements TopologyElement {
         
         if (hasTester())
             tester.finalizeGraph(context);
+        
+        if (tupleSerializer != null)
+            finalizeTupleSerializer();
 
         dependencyResolver.resolveDependencies();
         
         finalizeConfig();
     }
     
+    /**
+     * Set the serializer on Java functional operators.
+     * Operators connected by streams of Java objects form a group,
+     * a group containing any operator that is not a Java functional
+     * operator (e.g. {@code PublishJava}) keeps Java serialization,
+     * as that operator, or an application subscribing to the stream,
+     * will not know the serializer.
+     */
+    private void finalizeTupleSerializer() {
+        final String serializer = ObjectUtils.serializeLogic(tupleSerializer);
+        final String hashed = ObjectSchemas.schemaWithHash(ObjectSchemas.JAVA_OBJECT_SCHEMA);
+        for (Set<BOperatorInvocation> group : builder().connectedBy(
+                schema -> ObjectSchemas.JAVA_OBJECT_SCHEMA.equals(schema) || hashed.equals(schema))) {
+            if (!group.stream().allMatch(Topology::usesTupleSerializer))
+                continue;
+            for (BOperatorInvocation bop : group) {
+                if (BVirtualMarker.isVirtualMarker(bop.kind()))
+                    continue;
+                bop.setParameter(FunctionalOpProperties.OBJECT_SERIALIZER_PARAM, serializer);
+                dependencyResolver.addJarDependency(bop, tupleSerializer);
+            }
+        }
+    }
+
+    private static boolean usesTupleSerializer(BOperatorInvocation bop) {
+        if (BVirtualMarker.isVirtualMarker(bop.kind()))
+            return true;
+        return JavaFunctionalOps.isFunctional(bop)
+                && bop.getRawParameter(FunctionalOpProperties.FUNCTIONAL_LOGIC_PARAM) != null;
+    }
+    
     /**
      * Includes a jar file, specified by the {@code location} String, into 
      * the application runtime. For example, the following code includes the 
@@ -778,6 +823,36 @@ public class Topology implements TopologyElement {
         
         builder().getConfig().add("checkpoint", checkpoint);
     }
+    
+    /**
+     * Set the serializer used for streams of Java objects in this topology.
+     * <P>
+     * By default tuples on streams of Java objects are serialized using Java
+     * serialization when they are passed between processing elements.
+     * Setting a serializer such as {@link TupleSerializer#compact(Class...)}
+     * that writes known classes without class descriptors can
+     * significantly reduce serialization cost and tuple size.
+     * <BR>
+     * The serializer applies to all Java functional operators in the topology,
+     * including operators added after this call.
+     * Streams that are connected to operators that are not Java functional
+     * operators keep Java serialization, this includes streams
+     * {@link TStream#publish(String) published} as Java objects and streams
+     * consumed by SPL operators, so that other applications
+     * can subscribe to published streams without knowing the serializer.
+     * </P>
+     * <P>
+     * When running embedded tuples are passed by reference and
+     * the serializer is not used.
+     * </P>
+     * 
+     * @param serializer Serializer for Java object tuples.
+     * 
+     * @since 1.14
+     */
+    public void setTupleSerializer(TupleSerializer serializer) {
+        this.tupleSerializer = requireNonNull(serializer);
+    }
 
     /**
      * Internal use only.
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.builder;
 
@@ -21,6 +21,10 @@ public class BInputPort extends BInput {
         String NONE_POLICY = "NONE";
         String TIME_POLICY = "TIME";
         String COUNT_POLICY = "COUNT";
+
+        String PARTITION_AGE_POLICY = "PARTITION_AGE";
+        String PARTITION_COUNT_POLICY = "PARTITION_COUNT";
+        String TUPLE_COUNT_POLICY = "TUPLE_COUNT";
     }
 
     private final BOperator op;
@@ -80,6 +84,29 @@ public class BInputPort extends BInput {
 
         return this;
     }
+
+    /**
+     * Set the partition eviction policy of this port's window.
+     * Only applies to a partitioned window.
+     */
+    public BInputPort partitionEviction(String policy, long config, TimeUnit timeUnit) {
+        switch (policy) {
+        case Window.PARTITION_AGE_POLICY:
+        case Window.PARTITION_COUNT_POLICY:
+        case Window.TUPLE_COUNT_POLICY:
+            break;
+        default:
+            throw new UnsupportedOperationException(policy);
+        }
+
+        final JsonObject winJson = _json().getAsJsonObject("window");
+        winJson.addProperty("partitionEvictPolicy", policy);
+        winJson.addProperty("partitionEvictConfig", config);
+        if (policy.equals(Window.PARTITION_AGE_POLICY))
+            winJson.addProperty("partitionEvictTimeUnit", timeUnit.name());
+
+        return this;
+    }
     
     /**
      * Add a declaration of a default queue to this input port.
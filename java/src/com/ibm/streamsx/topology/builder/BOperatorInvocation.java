@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015,2019
  */
 package com.ibm.streamsx.topology.builder;
 
@@ -227,6 +227,18 @@ public class BOperatorInvocation extends BOperator {
         return null;             
     }
 
+    /**
+     * Input and output ports of this operator.
+     */
+    List<BPort> ports() {
+        List<BPort> ports = new ArrayList<>();
+        if (inputs != null)
+            ports.addAll(inputs);
+        if (outputs != null)
+            ports.addAll(outputs);
+        return ports;
+    }
+
     public BOutputPort addOutput(String schema) {
         return addOutput(schema, Optional.empty());
     }
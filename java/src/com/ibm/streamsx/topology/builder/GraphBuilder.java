@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015,2019
  */
 package com.ibm.streamsx.topology.builder;
 
@@ -21,19 +21,26 @@ import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.PASS_KIN
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_STREAMS_VERSION;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.NAME;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.NAMESPACE;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.array;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
 import static com.ibm.streamsx.topology.spi.builder.Properties.Graph.CONFIG;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.ibm.streamsx.topology.function.Consumer;
 import com.ibm.streamsx.topology.function.Supplier;
@@ -302,6 +309,54 @@ public class GraphBuilder extends BJSONObject {
         return ops;
     }
 
+    /**
+     * Group operators that are connected through streams
+     * whose schema matches {@code schema}. Operators are in the same
+     * group if a path of such streams exists between them,
+     * regardless of direction. Operators without a matching
+     * port are not included.
+     * @param schema Predicate selecting the stream schemas.
+     * @return Groups of connected operators.
+     */
+    public Collection<Set<BOperatorInvocation>> connectedBy(Predicate<String> schema) {
+        final Map<String, BOperatorInvocation> owners = new HashMap<>();
+        final Map<BOperatorInvocation, List<BPort>> matching = new IdentityHashMap<>();
+        for (BOperator op : ops) {
+            if (!(op instanceof BOperatorInvocation))
+                continue;
+            BOperatorInvocation bop = (BOperatorInvocation) op;
+            for (BPort port : bop.ports()) {
+                if (!schema.test(port._schema()))
+                    continue;
+                owners.put(port.name(), bop);
+                matching.computeIfAbsent(bop, k -> new ArrayList<>()).add(port);
+            }
+        }
+
+        final List<Set<BOperatorInvocation>> groups = new ArrayList<>();
+        final Set<BOperatorInvocation> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (BOperatorInvocation start : matching.keySet()) {
+            if (!seen.add(start))
+                continue;
+            final Set<BOperatorInvocation> group = Collections.newSetFromMap(new IdentityHashMap<>());
+            final Deque<BOperatorInvocation> pending = new ArrayDeque<>();
+            pending.add(start);
+            while (!pending.isEmpty()) {
+                BOperatorInvocation bop = pending.remove();
+                group.add(bop);
+                for (BPort port : matching.get(bop)) {
+                    for (JsonElement conn : array(port._json(), "connections")) {
+                        BOperatorInvocation other = owners.get(conn.getAsString());
+                        if (other != null && seen.add(other))
+                            pending.add(other);
+                    }
+                }
+            }
+            groups.add(group);
+        }
+        return groups;
+    }
+
     /**
      * Create a submission parameter.
      * <p>  
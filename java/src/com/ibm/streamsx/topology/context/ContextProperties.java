@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015,2018
+# Copyright IBM Corp. 2015,2019
  */
 package com.ibm.streamsx.topology.context;
 
@@ -199,5 +199,34 @@ public interface ContextProperties {
      */
     String SC_OPTIONS = "topology.sc.options";
 
+    /**
+     * Threaded execution of an embedded topology.
+     * <BR>
+     * By default operators of a topology executing in
+     * {@link StreamsContext.Type#EMBEDDED} or {@link StreamsContext.Type#EMBEDDED_TESTER}
+     * execute on the thread submitting tuples to them, so the topology is
+     * executed by the threads of its sources.
+     * <BR>
+     * When this is set to a value greater than zero then:
+     * <UL>
+     * <LI>An isolated region ({@link com.ibm.streamsx.topology.TStream#isolate()})
+     * executes on its own thread.</LI>
+     * <LI>A parallel region ({@link com.ibm.streamsx.topology.TStream#parallel(int)})
+     * is replicated into {@code width} channels, each executing on its own thread.
+     * Tuples are routed to the channels according to the region's routing.</LI>
+     * </UL>
+     * Tuples are passed to each thread through a bounded queue of this size,
+     * a submitting thread waits while the queue is full.
+     * <BR>
+     * A parallel region is executed as a single channel on its own thread
+     * if its width is a submission parameter, it contains a nested parallel region,
+     * or any stream from outside the region is connected to an operator within the region.
+     * <BR>
+     * Argument is an {@code Integer}.
+     * 
+     * @since 1.14
+     */
+    String EMBEDDED_QUEUE_SIZE = "topology.embedded.queueSize";
+
     String _SPLMM_OPTIONS = "topology.internal.splmm_options";
 }
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016
+# Copyright IBM Corp. 2016, 2019
  */
 package com.ibm.streamsx.topology.generator.operator;
 
@@ -15,4 +15,9 @@ public interface WindowProperties {
     String POLICY_NONE = "NONE";
     String POLICY_PUNCTUATION = "PUNCTUATION";
     String POLICY_TIME = "TIME";
+
+    // Partition eviction policies for a partitioned window.
+    String POLICY_PARTITION_AGE = "PARTITION_AGE";
+    String POLICY_PARTITION_COUNT = "PARTITION_COUNT";
+    String POLICY_TUPLE_COUNT = "TUPLE_COUNT";
 }
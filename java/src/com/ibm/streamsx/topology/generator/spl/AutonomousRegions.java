@@ -1,7 +1,5 @@
 package com.ibm.streamsx.topology.generator.spl;
 
-import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.getDownstream;
-
 import java.util.List;
 import java.util.Set;
 
@@ -29,15 +27,18 @@ class AutonomousRegions {
 
         List<JsonObject> autonomousOperators = GraphUtilities.findOperatorByKind(
                 BVirtualMarker.AUTONOMOUS, graph);
+        if (autonomousOperators.isEmpty())
+            return;
 
+        GraphIndex index = new GraphIndex(graph);
         for (JsonObject autonomous : autonomousOperators) {
-        	for (JsonObject sa : getDownstream(autonomous, graph)) {
+        	for (JsonObject sa : index.downstream(autonomous)) {
         		if (!sa.has(AUTONOMOUS))
         		    sa.addProperty(AUTONOMOUS, Boolean.TRUE);
         	}
         }
  
-        GraphUtilities.removeOperators(autonomousOperators, graph);
+        GraphUtilities.removeOperators(autonomousOperators, index);
     }
     
     /**
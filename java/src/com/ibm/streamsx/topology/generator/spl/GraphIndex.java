@@ -0,0 +1,128 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.generator.spl;
+
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.inputConnections;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.inputs;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.operators;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.outputConnections;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.outputs;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Indexed view of a graph's operators.
+ * <BR>
+ * Maps input and output port names to the operator owning
+ * the port, so that the operators immediately up or downstream
+ * of an operator are found from its port connections (its
+ * adjacency lists in the graph) rather than by scanning every
+ * operator in the graph.
+ * <BR>
+ * Connections are read from the graph, thus changes to connections
+ * do not require the index to be updated. Operators added to or
+ * removed from the graph must be added to or removed from the index,
+ * which is done by the methods in {@link GraphUtilities} that take
+ * an index.
+ * <BR>
+ * Connections are assumed to be recorded against both
+ * the output and input port, as the builder does.
+ */
+final class GraphIndex {
+
+    private final JsonObject graph;
+    private final Map<String, JsonObject> inputs = new HashMap<>();
+    private final Map<String, JsonObject> outputs = new HashMap<>();
+
+    GraphIndex(JsonObject graph) {
+        this.graph = graph;
+        operators(graph, this::add);
+    }
+
+    JsonObject graph() {
+        return graph;
+    }
+
+    /**
+     * Add an operator's ports to the index.
+     */
+    void add(JsonObject op) {
+        inputs(op, input -> inputs.put(jstring(input, "name"), op));
+        outputs(op, output -> outputs.put(jstring(output, "name"), op));
+    }
+
+    /**
+     * Remove an operator's ports from the index.
+     * Ports are only removed if they are still owned by
+     * the operator, a copy of an operator with the same port
+     * names may have been added before the original is removed.
+     */
+    void remove(JsonObject op) {
+        inputs(op, input -> remove(inputs, jstring(input, "name"), op));
+        outputs(op, output -> remove(outputs, jstring(output, "name"), op));
+    }
+
+    private static void remove(Map<String, JsonObject> ports, String name, JsonObject op) {
+        if (ports.get(name) == op)
+            ports.remove(name);
+    }
+
+    /**
+     * Get all operators immediately upstream of {@code op}
+     * in the order of its connections.
+     * @see GraphUtilities#getUpstream(JsonObject, JsonObject)
+     */
+    Set<JsonObject> upstream(JsonObject op) {
+        Set<JsonObject> parents = new LinkedHashSet<>();
+        inputConnections(op, oportName -> {
+            JsonObject parent = outputs.get(oportName);
+            if (parent != null)
+                parents.add(parent);
+        });
+        return parents;
+    }
+
+    /**
+     * Get all operators immediately downstream of {@code op}
+     * in the order of its connections.
+     * @see GraphUtilities#getDownstream(JsonObject, JsonObject)
+     */
+    Set<JsonObject> downstream(JsonObject op) {
+        Set<JsonObject> children = new LinkedHashSet<>();
+        outputConnections(op, iportName -> {
+            JsonObject child = inputs.get(iportName);
+            if (child != null)
+                children.add(child);
+        });
+        return children;
+    }
+
+    /**
+     * Get the operator that owns an input port,
+     * null if the port is not in the index.
+     */
+    JsonObject inputOperator(String iportName) {
+        return inputs.get(iportName);
+    }
+
+    /**
+     * Set of operators using identity, for tracking membership.
+     * Hashing an operator's JSON is proportional to its size
+     * and changes as the operator is modified. Iteration order
+     * is not deterministic so the set must not be used where
+     * the order affects the generated application.
+     */
+    static Set<JsonObject> newOperatorSet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+}
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016  
+# Copyright IBM Corp. 2016, 2019
  */
 package com.ibm.streamsx.topology.generator.spl;
 
@@ -13,11 +13,14 @@ import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.objectArray;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.stringArray;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -256,14 +259,30 @@ public class GraphUtilities {
     static void removeOperator(JsonObject op, JsonObject graph){
         removeOperators(Collections.singleton(op), graph);
     }
+    
+    static void removeOperator(JsonObject op, GraphIndex index){
+        removeOperators(Collections.singleton(op), index);
+    }
 
     static void removeOperators(Collection<JsonObject> operators,
             JsonObject graph) {
+        removeOperators(operators, new GraphIndex(graph));
+    }
+
+    /**
+     * Remove operators from the graph, connecting each operator's
+     * parents to its children. The index is maintained.
+     */
+    static void removeOperators(Collection<JsonObject> operators,
+            GraphIndex index) {
+        if (operators.isEmpty())
+            return;
+        
         for (JsonObject iso : operators) {
 
             // Get parents and children of operator
-            Set<JsonObject> operatorParents = getUpstream(iso, graph);
-            Set<JsonObject> operatorChildren = getDownstream(iso, graph);
+            Set<JsonObject> operatorParents = index.upstream(iso);
+            Set<JsonObject> operatorChildren = index.downstream(iso);
 
             
             JsonArray operatorOutputs = array(iso, "outputs");
@@ -341,8 +360,17 @@ public class GraphUtilities {
                 for (String name : childInputPortNames)
                     parentConnection.add(new JsonPrimitive(name));
             }
-            JsonArray ops = graph.get("operators").getAsJsonArray();
-            ops.remove(iso);
+            index.remove(iso);
+        }
+        
+        // Remove in a single pass, removing each operator
+        // by equality is a scan comparing the operators' JSON.
+        Set<JsonObject> removed = GraphIndex.newOperatorSet();
+        removed.addAll(operators);
+        JsonArray ops = index.graph().get("operators").getAsJsonArray();
+        for (Iterator<JsonElement> it = ops.iterator(); it.hasNext(); ) {
+            if (removed.contains(it.next()))
+                it.remove();
         }
     }
     
@@ -376,8 +404,14 @@ public class GraphUtilities {
     static void visitOnce(Set<JsonObject> starts,
             Set<BVirtualMarker> boundaries, JsonObject graph,
             Consumer<JsonObject> consumer) {
+        visitOnce(starts, boundaries, new GraphIndex(graph), consumer);
+    }
+    
+    static void visitOnce(Set<JsonObject> starts,
+            Set<BVirtualMarker> boundaries, GraphIndex index,
+            Consumer<JsonObject> consumer) {
         visitOnce(new VisitController(Direction.BOTH, boundaries),
-                starts, graph, consumer);
+                starts, index, consumer);
     }
 
     /**
@@ -397,8 +431,16 @@ public class GraphUtilities {
     public static void visitOnce(VisitController visitController,
             Set<JsonObject> starts, JsonObject graph,
             Consumer<JsonObject> consumer) {
-        Set<JsonObject> visited = new HashSet<>();
-        List<JsonObject> unvisited = new ArrayList<>();
+        visitOnce(visitController, starts, new GraphIndex(graph), consumer);
+    }
+    
+    static void visitOnce(VisitController visitController,
+            Set<JsonObject> starts, GraphIndex index,
+            Consumer<JsonObject> consumer) {
+        // Identity set, so that the consumer modifying
+        // an operator does not change its hash code.
+        Set<JsonObject> visited = GraphIndex.newOperatorSet();
+        Deque<JsonObject> unvisited = new ArrayDeque<>();
         if (visitController == null)
             visitController = new VisitController();
 
@@ -406,47 +448,45 @@ public class GraphUtilities {
         unvisited.addAll(starts);
 
         while (unvisited.size() > 0) {
-            JsonObject op = unvisited.get(0);
-            // Modify and THEN add to hashSet as to not break the hashCode of
-            // the object in the hashSet.
+            JsonObject op = unvisited.peekFirst();
             if (visitController.stopped())
                 return;
             consumer.accept(op);
             visited.add(op);  
             GraphUtilities.getUnvisitedAdjacentNodes(visitController, visited,
-                    unvisited, op, graph);
-            unvisited.remove(0);
+                    unvisited, op, index);
+            unvisited.removeFirst();
         }
     }
 
     static void getUnvisitedAdjacentNodes(
             Collection<JsonObject> visited, Collection<JsonObject> unvisited,
-            JsonObject op, JsonObject graph, Set<BVirtualMarker> boundaries) {
+            JsonObject op, GraphIndex index, Set<BVirtualMarker> boundaries) {
         getUnvisitedAdjacentNodes(new VisitController(Direction.BOTH, boundaries),
-                visited, unvisited, op, graph);
+                visited, unvisited, op, index);
     }
 
     static void getUnvisitedAdjacentNodes(
             VisitController visitController,
             Collection<JsonObject> visited, Collection<JsonObject> unvisited,
-            JsonObject op, JsonObject graph) {
+            JsonObject op, GraphIndex index) {
         
         Direction direction = visitController.direction();
         Set<BVirtualMarker> boundaries = visitController.markerBoundaries();
         
-        Set<JsonObject> parents = getUpstream(op, graph);
-        Set<JsonObject> children = getDownstream(op, graph);
+        Set<JsonObject> parents = index.upstream(op);
+        Set<JsonObject> children = index.downstream(op);
         removeVisited(parents, visited);
         removeVisited(children, visited);
 
         // --- Process parents ---
         if (direction != Direction.DOWNSTREAM) {
-            Set<JsonObject> allOperatorChildren = new HashSet<>();
+            Set<JsonObject> allOperatorChildren = new LinkedHashSet<>();
             List<JsonObject> operatorParents = new ArrayList<>();
             for (JsonObject parent : parents) {
                 if (equalsAny(boundaries, jstring(parent, OpProperties.KIND))) {
                     operatorParents.add(parent);
-                    allOperatorChildren.addAll(getDownstream(parent, graph));
+                    allOperatorChildren.addAll(index.downstream(parent));
                 }
             }
             visited.addAll(operatorParents);
@@ -461,11 +501,11 @@ public class GraphUtilities {
         // --- Process children ---
         if (direction != Direction.UPSTREAM) {
             List<JsonObject> childrenToRemove = new ArrayList<>();
-            Set<JsonObject> allOperatorParents = new HashSet<>();
+            Set<JsonObject> allOperatorParents = new LinkedHashSet<>();
             for (JsonObject child : children) {
                 if (equalsAny(boundaries, jstring(child, "kind"))) {
                     childrenToRemove.add(child);
-                    allOperatorParents.addAll(getUpstream(child, graph));
+                    allOperatorParents.addAll(index.upstream(child));
                 }
             }
             visited.addAll(childrenToRemove);
@@ -549,10 +589,22 @@ public class GraphUtilities {
      * @param graph The graph.
      */
     static void addBefore(JsonObject op, JsonObject addOp, JsonObject graph){        
-        for(JsonObject parent : getUpstream(op, graph)){
+        addBefore(op, addOp, new GraphIndex(graph));
+    }
+    
+    static void addBefore(JsonObject op, JsonObject addOp, GraphIndex index){        
+        for(JsonObject parent : index.upstream(op)){
             addBetween(parent, op, addOp);
         } 
-        graph.get("operators").getAsJsonArray().add(addOp);
+        addOperator(addOp, index);
+    }
+    
+    /**
+     * Add an operator to the graph and the index.
+     */
+    static void addOperator(JsonObject op, GraphIndex index) {
+        index.graph().get("operators").getAsJsonArray().add(op);
+        index.add(op);
     }
     
     static void addBetween(JsonObject parent, JsonObject child, JsonObject op){
@@ -564,6 +616,15 @@ public class GraphUtilities {
         addBetween(parentList, childList, op);     
     }
     
+    /**
+     * Add an operator between a parent and child, adding
+     * the operator to the graph and the index.
+     */
+    static void addBetween(JsonObject parent, JsonObject child, JsonObject op, GraphIndex index){
+        addBetween(parent, child, op);
+        addOperator(op, index);
+    }
+    
 	static void addBetween(List<JsonObject> parents, List<JsonObject> children, JsonObject op){
         for(JsonObject parent : parents){
             for(JsonObject child : children){      
@@ -579,6 +640,11 @@ public class GraphUtilities {
     }
     
 
+    /**
+     * Insert an operator between an output and input port.
+     * Only connections are modified, the operator must
+     * be added to the graph (and any index) separately.
+     */
 	static void insertOperatorBetweenPorts(JsonObject input, JsonObject output, JsonObject op){
         String oportName = jstring(output, "name");
         String iportName = jstring(input, "name");
@@ -692,13 +758,17 @@ public class GraphUtilities {
      * @param graph the entire graph
      */
     static void moveOperatorUpstream(JsonObject op, JsonObject graph) {
+        moveOperatorUpstream(op, new GraphIndex(graph));
+    }
+    
+    static void moveOperatorUpstream(JsonObject op, GraphIndex index) {
         // ensure that op has only one parent
-        Set<JsonObject> parents = getUpstream(op, graph);
+        Set<JsonObject> parents = index.upstream(op);
         assert parents.size() == 1;
         JsonObject parent = parents.iterator().next();
 
         // ensure that op has only one grand parent
-        Set<JsonObject> grandParents = getUpstream(parent, graph);
+        Set<JsonObject> grandParents = index.upstream(parent);
         assert grandParents.size() == 1;
         JsonObject grandParent = grandParents.iterator().next();
 
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.generator.spl;
 
@@ -12,8 +12,11 @@ import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMEN
 import static com.ibm.streamsx.topology.generator.operator.WindowProperties.POLICY_COUNT;
 import static com.ibm.streamsx.topology.generator.operator.WindowProperties.POLICY_DELTA;
 import static com.ibm.streamsx.topology.generator.operator.WindowProperties.POLICY_NONE;
+import static com.ibm.streamsx.topology.generator.operator.WindowProperties.POLICY_PARTITION_AGE;
+import static com.ibm.streamsx.topology.generator.operator.WindowProperties.POLICY_PARTITION_COUNT;
 import static com.ibm.streamsx.topology.generator.operator.WindowProperties.POLICY_PUNCTUATION;
 import static com.ibm.streamsx.topology.generator.operator.WindowProperties.POLICY_TIME;
+import static com.ibm.streamsx.topology.generator.operator.WindowProperties.POLICY_TUPLE_COUNT;
 import static com.ibm.streamsx.topology.generator.operator.WindowProperties.TYPE_NOT_WINDOWED;
 import static com.ibm.streamsx.topology.generator.operator.WindowProperties.TYPE_SLIDING;
 import static com.ibm.streamsx.topology.generator.operator.WindowProperties.TYPE_TUMBLING;
@@ -515,9 +518,17 @@ class OperatorGenerator {
                 appendWindowPolicy(triggerPolicy, window.get("triggerConfig"), jstring(window, "triggerTimeUnit"), sb);
             }
 
-            if (jboolean(window, "partitioned"))
+            if (jboolean(window, "partitioned")) {
                 sb.append(", partitioned");
 
+                String partitionEvictPolicy = jstring(window, "partitionEvictPolicy");
+                if (partitionEvictPolicy != null) {
+                    sb.append(", ");
+                    appendPartitionEvictionPolicy(partitionEvictPolicy, window.get("partitionEvictConfig"),
+                            jstring(window, "partitionEvictTimeUnit"), sb);
+                }
+            }
+
             sb.append(";\n");
         });
 
@@ -537,33 +548,8 @@ class OperatorGenerator {
         case POLICY_PUNCTUATION:
             break;
         case POLICY_TIME: {
-            TimeUnit unit = TimeUnit.valueOf(timeUnit.toString());
-            long time = config.getAsLong();
-            double secs;
-            switch (unit) {
-            case DAYS:
-            case HOURS:
-            case MINUTES:
-            case SECONDS:
-                secs = unit.toSeconds(time);
-                break;
-            case MILLISECONDS:
-                secs = ((double) time) / 1000.0;
-                break;
-
-            case MICROSECONDS:
-                secs = ((double) time) / 1000_000.0;
-                break;
-
-            case NANOSECONDS:
-                secs = ((double) time) / 1000_000_000.0;
-                break;
-
-            default:
-                throw new IllegalStateException();
-            }
             sb.append("time(");
-            sb.append(secs);
+            sb.append(toSeconds(config, timeUnit));
             sb.append(")");
             break;
         }
@@ -573,6 +559,51 @@ class OperatorGenerator {
         }
     }
 
+    static void appendPartitionEvictionPolicy(String policyName, JsonElement config, String timeUnit, StringBuilder sb) {
+        switch (policyName) {
+        case POLICY_PARTITION_AGE:
+            sb.append("partitionAge(");
+            sb.append(toSeconds(config, timeUnit));
+            sb.append(")");
+            break;
+        case POLICY_PARTITION_COUNT:
+            sb.append("partitionCount(");
+            sb.append(config.getAsInt());
+            sb.append("u)");
+            break;
+        case POLICY_TUPLE_COUNT:
+            sb.append("tupleCount(");
+            sb.append(config.getAsInt());
+            sb.append("u)");
+            break;
+        default:
+            throw new IllegalStateException(Messages.getString("GENERATOR_INTERNAL_ERROR"));
+        }
+    }
+
+    /**
+     * Convert a time to seconds for a window clause.
+     */
+    private static double toSeconds(JsonElement config, String timeUnit) {
+        TimeUnit unit = TimeUnit.valueOf(timeUnit);
+        long time = config.getAsLong();
+        switch (unit) {
+        case DAYS:
+        case HOURS:
+        case MINUTES:
+        case SECONDS:
+            return unit.toSeconds(time);
+        case MILLISECONDS:
+            return ((double) time) / 1000.0;
+        case MICROSECONDS:
+            return ((double) time) / 1000_000.0;
+        case NANOSECONDS:
+            return ((double) time) / 1000_000_000.0;
+        default:
+            throw new IllegalStateException();
+        }
+    }
+
     private void paramClause(JsonObject graphConfig, JsonObject op, StringBuilder sb) {
 
         // VMArgs only apply to Java SPL operators.
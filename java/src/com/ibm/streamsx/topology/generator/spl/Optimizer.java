@@ -1,21 +1,46 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.generator.spl;
 
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.ANNOTATIONS;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONFIG;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.CONSISTENT;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.KIND;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.KIND_CLASS;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.LANGUAGE;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_VIRTUAL;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PARALLEL;
+import static com.ibm.streamsx.topology.generator.operator.OpProperties.PLACEMENT;
+import static com.ibm.streamsx.topology.generator.spl.AutonomousRegions.AUTONOMOUS;
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.findOperatorsByKinds;
-import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.getDownstream;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.inputs;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.isHashAdder;
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.kind;
+import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.operators;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.FUNCTIONAL_LOGIC_PARAM;
+import static com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties.OUTPUT_HASHER_PARAM;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.array;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jboolean;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jobject;
 import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
+import com.ibm.streamsx.topology.spi.builder.SourceInfo;
 
 /**
  * Optimize takes the preprocessed graph and adds any optimization.
@@ -29,28 +54,355 @@ class Optimizer {
     }
 
     void optimize() {
+        fuseJavaFunctional();
+        fuseHashAdders();
         pyPassByRef();
     }
+    
+    private static final String JAVA_OP_NS = "com.ibm.streamsx.topology.functional.java";
+    private static final String JAVA_FUSED_KIND = JAVA_OP_NS + "::Fused";
+    private static final String JAVA_FUSED_CLASS = "com.ibm.streamsx.topology.internal.functional.ops.FunctionFused";
+    private static final Set<String> JAVA_FUSABLE_OPS = new HashSet<>();
+    
+    static {
+        for (String kind : new String[] { "Filter", "Map", "FlatMap"})
+            JAVA_FUSABLE_OPS.add(JAVA_OP_NS + "::" + kind);
+    }
+    
+    /**
+     * Parameters that are per-stage or only apply to the
+     * input port of the first operator of a fused chain.
+     * All other parameters must be equal across the chain.
+     */
+    private static final Set<String> JAVA_STAGE_PARAMS = new HashSet<>();
+    static {
+        JAVA_STAGE_PARAMS.add("functionalLogic");
+        JAVA_STAGE_PARAMS.add("queueSize");
+        JAVA_STAGE_PARAMS.add("queueBatchSize");
+    }
+    
+    /**
+     * Fuse chains of Java functional Filter, Map and FlatMap
+     * operators into a single Fused operator that calls each
+     * stage's function directly, removing the tuple conversion
+     * and submission between the stages.
+     * 
+     * An operator is fused with its downstream operator when
+     * it has a single output connected only to the downstream
+     * operator which has a single input with that single connection.
+     * Fusion is limited to operators with identical configuration
+     * (placement, which includes isolation and low latency regions),
+     * so that it never crosses an isolation, low latency or parallel
+     * region boundary. Operators in parallel regions or that
+     * start a consistent region are not fused.
+     * 
+     * The first operator of the chain becomes the fused operator,
+     * keeping its name and input port and taking the output port
+     * of the last operator so that downstream connections are unchanged.
+     */
+    private void fuseJavaFunctional() {
+        Set<JsonObject> ops = findOperatorsByKinds(graph, JAVA_FUSABLE_OPS);
+        if (ops.size() < 2)
+            return;
+        
+        GraphIndex index = new GraphIndex(graph);
+        
+        // Find all the chains before modifying the graph.
+        List<List<JsonObject>> chains = new ArrayList<>();
+        for (JsonObject op : ops) {
+            // Only start a chain at an operator that cannot be fused
+            // with its upstream operator.
+            JsonObject upstream = fusableUpstream(index, op, ops);
+            if (upstream != null)
+                continue;
+            
+            List<JsonObject> chain = new ArrayList<>();
+            chain.add(op);
+            JsonObject next;
+            while ((next = fusableDownstream(index, chain.get(chain.size()-1), ops)) != null)
+                chain.add(next);
+            
+            if (chain.size() >= 2)
+                chains.add(chain);
+        }
+        
+        if (chains.isEmpty())
+            return;
+        
+        Set<JsonObject> fused = GraphIndex.newOperatorSet();
+        for (List<JsonObject> chain : chains) {
+            fuse(chain);
+            fused.addAll(chain);
+        }
+        
+        // Remove the fused stages, the first operator
+        // of each chain is now the fused operator.
+        JsonArray operators = array(graph, "operators");
+        for (Iterator<JsonElement> it = operators.iterator(); it.hasNext(); ) {
+            JsonObject op = it.next().getAsJsonObject();
+            if (fused.contains(op) && !JAVA_FUSED_KIND.equals(kind(op)))
+                it.remove();
+        }
+    }
+    
+    private static JsonObject fusableUpstream(GraphIndex index, JsonObject op, Set<JsonObject> ops) {
+        Set<JsonObject> upstream = index.upstream(op);
+        if (upstream.size() != 1)
+            return null;
+        JsonObject up = upstream.iterator().next();
+        if (!ops.contains(up))
+            return null;
+        return fusableDownstream(index, up, ops) == op ? up : null;
+    }
+    
+    /**
+     * Return the operator that can be fused with op
+     * as its downstream stage, or null if there is none.
+     */
+    private static JsonObject fusableDownstream(GraphIndex index, JsonObject op, Set<JsonObject> ops) {
+        if (!canFuse(op))
+            return null;
+        JsonArray outputs = array(op, "outputs");
+        if (outputs == null || outputs.size() != 1)
+            return null;
+        JsonArray conns = array(outputs.get(0).getAsJsonObject(), "connections");
+        if (conns == null || conns.size() != 1)
+            return null;
+        
+        Set<JsonObject> downstream = index.downstream(op);
+        if (downstream.size() != 1)
+            return null;
+        JsonObject down = downstream.iterator().next();
+        if (!ops.contains(down) || !canFuse(down))
+            return null;
+        
+        JsonArray inputs = array(down, "inputs");
+        if (inputs == null || inputs.size() != 1)
+            return null;
+        JsonObject input = inputs.get(0).getAsJsonObject();
+        JsonArray iconns = array(input, "connections");
+        if (iconns == null || iconns.size() != 1 || input.has("window"))
+            return null;
+        
+        // The downstream operator requested its own thread.
+        if (parameters(down).has("queueSize"))
+            return null;
+        
+        if (!Objects.equals(jobject(op, CONFIG), jobject(down, CONFIG)))
+            return null;
+        if (jboolean(op, AUTONOMOUS) != jboolean(down, AUTONOMOUS))
+            return null;
+        
+        if (!sameParameters(op, down))
+            return null;
+        
+        return down;
+    }
+    
+    private static boolean canFuse(JsonObject op) {
+        return !jboolean(op, PARALLEL)
+                && !op.has(CONSISTENT)
+                && !op.has(ANNOTATIONS)
+                && parameters(op).has("functionalLogic");
+    }
+    
+    private static JsonObject parameters(JsonObject op) {
+        JsonObject params = jobject(op, "parameters");
+        return params == null ? new JsonObject() : params;
+    }
+    
+    private static boolean sameParameters(JsonObject op1, JsonObject op2) {
+        return Objects.equals(sharedParameters(op1), sharedParameters(op2));
+    }
+    
+    private static JsonObject sharedParameters(JsonObject op) {
+        JsonObject shared = new JsonObject();
+        for (Map.Entry<String, JsonElement> param : parameters(op).entrySet()) {
+            if (!JAVA_STAGE_PARAMS.contains(param.getKey()))
+                shared.add(param.getKey(), param.getValue());
+        }
+        return shared;
+    }
+    
+    /**
+     * Convert the first operator of the chain into
+     * the fused operator.
+     */
+    private static void fuse(List<JsonObject> chain) {
+        JsonObject first = chain.get(0);
+        JsonObject last = chain.get(chain.size() - 1);
+        
+        JsonArray kinds = new JsonArray();
+        JsonArray logic = new JsonArray();
+        JsonArray locations = new JsonArray();
+        for (JsonObject op : chain) {
+            String kind = kind(op);
+            kinds.add(new JsonPrimitive(kind.substring(kind.indexOf("::") + 2)));
+            if (op != first)
+                logic.add(new JsonPrimitive(
+                        jstring(jobject(parameters(op), "functionalLogic"), "value")));
+            JsonArray sl = array(op, SourceInfo.SOURCE_LOCATIONS);
+            if (sl != null)
+                locations.addAll(sl);
+        }
+        
+        first.addProperty(KIND, JAVA_FUSED_KIND);
+        first.addProperty(KIND_CLASS, JAVA_FUSED_CLASS);
+        
+        JsonObject fusedKinds = new JsonObject();
+        fusedKinds.add("value", kinds);
+        GraphUtilities.addOpParameter(first, "fusedKinds", fusedKinds);
+        JsonObject fusedLogic = new JsonObject();
+        fusedLogic.add("value", logic);
+        GraphUtilities.addOpParameter(first, "fusedLogic", fusedLogic);
+        
+        // Take the last stage's output port, its name
+        // is what downstream operators are connected to.
+        first.add("outputs", last.get("outputs"));
+        
+        if (locations.size() != 0)
+            first.add(SourceInfo.SOURCE_LOCATIONS, locations);
+    }
+
+    /**
+     * Java functional operators that convert each output
+     * value from a Java object and so can set the hash attribute
+     * of a keyed parallel region as the value is converted.
+     */
+    private static final Set<String> JAVA_HASHING_OPS = new HashSet<>();
+    
+    static {
+        for (String kind : new String[] { "Map", "FlatMap", "Fused", "MapAsync", "Batch", "Aggregate"})
+            JAVA_HASHING_OPS.add(JAVA_OP_NS + "::" + kind);
+    }
+    
+    /**
+     * Fuse the HashAdder of a keyed parallel region into its
+     * upstream Java functional operator, which then sets the hash
+     * attribute from the value it is submitting, using the hash
+     * function passed as its {@code outputHasher} parameter.
+     * 
+     * A separate HashAdder converts each tuple to its Java object
+     * to hash its key, which deserializes the object when the HashAdder
+     * is not in the same PE as its upstream operator. Thus the object
+     * was deserialized twice, once by the HashAdder and once by the
+     * operator in the parallel channel.
+     * 
+     * A HashAdder is fused when its single upstream operator has
+     * a single output port connected only to the HashAdder. The
+     * upstream operator takes the HashAdder's output port, so that
+     * downstream connections are unchanged, and its jar dependencies
+     * as the hash function executes in the upstream operator.
+     */
+    private void fuseHashAdders() {
+        List<JsonObject> adders = new ArrayList<>();
+        operators(graph, op -> {
+            if (isHashAdder(op))
+                adders.add(op);
+        });
+        if (adders.isEmpty())
+            return;
+        
+        GraphIndex index = new GraphIndex(graph);
+        
+        Set<JsonObject> fused = GraphIndex.newOperatorSet();
+        for (JsonObject adder : adders) {
+            JsonObject upstream = hashingUpstream(index, adder);
+            if (upstream == null)
+                continue;
+            
+            JsonObject params = parameters(adder);
+            GraphUtilities.addOpParameter(upstream, OUTPUT_HASHER_PARAM,
+                    jobject(params, FUNCTIONAL_LOGIC_PARAM));
+            
+            JsonObject jars = jobject(params, "jar");
+            if (jars != null) {
+                JsonObject upJars = jobject(parameters(upstream), "jar");
+                if (upJars == null) {
+                    GraphUtilities.addOpParameter(upstream, "jar", jars);
+                } else {
+                    JsonArray value = array(upJars, "value");
+                    for (JsonElement jar : array(jars, "value")) {
+                        if (!value.contains(jar))
+                            value.add(jar);
+                    }
+                }
+            }
+            
+            upstream.add("outputs", adder.get("outputs"));
+            fused.add(adder);
+        }
+        
+        JsonArray operators = array(graph, "operators");
+        for (Iterator<JsonElement> it = operators.iterator(); it.hasNext(); ) {
+            if (fused.contains(it.next().getAsJsonObject()))
+                it.remove();
+        }
+    }
+    
+    /**
+     * Return the operator upstream of a HashAdder that
+     * can set the hash attribute, or null if there is none.
+     */
+    private static JsonObject hashingUpstream(GraphIndex index, JsonObject adder) {
+        JsonObject params = parameters(adder);
+        if (!params.has(FUNCTIONAL_LOGIC_PARAM) || params.has("inputSerializer"))
+            return null;
+        
+        JsonArray inputs = array(adder, "inputs");
+        if (inputs == null || inputs.size() != 1)
+            return null;
+        JsonArray iconns = array(inputs.get(0).getAsJsonObject(), "connections");
+        if (iconns == null || iconns.size() != 1)
+            return null;
+        
+        Set<JsonObject> upstream = index.upstream(adder);
+        if (upstream.size() != 1)
+            return null;
+        JsonObject up = upstream.iterator().next();
+        if (!JAVA_HASHING_OPS.contains(kind(up)))
+            return null;
+        if (parameters(up).has(OUTPUT_HASHER_PARAM))
+            return null;
+        
+        JsonArray outputs = array(up, "outputs");
+        if (outputs == null || outputs.size() != 1)
+            return null;
+        JsonArray conns = array(outputs.get(0).getAsJsonObject(), "connections");
+        if (conns == null || conns.size() != 1)
+            return null;
+        
+        return up;
+    }
 
     private static final String PY_OP_NS = "com.ibm.streamsx.topology.functional.python";
     private static final Set<String> PY_FUNC_OPS = new HashSet<>();
 
     static {
-        for (String kind : new String[] { "Source", "Filter", "Map", "FlatMap", "ForEach", "Aggregate"}) {
+        for (String kind : new String[] { "Source", "Filter", "Map", "FlatMap", "ForEach", "Aggregate", "Split", "HashAdder"}) {
             PY_FUNC_OPS.add(PY_OP_NS + "::" + kind);
             PY_FUNC_OPS.add(PY_OP_NS + "2::" + kind);
         }
     }
+    
+    private static final String PY_OBJECT_TYPE = "tuple<blob __spl_po>";
 
     /**
      * Setup Python operators to allow pass by reference.
      * 
      * Finds Python functional operators and sets the outputConnections
-     * parameter representing the number of connections.
+     * parameter representing the number of connections for each output port.
+     * Every Python functional operator with an input port accepts
+     * an object passed by reference.
+     * 
+     * When an output port is connected to Python functional operators
+     * and to operators that require pickled bytes (e.g. SPL or Java operators)
+     * a single Python Map operator that pickles the object is inserted
+     * before the operators requiring bytes. Thus the object is pickled once
+     * and the Python functional operators do not depickle it.
      * 
      * If pass by reference cannot be used outputConnections will not be set.
      * 
-     * Does not modify the structure of the graph.
      * Assumes the graph's structure will not be subsequently modified.
      */
     private final void pyPassByRef() {
@@ -58,16 +410,14 @@ class Optimizer {
 
         if (pyops.isEmpty())
             return;
+        
+        GraphIndex index = new GraphIndex(graph);
 
         for (JsonObject pyop : pyops) {
             JsonArray outputs = array(pyop, "outputs");
             if (outputs == null || outputs.size() == 0)
                 continue;
 
-            // Currently only supporting a single output port
-            // though mostly coded to support N.
-            assert outputs.size() == 1;
-
             int[] connCounts = new int[outputs.size()];
 
             for (int port = 0; port < connCounts.length; port++) {
@@ -77,7 +427,7 @@ class Optimizer {
 
                 // Can't use the schema objects as we need to not depend on IBM Streams
                 // classes.
-                if (!"tuple<blob __spl_po>".equals(jstring(output, "type")))
+                if (!PY_OBJECT_TYPE.equals(jstring(output, "type")))
                     continue;
 
                 JsonArray conns = array(output, "connections");
@@ -86,27 +436,24 @@ class Optimizer {
                     continue;
                 }
                 
-                boolean canPassByRef = true;
-                // TOOD - downstream for a specific port
-                Set<JsonObject> connected = getDownstream(pyop, graph);
-                for (JsonObject connectedOp : connected) {
-                    if (!PY_FUNC_OPS.contains(kind(connectedOp))) {
-                        canPassByRef = false;
-                        break;
-                    }
-                        
-                        // TEMP
-                        // Currently only Map and ForEach completly handle
-                        // by reference.
-                        if (!kind(connectedOp).endsWith("::Map") && !kind(connectedOp).endsWith("::ForEach") && !kind(connectedOp).endsWith("::FlatMap")
-			    && !kind(connectedOp).endsWith("::Aggregate")) {
-                        canPassByRef = false;
-                        break;
-                        }
+                // Input ports that accept a reference and
+                // input ports that require pickled bytes.
+                List<String> byRef = new ArrayList<>();
+                List<String> pickled = new ArrayList<>();
+                for (JsonElement conn : conns) {
+                    JsonObject connectedOp = index.inputOperator(conn.getAsString());
+                    if (connectedOp != null && PY_FUNC_OPS.contains(kind(connectedOp)))
+                        byRef.add(conn.getAsString());
+                    else
+                        pickled.add(conn.getAsString());
                 }
 
-                if (canPassByRef)
+                if (pickled.isEmpty())
                     connCounts[port] = conns.size();
+                else if (!byRef.isEmpty() && canAddPickler(index, pyop, pickled)) {
+                    addPickler(index, pyop, port, pickled);
+                    connCounts[port] = byRef.size() + 1;
+                }
             }
 
             boolean paramNeeded = false;
@@ -131,4 +478,113 @@ class Optimizer {
             }
         }
     }
+    
+    /**
+     * A pickler is only added when the operators requiring bytes
+     * are not virtual markers and the Python operator does not
+     * start a parallel region, so that the pickler never changes
+     * the bounds of a region.
+     */
+    private static boolean canAddPickler(GraphIndex index, JsonObject pyop, List<String> pickled) {
+        if (jboolean(pyop, PARALLEL))
+            return false;
+        for (String iportName : pickled) {
+            JsonObject op = index.inputOperator(iportName);
+            if (op == null || MODEL_VIRTUAL.equals(jstring(op, MODEL)))
+                return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Insert a Python Map operator that pickles each object
+     * (an identity Map using the pickle style) between
+     * an output port of pyop and the input ports that require bytes.
+     * The pickler has the placement of pyop so that it is
+     * fused with pyop and receives objects by reference.
+     */
+    private static void addPickler(GraphIndex index, JsonObject pyop, int port, List<String> pickled) {
+        JsonObject output = array(pyop, "outputs").get(port).getAsJsonObject();
+        String oportName = jstring(output, "name");
+        String name = jstring(pyop, "name") + "_pickle" + port;
+        String kind = kind(pyop);
+
+        JsonObject pickler = new JsonObject();
+        pickler.addProperty("name", name);
+        pickler.addProperty(KIND, kind.substring(0, kind.indexOf("::")) + "::Map");
+        pickler.addProperty(MODEL, jstring(pyop, MODEL));
+        pickler.addProperty(LANGUAGE, jstring(pyop, LANGUAGE));
+        pickler.addProperty("partitioned", false);
+        
+        JsonObject layout = new JsonObject();
+        layout.addProperty("hidden", true);
+        pickler.add("layout", layout);
+        
+        JsonObject config = new JsonObject();
+        JsonObject pyconfig = jobject(pyop, CONFIG);
+        if (pyconfig != null && pyconfig.has(PLACEMENT))
+            config.add(PLACEMENT, new JsonParser().parse(jobject(pyconfig, PLACEMENT).toString()));
+        pickler.add(CONFIG, config);
+        
+        JsonObject params = new JsonObject();
+        params.add("toolkitDir", new JsonParser().parse(jobject(parameters(pyop), "toolkitDir").toString()));
+        params.add("pyModule", jvalue("streamsx.topology.runtime"));
+        params.add("pyName", jvalue("_identity"));
+        params.add("pyStyle", jvalue("pickle"));
+        JsonObject stateful = new JsonObject();
+        stateful.addProperty("value", false);
+        params.add("pyStateful", stateful);
+        pickler.add("parameters", params);
+        
+        JsonObject input = new JsonObject();
+        input.addProperty("name", name + "_IN0");
+        input.addProperty("type", PY_OBJECT_TYPE);
+        JsonArray iconns = new JsonArray();
+        iconns.add(new JsonPrimitive(oportName));
+        input.add("connections", iconns);
+        JsonArray inputs = new JsonArray();
+        inputs.add(input);
+        pickler.add("inputs", inputs);
+        
+        String picklerOportName = name + "_OUT0";
+        JsonObject poutput = new JsonObject();
+        poutput.addProperty("name", picklerOportName);
+        poutput.addProperty("type", PY_OBJECT_TYPE);
+        JsonArray oconns = new JsonArray();
+        for (String iportName : pickled)
+            oconns.add(new JsonPrimitive(iportName));
+        poutput.add("connections", oconns);
+        JsonArray poutputs = new JsonArray();
+        poutputs.add(poutput);
+        pickler.add("outputs", poutputs);
+        
+        // Connect the output port to the pickler instead of the
+        // input ports requiring bytes, which are then connected to the pickler.
+        JsonArray conns = array(output, "connections");
+        for (Iterator<JsonElement> it = conns.iterator(); it.hasNext(); ) {
+            if (pickled.contains(it.next().getAsString()))
+                it.remove();
+        }
+        conns.add(new JsonPrimitive(name + "_IN0"));
+        
+        for (String iportName : pickled) {
+            inputs(index.inputOperator(iportName), pinput -> {
+                if (!iportName.equals(jstring(pinput, "name")))
+                    return;
+                JsonArray pconns = array(pinput, "connections");
+                for (int i = 0; i < pconns.size(); i++) {
+                    if (oportName.equals(pconns.get(i).getAsString()))
+                        pconns.set(i, new JsonPrimitive(picklerOportName));
+                }
+            });
+        }
+        
+        GraphUtilities.addOperator(pickler, index);
+    }
+    
+    private static JsonObject jvalue(String value) {
+        JsonObject jv = new JsonObject();
+        jv.addProperty("value", value);
+        return jv;
+    }
 }
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.generator.spl;
 
@@ -60,10 +60,10 @@ class Preprocessor {
     }
     
     private void removeRemainingVirtualMarkers(){
-        for (BVirtualMarker marker : Arrays.asList(BVirtualMarker.UNION, BVirtualMarker.PENDING)) {
-            List<JsonObject> unionOps = GraphUtilities.findOperatorByKind(marker, graph);
-            GraphUtilities.removeOperators(unionOps, graph);
-        }
+        List<JsonObject> markerOps = new ArrayList<>();
+        for (BVirtualMarker marker : Arrays.asList(BVirtualMarker.UNION, BVirtualMarker.PENDING))
+            markerOps.addAll(GraphUtilities.findOperatorByKind(marker, graph));
+        GraphUtilities.removeOperators(markerOps, graph);
     }
 
     public void compositeColocateIdUsage(List<JsonObject> composites) {
@@ -180,13 +180,14 @@ class Preprocessor {
      * </p>
      */
     private void relocateHashAdders(){
+        final GraphIndex index = new GraphIndex(graph);
         final Set<JsonObject> hashAdderParents = new HashSet<>();
         // 1. find all HashAdders in the graph. The reason for not
         // moving HashAdders in this loop is to avoid modifying the graph
         // structure while traversing the graph.
         operators(graph, op -> {
             if (isHashAdder(op)) {
-                Set<JsonObject> parents = GraphUtilities.getUpstream(op, graph);
+                Set<JsonObject> parents = index.upstream(op);
                 // Only consider HashAdders with exactly one parent and that
                 // parent is an $Unparallel$, i.e., ignore scenarios #2 and #4.
                 JsonObject parent = parents.iterator().next();
@@ -198,7 +199,7 @@ class Preprocessor {
 
         // 2. process HashAdder's parents one by one
         for(JsonObject parent : hashAdderParents){
-            relocateChildrenHashAdders(parent);
+            relocateChildrenHashAdders(index, parent);
         }
     }
 
@@ -209,8 +210,8 @@ class Preprocessor {
      *               has non-parallel children operators, those non-parallel
      *               children may have multiple parents.
      */
-    private void relocateChildrenHashAdders(JsonObject parent){
-        Set<JsonObject> children = GraphUtilities.getDownstream(parent, graph);
+    private void relocateChildrenHashAdders(GraphIndex index, JsonObject parent){
+        Set<JsonObject> children = index.downstream(parent);
         if (children.size() == 1) {
             // Scenario #1: HashAdder is its parent $Unparallel$'s only child
             JsonObject hashAdder = children.iterator().next();
@@ -219,8 +220,8 @@ class Preprocessor {
             // insert a copy of HashAdder to the front of Unparallel
             JsonObject hashAdderCopy = GraphUtilities.copyOperatorNewName(
                     hashAdder, jstring(hashAdder, "name"));
-            GraphUtilities.removeOperator(hashAdder, graph);
-            GraphUtilities.addBefore(parent, hashAdderCopy, graph);
+            GraphUtilities.removeOperator(hashAdder, index);
+            GraphUtilities.addBefore(parent, hashAdderCopy, index);
             // set Unparallel's output port schema using HashAdder's schema
             GraphUtilities.setOutputPortType(parent, 0, schema);
             GraphUtilities.setInputPortType(parent, 0, schema);
@@ -253,7 +254,7 @@ class Preprocessor {
                 // becomes
                 // input -> HashAdder -> $Parallel$
                 //      \-> $Unparallel$
-                GraphUtilities.moveOperatorUpstream(hashAdder, graph);
+                GraphUtilities.moveOperatorUpstream(hashAdder, index);
 
                 // Step 2. insert an $Unparallel$ after the HashAdder, i.e.,
                 // input -> HashAdder -> $Parallel$
@@ -268,7 +269,7 @@ class Preprocessor {
                         jstring(parent, "name") + "_" + Integer.toString(nUnparallelCopy++));
 
                 // retrieve $Parallel$
-                Set<JsonObject> hashAdderChildren = GraphUtilities.getDownstream(hashAdder, graph);
+                Set<JsonObject> hashAdderChildren = index.downstream(hashAdder);
                 assert hashAdderChildren.size() == 1;
                 JsonObject hashAdderChild = hashAdderChildren.iterator().next();
                 // make sure $Unparallel$ output schema matches downstream
@@ -277,14 +278,13 @@ class Preprocessor {
                 GraphUtilities.setOutputPortType(unparallelCopy, 0, schema);
                 GraphUtilities.setInputPortType(unparallelCopy, 0, schema);
                 // insert the copy of $Unparallel$ after HashAdder
-                GraphUtilities.addBetween(hashAdder, hashAdderChild, unparallelCopy);
-                graph.get("operators").getAsJsonArray().add(unparallelCopy);
+                GraphUtilities.addBetween(hashAdder, hashAdderChild, unparallelCopy, index);
             }
 
             // The $Unparallel$ operator can be removed if it has zero
             // non-parallel child
             if (others.isEmpty()) {
-                GraphUtilities.removeOperator(parent, graph);
+                GraphUtilities.removeOperator(parent, index);
             }
         }
     }
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.generator.spl;
 
@@ -15,8 +15,6 @@ import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_FUNCTIONAL;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.MODEL_SPL;
 import static com.ibm.streamsx.topology.generator.port.PortProperties.inputPortRef;
-import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.getDownstream;
-import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.getUpstream;
 import static com.ibm.streamsx.topology.generator.spl.GraphUtilities.kind;
 import static com.ibm.streamsx.topology.internal.context.remote.DeployKeys.DEPLOYMENT_CONFIG;
 import static com.ibm.streamsx.topology.internal.graph.GraphKeys.CFG_HAS_ISOLATE;
@@ -40,6 +38,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Stack;
@@ -131,7 +131,8 @@ public class SPLGenerator {
         
 
         // Find composites until there are no more to find.
-        while(findAndCreateMostNestedComposite(graph)){
+        GraphIndex index = new GraphIndex(graph);
+        while(findAndCreateMostNestedComposite(index)){
 
         }    
     }
@@ -246,10 +247,11 @@ public class SPLGenerator {
      * @param graph
      * @return true if a composite was found. False otherwise.
      */
-    private boolean findAndCreateMostNestedComposite(JsonObject graph){
+    private boolean findAndCreateMostNestedComposite(GraphIndex index){
+        final JsonObject graph = index.graph();
         // Try to find a composite of any type: low latency, parallel, etc.
         for(int i = 0; i < compStarts.size(); i++){
-            List<List<JsonObject> > startsEndsAndOperators = findCompositeOpsOfAType(graph, compStarts.get(i), compEnds.get(i), compOperatorStarts.get(i));
+            List<List<JsonObject> > startsEndsAndOperators = findCompositeOpsOfAType(index, compStarts.get(i), compEnds.get(i), compOperatorStarts.get(i));
 
             if(startsEndsAndOperators != null){
                 
@@ -270,19 +272,26 @@ public class SPLGenerator {
                 
                 // Fix the naming of the operators in the composite to read from the composite input ports
                 // and write to the composite output ports
-                // fixCompositeInputNaming(graph, startsEndsAndOperators, compDefinition);
-                //fixCompositeOutputNaming(graph, startsEndsAndOperators, compDefinition, compInvocation);
+                // fixCompositeInputNaming(index, startsEndsAndOperators, compDefinition);
+                //fixCompositeOutputNaming(index, startsEndsAndOperators, compDefinition, compInvocation);
                 
                 // Add the invocation to the graph
                 array(graph, "operators").add(compInvocation);
 
                 // Remove starts, ends, and composite operators from the graph
+                Set<JsonObject> removed = GraphIndex.newOperatorSet();
                 for(int j = 0; j < startsEndsAndOperators.size(); j++){
-                    for(JsonElement op : startsEndsAndOperators.get(j)){
-                        array(graph, "operators").remove(op);
-                    }
+                    removed.addAll(startsEndsAndOperators.get(j));
+                }
+                for(Iterator<JsonElement> it = array(graph, "operators").iterator(); it.hasNext(); ){
+                    if(removed.contains(it.next()))
+                        it.remove();
                 }
                 
+                // The invocation takes the ports of the starts and ends.
+                removed.forEach(index::remove);
+                index.add(compInvocation);
+                
                 // Add the composite to the list of composites
                 stvHelper.addJsonParamDefs(compDefinition);
                 stvHelper.addJsonInstanceParams(compInvocation, compDefinition);
@@ -299,11 +308,11 @@ public class SPLGenerator {
 
     /**
      * When we create a composite, operators need to create connections with the composite's input port.
-     * @param graph
+     * @param index
      * @param startsEndsAndOperators
      * @param opDefinition
      */
-    private void fixCompositeInputNaming(JsonObject graph, List<List<JsonObject>> startsEndsAndOperators,
+    private void fixCompositeInputNaming(GraphIndex index, List<List<JsonObject>> startsEndsAndOperators,
             JsonObject opDefinition) {   
         // For each start
         // We iterate like this because we need to also index into the operatorDefinition's inputNames list.
@@ -320,7 +329,7 @@ public class SPLGenerator {
             String outputPortName = GsonUtilities.jstring(start.get("outputs").getAsJsonArray().get(0).getAsJsonObject(), "name");
             
             // for each operator downstream from this start
-            for(JsonObject downstream : GraphUtilities.getDownstream(start, graph)){
+            for(JsonObject downstream : index.downstream(start)){
                 // for each input in the downstream operator
                 JsonArray inputs = array(downstream, "inputs");
                 for(JsonElement inputObj : inputs){
@@ -345,11 +354,11 @@ public class SPLGenerator {
     
     /**
      * When we create a composite, operators need to create connections with the composite's output port.
-     * @param graph
+     * @param index
      * @param startsEndsAndOperators
      * @param opDefinition
      */
-    private void fixCompositeOutputNaming(JsonObject graph, List<List<JsonObject>> startsEndsAndOperators,
+    private void fixCompositeOutputNaming(GraphIndex index, List<List<JsonObject>> startsEndsAndOperators,
             JsonObject opDefinition, JsonObject opInvocation) {   
         // We iterate like this because we need the index into the operatorDefinition's inputNames list.
         for(int[] i = {0}; i[0] <  startsEndsAndOperators.get(1).size(); i[0]++){
@@ -358,7 +367,7 @@ public class SPLGenerator {
             // Region markers like $Parallel$ only have one input and output
             String inputPortName = GsonUtilities.jstring(end.get("inputs").getAsJsonArray().get(0).getAsJsonObject(), "name");
             
-            for(JsonObject parent : getUpstream(end, graph)){
+            for(JsonObject parent : index.upstream(end)){
                 
                 GraphUtilities.outputs(parent, output -> {
                     JsonArray conns = array(output, "connections");
@@ -611,15 +620,15 @@ public class SPLGenerator {
         return compositeInvocation;
     }
 
-    private List<List<JsonObject> > findCompositeOpsOfAType(JsonObject graph, String startKind, String endKind, String opStartParam){
+    private List<List<JsonObject> > findCompositeOpsOfAType(GraphIndex index, String startKind, String endKind, String opStartParam){
         
-        for(JsonElement jePotentialStart : graph.getAsJsonArray("operators")){
+        for(JsonElement jePotentialStart : index.graph().getAsJsonArray("operators")){
             JsonObject potentialStart = jePotentialStart.getAsJsonObject();
             
             // We've found a potential start to a composite. See if the composite doesn't contain another composite.   
             if(kind(potentialStart).equals(startKind) || 
                     isPhysicalStartOperatorOfAType(potentialStart, opStartParam)){
-                List<List<JsonObject> > startsEndsAndOperators = findCompositeOpsOfATypeGivenPotentialStart(graph, startKind, endKind, opStartParam, potentialStart);
+                List<List<JsonObject> > startsEndsAndOperators = findCompositeOpsOfATypeGivenPotentialStart(index, startKind, endKind, opStartParam, potentialStart);
                 if (startsEndsAndOperators != null) {
                     return startsEndsAndOperators;
                 }
@@ -629,42 +638,40 @@ public class SPLGenerator {
         return null;
     }
     
-    private List<List<JsonObject>> findCompositeOpsOfATypeGivenPotentialStart(JsonObject graph, String startKind, String endKind, String opStartParam, JsonObject potentialStart){
+    private List<List<JsonObject>> findCompositeOpsOfATypeGivenPotentialStart(GraphIndex index, String startKind, String endKind, String opStartParam, JsonObject potentialStart){
         Stack<JsonObject> unvisited = new Stack<>();
         
-        // Operators we've visited before
-        List<JsonObject> visited = new ArrayList<>();
+        // Operators we've visited before or are scheduled to be visited
+        Set<JsonObject> seen = GraphIndex.newOperatorSet();
         
         // The potential start operators, end operators, and operators of the composite
         List<JsonObject> potStarts = new ArrayList<>(), potEnds = new ArrayList<>(), potOperators = new ArrayList<>();      
         
         unvisited.push(potentialStart);
+        seen.add(potentialStart);
         while(unvisited.size() > 0){
             JsonObject op = unvisited.pop();
-            visited.add(op);
-            Set<JsonObject> parents = new HashSet<>(), children = new HashSet<>();
+            Set<JsonObject> parents = new LinkedHashSet<>(), children = new LinkedHashSet<>();
             // Add the op to one of the lists containing the composite's operators
 
             if(kind(op).equals(startKind) || (op.has("config") && jboolean(object(op, "config"), opStartParam))){
                 potStarts.add(op);
-                children.addAll(getDownstream(op, graph));
+                children.addAll(index.downstream(op));
             }
             else if(kind(op).equals(endKind)){
                 potEnds.add(op);
-                parents.addAll(getUpstream(op,graph));
+                parents.addAll(index.upstream(op));
             }
             else{
                 potOperators.add(op);
-                children.addAll(getDownstream(op, graph));
-                parents.addAll(getUpstream(op,graph));
+                children.addAll(index.downstream(op));
+                parents.addAll(index.upstream(op));
             }
             
             // Remove ops we've seen before
             // and ops that are already scheduled to be visited
-            children.removeIf(pOp -> visited.contains(pOp));
-            parents.removeIf(pOp -> visited.contains(pOp)); 
-            children.removeIf(pOp -> unvisited.contains(pOp));
-            parents.removeIf(pOp -> unvisited.contains(pOp));
+            children.removeIf(seen::contains);
+            parents.removeIf(seen::contains);
             
             // Validate neighbors.
             
@@ -715,6 +722,8 @@ public class SPLGenerator {
             }         
             unvisited.addAll(parents);
             unvisited.addAll(children);
+            seen.addAll(parents);
+            seen.addAll(children);
 
         }
         
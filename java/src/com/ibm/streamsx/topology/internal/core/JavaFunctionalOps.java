@@ -31,6 +31,8 @@ public interface JavaFunctionalOps {
     String AGGREGATE = PKG_O + "FunctionAggregate";
     String AGGREGATE_KIND = NS_COLON + "Aggregate";
     
+    String BATCH_KIND = NS_COLON + "Batch";
+    
     String CONVERT_SPL = PKG_O + "FunctionConvertToSPL";
     String CONVERT_SPL_KIND = NS_COLON + "ToSPL";
     
@@ -38,6 +40,9 @@ public interface JavaFunctionalOps {
     
     String FLAT_MAP_KIND = NS_COLON + "FlatMap";
     
+    // Chain of Filter, Map and FlatMap fused by the SPL generator.
+    String FUSED_KIND = NS_COLON + "Fused";
+    
     String HASH_ADDER_KIND = NS_COLON + "HashAdder";
     
     String HASH_REMOVER_KIND = NS_COLON + "HashRemover"; // Technically not a functional op.
@@ -46,6 +51,8 @@ public interface JavaFunctionalOps {
     
     String MAP_KIND = NS_COLON + "Map";
     
+    String MAP_ASYNC_KIND = NS_COLON + "MapAsync";
+    
     String PASS_KIND = NS_COLON + "PassThrough"; // Technically not a functional op.
     
     String PERIODIC_MULTI_SOURCE_KIND = NS_COLON + "FunctionPeriodicSource";
@@ -61,20 +68,27 @@ public interface JavaFunctionalOps {
     
     String PASS_CLASS = PKG + "PassThrough";
     
+    // Embedded only operators for threaded execution.
+    String QUEUED_PASS_CLASS = PKG_O + "QueuedPassThrough";
+    String PARALLEL_SPLIT_CLASS = PKG_O + "ParallelSplit";
+    
     static JsonObject kind2Class() {
         final JsonObject kinds = new JsonObject();
         
         kinds.addProperty(AGGREGATE_KIND, PKG_O + "FunctionAggregate");
+        kinds.addProperty(BATCH_KIND, PKG_O + "FunctionBatch");
         
         kinds.addProperty(CONVERT_SPL_KIND, PKG_O + "FunctionConvertToSPL");
         kinds.addProperty(FILTER_KIND, PKG_O + "FunctionFilter");
         
         kinds.addProperty(FLAT_MAP_KIND, PKG_O + "FunctionMultiTransform");
+        kinds.addProperty(FUSED_KIND, PKG_O + "FunctionFused");
         
 
         kinds.addProperty(JOIN_KIND, PKG_O + "FunctionJoin");
         
         kinds.addProperty(MAP_KIND, PKG_O + "FunctionTransform");
+        kinds.addProperty(MAP_ASYNC_KIND, PKG_O + "FunctionAsyncTransform");
         
 
         
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017 
+# Copyright IBM Corp. 2017,2019
  */
 package com.ibm.streamsx.topology.internal.core;
 
@@ -19,6 +19,7 @@ import com.ibm.streamsx.topology.builder.BOutputPort;
 import com.ibm.streamsx.topology.builder.JParamTypes;
 import com.ibm.streamsx.topology.internal.functional.ObjectSchemas;
 import com.ibm.streamsx.topology.internal.gson.JSON4JBridge;
+import com.ibm.streamsx.topology.logic.Logic;
 
 /**
  * Provides a bridge between the TStream and SPL/SPLStream world using
@@ -31,12 +32,30 @@ public class SPLStreamBridge {
         if (JSON4JBridge.isJson4JClass(tupleTypeClass))
             return subscribeJson4j(topology, topic, tupleTypeClass);
         
+        if (ObjectSchemas.publishesAsJavaObject(tupleTypeClass))
+            return fromJavaObject(topology, subscribeJava(topology, topic, tupleTypeClass), tupleTypeClass);
+        
         if (ObjectSchemas.usesDirectSchema(tupleTypeClass))
             return subscribeDirect(topology, topic, tupleTypeClass);
         
         return subscribeJava(topology, topic, tupleTypeClass);
     }
     
+    /**
+     * Convert a subscribed stream of serialized Java objects
+     * to the native schema for its tuple class.
+     */
+    private static <T> TStream<T> fromJavaObject(Topology topology, TStream<T> subscribed, Class<T> tupleTypeClass) {
+        BOperatorInvocation fromJava = JavaFunctional.addFunctionalOperator(
+                topology,
+                "FromJavaObject",
+                JavaFunctionalOps.MAP_KIND,
+                Logic.identity());
+        JavaFunctional.connectTo(topology, subscribed.output(), tupleTypeClass, fromJava, null);
+        
+        return JavaFunctional.addJavaOutput(topology, fromJava, tupleTypeClass, true);
+    }
+    
     private static <T> TStream<T> subscribeJson4j(Topology topology, Object topic, Class<T> tupleTypeClass) {
         
         BOutputPort rawSubscribe = rawSubscribe(topology, topic, JSON_SCHEMA);
@@ -75,7 +94,8 @@ public class SPLStreamBridge {
     }
     
     private static <T> TStream<T> subscribeJava(Topology topology, Object topic, Class<T> tupleTypeClass) {
-        final String schema = ObjectSchemas.getMappingSchema(tupleTypeClass);
+        final String schema = ObjectSchemas.publishesAsJavaObject(tupleTypeClass)
+                ? ObjectSchemas.JAVA_OBJECT_SCHEMA : ObjectSchemas.getMappingSchema(tupleTypeClass);
         Map<String, Object> params = new HashMap<>();
         params.put("topic", topic);
         params.put("class", tupleTypeClass.getName());
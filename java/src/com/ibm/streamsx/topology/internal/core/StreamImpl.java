@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.core;
 
@@ -31,6 +31,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import com.google.gson.JsonArray;
@@ -62,6 +63,7 @@ import com.ibm.streamsx.topology.internal.gson.JSON4JBridge;
 import com.ibm.streamsx.topology.internal.logic.FirstOfSecondParameterIterator;
 import com.ibm.streamsx.topology.internal.logic.KeyFunctionHasher;
 import com.ibm.streamsx.topology.internal.logic.LogicUtils;
+import com.ibm.streamsx.topology.internal.logic.NewBatch;
 import com.ibm.streamsx.topology.internal.logic.Print;
 import com.ibm.streamsx.topology.internal.logic.RandomSample;
 import com.ibm.streamsx.topology.internal.logic.Throttle;
@@ -186,6 +188,48 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         return JavaFunctional.addJavaOutput(this, bop, tupleType, true);
     }
     
+    @Override
+    public <U> TStream<U> mapAsync(Function<T, CompletableFuture<U>> mapper, int maxInFlight, boolean ordered) {
+        if (maxInFlight <= 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_ILLEGAL_MAX_IN_FLIGHT"));
+        
+        Type tupleType = TypeDiscoverer.determineStreamTypeNested(Function.class, 1, CompletableFuture.class, mapper);
+        
+        String opName = LogicUtils.functionName(mapper);
+
+        BOperatorInvocation bop = JavaFunctional.addFunctionalOperator(this,
+                opName,
+                JavaFunctionalOps.MAP_ASYNC_KIND, mapper).layoutKind("MapAsync");
+        bop.setParameter("maxInFlight", maxInFlight);
+        if (ordered)
+            bop.setParameter("ordered", true);
+        SourceInfo.setSourceInfo(bop, StreamImpl.class);
+        BInputPort inputPort = connectTo(bop, true, null);
+        // By default add a queue
+        inputPort.addQueue(true);
+        return JavaFunctional.addJavaOutput(this, bop, tupleType, true);
+    }
+    
+    @Override
+    public TStream<List<T>> batch(int maxSize, long maxDelay, TimeUnit unit) {
+        if (maxSize <= 0 || maxDelay < 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_ILLEGAL_BATCH"));
+        requireNonNull(unit);
+
+        BOperatorInvocation bop = JavaFunctional.addFunctionalOperator(this,
+                "Batch",
+                JavaFunctionalOps.BATCH_KIND, new NewBatch<T>(maxSize)).layoutKind("Batch");
+        bop.setParameter("maxSize", maxSize);
+        // Seconds from nanoseconds so a sub-millisecond delay is not lost.
+        if (maxDelay != 0)
+            bop.setParameter("maxDelay", unit.toNanos(maxDelay) / 1e9);
+        SourceInfo.setSourceInfo(bop, StreamImpl.class);
+        BInputPort inputPort = connectTo(bop, true, null);
+        // By default add a queue
+        inputPort.addQueue(true);
+        return JavaFunctional.addJavaOutput(this, bop, List.class, true);
+    }
+    
     private TStream<T> _modify(UnaryOperator<T> transformer, Type tupleType) {
         
         String opName = LogicUtils.functionName(transformer);
@@ -388,6 +432,21 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         
     }
     
+    @Override
+    public <J, U, M> TStream<J> join(
+            TWindow<U,?> window,
+            Function<? super T, ? extends M> keyer,
+            Function<? super U, ? extends M> windowKeyer,
+            BiFunction<T, List<U>, J> joiner) {
+        
+        if (window.isKeyed())
+            throw new IllegalArgumentException(Messages.getString("CORE_INDEXED_JOIN_KEYED_WINDOW"));
+        
+        Type tupleType = TypeDiscoverer.determineStreamTypeFromFunctionArg(BiFunction.class, 2, joiner);
+        
+        return ((WindowDefinition<U,?>) window).joinIndexedInternal(this, keyer, windowKeyer, joiner, tupleType);
+    }
+    
 
     @Override
     public final void publish(String topic) {
@@ -430,7 +489,8 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         
         
         BOperatorInvocation op;
-        if (ObjectSchemas.usesDirectSchema(tupleType)) {
+        if (ObjectSchemas.usesDirectSchema(tupleType)
+                && !ObjectSchemas.publishesAsJavaObject(tupleType)) {
         	// Don't allow filtering against schemas that Streams
         	// would not allow a filter against.
         	if (String.class != tupleType)
@@ -455,6 +515,12 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
             op = builder().addSPLOperator("Publish",
                     "com.ibm.streamsx.topology.topic::PublishJava",
                     params);
+            
+            if (ObjectSchemas.publishesAsJavaObject(tupleType)) {
+                SourceInfo.setSourceInfo(op, StreamImpl.class);
+                asJavaObject().connectTo(op, false, null);
+                return;
+            }
         } else {
             throw new IllegalStateException(Messages.getString("CORE_TSTREAM_TUPLE_GENERIC_TYPE"));
         }
@@ -463,6 +529,21 @@ public class StreamImpl<T> extends TupleContainer<T> implements TStream<T> {
         this.connectTo(op, false, null);
     }
     
+    /**
+     * Convert a stream with a native schema to a stream
+     * of serialized Java objects, the schema {@code PublishJava}
+     * has always used for the tuple class.
+     */
+    private StreamImpl<T> asJavaObject() {
+        BOperatorInvocation bop = JavaFunctional.addFunctionalOperator(this,
+                "ToJavaObject",
+                JavaFunctionalOps.MAP_KIND, identity());
+        SourceInfo.setSourceInfo(bop, StreamImpl.class);
+        connectTo(bop, true, null);
+        BOutputPort port = bop.addOutput(ObjectSchemas.JAVA_OBJECT_SCHEMA);
+        return new StreamImpl<T>(this, port, getTupleType());
+    }
+    
     /**
      * Topic name:
      *  - must not be zero length
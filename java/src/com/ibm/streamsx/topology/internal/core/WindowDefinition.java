@@ -1,15 +1,17 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.core;
 
 import static com.ibm.streamsx.topology.internal.core.JavaFunctionalOps.JOIN_KIND;
 
+import java.io.Serializable;
 import java.lang.reflect.ParameterizedType;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 import com.ibm.streamsx.topology.TStream;
@@ -18,6 +20,7 @@ import com.ibm.streamsx.topology.builder.BInputPort;
 import com.ibm.streamsx.topology.builder.BOperatorInvocation;
 import com.ibm.streamsx.topology.function.BiFunction;
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
 import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
 import com.ibm.streamsx.topology.internal.logic.LogicUtils;
 import com.ibm.streamsx.topology.internal.logic.ObjectUtils;
@@ -33,6 +36,14 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
     protected final TimeUnit timeUnit;
         
     private final Function<? super T,? extends K> keyGetter;
+
+    // Options copied to windows derived from this window
+    // Partition eviction policy in SPL terms, null for no partition eviction
+    private String partitionPolicy;
+    private long partitionConfig;
+    private TimeUnit partitionTimeUnit;
+    // Tuples held on the heap for each partition, zero for no spilling
+    private int spillTuples;
     
     private WindowDefinition(TStream<T> stream, String policy, long config, TimeUnit timeUnit, Function<? super T,? extends K> keyGetter) {
         super(stream);
@@ -59,6 +70,23 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
                 ((WindowDefinition<?,?>) configWindow).config,
                 ((WindowDefinition<?,?>) configWindow).timeUnit,
                 null);
+        copyOptions((WindowDefinition<?,?>) configWindow);
+    }
+    
+    private void copyOptions(WindowDefinition<?,?> from) {
+        partitionPolicy = from.partitionPolicy;
+        partitionConfig = from.partitionConfig;
+        partitionTimeUnit = from.partitionTimeUnit;
+        spillTuples = from.spillTuples;
+    }
+    
+    /**
+     * Copy of this window with a key getter.
+     */
+    private <U> WindowDefinition<T,U> copy(Function<? super T,? extends U> keyGetter) {
+        WindowDefinition<T,U> copy = new WindowDefinition<>(stream, policy, config, timeUnit, keyGetter);
+        copy.copyOptions(this);
+        return copy;
     }
     
     private final void setPartitioned(final java.lang.reflect.Type type) {
@@ -116,6 +144,25 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
         return aggregate(aggregator, aggregateType, BInputPort.Window.TIME_POLICY, period, unit);
     }
     
+    @Override
+    public <S, A> TStream<A> aggregate(IncrementalAggregator<T, S, A> aggregator) {
+        
+        java.lang.reflect.Type aggregateType = TypeDiscoverer.determineStreamTypeFromFunctionArg(IncrementalAggregator.class, 2, aggregator);
+        
+        return aggregate(aggregator, aggregateType, BInputPort.Window.COUNT_POLICY, 1, null);
+    }
+    
+    @Override
+    public <S, A> TStream<A> aggregate(IncrementalAggregator<T, S, A> aggregator,
+            long period, TimeUnit unit) {
+        if (period == 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_AGGREGATE_PERIOD_CANNOT_BE_ZERO"));
+        
+        java.lang.reflect.Type aggregateType = TypeDiscoverer.determineStreamTypeFromFunctionArg(IncrementalAggregator.class, 2, aggregator);
+        
+        return aggregate(aggregator, aggregateType, BInputPort.Window.TIME_POLICY, period, unit);
+    }
+    
     private <A> TStream<A> aggregate(Function<List<T>, A> aggregator,
             java.lang.reflect.Type aggregateType, String triggerPolicy, Object triggerConfig, TimeUnit triggerTimeUnit) {
         
@@ -124,6 +171,27 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
             setPartitioned(tupleType);
         }
         
+        return addAggregate(aggregator, aggregateType, triggerPolicy, triggerConfig, triggerTimeUnit);
+    }
+    
+    private <S, A> TStream<A> aggregate(IncrementalAggregator<T, S, A> aggregator,
+            java.lang.reflect.Type aggregateType, String triggerPolicy, Object triggerConfig, TimeUnit triggerTimeUnit) {
+        
+        if (getTupleClass() == null && !isKeyed()) {
+            java.lang.reflect.Type tupleType = TypeDiscoverer.determineStreamTypeFromFunctionArg(IncrementalAggregator.class, 0, aggregator);
+            setPartitioned(tupleType);
+        }
+        
+        return addAggregate(aggregator, aggregateType, triggerPolicy, triggerConfig, triggerTimeUnit);
+    }
+    
+    /**
+     * Add the aggregate operator, the runtime determines the
+     * type of aggregation from the class of {@code aggregator}.
+     */
+    private <A> TStream<A> addAggregate(Serializable aggregator,
+            java.lang.reflect.Type aggregateType, String triggerPolicy, Object triggerConfig, TimeUnit triggerTimeUnit) {
+        
         String opName = LogicUtils.functionName(aggregator);
 
         BOperatorInvocation aggOp = JavaFunctional.addFunctionalOperator(this,
@@ -139,6 +207,8 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
         Map<String,Object> params = new HashMap<>();
         if (isKeyed())
             params.put(FunctionalOpProperties.WINDOW_KEY_GETTER_PARAM, ObjectUtils.serializeLogic(keyGetter));
+        if (spillTuples != 0)
+            params.put(FunctionalOpProperties.WINDOW_SPILL_TUPLES_PARAM, spillTuples);
         return params;
     }
 
@@ -147,21 +217,48 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
         BInputPort bi = stream.connectTo(aggOp, true, null);
         
         
-        return bi.window(BInputPort.Window.SLIDING, policy, config, timeUnit,
+        bi.window(BInputPort.Window.SLIDING, policy, config, timeUnit,
                 triggerPolicy, triggerConfig, triggerTimeUnit, isKeyed());
+        
+        if (isKeyed() && partitionPolicy != null)
+            bi.partitionEviction(partitionPolicy, partitionConfig, partitionTimeUnit);
+        
+        return bi;
     }
     
     public <J, U> TStream<J> joinInternal(TStream<U> xstream,
             Function<? super U, ? extends K> xstreamKey,
             BiFunction<U, List<T>, J> joiner, java.lang.reflect.Type tupleType) {
         
-        String opName = LogicUtils.functionName(joiner);
-
         Map<String, Object> params = getOperatorParams();
         if (isKeyed() && xstreamKey != null) {
             
             params.put(FunctionalOpProperties.JOIN_KEY_GETTER_PARAM, ObjectUtils.serializeLogic(xstreamKey));
         }
+        
+        return addJoin(xstream, joiner, tupleType, params);
+    }
+    
+    /**
+     * Join where the window is indexed by {@code windowMatchKey}.
+     */
+    public <J, U, M> TStream<J> joinIndexedInternal(TStream<U> xstream,
+            Function<? super U, ? extends M> xstreamMatchKey,
+            Function<? super T, ? extends M> windowMatchKey,
+            BiFunction<U, List<T>, J> joiner, java.lang.reflect.Type tupleType) {
+        
+        Map<String, Object> params = getOperatorParams();
+        params.put(FunctionalOpProperties.JOIN_MATCH_KEY_GETTER_PARAM, ObjectUtils.serializeLogic(xstreamMatchKey));
+        params.put(FunctionalOpProperties.WINDOW_MATCH_KEY_GETTER_PARAM, ObjectUtils.serializeLogic(windowMatchKey));
+        
+        return addJoin(xstream, joiner, tupleType, params);
+    }
+    
+    private <J, U> TStream<J> addJoin(TStream<U> xstream,
+            BiFunction<U, List<T>, J> joiner, java.lang.reflect.Type tupleType,
+            Map<String, Object> params) {
+        
+        String opName = LogicUtils.functionName(joiner);
 
         BOperatorInvocation joinOp = JavaFunctional.addFunctionalOperator(this,
                 opName, JOIN_KIND, joiner, params);
@@ -182,10 +279,48 @@ public class WindowDefinition<T,K> extends TopologyItem implements TWindow<T,K>
     public <U> TWindow<T,U> key(Function<? super T, ? extends U> keyGetter) {
         if (keyGetter == null)
             throw new NullPointerException();
-        return new WindowDefinition<T,U>(stream, policy, config, timeUnit, keyGetter);
+        return copy(keyGetter);
     }
     @Override
     public TWindow<T, T> key() {
          return key(new Identity<T>());
     }
+    
+    @Override
+    public TWindow<T, K> evictIdlePartitions(long time, TimeUnit unit) {
+        if (time <= 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_ILLEGAL_PARTITION_EVICTION"));
+        return partitionEviction(BInputPort.Window.PARTITION_AGE_POLICY, time, Objects.requireNonNull(unit));
+    }
+    
+    @Override
+    public TWindow<T, K> maxPartitions(int count) {
+        if (count <= 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_ILLEGAL_PARTITION_EVICTION"));
+        return partitionEviction(BInputPort.Window.PARTITION_COUNT_POLICY, count, null);
+    }
+    
+    @Override
+    public TWindow<T, K> maxTuples(int count) {
+        if (count <= 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_ILLEGAL_PARTITION_EVICTION"));
+        return partitionEviction(BInputPort.Window.TUPLE_COUNT_POLICY, count, null);
+    }
+    
+    private TWindow<T, K> partitionEviction(String partitionPolicy, long partitionConfig, TimeUnit partitionTimeUnit) {
+        WindowDefinition<T,K> window = copy(keyGetter);
+        window.partitionPolicy = partitionPolicy;
+        window.partitionConfig = partitionConfig;
+        window.partitionTimeUnit = partitionTimeUnit;
+        return window;
+    }
+    
+    @Override
+    public TWindow<T, K> spillToDisk(int heapTuples) {
+        if (heapTuples <= 0)
+            throw new IllegalArgumentException(Messages.getString("CORE_ILLEGAL_SPILL_TUPLES"));
+        WindowDefinition<T,K> window = copy(keyGetter);
+        window.spillTuples = heapTuples;
+        return window;
+    }
 }
@@ -14,6 +14,9 @@ import static com.ibm.streams.operator.Type.MetaType.UINT32;
 import static com.ibm.streams.operator.Type.MetaType.UINT64;
 import static com.ibm.streams.operator.Type.MetaType.UINT8;
 import static com.ibm.streams.operator.Type.MetaType.USTRING;
+import static com.ibm.streamsx.topology.builder.BVirtualMarker.END_PARALLEL;
+import static com.ibm.streamsx.topology.builder.BVirtualMarker.ISOLATE;
+import static com.ibm.streamsx.topology.builder.BVirtualMarker.PARALLEL;
 import static com.ibm.streamsx.topology.builder.JParamTypes.TYPE_ATTRIBUTE;
 import static com.ibm.streamsx.topology.builder.JParamTypes.TYPE_SUBMISSION_PARAMETER;
 import static com.ibm.streamsx.topology.generator.operator.OpProperties.KIND;
@@ -35,10 +38,17 @@ import static com.ibm.streamsx.topology.spi.builder.Properties.Graph.CONFIG;
 import static com.ibm.streamsx.topology.spi.builder.Properties.Graph.Config.JAVA_OPS;
 import static java.util.Objects.requireNonNull;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -63,6 +73,7 @@ import com.ibm.streamsx.topology.builder.JParamTypes;
 import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.StreamsContext;
 import com.ibm.streamsx.topology.generator.operator.OpProperties;
+import com.ibm.streamsx.topology.generator.port.PortProperties;
 import com.ibm.streamsx.topology.internal.core.JavaFunctionalOps;
 import com.ibm.streamsx.topology.internal.functional.SubmissionParameterManager;
 import com.ibm.streamsx.topology.internal.gson.GsonUtilities;
@@ -71,6 +82,11 @@ import com.ibm.streamsx.topology.internal.messages.Messages;
 /**
  * Takes the JSON graph defined by Topology
  * and creates an OperatorGraph for embedded use.
+ * <BR>
+ * By default operators execute on the thread submitting
+ * tuples to them. If {@link ContextProperties#EMBEDDED_QUEUE_SIZE}
+ * is set then isolated regions and parallel channels execute
+ * on their own threads, with replicated parallel regions.
  * 
  * TODO - work in progress - currently just collects the operator decls.
  *
@@ -82,19 +98,50 @@ public class EmbeddedGraph {
     private OperatorGraph graphDecl;
     
     // map for stream/port name to declared port.
+    // Ports of channels other than zero of a replicated
+    // parallel region are qualified by their channel.
     private final Map<String,OutputPortDeclaration> outputPorts = new HashMap<>();
     private final Map<String,InputPortDeclaration> inputPorts = new HashMap<>();
     
     private final JavaOperatorTester jot = new JavaOperatorTester();
     
+    /**
+     * Queue size for threaded execution, zero
+     * if operators execute on the submitting thread.
+     */
+    private final int queueSize;
+    
+    /**
+     * Width of each replicated parallel region by operator name,
+     * contains the operators in the region and its parallel marker.
+     */
+    private final Map<String,Integer> channels = new HashMap<>();
+    
+    /**
+     * Names of the parallel markers of replicated regions.
+     */
+    private final Set<String> splits = new HashSet<>();
+    
+    /**
+     * Operator name for each input port name.
+     */
+    private final Map<String,String> inputOps = new HashMap<>();
+    
     public static void verifySupported(GraphBuilder builder) {
         new EmbeddedGraph(builder).verifySupported();
     }
    
     public EmbeddedGraph(GraphBuilder builder)  {
+        this(builder, Collections.emptyMap());
+    }
+    
+    public EmbeddedGraph(GraphBuilder builder, Map<String,Object> config)  {
         this.builder = builder;
         kind2Class = objectCreate(builder._json(), CONFIG, JAVA_OPS);
         addAll(kind2Class, JavaFunctionalOps.kind2Class());
+        
+        Object qs = config.get(ContextProperties.EMBEDDED_QUEUE_SIZE);
+        queueSize = qs == null ? 0 : ((Number) qs).intValue();
     }
     
     public void verifySupported() {        
@@ -113,12 +160,32 @@ public class EmbeddedGraph {
         case MODEL_SPL:
             if (!LANGUAGE_JAVA.equals(jstring(op, LANGUAGE)))
                 throw notSupported(op);
+            verifyWindows(op);
             return true;
         default:
             throw notSupported(op);
         }
     }
     
+    /**
+     * Partition eviction cannot be declared for a window
+     * in an embedded graph.
+     */
+    private void verifyWindows(JsonObject op) {
+        JsonArray inputs = op.getAsJsonArray("inputs");
+        if (jisEmpty(inputs))
+            return;
+        for (JsonElement e : inputs) {
+            JsonObject window = e.getAsJsonObject().getAsJsonObject("window");
+            if (window != null && window.has("partitionEvictPolicy"))
+                throw new IllegalStateException(Messages.getString(
+                    "EMBEDDED_PARTITION_EVICTION_NOT_SUPPORTED",
+                    "'" + jstring(builder._json(), NAMESPACE) + "." + jstring(builder._json(), NAME) + "'",
+                    StreamsContext.Type.EMBEDDED,
+                    jstring(op, NAME)));
+        }
+    }
+    
     public OperatorGraph declareGraph() throws Exception {
         assert graphDecl == null;
         
@@ -147,28 +214,168 @@ public class EmbeddedGraph {
     }
 
     private void declareOps() throws Exception {
+        if (queueSize > 0)
+            findParallelRegions();
+        
         for (BOperator op : builder.getOps())
             declareOp(op);
     }
     
     /**
-     * Creates the complete operator declaration
-     * from the JSON representation.
-     * @param op
-     * @throws Exception
+     * Find the parallel regions that will be replicated
+     * into their width of channels for threaded execution.
+     * <BR>
+     * A region is replicated if its width is a constant greater than one,
+     * it contains no nested parallel region, and all the
+     * inputs to operators in the region are from within the region.
+     * Otherwise the region executes as a single channel.
      */
-    @SuppressWarnings("unchecked")
+    private void findParallelRegions() {
+        final Map<String,JsonObject> opsByInput = new HashMap<>();
+        final List<JsonObject> markers = new ArrayList<>();
+        for (BOperator op : builder.getOps()) {
+            JsonObject json = op._complete();
+            JsonArray inputs = json.getAsJsonArray("inputs");
+            if (!jisEmpty(inputs)) {
+                for (JsonElement input : inputs) {
+                    String iname = jstring(input.getAsJsonObject(), "name");
+                    opsByInput.put(iname, json);
+                    inputOps.put(iname, jstring(json, "name"));
+                }
+            }
+            if (PARALLEL.isThis(jstring(json, KIND)))
+                markers.add(json);
+        }
+        
+        for (JsonObject marker : markers) {
+            JsonObject output = marker.getAsJsonArray("outputs").get(0).getAsJsonObject();
+            JsonElement width = output.get(PortProperties.WIDTH);
+            if (width == null || !width.isJsonPrimitive())
+                continue;
+            final int w = width.getAsInt();
+            if (w <= 1)
+                continue;
+            
+            Set<String> region = parallelRegion(marker, opsByInput);
+            if (region == null)
+                continue;
+            
+            splits.add(jstring(marker, "name"));
+            channels.put(jstring(marker, "name"), w);
+            for (String name : region)
+                channels.put(name, w);
+        }
+    }
+    
+    /**
+     * Get the names of the operators in the parallel region
+     * started by {@code marker}, or null if it cannot be replicated.
+     */
+    private static Set<String> parallelRegion(JsonObject marker, Map<String,JsonObject> opsByInput) {
+        final Set<String> region = new HashSet<>();
+        final Set<String> regionOutputs = new HashSet<>();
+        final List<JsonObject> regionOps = new ArrayList<>();
+        
+        final Deque<JsonObject> pending = new ArrayDeque<>();
+        pending.add(marker);
+        while (!pending.isEmpty()) {
+            JsonObject op = pending.remove();
+            JsonArray outputs = op.getAsJsonArray("outputs");
+            if (jisEmpty(outputs))
+                continue;
+            for (JsonElement e : outputs) {
+                JsonObject output = e.getAsJsonObject();
+                regionOutputs.add(jstring(output, "name"));
+                JsonArray conns = output.getAsJsonArray("connections");
+                if (jisEmpty(conns))
+                    continue;
+                for (JsonElement c : conns) {
+                    JsonObject target = requireNonNull(opsByInput.get(c.getAsString()));
+                    String kind = jstring(target, KIND);
+                    if (END_PARALLEL.isThis(kind))
+                        continue;
+                    if (PARALLEL.isThis(kind))
+                        return null;
+                    if (region.add(jstring(target, "name"))) {
+                        regionOps.add(target);
+                        pending.add(target);
+                    }
+                }
+            }
+        }
+        
+        for (JsonObject op : regionOps) {
+            for (JsonElement e : op.getAsJsonArray("inputs")) {
+                JsonArray conns = e.getAsJsonObject().getAsJsonArray("connections");
+                if (jisEmpty(conns))
+                    continue;
+                for (JsonElement c : conns) {
+                    if (!regionOutputs.contains(c.getAsString()))
+                        return null;
+                }
+            }
+        }
+        return region;
+    }
+    
+    /**
+     * Number of copies of an operator's output ports,
+     * which is the number of channels for an operator
+     * in a replicated parallel region or its marker.
+     */
+    private int outputCopies(String opName) {
+        Integer width = channels.get(opName);
+        return width == null ? 1 : width;
+    }
+    
+    /**
+     * Number of copies of an operator's input ports,
+     * a replicated parallel marker has a single input.
+     */
+    private int inputCopies(String opName) {
+        if (splits.contains(opName))
+            return 1;
+        return outputCopies(opName);
+    }
+    
+    private static String channelName(String name, int channel) {
+        return channel == 0 ? name : name + "@" + channel;
+    }
+    
     private void declareOp(BOperator op) throws Exception {
         JsonObject json = op._complete();
        
         if (!verifyOp(json))
             return;
         
+        final String name = jstring(json, "name");
+        if (splits.contains(name)) {
+            declareParallelSplit(json, channels.get(name));
+            return;
+        }
+        
+        for (int channel = 0; channel < outputCopies(name); channel++)
+            declareOp(json, op.kind(), channel);
+    }
+    
+    /**
+     * Creates the complete operator declaration
+     * from the JSON representation.
+     */
+    @SuppressWarnings("unchecked")
+    private void declareOp(JsonObject json, String kind, int channel) throws Exception {
+        
         String opClassName = jstring(json, KIND_CLASS);
         if (opClassName == null) {
             opClassName = requireNonNull(
-                    jstring(kind2Class, op.kind()), op.kind());
+                    jstring(kind2Class, kind), kind);
         }
+        
+        // Isolated and non-replicated parallel regions execute on their own thread.
+        final boolean queued = queueSize > 0 && (ISOLATE.isThis(kind) || PARALLEL.isThis(kind));
+        if (queued)
+            opClassName = JavaFunctionalOps.QUEUED_PASS_CLASS;
+        
         Class<? extends Operator> opClass = (Class<? extends Operator>) Class.forName(opClassName);
         OperatorInvocation<? extends Operator> opDecl = graphDecl.addOperator(opClass);
         
@@ -177,12 +384,51 @@ public class EmbeddedGraph {
             for (Entry<String, JsonElement> param : params.entrySet())
                 setOpParameter(opDecl, param.getKey(), param.getValue().getAsJsonObject());
         }
+        if (queued)
+            opDecl.setIntParameter("queueSize", queueSize);
         
-        declareOutputs(opDecl, json.getAsJsonArray("outputs"));
-        declareInputs(opDecl, json.getAsJsonArray("inputs"));
+        declareOutputs(opDecl, json.getAsJsonArray("outputs"), channel);
+        declareInputs(opDecl, json.getAsJsonArray("inputs"), channel);
     }
     
-    private void declareOutputs(OperatorInvocation<? extends Operator> opDecl, JsonArray outputs) {
+    /**
+     * Declare the start of a replicated parallel region,
+     * a split routing tuples to the channels followed by
+     * a queue for each channel so that each channel
+     * executes on its own thread.
+     */
+    private void declareParallelSplit(JsonObject json, int width) {
+        JsonObject output = json.getAsJsonArray("outputs").get(0).getAsJsonObject();
+        final String name = jstring(output, "name");
+        final StreamSchema schema = Type.Factory.getTupleType(jstring(output, "type")).getTupleSchema();
+        
+        OperatorInvocation<? extends Operator> split = graphDecl.addOperator(
+                operatorClass(JavaFunctionalOps.PARALLEL_SPLIT_CLASS));
+        split.setStringParameter("routing", jstring(output, PortProperties.ROUTING));
+        declareInputs(split, json.getAsJsonArray("inputs"), 0);
+        
+        for (int channel = 0; channel < width; channel++) {
+            OutputPortDeclaration channelPort = split.addOutput(channelName(name, channel) + "_split", schema);
+            
+            OperatorInvocation<? extends Operator> queue = graphDecl.addOperator(
+                    operatorClass(JavaFunctionalOps.QUEUED_PASS_CLASS));
+            queue.setIntParameter("queueSize", queueSize);
+            channelPort.connect(queue.addInput(channelName(name, channel) + "_queue", schema));
+            
+            outputPorts.put(channelName(name, channel), queue.addOutput(channelName(name, channel), schema));
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Operator> operatorClass(String className) {
+        try {
+            return (Class<? extends Operator>) Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private void declareOutputs(OperatorInvocation<? extends Operator> opDecl, JsonArray outputs, int channel) {
         if (GsonUtilities.jisEmpty(outputs))
             return;
         
@@ -195,7 +441,7 @@ public class EmbeddedGraph {
         }
         
         for (JsonObject output : ports) {
-            String name = jstring(output, "name");            
+            String name = channelName(jstring(output, "name"), channel);
             StreamSchema schema = Type.Factory.getTupleType(jstring(output, "type")).getTupleSchema();            
             OutputPortDeclaration port = opDecl.addOutput(name, schema);
           
@@ -203,7 +449,7 @@ public class EmbeddedGraph {
             outputPorts.put(name, port);
         }  
     }
-    private void declareInputs(OperatorInvocation<? extends Operator> opDecl, JsonArray inputs) {
+    private void declareInputs(OperatorInvocation<? extends Operator> opDecl, JsonArray inputs, int channel) {
         if (jisEmpty(inputs))
             return;
         
@@ -216,7 +462,7 @@ public class EmbeddedGraph {
         }
         
         for (JsonObject input : ports) {
-            String name = jstring(input, "name");            
+            String name = channelName(jstring(input, "name"), channel);
             StreamSchema schema = Type.Factory.getTupleType(jstring(input, "type")).getTupleSchema();            
             InputPortDeclaration port = opDecl.addInput(name, schema);
             
@@ -304,11 +550,19 @@ public class EmbeddedGraph {
             if (jisEmpty(conns))
                 continue;
             
-            OutputPortDeclaration port = requireNonNull(outputPorts.get(name));
+            final int copies = outputCopies(jstring(json, "name"));
             for (JsonElement c : conns) {
                 String iname = c.getAsString();
-                InputPortDeclaration iport = requireNonNull(inputPorts.get(iname));               
-                port.connect(iport);
+                String target = inputOps.get(iname);
+                // Channels of a replicated region connect to the same channel
+                // or all channels connect to the single end of the region.
+                boolean sameChannel = target != null && copies == inputCopies(target);
+                for (int channel = 0; channel < copies; channel++) {
+                    OutputPortDeclaration port = requireNonNull(outputPorts.get(channelName(name, channel)));
+                    InputPortDeclaration iport = requireNonNull(inputPorts.get(
+                            channelName(iname, sameChannel ? channel : 0)));
+                    port.connect(iport);
+                }
             }
         }     
     }
@@ -398,6 +652,18 @@ public class EmbeddedGraph {
         OutputPortDeclaration portDecl = outputPorts.get(name); 
         return Objects.requireNonNull(portDecl);
     }
+    
+    /**
+     * Get the declared ports for a stream, one for
+     * each channel if the stream is in a replicated parallel region.
+     */
+    public List<OutputPortDeclaration> getOutputPorts(String name) {
+        List<OutputPortDeclaration> ports = new ArrayList<>();
+        ports.add(getOutputPort(name));
+        for (int channel = 1; outputPorts.containsKey(channelName(name, channel)); channel++)
+            ports.add(outputPorts.get(channelName(name, channel)));
+        return ports;
+    }
 
     /**
      * Initialize EMBEDDED submission parameter value information
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.embedded;
 
@@ -31,7 +31,7 @@ public class EmbeddedStreamsContext extends
         
         config = new HashMap<>(config);
 
-        EmbeddedGraph eg = new EmbeddedGraph(app.builder());
+        EmbeddedGraph eg = new EmbeddedGraph(app.builder(), config);
         eg.verifySupported();
         
         EmbeddedGraph.initializeEmbedded(app.builder(), config);
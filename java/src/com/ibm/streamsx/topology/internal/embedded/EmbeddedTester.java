@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.embedded;
 
@@ -23,7 +23,7 @@ public class EmbeddedTester extends StreamsContextImpl<JavaTestableGraph> {
     public Future<JavaTestableGraph> submit(Topology app,
             Map<String, Object> config) throws Exception {
 
-        EmbeddedGraph eg = new EmbeddedGraph(app.builder());
+        EmbeddedGraph eg = new EmbeddedGraph(app.builder(), config);
         eg.verifySupported();
         
         ConditionTesterImpl tester = null;
@@ -0,0 +1,145 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.Tuple;
+
+/**
+ * Handler that checks tuple contents incrementally as tuples arrive.
+ * <BR>
+ * Ordered contents are checked by comparing each tuple with the
+ * expected tuple at a cursor, unordered contents by removing each
+ * tuple from a multiset of the remaining expected tuples.
+ * Thus each tuple is checked in constant time and the check fails
+ * on the first tuple that cannot be part of the expected contents.
+ * <BR>
+ * Received tuples are only retained if {@code retain} is true,
+ * otherwise only their count and a digest are maintained.
+ * If no tuples are expected the handler only collects tuples
+ * and so always retains them.
+ *
+ * @param <T> Type of the tuple values.
+ */
+class ContentsChecker<T> implements StreamHandler<Tuple> {
+
+    private final Function<Tuple, T> converter;
+    private final List<T> expected;
+    private final boolean ordered;
+    private final List<T> tuples;
+
+    /**
+     * Count of each expected tuple not yet received, unordered only.
+     */
+    private final Map<T, Integer> remaining;
+
+    private int matched;
+    private long received;
+    private int digest;
+    private boolean failed;
+    private T firstMismatch;
+
+    ContentsChecker(Function<Tuple, T> converter, List<T> expected, boolean ordered, boolean retain) {
+        this.converter = converter;
+        this.expected = new ArrayList<>(expected);
+        this.ordered = ordered;
+        this.tuples = retain || expected.isEmpty() ? new ArrayList<>() : null;
+
+        if (ordered) {
+            remaining = null;
+        } else {
+            remaining = new HashMap<>();
+            for (T tuple : expected)
+                remaining.merge(tuple, 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public void tuple(Tuple t) throws Exception {
+        final T tuple = converter.apply(t);
+        synchronized (this) {
+            received++;
+            final int hash = tuple == null ? 0 : tuple.hashCode();
+            digest = ordered ? 31 * digest + hash : digest + hash;
+            if (tuples != null)
+                tuples.add(tuple);
+
+            if (failed || expected.isEmpty())
+                return;
+
+            if (ordered ? matchOrdered(tuple) : matchUnordered(tuple))
+                matched++;
+            else {
+                failed = true;
+                firstMismatch = tuple;
+            }
+        }
+    }
+
+    private boolean matchOrdered(T tuple) {
+        return matched < expected.size() && expected.get(matched).equals(tuple);
+    }
+
+    private boolean matchUnordered(T tuple) {
+        final Integer count = remaining.get(tuple);
+        if (count == null)
+            return false;
+        if (count == 1)
+            remaining.remove(tuple);
+        else
+            remaining.put(tuple, count - 1);
+        return true;
+    }
+
+    @Override
+    public void mark(Punctuation mark) throws Exception {
+    }
+
+    /**
+     * True if exactly the expected tuples have been received.
+     */
+    synchronized boolean isValid() {
+        return !failed && received == expected.size() && matched == expected.size();
+    }
+
+    /**
+     * True if a tuple was received that is not part of the expected contents.
+     */
+    synchronized boolean isFailed() {
+        return failed;
+    }
+
+    synchronized long getReceived() {
+        return received;
+    }
+
+    /**
+     * Copy of the received tuples, empty if tuples are not retained.
+     */
+    synchronized List<T> getTuples() {
+        if (tuples == null)
+            return Collections.emptyList();
+        return new ArrayList<>(tuples);
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (tuples != null)
+            return tuples.toString();
+
+        String summary = String.format("%d tuples (digest %08x)", received, digest);
+        if (failed)
+            summary += String.format(", first unexpected tuple after %d matched: %s", matched, firstMismatch);
+        return summary;
+    }
+}
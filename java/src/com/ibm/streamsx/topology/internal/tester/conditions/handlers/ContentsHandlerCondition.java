@@ -1,53 +1,44 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017  
+# Copyright IBM Corp. 2017, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Function;
 
-import com.ibm.streams.flow.handlers.StreamCollector;
 import com.ibm.streams.operator.Tuple;
 import com.ibm.streamsx.topology.internal.tester.conditions.ContentsUserCondition;
 
-public class ContentsHandlerCondition extends HandlerCondition<List<Tuple>, StreamCollector<LinkedList<Tuple>, Tuple>, ContentsUserCondition<Tuple>> {
-    
-    public ContentsHandlerCondition(ContentsUserCondition<Tuple> userCondition) {
-        super(userCondition, StreamCollector.newLinkedListCollector());
-        
-        assert userCondition.isOrdered();
+public class ContentsHandlerCondition<T> extends HandlerCondition<List<T>, ContentsChecker<T>, ContentsUserCondition<T>> {
+
+    public ContentsHandlerCondition(ContentsUserCondition<T> userCondition,
+            Function<Tuple, T> converter, boolean retain) {
+        super(userCondition, new ContentsChecker<>(converter,
+                userCondition.getExpected(), userCondition.isOrdered(), retain));
     }
 
     @Override
-    public List<Tuple> getResult() {
+    public List<T> getResult() {
         return handler.getTuples();
     }
 
+    long getReceived() {
+        return handler.getReceived();
+    }
+
+    @Override
+    public boolean failed() {
+        return handler.isFailed();
+    }
+
     @Override
     public boolean valid() {
-        if (failed())
-            return false;
-               
-        List<Tuple> expected = userCondition.getExpected();
-        List<Tuple> got = getResult();
-        
-        if (expected.equals(got))
-            return true;
-        
-        if (checkIfFailed(got, expected))
-            fail();
-        
-        return false;
+        return handler.isValid();
     }
-    
-    static <T> boolean checkIfFailed(List<T> got, List<T> expected) {
-        if (expected.isEmpty())
-            return false;
-        for (T tuple : got) {
-            if (!expected.contains(tuple))
-                return true;
-        }
-        return false;
+
+    @Override
+    String describe() {
+        return handler.toString();
     }
 }
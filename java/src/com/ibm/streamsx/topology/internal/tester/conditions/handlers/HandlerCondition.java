@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017  
+# Copyright IBM Corp. 2017, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
 
@@ -36,9 +36,16 @@ public abstract class HandlerCondition<R, H extends StreamHandler<Tuple>, U exte
         failed = true;
     }
     
-    @SuppressWarnings("deprecation")
-	@Override
+    @Override
     public final String toString() {
+        return describe();
+    }
+    
+    /**
+     * Description of the condition's state.
+     */
+    @SuppressWarnings("deprecation")
+    String describe() {
         return getResult().toString();
     }
 }
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017  
+# Copyright IBM Corp. 2017, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.conditions.handlers;
 
@@ -26,6 +26,7 @@ import com.ibm.streamsx.topology.internal.tester.conditions.CounterUserCondition
 import com.ibm.streamsx.topology.internal.tester.conditions.NoStreamCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.StringPredicateUserCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.UserCondition;
+import com.ibm.streamsx.topology.tester.Tester;
 
 /**
  * Tester runtime that uses handlers to validate conditions.
@@ -36,6 +37,8 @@ public abstract class HandlerTesterRuntime extends TesterRuntime {
     
     private final List<UserCondition<?>> allConditions = new ArrayList<>();
     
+    private final Map<UserCondition<?>, ContentsHandlerCondition<?>> contentsConditions = new HashMap<>();
+    
     protected HandlerTesterRuntime(ConditionTesterImpl tester) {
         super(tester);
     }
@@ -84,10 +87,17 @@ public abstract class HandlerTesterRuntime extends TesterRuntime {
             handlerCondition = new CounterHandlerCondition((CounterUserCondition) userCondition);           
         } else if (userCondition instanceof ContentsUserCondition) {
             ContentsUserCondition<?> uc = (ContentsUserCondition<?>) userCondition;
+            final boolean retain = !Boolean.getBoolean(Tester.TEST_CONTENTS_DIGEST);
+            ContentsHandlerCondition<?> contents = null;
             if (uc.getTupleClass().equals(Tuple.class))
-                handlerCondition = new ContentsHandlerCondition((ContentsUserCondition<Tuple>) userCondition);
+                contents = new ContentsHandlerCondition<>((ContentsUserCondition<Tuple>) userCondition,
+                        t -> t, retain);
             else if (uc.getTupleClass().equals(String.class))
-                handlerCondition = new StringHandlerCondition((ContentsUserCondition<String>) userCondition);
+                contents = new ContentsHandlerCondition<>((ContentsUserCondition<String>) userCondition,
+                        t -> t.getString(0), retain);
+            if (contents != null)
+                contentsConditions.put(userCondition, contents);
+            handlerCondition = contents;
         } else if (userCondition instanceof StringPredicateUserCondition) {
             handlerCondition = new StringPredicateHandlerCondition((StringPredicateUserCondition) userCondition);
         }
@@ -129,7 +139,7 @@ public abstract class HandlerTesterRuntime extends TesterRuntime {
                     } else if (condition instanceof ContentsUserCondition) {
                         ContentsUserCondition<?> contents = (ContentsUserCondition<?>) condition;
                         if (!contents.getExpected().isEmpty()) {
-                            long result = contents.getResult().size();
+                            long result = contentsConditions.get(contents).getReceived();
                             Long last = lastConditionState.get(contents);
                             if (last == null || result <= last)
                                 state = NO_PROGRESS;
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017  
+# Copyright IBM Corp. 2017, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.embedded;
 
@@ -75,10 +75,13 @@ public final class EmbeddedTesterRuntime extends HandlerTesterRuntime {
             Set<StreamHandler<Tuple>> streamHandlers = handlers.get(stream);
 
             final BOutput output = stream.output();
-            final OutputPortDeclaration portDecl = eg.getOutputPort(output.name());
-
-            for (StreamHandler<Tuple> streamHandler : streamHandlers) {
-                tg.registerStreamHandler(portDecl, streamHandler);
+            
+            // One port per channel when the stream is within
+            // a replicated parallel region.
+            for (OutputPortDeclaration portDecl : eg.getOutputPorts(output.name())) {
+                for (StreamHandler<Tuple> streamHandler : streamHandlers) {
+                    tg.registerStreamHandler(portDecl, streamHandler);
+                }
             }
         }
     }
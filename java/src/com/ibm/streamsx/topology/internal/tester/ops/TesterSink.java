@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.ops;
 
@@ -9,6 +9,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.mina.core.future.WriteFuture;
 
@@ -23,58 +24,132 @@ import com.ibm.streams.operator.model.Parameter;
 import com.ibm.streams.operator.model.PrimitiveOperator;
 import com.ibm.streams.operator.samples.patterns.TupleConsumer;
 import com.ibm.streamsx.topology.internal.tester.tcp.TCPTestClient;
-import com.ibm.streamsx.topology.internal.tester.tcp.TestTuple;
-
+import com.ibm.streamsx.topology.internal.tester.tcp.TestTupleBatch;
+
+/**
+ * Sends tuples to the tester's TCP server.
+ * <BR>
+ * Tuples are batched, with all the tuples in a batch for an input port
+ * sent as a single frame. A batch is sent when it reaches
+ * {@code BATCH_SIZE} tuples, after a short timeout or when a
+ * punctuation mark arrives.
+ * <BR>
+ * A final marker for a port is only sent once all the
+ * tuples received on the port have been sent.
+ */
 @PrimitiveOperator
 @InputPortSet
 @Libraries("opt/apache-mina-2.0.2/dist/*")
 public class TesterSink extends TupleConsumer {
     
     public static final String KIND = "com.ibm.streamsx.topology.testing::TesterSink";
+    
+    private static final int BATCH_SIZE = 1000;
+    private static final long BATCH_TIMEOUT_MS = 100;
 
     private String host;
     private int port;
+    private boolean compress;
     private BinaryEncoding[] encoders;
     private TCPTestClient[] clients;
+    private ByteBuffer[] frames;
+    private int[] counts;
+
+    /**
+     * Tuples received and sent per port, guarded by progress.
+     */
+    private final Object progress = new Object();
+    private long[] received;
+    private long[] sent;
 
     @Override
     public void initialize(OperatorContext context) throws Exception {
         super.initialize(context);
 
-        setBatchSize(1);
+        setBatchSize(BATCH_SIZE);
+        setBatchTimeout(BATCH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
         setPreserveOrder(true);
 
+        final int ports = context.getNumberOfStreamingInputs();
         InetSocketAddress addr = new InetSocketAddress(getHost(), getPort());
-        clients = new TCPTestClient[context.getNumberOfStreamingInputs()];
-        encoders = new BinaryEncoding[context.getNumberOfStreamingInputs()];
+        clients = new TCPTestClient[ports];
+        encoders = new BinaryEncoding[ports];
+        frames = new ByteBuffer[ports];
+        counts = new int[ports];
+        received = new long[ports];
+        sent = new long[ports];
         for (StreamingInput<Tuple> input : context.getStreamingInputs()) {
-            TCPTestClient client = new TCPTestClient(addr);
+            TCPTestClient client = new TCPTestClient(addr, isCompress());
             client.connect();
             clients[input.getPortNumber()] = client;
 
             encoders[input.getPortNumber()] = input.getStreamSchema()
                     .newNativeBinaryEncoding();
+            frames[input.getPortNumber()] = ByteBuffer.allocate(64 * 1024);
         }
     }
 
+    @Override
+    public void process(StreamingInput<Tuple> stream, Tuple tuple) throws Exception {
+        synchronized (progress) {
+            received[stream.getPortNumber()]++;
+        }
+        super.process(stream, tuple);
+    }
+
+    /**
+     * Encode the batch into a frame per port, each tuple is
+     * its encoded length followed by its encoding.
+     * Frames are reused once they have been written.
+     */
     @Override
     protected boolean processBatch(Queue<BatchedTuple> batch) throws Exception {
-        List<WriteFuture> futures = new ArrayList<>(batch.size());
         for (BatchedTuple bt : batch) {
             int portIndex = bt.getStream().getPortNumber();
-            TCPTestClient client = clients[portIndex];
-
             BinaryEncoding be = encoders[portIndex];
-            byte[] tupleData = new byte[(int) be.getEncodedSize(bt.getTuple())];
-            be.encodeTuple(bt.getTuple(), ByteBuffer.wrap(tupleData));
-            TestTuple tt = new TestTuple(portIndex, tupleData);
-            futures.add(client.writeTuple(tt));
+            Tuple tuple = bt.getTuple();
+            
+            int length = (int) be.getEncodedSize(tuple);
+            ByteBuffer frame = ensure(portIndex, 4 + length);
+            frame.putInt(length);
+            be.encodeTuple(tuple, frame);
+            counts[portIndex]++;
+        }
+        
+        List<WriteFuture> futures = new ArrayList<>(clients.length);
+        for (int portIndex = 0; portIndex < clients.length; portIndex++) {
+            if (counts[portIndex] == 0)
+                continue;
+            ByteBuffer frame = frames[portIndex];
+            futures.add(clients[portIndex].writeTuple(new TestTupleBatch(portIndex,
+                    counts[portIndex], frame.array(), frame.position())));
         }
         for (WriteFuture future : futures) {
             future.await();
         }
+        synchronized (progress) {
+            for (int portIndex = 0; portIndex < clients.length; portIndex++)
+                sent[portIndex] += counts[portIndex];
+            progress.notifyAll();
+        }
+        for (int portIndex = 0; portIndex < clients.length; portIndex++) {
+            frames[portIndex].clear();
+            counts[portIndex] = 0;
+        }
         return false;
     }
+    
+    private ByteBuffer ensure(int portIndex, int length) {
+        ByteBuffer frame = frames[portIndex];
+        if (frame.remaining() < length) {
+            ByteBuffer larger = ByteBuffer.allocate(
+                    Math.max(frame.capacity() * 2, frame.position() + length));
+            frame.flip();
+            larger.put(frame);
+            frames[portIndex] = frame = larger;
+        }
+        return frame;
+    }
 
     @Override
     public void processPunctuation(StreamingInput<Tuple> port, Punctuation mark)
@@ -82,9 +157,16 @@ public class TesterSink extends TupleConsumer {
         super.processPunctuation(port, mark);
         if (mark == Punctuation.FINAL_MARKER) {
             int portIndex = port.getPortNumber();
-            TestTuple finalTupleMarker = new TestTuple(portIndex, new byte[0]);
+
+            // Tuples for the port may still be in a batch,
+            // which is sent at the latest after the batch timeout.
+            synchronized (progress) {
+                while (sent[portIndex] < received[portIndex])
+                    progress.wait();
+            }
+
             TCPTestClient client = clients[portIndex];
-            client.writeTuple(finalTupleMarker).await();
+            client.writeTuple(TestTupleBatch.finalMarker(portIndex)).await();
         }
     }
 
@@ -97,6 +179,18 @@ public class TesterSink extends TupleConsumer {
         this.port = port;
     }
 
+    public boolean isCompress() {
+        return compress;
+    }
+
+    /**
+     * Compress large batches.
+     */
+    @Parameter(optional = true)
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
     public String getHost() {
         return host;
     }
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.tcp;
 
@@ -25,10 +25,14 @@ public class TCPTestClient {
     private static final Logger TRACE = Logger.getLogger(TCPTestClient.class.getName());
 
     public TCPTestClient(InetSocketAddress addr) {
+        this(addr, false);
+    }
+
+    public TCPTestClient(InetSocketAddress addr, boolean compress) {
         this.addr = addr;
         connector.setConnectTimeoutMillis(5000);
 
-        IoFilter tupleEncoder = new ProtocolCodecFilter(new TestTupleEncoder(),
+        IoFilter tupleEncoder = new ProtocolCodecFilter(new TestTupleEncoder(compress),
                 new TestTupleDecoder());
 
         connector.getFilterChain().addLast("tuples", tupleEncoder);
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017 
+# Copyright IBM Corp. 2017, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.tcp;
 
@@ -12,10 +12,10 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 import java.math.BigInteger;
 import java.net.InetSocketAddress;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeoutException;
 
@@ -46,6 +46,7 @@ import com.ibm.streamsx.topology.internal.tester.conditions.UserCondition;
 import com.ibm.streamsx.topology.internal.tester.conditions.handlers.HandlerTesterRuntime;
 import com.ibm.streamsx.topology.internal.tester.ops.TesterSink;
 import com.ibm.streamsx.topology.tester.Condition;
+import com.ibm.streamsx.topology.tester.Tester;
 
 /**
  * Create a local graph that will collect tuples from the tcp server and connect
@@ -64,8 +65,7 @@ public class TCPTesterRuntime extends HandlerTesterRuntime {
     private final Map<TStream<?>, StreamTester> testers = new HashMap<>();
     private final StreamsContext.Type contextType;
     
-    private Map<Integer, TestTupleInjector> injectors = Collections
-            .synchronizedMap(new HashMap<Integer, TestTupleInjector>());
+    private final Map<Integer, TestTupleInjector> injectors = new ConcurrentHashMap<>();
 
 
     public TCPTesterRuntime(StreamsContext.Type contextType, ConditionTesterImpl tester) {
@@ -119,9 +119,12 @@ public class TCPTesterRuntime extends HandlerTesterRuntime {
             @Override
             public void messageReceived(IoSession session, Object message)
                     throws Exception {
-                TestTuple tuple = (TestTuple) message;
-                TestTupleInjector injector = injectors.get(tuple.getTesterId());
-                injector.tuple(tuple.getTupleData());
+                TestTupleBatch batch = (TestTupleBatch) message;
+                try {
+                    injectors.get(batch.getTesterId()).tuples(batch);
+                } finally {
+                    batch.release();
+                }
             }
         });
 
@@ -148,7 +151,9 @@ public class TCPTesterRuntime extends HandlerTesterRuntime {
     private void addTesterSink(InetSocketAddress testAddr) {      
         Map<String, Object> hostInfo = new HashMap<>();
         hostInfo.put("host", testAddr.getHostString());
-        hostInfo.put("port", testAddr.getPort());        
+        hostInfo.put("port", testAddr.getPort());
+        if (Boolean.getBoolean(Tester.TEST_COMPRESS_TUPLES))
+            hostInfo.put("compress", true);
         this.testerSinkOp = topology().builder().addOperator(
                 "TesterTCP" + testAddr.getPort(),
                 TesterSink.KIND,
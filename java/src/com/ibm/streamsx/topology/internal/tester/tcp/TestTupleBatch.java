@@ -0,0 +1,79 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.tester.tcp;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A batch of encoded tuples for a tester, sent as a single frame.
+ * <BR>
+ * The data contains each tuple's length as a four byte integer
+ * followed by its native binary encoding. A batch with no
+ * tuples represents a final marker.
+ * <BR>
+ * A decoded batch holds a buffer from its decoder's pool
+ * which is returned by {@link #release()} once the
+ * tuples have been injected.
+ */
+public class TestTupleBatch {
+
+    private final int testerId;
+    private final int count;
+    private final byte[] data;
+    private final int length;
+    private final TestTupleDecoder pool;
+
+    public TestTupleBatch(int testerId, int count, byte[] data, int length) {
+        this(testerId, count, data, length, null);
+    }
+
+    TestTupleBatch(int testerId, int count, byte[] data, int length, TestTupleDecoder pool) {
+        this.testerId = testerId;
+        this.count = count;
+        this.data = data;
+        this.length = length;
+        this.pool = pool;
+    }
+
+    public static TestTupleBatch finalMarker(int testerId) {
+        return new TestTupleBatch(testerId, 0, new byte[0], 0);
+    }
+
+    public int getTesterId() {
+        return testerId;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public boolean isFinalMarker() {
+        return count == 0;
+    }
+
+    int getLength() {
+        return length;
+    }
+
+    byte[] getArray() {
+        return data;
+    }
+
+    /**
+     * Encoded tuples in this batch.
+     */
+    public ByteBuffer getData() {
+        return ByteBuffer.wrap(data, 0, length);
+    }
+
+    /**
+     * Return this batch's buffer to its decoder's pool,
+     * the batch must not be used after it is released.
+     */
+    public void release() {
+        if (pool != null)
+            pool.release(data);
+    }
+}
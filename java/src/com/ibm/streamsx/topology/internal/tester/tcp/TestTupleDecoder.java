@@ -1,68 +1,124 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.tcp;
 
+import static com.ibm.streamsx.topology.internal.tester.tcp.TestTupleEncoder.COMPRESSED;
+import static com.ibm.streamsx.topology.internal.tester.tcp.TestTupleEncoder.HEADER_LENGTH;
+
+import java.io.IOException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
 import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.codec.CumulativeProtocolDecoder;
 import org.apache.mina.filter.codec.ProtocolDecoderOutput;
 
 /**
- * Decode network bytes into a tuple for a specific output port using natural
- * Java mappings for all supported attributes. The schema of the output port
- * must match the incoming data, thus all tuple attributes must be present in
- * the raw bytes.
+ * Decode frames written by {@link TestTupleEncoder} into
+ * batches of tuples.
  * <P>
- * Handles a subset of the SPADE types, see the code for doDecode.
- * 
+ * The tuple data of each batch is held in a buffer from a pool
+ * maintained by this decoder, so that a steady stream of batches
+ * does not allocate a buffer per tuple or per batch.
+ * A buffer is returned to the pool when its batch is
+ * {@link TestTupleBatch#release() released}.
+ * </P>
  */
 public class TestTupleDecoder extends CumulativeProtocolDecoder {
 
+    private static final int MIN_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Buffers larger than this are not pooled.
+     */
+    private static final int MAX_POOLED_SIZE = 4 * 1024 * 1024;
+    private static final int MAX_POOLED = 16;
+
+    private final Queue<byte[]> pool = new ConcurrentLinkedQueue<>();
+
     public TestTupleDecoder() {
     }
 
     /**
-     * Decode bytes an attribute at a time, once enough information exists to
-     * maintain a tuple This code maintains state in the session as attributes,
-     * namely:
-     * <UL>
-     * <LI>tuple - The partially initialized tuple to be sent to the next
-     * handler in the chain.
-     * <LI>attributeIndex - The next attribute to be decoded
-     * </UL>
+     * Decode a frame once it has been completely received.
      */
     @Override
     protected boolean doDecode(IoSession session, IoBuffer in,
             ProtocolDecoderOutput out) throws Exception {
 
-        Integer testerId = null;
-
-        if (!session.containsAttribute("testerId")) {
-            if (in.remaining() < 4)
-                return false;
+        if (in.remaining() < HEADER_LENGTH)
+            return false;
 
-            testerId = in.getInt();
-        }
+        final int start = in.position();
+        final int testerId = in.getInt();
+        final int count = in.getInt();
+        final byte flags = in.get();
+        final int length = in.getInt();
+        final int dataLength = in.getInt();
 
-        if (!in.prefixedDataAvailable(4)) {
-            if (testerId != null)
-                session.setAttribute("testerId", testerId);
+        if (in.remaining() < dataLength) {
+            in.position(start);
             return false;
         }
 
-        if (testerId == null) {
-            testerId = (Integer) session.removeAttribute("testerId");
-        }
+        final byte[] data = acquire(length);
+        if ((flags & COMPRESSED) != 0)
+            inflate(in, dataLength, data, length);
+        else
+            in.get(data, 0, length);
 
-        int tupleLength = in.getInt();
+        out.write(new TestTupleBatch(testerId, count, data, length, this));
 
-        byte[] tupleData = new byte[tupleLength];
-        in.get(tupleData);
+        return in.remaining() >= HEADER_LENGTH;
+    }
+
+    private static void inflate(IoBuffer in, int dataLength, byte[] data, int length)
+            throws IOException {
+        final byte[] compressed;
+        final int offset;
+        if (in.hasArray()) {
+            compressed = in.array();
+            offset = in.arrayOffset() + in.position();
+            in.skip(dataLength);
+        } else {
+            compressed = new byte[dataLength];
+            offset = 0;
+            in.get(compressed);
+        }
 
-        out.write(new TestTuple(testerId, tupleData));
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(compressed, offset, dataLength);
+            int n = 0;
+            while (n < length && !inflater.finished()) {
+                int r = inflater.inflate(data, n, length - n);
+                if (r == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                n += r;
+            }
+            if (n != length)
+                throw new IOException("Truncated compressed tuple batch");
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private byte[] acquire(int length) {
+        byte[] buffer = pool.poll();
+        if (buffer == null || buffer.length < length)
+            buffer = new byte[Math.max(length, MIN_BUFFER_SIZE)];
+        return buffer;
+    }
 
-        return in.remaining() >= 4;
+    void release(byte[] buffer) {
+        if (buffer.length <= MAX_POOLED_SIZE && pool.size() < MAX_POOLED)
+            pool.offer(buffer);
     }
 }
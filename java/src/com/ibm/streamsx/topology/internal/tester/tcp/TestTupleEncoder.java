@@ -1,41 +1,101 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.tcp;
 
+import java.util.zip.Deflater;
+
 import org.apache.mina.core.buffer.IoBuffer;
 import org.apache.mina.core.session.IoSession;
 import org.apache.mina.filter.codec.ProtocolEncoderAdapter;
 import org.apache.mina.filter.codec.ProtocolEncoderOutput;
 
 /**
- * Decode network bytes into a tuple for a specific output port using natural
- * Java mappings for all supported attributes. The schema of the output port
- * must match the incoming data, thus all tuple attributes must be present in
- * the raw bytes.
+ * Encode a batch of tuples as a frame.
+ * <P>
+ * A frame is a header of:
+ * <UL>
+ * <LI>tester identifier - {@code int}</LI>
+ * <LI>tuple count - {@code int}</LI>
+ * <LI>flags - {@code byte}, {@link #COMPRESSED} if the data is compressed</LI>
+ * <LI>uncompressed data length - {@code int}</LI>
+ * <LI>data length - {@code int}</LI>
+ * </UL>
+ * followed by the data.
+ * </P>
  * <P>
- * Handles a subset of the SPADE types, see the code for doDecode.
- * 
+ * When compression is enabled the data of a large batch
+ * is compressed with a fast deflate, and sent compressed
+ * if that reduces its size.
+ * </P>
  */
 public class TestTupleEncoder extends ProtocolEncoderAdapter {
+    
+    static final int HEADER_LENGTH = 4 + 4 + 1 + 4 + 4;
+    static final byte COMPRESSED = 1;
+    
+    /**
+     * Batches smaller than this are never compressed.
+     */
+    private static final int MIN_COMPRESS_LENGTH = 1024;
+    
+    private final boolean compress;
 
     public TestTupleEncoder() {
+        this(false);
+    }
+    
+    public TestTupleEncoder(boolean compress) {
+        this.compress = compress;
     }
 
     @Override
     public void encode(IoSession session, Object message,
             ProtocolEncoderOutput out) throws Exception {
 
-        TestTuple tuple = (TestTuple) message;
+        TestTupleBatch batch = (TestTupleBatch) message;
+        
+        byte flags = 0;
+        byte[] data = batch.getArray();
+        int length = batch.getLength();
+        
+        if (compress && length >= MIN_COMPRESS_LENGTH) {
+            byte[] compressed = new byte[length];
+            int clength = deflate(data, length, compressed);
+            if (clength > 0) {
+                flags = COMPRESSED;
+                data = compressed;
+                length = clength;
+            }
+        }
 
-        IoBuffer buffer = IoBuffer
-                .allocate(4 + 4 + tuple.getTupleData().length);
-        buffer.putInt(tuple.getTesterId());
-        buffer.putInt(tuple.getTupleData().length);
-        buffer.put(tuple.getTupleData());
+        IoBuffer buffer = IoBuffer.allocate(HEADER_LENGTH + length);
+        buffer.putInt(batch.getTesterId());
+        buffer.putInt(batch.getCount());
+        buffer.put(flags);
+        buffer.putInt(batch.getLength());
+        buffer.putInt(length);
+        buffer.put(data, 0, length);
         buffer.flip();
 
         out.write(buffer);
     }
+    
+    /**
+     * Compress data into {@code compressed}, returning the
+     * compressed length or zero if the compressed data
+     * would not be smaller.
+     */
+    private static int deflate(byte[] data, int length, byte[] compressed) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            int clength = deflater.deflate(compressed);
+            return deflater.finished() ? clength : 0;
+        } finally {
+            deflater.end();
+        }
+    }
 }
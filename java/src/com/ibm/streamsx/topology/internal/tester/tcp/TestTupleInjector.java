@@ -1,16 +1,14 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.internal.tester.tcp;
 
 import java.nio.ByteBuffer;
 
-import com.ibm.streams.flow.handlers.StreamHandler;
 import com.ibm.streams.operator.OutputTuple;
 import com.ibm.streams.operator.StreamingData.Punctuation;
 import com.ibm.streams.operator.StreamingOutput;
-import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.encoding.BinaryEncoding;
 
 /**
@@ -18,7 +16,7 @@ import com.ibm.streams.operator.encoding.BinaryEncoding;
  * graph where they will get sent to the handlers.
  * 
  */
-class TestTupleInjector implements StreamHandler<byte[]> {
+class TestTupleInjector {
 
     private StreamingOutput<OutputTuple> injectPort;
     private final BinaryEncoding encoding;
@@ -28,18 +26,26 @@ class TestTupleInjector implements StreamHandler<byte[]> {
         encoding = injectPort.getStreamSchema().newNativeBinaryEncoding();
     }
 
-    @Override
-    public void tuple(byte[] tupleData) throws Exception {
-        if (tupleData.length == 0) {
+    /**
+     * Inject each tuple of a batch, tuples are decoded
+     * directly from the batch's data.
+     */
+    void tuples(TestTupleBatch batch) throws Exception {
+        if (batch.isFinalMarker()) {
             mark(Punctuation.FINAL_MARKER);
             return;
         }
-        Tuple tuple = encoding.decodeTuple(ByteBuffer.wrap(tupleData));
-        injectPort.submit(tuple);
+        final ByteBuffer data = batch.getData();
+        for (int i = 0; i < batch.getCount(); i++) {
+            final int length = data.getInt();
+            final ByteBuffer tuple = data.slice();
+            tuple.limit(length);
+            injectPort.submit(encoding.decodeTuple(tuple));
+            data.position(data.position() + length);
+        }
     }
 
-    @Override
-    public void mark(Punctuation mark) throws Exception {
+    void mark(Punctuation mark) throws Exception {
         injectPort.punctuate(mark);
     }
 }
@@ -39,6 +39,27 @@ public interface SPLSchemas {
      */
     StreamSchema BLOB = getStreamSchema(ObjectSchemas.BLOB_SCHEMA);
     
+    /**
+     * SPL schema used by
+     * {@code TStream<Long>} streams.
+     * Consists of a single attribute of type {@code int64 __spl_int64}.
+     */
+    StreamSchema INT64 = getStreamSchema(ObjectSchemas.INT64_SCHEMA);
+    
+    /**
+     * SPL schema used by
+     * {@code TStream<Integer>} streams.
+     * Consists of a single attribute of type {@code int32 __spl_int32}.
+     */
+    StreamSchema INT32 = getStreamSchema(ObjectSchemas.INT32_SCHEMA);
+    
+    /**
+     * SPL schema used by
+     * {@code TStream<Double>} streams.
+     * Consists of a single attribute of type {@code float64 __spl_float64}.
+     */
+    StreamSchema FLOAT64 = getStreamSchema(ObjectSchemas.FLOAT64_SCHEMA);
+    
     /**
      * SPL schema used to publish and subscribe to 
      * {@code TStream<JSONObject>} streams. Used to interchange
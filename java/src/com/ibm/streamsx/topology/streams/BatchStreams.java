@@ -0,0 +1,78 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.streams;
+
+import java.util.List;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.Predicate;
+import com.ibm.streamsx.topology.internal.logic.BatchFilter;
+import com.ibm.streamsx.topology.internal.logic.BatchMapper;
+
+/**
+ * Utilities for streams of batches of tuples,
+ * declared by {@link TStream#batch(int, long, java.util.concurrent.TimeUnit)}.
+ * <P>
+ * The functions passed to {@link #map(TStream, Function)} and
+ * {@link #filter(TStream, Predicate)} are applied to each tuple
+ * of a batch, so that a stream can be processed as batches without
+ * the per-tuple overhead of unbatching it. As with {@link TStream#map(Function)}
+ * and {@link TStream#filter(Predicate)} the functions may implement
+ * {@link com.ibm.streamsx.topology.function.Initializable} and {@code AutoCloseable}.
+ * </P>
+ * <P>
+ * A batch is never modified, as a batch may be processed
+ * by multiple downstream streams.
+ * </P>
+ *
+ * @since 1.14
+ */
+public class BatchStreams {
+
+    /**
+     * Declare a stream containing the tuples of each batch.
+     * Tuples are added to the returned stream in batch order.
+     *
+     * @param batches Stream of batches.
+     * @return Stream of the tuples of each batch.
+     */
+    public static <T> TStream<T> unbatch(TStream<List<T>> batches) {
+        return CollectionStreams.flatten(batches);
+    }
+
+    /**
+     * Declare a stream of batches mapped from {@code batches}.
+     * Each batch on the returned stream contains the non-null results
+     * of {@code mapper.apply(t)} for each tuple {@code t} of the input batch,
+     * in order. An input batch with no non-null results results in no
+     * batch on the returned stream.
+     *
+     * @param batches Stream of batches.
+     * @param mapper Mapping logic to be executed against each tuple of a batch.
+     * @return Stream of batches of mapped tuples.
+     */
+    public static <T, U> TStream<List<U>> map(TStream<List<T>> batches,
+            Function<T, U> mapper) {
+        return batches.map(new BatchMapper<T, U>(mapper));
+    }
+
+    /**
+     * Declare a stream of batches filtered from {@code batches}.
+     * Each batch on the returned stream contains the tuples of the input
+     * batch for which {@code filter.test(t)} returns {@code true}, in order.
+     * An input batch where every tuple passes the filter is added to
+     * the returned stream without being copied, and an input batch where
+     * no tuple passes the filter results in no batch on the returned stream.
+     *
+     * @param batches Stream of batches.
+     * @param filter Filtering logic to be executed against each tuple of a batch.
+     * @return Stream of batches of filtered tuples.
+     */
+    public static <T> TStream<List<T>> filter(TStream<List<T>> batches,
+            Predicate<T> filter) {
+        return batches.map(new BatchFilter<T>(filter));
+    }
+}
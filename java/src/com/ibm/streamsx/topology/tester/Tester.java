@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015, 2018
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.tester;
 
@@ -76,6 +76,45 @@ public interface Tester {
      */
     String TEST_TRACE_LEVEL = "topology.tester.traceLevel";
     
+    /**
+     * System property to verify tuple contents without retaining
+     * the received tuples.
+     * <P>
+     * When set to {@code true} conditions returned by
+     * {@link #stringContents(TStream, String...) stringContents},
+     * {@link #tupleContents(SPLStream, Tuple...) tupleContents} and
+     * {@link #stringContentsUnordered(TStream, String...) stringContentsUnordered}
+     * with expected tuples check each tuple as it arrives and only
+     * maintain a count and digest of the received tuples, so that
+     * tests with very large numbers of tuples do not retain them.
+     * The {@link Condition#getResult() result} of such a condition is an empty list.
+     * </P>
+     * <P>
+     * Only applies to tests where conditions are evaluated
+     * by the test application, such as
+     * {@link StreamsContext.Type#EMBEDDED_TESTER} and
+     * {@link StreamsContext.Type#STANDALONE_TESTER}.
+     * </P>
+     * 
+     * @since 1.14
+     */
+    String TEST_CONTENTS_DIGEST = "topology.tester.contentsDigest";
+    
+    /**
+     * System property to compress tuples sent from the application
+     * under test to the tester.
+     * <P>
+     * When set to {@code true} batches of tuples sent to the tester
+     * by jobs submitted to {@link StreamsContext.Type#STANDALONE_TESTER}
+     * and {@link StreamsContext.Type#DISTRIBUTED_TESTER} are compressed,
+     * reducing network traffic for tests that validate
+     * large numbers of tuples.
+     * </P>
+     * 
+     * @since 1.14
+     */
+    String TEST_COMPRESS_TUPLES = "topology.tester.compressTuples";
+    
     /**
      * Get the topology for this tester.
      * @return the topology for this tester.
@@ -0,0 +1,233 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.rest.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.ibm.streamsx.rest.Instance;
+import com.ibm.streamsx.rest.InstanceSnapshot;
+import com.ibm.streamsx.rest.Job;
+import com.ibm.streamsx.rest.Metric;
+import com.ibm.streamsx.rest.Operator;
+import com.ibm.streamsx.rest.StreamsConnection;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Test InstanceSnapshot against a local stub of the
+ * Streams REST API that supports ETag conditional requests.
+ */
+public class InstanceSnapshotTest {
+
+    private HttpServer server;
+    private String base;
+    private final Map<String, String> resources = new ConcurrentHashMap<>();
+    private final AtomicInteger notModified = new AtomicInteger();
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        base = "http://localhost:" + server.getAddress().getPort() + "/streams/rest";
+        final String inst = base + "/instances/inst1";
+
+        resources.put("/streams/rest/resources",
+                "{\"resources\":[{\"name\":\"instances\",\"resource\":\"" + base + "/instances\"}]}");
+        resources.put("/streams/rest/instances?id=inst1",
+                "{\"instances\":[{\"id\":\"inst1\",\"self\":\"" + inst + "\"," +
+                "\"jobs\":\"" + inst + "/jobs\",\"pes\":\"" + inst + "/pes\"," +
+                "\"operators\":\"" + inst + "/operators\"}]}");
+        resources.put("/streams/rest/instances/inst1/jobs",
+                "{\"jobs\":[{\"id\":\"1\",\"self\":\"" + inst + "/jobs/1\"}]}");
+        resources.put("/streams/rest/instances/inst1/pes",
+                "{\"pes\":[" + element("pes", "1") + "]}");
+        setOperators("op0", "op1");
+        setMetric("pes/1", "nTupleBytesProcessed", 100);
+        setMetric("operators/op0", "nTuplesProcessed", 10);
+        setMetric("operators/op1", "nTuplesProcessed", 20);
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private String element(String kind, String id) {
+        final String inst = base + "/instances/inst1";
+        return "{\"id\":\"" + id + "\",\"name\":\"" + id + "\"," +
+                "\"self\":\"" + inst + "/" + kind + "/" + id + "\"," +
+                "\"job\":\"" + inst + "/jobs/1\"," +
+                "\"metrics\":\"" + inst + "/" + kind + "/" + id + "/metrics\"}";
+    }
+
+    private void setOperators(String ... names) {
+        StringBuilder sb = new StringBuilder("{\"operators\":[");
+        for (int i = 0; i < names.length; i++) {
+            if (i != 0)
+                sb.append(',');
+            sb.append(element("operators", names[i]));
+        }
+        sb.append("]}");
+        resources.put("/streams/rest/instances/inst1/operators", sb.toString());
+    }
+
+    private void setMetric(String owner, String name, long value) {
+        resources.put("/streams/rest/instances/inst1/" + owner + "/metrics",
+                "{\"metrics\":[{\"name\":\"" + name + "\",\"value\":" + value +
+                ",\"lastTimeRetrieved\":" + value + "}],\"total\":1}");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        final String body = resources.get(exchange.getRequestURI().toString());
+        if (body == null) {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        final String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+        if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            // HttpServer does not keep the connection open after a 304.
+            exchange.getResponseHeaders().add("Connection", "close");
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        final byte[] data = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("ETag", etag);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, data.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(data);
+        }
+    }
+
+    private Instance getInstance() throws IOException {
+        StreamsConnection sc = StreamsConnection.createInstance("user", "password",
+                base + "/resources");
+        return sc.getInstance("inst1");
+    }
+
+    private static Operator operator(InstanceSnapshot snapshot, String name) {
+        for (Operator op : snapshot.getOperators())
+            if (name.equals(op.getName()))
+                return op;
+        return null;
+    }
+
+    @Test
+    public void testSnapshot() throws Exception {
+        InstanceSnapshot snapshot = getInstance().snapshot();
+
+        assertEquals(1, snapshot.getJobs().size());
+        assertEquals(1, snapshot.getPes().size());
+        assertEquals(2, snapshot.getOperators().size());
+
+        Job job = snapshot.getJobs().get(0);
+        assertEquals(2, snapshot.getOperators(job).size());
+        assertEquals(1, snapshot.getPes(job).size());
+
+        List<Metric> metrics = snapshot.getMetrics(operator(snapshot, "op1"));
+        assertEquals(1, metrics.size());
+        assertEquals("nTuplesProcessed", metrics.get(0).getName());
+        assertEquals(20, metrics.get(0).getValue());
+        assertEquals(100, snapshot.getMetrics(snapshot.getPes().get(0)).get(0).getValue());
+
+        // Three lists and one metrics list per operator and PE.
+        assertEquals(6, snapshot.getRequestCount());
+    }
+
+    @Test
+    public void testRefreshNotModified() throws Exception {
+        InstanceSnapshot snapshot = getInstance().snapshot();
+        final List<Job> jobs = snapshot.getJobs();
+        final List<Operator> operators = snapshot.getOperators();
+        final int before = notModified.get();
+
+        snapshot.refresh();
+
+        assertEquals(12, snapshot.getRequestCount());
+        assertEquals(before + 6, notModified.get());
+        assertSame(jobs, snapshot.getJobs());
+        assertSame(operators, snapshot.getOperators());
+    }
+
+    @Test
+    public void testRefreshUpdatesMetrics() throws Exception {
+        InstanceSnapshot snapshot = getInstance().snapshot();
+        final List<Operator> operators = snapshot.getOperators();
+        final Metric metric = snapshot.getMetrics(operator(snapshot, "op0")).get(0);
+        assertEquals(10, metric.getValue());
+
+        setMetric("operators/op0", "nTuplesProcessed", 15);
+        final int before = notModified.get();
+        snapshot.refresh();
+
+        // Only the changed metrics list was sent in full.
+        assertEquals(before + 5, notModified.get());
+        assertSame(operators, snapshot.getOperators());
+        assertSame(metric, snapshot.getMetrics(operator(snapshot, "op0")).get(0));
+        assertEquals(15, metric.getValue());
+        assertEquals(15, metric.getLastTimeRetrieved());
+    }
+
+    @Test
+    public void testRefreshFailedLeavesMetrics() throws Exception {
+        InstanceSnapshot snapshot = getInstance().snapshot();
+        final Metric metric = snapshot.getMetrics(operator(snapshot, "op0")).get(0);
+
+        // Operator metrics are retrieved before the failing PE metrics.
+        setMetric("operators/op0", "nTuplesProcessed", 15);
+        resources.remove("/streams/rest/instances/inst1/pes/1/metrics");
+        try {
+            snapshot.refresh();
+            fail("Refresh succeeded without PE metrics");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals(10, metric.getValue());
+
+        setMetric("pes/1", "nTupleBytesProcessed", 100);
+        snapshot.refresh();
+        assertEquals(15, metric.getValue());
+    }
+
+    @Test
+    public void testRefreshOperatorRemoved() throws Exception {
+        InstanceSnapshot snapshot = getInstance().snapshot();
+        final List<Operator> operators = snapshot.getOperators();
+        final Operator op1 = operator(snapshot, "op1");
+        final Metric metric = snapshot.getMetrics(operator(snapshot, "op0")).get(0);
+
+        setOperators("op0");
+        snapshot.refresh();
+
+        assertNotSame(operators, snapshot.getOperators());
+        assertEquals(1, snapshot.getOperators().size());
+        assertTrue(snapshot.getMetrics(op1).isEmpty());
+        assertSame(metric, snapshot.getMetrics(operator(snapshot, "op0")).get(0));
+        assertEquals(11, snapshot.getRequestCount());
+    }
+}
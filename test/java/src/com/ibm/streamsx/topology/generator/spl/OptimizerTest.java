@@ -0,0 +1,140 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.generator.spl;
+
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.array;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jobject;
+import static com.ibm.streamsx.topology.internal.gson.GsonUtilities.jstring;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+public class OptimizerTest {
+
+    private static final String PY_OBJECT_TYPE = "tuple<blob __spl_po>";
+
+    private static JsonObject port(String name, String... connections) {
+        JsonObject port = new JsonObject();
+        port.addProperty("name", name);
+        port.addProperty("type", PY_OBJECT_TYPE);
+        JsonArray conns = new JsonArray();
+        for (String conn : connections)
+            conns.add(new JsonPrimitive(conn));
+        port.add("connections", conns);
+        return port;
+    }
+
+    private static JsonObject operator(String name, String kind, JsonObject input, JsonObject output) {
+        JsonObject op = new JsonObject();
+        op.addProperty("name", name);
+        op.addProperty("kind", kind);
+        op.addProperty("model", "spl");
+        op.addProperty("language", "python");
+        JsonArray inputs = new JsonArray();
+        if (input != null)
+            inputs.add(input);
+        op.add("inputs", inputs);
+        JsonArray outputs = new JsonArray();
+        if (output != null)
+            outputs.add(output);
+        op.add("outputs", outputs);
+        return op;
+    }
+
+    private static JsonObject find(JsonObject graph, String name) {
+        for (int i = 0; i < array(graph, "operators").size(); i++) {
+            JsonObject op = array(graph, "operators").get(i).getAsJsonObject();
+            if (name.equals(jstring(op, "name")))
+                return op;
+        }
+        return null;
+    }
+
+    private static String connection(JsonObject port, int i) {
+        return array(port, "connections").get(i).getAsString();
+    }
+
+    /**
+     * A Python Map feeding a Python ForEach and an SPL operator
+     * passes by reference to the ForEach and through a single
+     * inserted pickler to the SPL operator.
+     */
+    @Test
+    public void testMixedFanOutPickler() {
+        final String ns = "com.ibm.streamsx.topology.functional.python";
+
+        JsonObject map = operator("map", ns + "::Map",
+                port("map_IN0"), port("map_OUT0", "fe_IN0", "spl_IN0"));
+        JsonObject params = new JsonParser().parse(
+                "{\"toolkitDir\":{\"value\":\"/tk\",\"type\":\"rstring\"}}").getAsJsonObject();
+        map.add("parameters", params);
+        JsonObject config = new JsonParser().parse(
+                "{\"placement\":{\"resourceTags\":[\"py\"]}}").getAsJsonObject();
+        map.add("config", config);
+
+        JsonObject fe = operator("fe", ns + "::ForEach", port("fe_IN0", "map_OUT0"), null);
+        JsonObject spl = operator("spl", "spl.relational::Filter", port("spl_IN0", "map_OUT0"), null);
+        spl.addProperty("language", "spl");
+
+        JsonObject graph = new JsonObject();
+        JsonArray ops = new JsonArray();
+        ops.add(map);
+        ops.add(fe);
+        ops.add(spl);
+        graph.add("operators", ops);
+
+        new Optimizer(graph).optimize();
+
+        JsonObject pickler = find(graph, "map_pickle0");
+        assertNotNull(pickler);
+        assertEquals(4, array(graph, "operators").size());
+        assertEquals(ns + "::Map", jstring(pickler, "kind"));
+
+        // Producer connects to the ForEach and the pickler.
+        JsonObject mapOut = array(map, "outputs").get(0).getAsJsonObject();
+        assertEquals(2, array(mapOut, "connections").size());
+        assertEquals("fe_IN0", connection(mapOut, 0));
+        assertEquals("map_pickle0_IN0", connection(mapOut, 1));
+        assertEquals(2, jobject(jobject(map, "parameters"), "outputConnections").get("value").getAsInt());
+
+        // Pickler sits between the producer and the SPL operator.
+        JsonObject pin = array(pickler, "inputs").get(0).getAsJsonObject();
+        assertEquals(1, array(pin, "connections").size());
+        assertEquals("map_OUT0", connection(pin, 0));
+        JsonObject pout = array(pickler, "outputs").get(0).getAsJsonObject();
+        assertEquals(1, array(pout, "connections").size());
+        assertEquals("spl_IN0", connection(pout, 0));
+
+        JsonObject splIn = array(spl, "inputs").get(0).getAsJsonObject();
+        assertEquals(1, array(splIn, "connections").size());
+        assertEquals("map_pickle0_OUT0", connection(splIn, 0));
+        JsonObject feIn = array(fe, "inputs").get(0).getAsJsonObject();
+        assertEquals("map_OUT0", connection(feIn, 0));
+
+        // The pickler's output is pickled bytes for the SPL operator.
+        JsonObject pparams = jobject(pickler, "parameters");
+        assertFalse(pparams.has("outputConnections"));
+        assertEquals("pickle", jobject(pparams, "pyStyle").get("value").getAsString());
+        assertFalse(jobject(pparams, "pyStateful").get("value").getAsBoolean());
+
+        // Parameters and placement are copies of the producer's.
+        JsonObject toolkitDir = jobject(pparams, "toolkitDir");
+        assertEquals(jobject(params, "toolkitDir"), toolkitDir);
+        assertNotSame(jobject(params, "toolkitDir"), toolkitDir);
+        JsonObject placement = jobject(jobject(pickler, "config"), "placement");
+        assertEquals(jobject(config, "placement"), placement);
+        assertNotSame(jobject(config, "placement"), placement);
+        assertTrue(jobject(pickler, "layout").get("hidden").getAsBoolean());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.ibm.streams.operator.OutputTuple;
+import com.ibm.streams.operator.StreamingOutput;
+import com.ibm.streams.operator.Tuple;
+import com.ibm.streamsx.topology.internal.spljava.SPLMapping;
+
+public class BatchSubmitterTest {
+
+    /**
+     * Values of the tuples, keyed by the tuple.
+     */
+    private final Map<Object, Object> values = new HashMap<>();
+    private final List<Object> submitted = new ArrayList<>();
+
+    private OutputTuple newTuple() {
+        return (OutputTuple) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {OutputTuple.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "setObject":
+                        values.put(proxy, args[1]);
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @SuppressWarnings("unchecked")
+    private StreamingOutput<OutputTuple> output() {
+        return (StreamingOutput<OutputTuple>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {StreamingOutput.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "newTuple":
+                        return newTuple();
+                    case "submit":
+                        // Record the value at submission, and the tuple.
+                        submitted.add(values.get(args[0]));
+                        submitted.add(args[0]);
+                        return true;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static final class DirectMapping extends SPLMapping<Object> {
+        DirectMapping() {
+            super(null);
+        }
+        @Override
+        public Tuple convertTo(Object tuple) {
+            throw new UnsupportedOperationException();
+        }
+        @Override
+        public Object convertFrom(Tuple tuple) {
+            throw new UnsupportedOperationException();
+        }
+        @Override
+        public boolean canSetOutput() {
+            return true;
+        }
+        @Override
+        public void setOutput(OutputTuple out, Object tuple) {
+            out.setObject(0, tuple);
+        }
+    }
+
+    /**
+     * Each value of a batch is submitted as a distinct tuple
+     * that still holds its value after later submissions.
+     */
+    @Test
+    public void testDistinctTuples() throws Exception {
+        BatchSubmitter submitter = new BatchSubmitter(output(), new DirectMapping());
+        submitter.submit(Arrays.asList("a", null, "b", "c"));
+
+        assertEquals(6, submitted.size());
+        assertEquals("a", submitted.get(0));
+        assertEquals("b", submitted.get(2));
+        assertEquals("c", submitted.get(4));
+
+        assertNotSame(submitted.get(1), submitted.get(3));
+        assertNotSame(submitted.get(3), submitted.get(5));
+        assertEquals("a", values.get(submitted.get(1)));
+        assertEquals("b", values.get(submitted.get(3)));
+        assertEquals("c", values.get(submitted.get(5)));
+    }
+
+    @Test
+    public void testInterrupted() throws Exception {
+        BatchSubmitter submitter = new BatchSubmitter(output(), new DirectMapping());
+        Thread.currentThread().interrupt();
+        assertFalse(submitter.submit(Arrays.asList("a", "b"), true));
+        assertTrue(submitted.isEmpty());
+
+        assertTrue(submitter.submit(null, true));
+        assertTrue(submitter.submit(Arrays.asList("a", "b"), true));
+        assertEquals(4, submitted.size());
+    }
+
+    /**
+     * An interrupt during a batch stops submission before the next tuple.
+     */
+    @Test
+    public void testInterruptedDuringBatch() throws Exception {
+        BatchSubmitter submitter = new BatchSubmitter(output(), new DirectMapping());
+        Iterable<String> values = () -> Arrays.asList("a", "b", "c").stream()
+                .peek(v -> {
+                    if ("b".equals(v))
+                        Thread.currentThread().interrupt();
+                }).iterator();
+        assertFalse(submitter.submit(values, true));
+        assertEquals(2, submitted.size());
+        assertEquals("a", submitted.get(0));
+    }
+}
@@ -0,0 +1,229 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.ibm.streams.flow.handlers.StreamHandler;
+import com.ibm.streams.operator.OperatorContext;
+import com.ibm.streams.operator.StreamingData.Punctuation;
+import com.ibm.streams.operator.metrics.Metric;
+import com.ibm.streams.operator.metrics.OperatorMetrics;
+
+public class FunctionalQueueTest {
+
+    private final Map<String, AtomicLong> metrics = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> maxMetrics = new ConcurrentHashMap<>();
+    private final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+    private FunctionalQueue<Integer> queue;
+
+    @After
+    public void stopQueue() throws InterruptedException {
+        if (queue != null)
+            queue.stop();
+        for (Thread t : threads)
+            t.join(5000);
+    }
+
+    /**
+     * Handler that records tuples and marks and
+     * blocks on the first tuple until released.
+     */
+    private static class Recorder implements StreamHandler<Integer> {
+        final List<Object> seen = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void tuple(Integer tuple) throws Exception {
+            if (seen.isEmpty()) {
+                blocked.countDown();
+                release.await();
+            }
+            seen.add(tuple);
+        }
+
+        @Override
+        public void mark(Punctuation mark) throws Exception {
+            seen.add(mark);
+        }
+    }
+
+    private Metric metric(String name) {
+        final AtomicLong value = metrics.computeIfAbsent(name, k -> new AtomicLong(-1));
+        final AtomicLong max = maxMetrics.computeIfAbsent(name, k -> new AtomicLong(-1));
+        return (Metric) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {Metric.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "setValue":
+                        long v = (Long) args[0];
+                        value.set(v);
+                        max.accumulateAndGet(v, Math::max);
+                        return null;
+                    case "getValue":
+                        return value.get();
+                    case "getName":
+                        return name;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private OperatorContext context() {
+        final OperatorMetrics om = (OperatorMetrics) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {OperatorMetrics.class}, (proxy, method, args) -> {
+                    if ("createCustomMetric".equals(method.getName()))
+                        return metric((String) args[0]);
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return (OperatorContext) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {OperatorContext.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getMetrics":
+                        return om;
+                    case "getThreadFactory":
+                        return (java.util.concurrent.ThreadFactory) r -> {
+                            Thread t = new Thread(r);
+                            threads.add(t);
+                            return t;
+                        };
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Test
+    public void testOrderAndMark() throws Exception {
+        Recorder handler = new Recorder();
+        handler.release.countDown();
+        queue = new FunctionalQueue<>(context(), 16, 4, handler);
+
+        for (int i = 0; i < 1000; i++)
+            queue.tuple(i);
+        queue.mark(Punctuation.WINDOW_MARKER);
+
+        // All tuples before the mark are processed before it.
+        assertEquals(1001, handler.seen.size());
+        for (int i = 0; i < 1000; i++)
+            assertEquals(i, handler.seen.get(i));
+        assertEquals(Punctuation.WINDOW_MARKER, handler.seen.get(1000));
+        assertTrue(maxMetrics.get("queueBatchSize").get() <= 4);
+    }
+
+    @Test
+    public void testBatchDrain() throws Exception {
+        Recorder handler = new Recorder();
+        queue = new FunctionalQueue<>(context(), 32, 8, handler);
+
+        queue.tuple(0);
+        assertTrue(handler.blocked.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i <= 20; i++)
+            queue.tuple(i);
+        handler.release.countDown();
+        queue.mark(Punctuation.FINAL_MARKER);
+
+        assertEquals(22, handler.seen.size());
+        for (int i = 0; i <= 20; i++)
+            assertEquals(i, handler.seen.get(i));
+
+        // Queued tuples were drained in full batches.
+        assertEquals(8, maxMetrics.get("queueBatchSize").get());
+        assertEquals(0, metrics.get("queueDepth").get());
+    }
+
+    @Test
+    public void testFullBlocksProducer() throws Exception {
+        Recorder handler = new Recorder();
+        queue = new FunctionalQueue<>(context(), 2, 2, handler);
+
+        queue.tuple(0);
+        assertTrue(handler.blocked.await(10, TimeUnit.SECONDS));
+
+        final CountDownLatch submitted = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 1; i <= 5; i++)
+                    queue.tuple(i);
+                submitted.countDown();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        producer.start();
+
+        // Capacity is two so the producer waits for the blocked reader.
+        assertFalse(submitted.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(-1, metrics.get("queueStallTime").get());
+
+        handler.release.countDown();
+        assertTrue(submitted.await(10, TimeUnit.SECONDS));
+        producer.join();
+        queue.mark(Punctuation.FINAL_MARKER);
+
+        assertEquals(7, handler.seen.size());
+        for (int i = 0; i <= 5; i++)
+            assertEquals(i, handler.seen.get(i));
+        assertTrue(metrics.get("queueStallTime").get() >= 0);
+    }
+
+    /**
+     * An idle reader parks without a timeout,
+     * so each tuple must unpark it.
+     */
+    @Test
+    public void testWakeParkedReader() throws Exception {
+        Recorder handler = new Recorder();
+        handler.release.countDown();
+        queue = new FunctionalQueue<>(context(), 8, 4, handler);
+
+        for (int i = 0; i < 20; i++) {
+            Thread.sleep(5);
+            queue.tuple(i);
+            final long end = System.currentTimeMillis() + 10000;
+            while (handler.seen.size() != i + 1 && System.currentTimeMillis() < end)
+                Thread.yield();
+            assertEquals(i + 1, handler.seen.size());
+        }
+    }
+
+    @Test
+    public void testStop() throws Exception {
+        Recorder handler = new Recorder();
+        handler.release.countDown();
+        queue = new FunctionalQueue<>(context(), 8, 4, handler);
+
+        queue.tuple(0);
+        queue.mark(Punctuation.WINDOW_MARKER);
+
+        queue.stop();
+        assertEquals(1, threads.size());
+        threads.get(0).join(10000);
+        assertFalse(threads.get(0).isAlive());
+
+        // Without a reader a mark processes queued tuples directly.
+        queue.tuple(1);
+        queue.tuple(2);
+        queue.mark(Punctuation.FINAL_MARKER);
+        assertEquals(5, handler.seen.size());
+        assertEquals(1, handler.seen.get(2));
+        assertEquals(2, handler.seen.get(3));
+        assertEquals(Punctuation.FINAL_MARKER, handler.seen.get(4));
+    }
+}
@@ -0,0 +1,97 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.ops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void testCapacity() {
+        assertEquals(1, new RingBuffer<String>(1).capacity());
+        assertEquals(8, new RingBuffer<String>(5).capacity());
+        assertEquals(8, new RingBuffer<String>(8).capacity());
+        assertEquals(1024, new RingBuffer<String>(1000).capacity());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testZeroCapacity() {
+        new RingBuffer<String>(0);
+    }
+
+    @Test
+    public void testEmpty() {
+        RingBuffer<String> rb = new RingBuffer<>(4);
+        assertTrue(rb.isEmpty());
+        assertEquals(0, rb.size());
+        assertNull(rb.poll());
+    }
+
+    @Test
+    public void testFull() {
+        RingBuffer<Integer> rb = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++)
+            assertTrue(rb.offer(i));
+        assertFalse(rb.offer(4));
+        assertEquals(4, rb.size());
+
+        assertEquals(0, rb.poll().intValue());
+        assertTrue(rb.offer(4));
+        assertFalse(rb.offer(5));
+
+        for (int i = 1; i <= 4; i++)
+            assertEquals(i, rb.poll().intValue());
+        assertNull(rb.poll());
+    }
+
+    /**
+     * Sequences pass the capacity many times so that
+     * the slot index wraps around the array.
+     */
+    @Test
+    public void testWrapAround() {
+        RingBuffer<Integer> rb = new RingBuffer<>(4);
+        int next = 0;
+        int expected = 0;
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < 3; i++)
+                assertTrue(rb.offer(next++));
+            assertEquals(3, rb.size());
+            for (int i = 0; i < 3; i++)
+                assertEquals(expected++, rb.poll().intValue());
+            assertTrue(rb.isEmpty());
+        }
+        assertEquals(150, rb.headSequence());
+        assertEquals(150, rb.tailSequence());
+    }
+
+    @Test
+    public void testProducerConsumer() throws Exception {
+        final int count = 200_000;
+        final RingBuffer<Integer> rb = new RingBuffer<>(64);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!rb.offer(i))
+                    Thread.yield();
+            }
+        });
+        producer.start();
+
+        for (int i = 0; i < count; i++) {
+            Integer v;
+            while ((v = rb.poll()) == null)
+                Thread.yield();
+            assertEquals(i, v.intValue());
+        }
+        producer.join();
+        assertTrue(rb.isEmpty());
+    }
+}
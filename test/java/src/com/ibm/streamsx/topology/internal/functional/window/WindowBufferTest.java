@@ -0,0 +1,145 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.functional.window;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.function.Function;
+
+public class WindowBufferTest {
+
+    /**
+     * Compare against a LinkedList, which
+     * WindowBuffer replaced, as the array grows and wraps.
+     */
+    @Test
+    public void testAgainstLinkedList() {
+        WindowBuffer<Integer> wb = new WindowBuffer<>();
+        LinkedList<Integer> ll = new LinkedList<>();
+        int next = 0;
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < round * 3; i++) {
+                wb.addLast(next);
+                ll.addLast(next++);
+            }
+            for (int i = 0; i < round * 2; i++)
+                assertEquals(ll.removeFirst(), wb.removeFirst());
+            assertEquals(ll, wb);
+        }
+        while (!ll.isEmpty())
+            assertEquals(ll.removeFirst(), wb.removeFirst());
+        assertTrue(wb.isEmpty());
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testRemoveEmpty() {
+        new WindowBuffer<String>().removeFirst();
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        WindowBuffer<String> wb = new WindowBuffer<>();
+        wb.addLast("a");
+        wb.get(1);
+    }
+
+    @Test
+    public void testSerializeEmpty() throws Exception {
+        WindowBuffer<String> wb = roundTrip(new WindowBuffer<>());
+        assertTrue(wb.isEmpty());
+        wb.addLast("a");
+        assertEquals(Arrays.asList("a"), wb);
+    }
+
+    /**
+     * Serialize a buffer whose head has wrapped
+     * and check the restored buffer can be modified.
+     */
+    @Test
+    public void testSerializeWrapped() throws Exception {
+        WindowBuffer<String> wb = new WindowBuffer<>();
+        for (int i = 0; i < 8; i++)
+            wb.addLast("t" + i);
+        for (int i = 0; i < 5; i++)
+            wb.removeFirst();
+        for (int i = 8; i < 13; i++)
+            wb.addLast("t" + i);
+
+        WindowBuffer<String> restored = roundTrip(wb);
+        assertEquals(wb, restored);
+
+        for (int i = 13; i < 30; i++) {
+            wb.addLast("t" + i);
+            restored.addLast("t" + i);
+        }
+        assertEquals(wb, restored);
+        while (!wb.isEmpty())
+            assertEquals(wb.removeFirst(), restored.removeFirst());
+        assertTrue(restored.isEmpty());
+    }
+
+    /**
+     * The index of a restored indexed buffer is rebuilt
+     * from its tuples and then maintained on eviction.
+     */
+    @Test
+    public void testIndexedRestored() throws Exception {
+        final Function<Object, Object> key = t -> ((String) t).substring(0, 1);
+        IndexedSlidingJoin.IndexedBuffer<String> ib = new IndexedSlidingJoin.IndexedBuffer<>(key);
+        ib.addLast("a1");
+        ib.addLast("b1");
+        ib.addLast("a2");
+        assertEquals(Arrays.asList("a1", "a2"), ib.index(key).get("a"));
+
+        IndexedSlidingJoin.IndexedBuffer<String> restored =
+                (IndexedSlidingJoin.IndexedBuffer<String>) roundTrip(ib);
+        restored.removeFirst();
+        restored.addLast("b2");
+        assertEquals(Arrays.asList("a2"), restored.index(key).get("a"));
+        assertEquals(Arrays.asList("b1", "b2"), restored.index(key).get("b"));
+
+        restored.removeFirst();
+        restored.removeFirst();
+        assertNull(restored.index(key).get("a"));
+        assertEquals(Arrays.asList("b2"), restored.index(key).get("b"));
+    }
+
+    /**
+     * A match key that changes between insertion and
+     * eviction fails with a clear error.
+     */
+    @Test(expected=IllegalStateException.class)
+    public void testIndexedUnstableKey() {
+        final AtomicInteger calls = new AtomicInteger();
+        IndexedSlidingJoin.IndexedBuffer<String> ib = new IndexedSlidingJoin.IndexedBuffer<>(
+                t -> calls.getAndIncrement());
+        ib.addLast("a");
+        ib.removeFirst();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> WindowBuffer<T> roundTrip(WindowBuffer<T> wb) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(wb);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (WindowBuffer<T>) in.readObject();
+        }
+    }
+}
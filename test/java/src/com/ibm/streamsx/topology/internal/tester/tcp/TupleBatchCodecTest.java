@@ -0,0 +1,214 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.internal.tester.tcp;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.mina.core.buffer.IoBuffer;
+import org.apache.mina.core.filterchain.IoFilter.NextFilter;
+import org.apache.mina.core.future.WriteFuture;
+import org.apache.mina.core.service.DefaultTransportMetadata;
+import org.apache.mina.core.session.DummySession;
+import org.apache.mina.core.session.IoSession;
+import org.apache.mina.core.session.IoSessionConfig;
+import org.apache.mina.filter.codec.ProtocolDecoderOutput;
+import org.apache.mina.filter.codec.ProtocolEncoderOutput;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Round trip of tuple batches through
+ * TestTupleEncoder and TestTupleDecoder.
+ */
+public class TupleBatchCodecTest {
+
+    private DummySession session;
+    private TestTupleDecoder decoder;
+
+    @Before
+    public void setup() {
+        session = new DummySession();
+        // Frames may be split across reads.
+        session.setTransportMetadata(new DefaultTransportMetadata("test", "test",
+                false, true, SocketAddress.class, IoSessionConfig.class, Object.class));
+        decoder = new TestTupleDecoder();
+    }
+
+    private IoBuffer encode(boolean compress, TestTupleBatch batch) throws Exception {
+        final List<Object> written = new ArrayList<>();
+        new TestTupleEncoder(compress).encode(session, batch, new ProtocolEncoderOutput() {
+            @Override
+            public void write(Object encodedMessage) {
+                written.add(encodedMessage);
+            }
+            @Override
+            public void mergeAll() {
+            }
+            @Override
+            public WriteFuture flush() {
+                return null;
+            }
+        });
+        assertEquals(1, written.size());
+        return (IoBuffer) written.get(0);
+    }
+
+    private List<TestTupleBatch> decode(IoBuffer in) throws Exception {
+        final List<TestTupleBatch> batches = new ArrayList<>();
+        decoder.decode(session, in, new ProtocolDecoderOutput() {
+            @Override
+            public void write(Object message) {
+                batches.add((TestTupleBatch) message);
+            }
+            @Override
+            public void flush(NextFilter nextFilter, IoSession session) {
+            }
+        });
+        return batches;
+    }
+
+    private static TestTupleBatch batch(int testerId, int count, byte[] data) {
+        return new TestTupleBatch(testerId, count, data, data.length);
+    }
+
+    private static byte[] data(TestTupleBatch batch) {
+        ByteBuffer bb = batch.getData();
+        byte[] data = new byte[bb.remaining()];
+        bb.get(data);
+        return data;
+    }
+
+    private static byte[] repeating(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++)
+            data[i] = (byte) (i % 17);
+        return data;
+    }
+
+    private static byte[] random(int length) {
+        byte[] data = new byte[length];
+        new Random(42).nextBytes(data);
+        return data;
+    }
+
+    private static boolean isCompressed(IoBuffer frame) {
+        return (frame.get(8) & TestTupleEncoder.COMPRESSED) != 0;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        byte[] data = repeating(100);
+        List<TestTupleBatch> batches = decode(encode(false, batch(3, 7, data)));
+
+        assertEquals(1, batches.size());
+        TestTupleBatch decoded = batches.get(0);
+        assertEquals(3, decoded.getTesterId());
+        assertEquals(7, decoded.getCount());
+        assertFalse(decoded.isFinalMarker());
+        assertArrayEquals(data, data(decoded));
+    }
+
+    @Test
+    public void testFinalMarker() throws Exception {
+        List<TestTupleBatch> batches = decode(encode(true, TestTupleBatch.finalMarker(5)));
+
+        assertEquals(1, batches.size());
+        assertEquals(5, batches.get(0).getTesterId());
+        assertTrue(batches.get(0).isFinalMarker());
+        assertEquals(0, batches.get(0).getData().remaining());
+    }
+
+    @Test
+    public void testCompressed() throws Exception {
+        byte[] data = repeating(200_000);
+        IoBuffer frame = encode(true, batch(1, 1000, data));
+
+        assertTrue(isCompressed(frame));
+        assertTrue(frame.remaining() < data.length / 4);
+
+        List<TestTupleBatch> batches = decode(frame);
+        assertEquals(1, batches.size());
+        assertEquals(1000, batches.get(0).getCount());
+        assertArrayEquals(data, data(batches.get(0)));
+    }
+
+    /**
+     * Small or incompressible batches are sent uncompressed.
+     */
+    @Test
+    public void testNotCompressed() throws Exception {
+        assertFalse(isCompressed(encode(true, batch(1, 1, repeating(100)))));
+
+        byte[] data = random(50_000);
+        IoBuffer frame = encode(true, batch(1, 10, data));
+        assertFalse(isCompressed(frame));
+        assertArrayEquals(data, data(decode(frame).get(0)));
+    }
+
+    /**
+     * Frames that arrive in pieces, including a split header,
+     * and multiple frames in a single read.
+     */
+    @Test
+    public void testSplitFrames() throws Exception {
+        byte[] d1 = repeating(5000);
+        byte[] d2 = random(3000);
+        byte[] d3 = repeating(10);
+        IoBuffer all = IoBuffer.allocate(64 * 1024);
+        all.put(encode(true, batch(1, 50, d1)));
+        all.put(encode(true, batch(2, 30, d2)));
+        all.put(encode(false, batch(3, 1, d3)));
+        all.put(encode(false, TestTupleBatch.finalMarker(1)));
+        all.flip();
+        byte[] stream = new byte[all.remaining()];
+        all.get(stream);
+
+        List<TestTupleBatch> batches = new ArrayList<>();
+        int[] reads = {5, 20, 1000, 4000, 7, stream.length};
+        int offset = 0;
+        for (int read : reads) {
+            int n = Math.min(read, stream.length - offset);
+            batches.addAll(decode(IoBuffer.wrap(stream, offset, n)));
+            offset += n;
+        }
+        assertEquals(stream.length, offset);
+
+        assertEquals(4, batches.size());
+        assertEquals(Arrays.asList(1, 2, 3, 1), Arrays.asList(batches.get(0).getTesterId(),
+                batches.get(1).getTesterId(), batches.get(2).getTesterId(), batches.get(3).getTesterId()));
+        assertArrayEquals(d1, data(batches.get(0)));
+        assertArrayEquals(d2, data(batches.get(1)));
+        assertArrayEquals(d3, data(batches.get(2)));
+        assertTrue(batches.get(3).isFinalMarker());
+    }
+
+    /**
+     * A released batch's buffer is reused for a later batch.
+     */
+    @Test
+    public void testBufferPooling() throws Exception {
+        TestTupleBatch first = decode(encode(false, batch(1, 1, repeating(100)))).get(0);
+        TestTupleBatch second = decode(encode(false, batch(1, 1, repeating(200)))).get(0);
+        assertNotSame(first.getArray(), second.getArray());
+
+        first.release();
+        byte[] data = random(300);
+        TestTupleBatch third = decode(encode(false, batch(1, 1, data))).get(0);
+        assertSame(first.getArray(), third.getArray());
+        assertArrayEquals(data, data(third));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.test.api;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.function.Supplier;
+import com.ibm.streamsx.topology.streams.BatchStreams;
+import com.ibm.streamsx.topology.streams.StringStreams;
+import com.ibm.streamsx.topology.test.TestTopology;
+import com.ibm.streamsx.topology.tester.Condition;
+import com.ibm.streamsx.topology.tester.Tester;
+
+public class BatchTest extends TestTopology {
+
+    @Test
+    public void testBatchSize() throws Exception {
+        final Topology t = newTopology();
+        TStream<String> s = t.strings("a", "b", "c", "d", "e", "f", "g");
+        TStream<List<String>> batches = s.batch(3, 0, TimeUnit.SECONDS);
+
+        // Final batch is incomplete, submitted by the final marker.
+        completeAndValidate(StringStreams.toString(batches), 10,
+                "[a, b, c]", "[d, e, f]", "[g]");
+    }
+
+    /**
+     * Supplies a, b and c and then blocks, keeping
+     * the stream open without a final marker.
+     */
+    @SuppressWarnings("serial")
+    private static final class ThenPause implements Supplier<String> {
+        private int n;
+
+        @Override
+        public String get() {
+            if (n < 3)
+                return Character.toString((char) ('a' + n++));
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Test the partial batch is submitted by its delay
+     * while the source is paused and the stream is still open.
+     */
+    @Test
+    public void testBatchDelay() throws Exception {
+        final Topology t = newTopology();
+        TStream<String> s = t.endlessSource(new ThenPause());
+        TStream<List<String>> batches = s.batch(100, 1, TimeUnit.SECONDS);
+
+        Tester tester = t.getTester();
+        Condition<List<String>> contents = tester.stringContents(
+                StringStreams.toString(batches), "[a, b, c]");
+        complete(tester, contents, 30, TimeUnit.SECONDS);
+
+        assertTrue(contents.valid());
+    }
+
+    @Test
+    public void testBatchMapFilterUnbatch() throws Exception {
+        final Topology t = newTopology();
+        TStream<String> s = t.strings("a", "b", "c", "d", "e", "f", "g");
+        TStream<List<String>> batches = s.batch(2, 1, TimeUnit.SECONDS);
+
+        batches = BatchStreams.map(batches, v -> "d".equals(v) ? null : v.toUpperCase());
+        batches = BatchStreams.filter(batches, v -> !"A".equals(v) && !"B".equals(v));
+
+        completeAndValidate(BatchStreams.unbatch(batches), 10, "C", "E", "F", "G");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchInvalidSize() throws Exception {
+        final Topology t = newTopology();
+        t.strings("a").batch(0, 1, TimeUnit.SECONDS);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchInvalidDelay() throws Exception {
+        final Topology t = newTopology();
+        t.strings("a").batch(10, -1, TimeUnit.SECONDS);
+    }
+}
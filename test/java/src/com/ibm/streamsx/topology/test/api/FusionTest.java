@@ -0,0 +1,100 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.test.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.generator.spl.SPLGenerator;
+import com.ibm.streamsx.topology.test.TestTopology;
+
+/**
+ * Fusion of chains of Java functional operators by the SPL generator.
+ */
+public class FusionTest extends TestTopology {
+
+    private static final String NS = "com.ibm.streamsx.topology.functional.java::";
+
+    private static TStream<String> chain(TStream<String> s) {
+        s = s.filter(v -> !v.isEmpty());
+        s = s.map(v -> v.toUpperCase());
+        s = s.flatMap(v -> Arrays.asList(v, v + "!"));
+        s = s.filter(v -> !v.startsWith("B"));
+        return s.modify(v -> v.replace('A', 'a'));
+    }
+
+    private static int count(String spl, String kind) {
+        Matcher m = Pattern.compile(Pattern.quote(kind) + "\\b").matcher(spl);
+        int n = 0;
+        while (m.find())
+            n++;
+        return n;
+    }
+
+    @Test
+    public void testChainIsFused() throws Exception {
+        assumeTrue(isMainRun());
+
+        Topology t = newTopology();
+        chain(t.strings("a", "", "b")).print();
+
+        String spl = new SPLGenerator().generateSPL(t.builder()._complete());
+
+        assertEquals(1, count(spl, NS + "Fused"));
+        assertEquals(0, count(spl, NS + "Filter"));
+        assertEquals(0, count(spl, NS + "Map"));
+        assertEquals(0, count(spl, NS + "FlatMap"));
+    }
+
+    @Test
+    public void testFusionStopsAtIsolate() throws Exception {
+        assumeTrue(isMainRun());
+
+        Topology t = newTopology();
+        TStream<String> s = t.strings("a", "", "b");
+        s = s.filter(v -> !v.isEmpty()).map(v -> v.toUpperCase());
+        s = s.isolate();
+        s = s.map(v -> v.toLowerCase()).filter(v -> !v.isEmpty());
+        s.print();
+
+        String spl = new SPLGenerator().generateSPL(t.builder()._complete());
+
+        assertEquals(2, count(spl, NS + "Fused"));
+        assertEquals(0, count(spl, NS + "Map"));
+    }
+
+    @Test
+    public void testFusionStopsAtFanOut() throws Exception {
+        assumeTrue(isMainRun());
+
+        Topology t = newTopology();
+        TStream<String> s = t.strings("a", "", "b");
+        s = s.filter(v -> !v.isEmpty());
+        s.map(v -> v.toUpperCase()).print();
+        s.map(v -> v.toLowerCase()).print();
+
+        String spl = new SPLGenerator().generateSPL(t.builder()._complete());
+
+        assertEquals(0, count(spl, NS + "Fused"));
+        assertEquals(1, count(spl, NS + "Filter"));
+        assertEquals(2, count(spl, NS + "Map"));
+    }
+
+    @Test
+    public void testFusedChain() throws Exception {
+        Topology t = newTopology();
+        TStream<String> s = chain(t.strings("a", "", "b", "c"));
+
+        completeAndValidate(s, 10, "a", "a!", "C", "C!");
+    }
+}
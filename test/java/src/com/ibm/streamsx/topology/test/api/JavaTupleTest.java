@@ -1,22 +1,38 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.test.api;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 
+import com.google.gson.JsonObject;
+
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.builder.BOutputPort;
+import com.ibm.streamsx.topology.context.StreamsContextFactory;
+import com.ibm.streamsx.topology.function.Function;
 import com.ibm.streamsx.topology.function.Predicate;
+import com.ibm.streamsx.topology.function.Projection;
+import com.ibm.streamsx.topology.internal.functional.FunctionalOpProperties;
+import com.ibm.streamsx.topology.spi.runtime.TupleSerializer;
 import com.ibm.streamsx.topology.test.TestTopology;
 
 public class JavaTupleTest extends TestTopology {
@@ -116,5 +132,191 @@ public class JavaTupleTest extends TestTopology {
     	}
     }
     
+    /**
+     * Test tuples are passed correctly using the compact serializer,
+     * including an unregistered class that uses Java serialization.
+     */
+    @Test
+    public void testCompactSerializer() throws Exception {
+        final Topology topology = newTopology();
+        topology.setTupleSerializer(TupleSerializer.compact(Reading.class));
+        
+        TStream<String> ids = topology.strings("a", "b", "c");
+        TStream<Reading> readings = ids.transform(new ToReading()).asType(Reading.class);
+        TStream<Long> values = readings.isolate().transform(r -> r.value + r.count).asType(Long.class);
+        TStream<BigInteger> bigs = values.transform(v -> BigInteger.valueOf(v.longValue())).asType(BigInteger.class);
+        
+        completeAndValidate(bigs.isolate(), 10, "98", "99", "100");
+    }
+    
+    /**
+     * Test the serializer is not used for a stream published
+     * as Java objects, or for the operators that produce it.
+     */
+    @Test
+    public void testCompactSerializerPublished() throws Exception {
+        final Topology topology = newTopology();
+        topology.setTupleSerializer(TupleSerializer.compact(Reading.class));
+        
+        TStream<Reading> published = topology.strings("a", "b", "c")
+                .transform(new ToReading()).asType(Reading.class);
+        published.publish("testCompactSerializerPublished");
+        
+        TStream<Reading> readings = topology.strings("d", "e")
+                .transform(new ToReading()).asType(Reading.class);
+        TStream<String> ids = readings.isolate().transform(r -> r.id).asType(String.class);
+        
+        topology.finalizeGraph(StreamsContextFactory.getEmbedded());
+        
+        assertNull(objectSerializer(published));
+        assertNotNull(objectSerializer(readings));
+        assertNotNull(objectSerializer(ids));
+    }
+    
+    private static JsonObject objectSerializer(TStream<?> stream) {
+        return ((BOutputPort) stream.output()).operator().getRawParameter(
+                FunctionalOpProperties.OBJECT_SERIALIZER_PARAM);
+    }
+    
+    /**
+     * Test a filter that reads a projection of its tuple
+     * submits the complete tuple.
+     */
+    @Test
+    public void testProjectedFilter() throws Exception {
+        final Topology topology = newTopology();
+        topology.setTupleSerializer(TupleSerializer.compact(Reading.class));
+        
+        TStream<String> ids = topology.strings("a", "b", "c");
+        TStream<Reading> readings = ids.transform(new ToReading()).asType(Reading.class);
+        TStream<Reading> filtered = readings.isolate().filter(new ValueFilter());
+        TStream<String> passed = filtered.transform(r -> r.id + r.value).asType(String.class);
+        
+        completeAndValidate(passed.isolate(), 10, "a97", "c99");
+    }
+    
+    /**
+     * Test partial decoding of a registered class.
+     */
+    @Test
+    public void testCompactSerializerProjection() throws Exception {
+        TupleSerializer serializer = TupleSerializer.compact(Reading.class);
+        Reading r = new ToReading().apply("x");
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(r, out);
+        
+        Reading p = (Reading) serializer.deserialize(
+                new ByteArrayInputStream(out.toByteArray()), Collections.singleton("value"));
+        assertNull(p.id);
+        assertEquals(r.value, p.value);
+        assertEquals(0, p.count);
+        
+        Reading f = (Reading) serializer.deserialize(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(r.id, f.id);
+        assertEquals(r.value, f.value);
+        assertEquals(r.count, f.count);
+    }
+    
+    /**
+     * Test a tuple with a cyclic reference is written
+     * using Java serialization.
+     */
+    @Test
+    public void testCompactSerializerCycle() throws Exception {
+        TupleSerializer serializer = TupleSerializer.compact(Node.class);
+        Node a = new Node();
+        a.name = "a";
+        a.next = new Node();
+        a.next.name = "b";
+        a.next.next = a;
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(a, out);
+        
+        Node r = (Node) serializer.deserialize(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("a", r.name);
+        assertEquals("b", r.next.name);
+        assertSame(r, r.next.next);
+        
+        // Shared references without a cycle are written compactly.
+        Node s = new Node();
+        s.name = "s";
+        ArrayList<Node> list = new ArrayList<>();
+        list.add(s);
+        list.add(s);
+        out.reset();
+        serializer.serialize(list, out);
+        @SuppressWarnings("unchecked")
+        List<Node> rl = (List<Node>) serializer.deserialize(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("s", rl.get(1).name);
+        assertNotSame(rl.get(0), rl.get(1));
+    }
+    
+    /**
+     * Test fields of a non-serializable super-class are
+     * not written and are set by its constructor.
+     */
+    @Test
+    public void testCompactSerializerNonSerializableSuper() throws Exception {
+        TupleSerializer serializer = TupleSerializer.compact(Derived.class);
+        Derived d = new Derived();
+        d.base = "changed";
+        d.derived = 42;
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        serializer.serialize(d, out);
+        
+        Derived r = (Derived) serializer.deserialize(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("initial", r.base);
+        assertEquals(42, r.derived);
+    }
+    
+    public static class Node implements Serializable {
+        private static final long serialVersionUID = 1L;
+        String name;
+        Node next;
+    }
+    
+    public static class Base {
+        String base = "initial";
+    }
+    
+    public static class Derived extends Base implements Serializable {
+        private static final long serialVersionUID = 1L;
+        int derived;
+    }
+    
+    @SuppressWarnings("serial")
+    public static class ValueFilter implements Predicate<Reading>, Projection {
+        @Override
+        public boolean test(Reading r) {
+            return r.value != 'b';
+        }
+        @Override
+        public Set<String> getProjectedFields() {
+            return Collections.singleton("value");
+        }
+    }
+    
+    @SuppressWarnings("serial")
+    public static class ToReading implements Function<String, Reading> {
+        @Override
+        public Reading apply(String id) {
+            Reading r = new Reading();
+            r.id = id;
+            r.value = id.charAt(0);
+            r.count = 1;
+            return r;
+        }
+    }
+    
+    public static class Reading implements Serializable {
+        private static final long serialVersionUID = 1L;
+        String id;
+        long value;
+        int count;
+    }
+    
     
 }
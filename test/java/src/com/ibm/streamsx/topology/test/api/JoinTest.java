@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.test.api;
 
@@ -57,6 +57,32 @@ public class JoinTest extends TestTopology {
         completeAndValidate(asString, 12, "[empty-134]", "[empty-76]");
     }
     
+    @Test
+    public void testIndexedJoin() throws Exception {
+        final Topology t = newTopology();
+        TStream<String> strings = t.strings("a1", "b1", "a2", "b2", "a3");
+        
+        TWindow<String,?> window = strings.last(10);
+        
+        TStream<String> main = t.strings("x", "a", "b", "c");
+        main = main.throttle(1, TimeUnit.SECONDS);
+        
+        TStream<String> joined = main.join(window, s -> s, s -> s.substring(0, 1),
+                (String v1, List<String> v2) -> "x".equals(v1) ? null : v1 + v2);
+        
+        completeAndValidate(joined, 12, "a[a1, a2, a3]", "b[b1, b2]", "c[]");
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testIndexedJoinKeyedWindow() throws Exception {
+        final Topology t = newTopology();
+        TStream<String> strings = t.strings("a1", "b1");
+        TWindow<String,String> window = strings.last(10).key(s -> s.substring(0, 1));
+        
+        t.strings("a").join(window, s -> s, s -> s,
+                (String v1, List<String> v2) -> v1 + v2);
+    }
+    
     private static TStream<List<String>> _jointest(TStream<Number> main, TWindow<String,?> window) {
         
         return main.join(window, new BiFunction<Number, List<String>, List<String>>() {
@@ -0,0 +1,85 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.test.api;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.FunctionContext;
+import com.ibm.streamsx.topology.function.Initializable;
+import com.ibm.streamsx.topology.test.TestTopology;
+import com.ibm.streamsx.topology.tester.Condition;
+import com.ibm.streamsx.topology.tester.Tester;
+
+public class MapAsyncTest extends TestTopology {
+
+    /**
+     * Stub for a slow lookup service, completes with the
+     * upper case value after a delay. Earlier tuples have
+     * a longer delay so that completions are out of order.
+     * Null is returned for "c" and a null result for "d".
+     */
+    @SuppressWarnings("serial")
+    static class SlowLookup implements Function<String, CompletableFuture<String>>, Initializable {
+
+        private transient ScheduledExecutorService executor;
+        private transient int delay;
+
+        @Override
+        public void initialize(FunctionContext functionContext) throws Exception {
+            executor = functionContext.getScheduledExecutorService();
+            delay = 200;
+        }
+
+        @Override
+        public CompletableFuture<String> apply(String v) {
+            if ("c".equals(v))
+                return null;
+            CompletableFuture<String> result = new CompletableFuture<>();
+            executor.schedule(() -> result.complete("d".equals(v) ? null : v.toUpperCase()),
+                    delay, TimeUnit.MILLISECONDS);
+            delay = Math.max(0, delay - 40);
+            return result;
+        }
+    }
+
+    @Test
+    public void testMapAsyncOrdered() throws Exception {
+        final Topology t = newTopology();
+        TStream<String> s = t.strings("a", "b", "c", "d", "e", "f");
+        s = s.mapAsync(new SlowLookup(), 4, true);
+
+        completeAndValidate(s, 10, "A", "B", "E", "F");
+    }
+
+    @Test
+    public void testMapAsyncUnordered() throws Exception {
+        final Topology t = newTopology();
+        TStream<String> s = t.strings("a", "b", "c", "d", "e", "f");
+        s = s.mapAsync(new SlowLookup(), 8, false);
+
+        Tester tester = t.getTester();
+        Condition<Long> count = tester.tupleCount(s, 4);
+        Condition<?> contents = tester.stringContentsUnordered(s, "A", "B", "E", "F");
+
+        complete(tester, count, 10, TimeUnit.SECONDS);
+        assertTrue(count.valid());
+        assertTrue(contents.valid());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMapAsyncInvalidMaxInFlight() throws Exception {
+        final Topology t = newTopology();
+        t.strings("a").mapAsync(new SlowLookup(), 0, true);
+    }
+}
@@ -1,12 +1,13 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.test.api;
 
 import static com.ibm.streams.operator.Type.Factory.getStreamSchema;
 import static com.ibm.streamsx.topology.logic.Value.of;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
@@ -42,6 +43,7 @@ import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.function.Supplier;
 import com.ibm.streamsx.topology.function.ToIntFunction;
 import com.ibm.streamsx.topology.function.UnaryOperator;
+import com.ibm.streamsx.topology.generator.spl.SPLGenerator;
 import com.ibm.streamsx.topology.logic.Value;
 import com.ibm.streamsx.topology.spl.SPL;
 import com.ibm.streamsx.topology.spl.SPLStream;
@@ -671,6 +673,58 @@ public class ParallelTest extends TestTopology {
         assertTrue(validCount.valid());
     }
     
+    /**
+     * Keyed parallel region fed by a Java functional operator
+     * that sets the hash attribute in place of a HashAdder.
+     */
+    @Test
+    public void testParallelPartitionedAfterMap() throws Exception {
+        checkUdpSupported();
+        
+        Topology topology = newTopology();
+        final int count = new Random().nextInt(10) + 37;
+
+        TStream<String> kb = topology.source(
+                stringTuple5Counter(count)).modify(v -> v.trim());
+        TStream<String> pb = kb.parallel(Value.of(5), v -> v);
+        TStream<ChannelAndSequence> cs = pb.transform(stringTupleChannelSeqTransformer());
+        TStream<ChannelAndSequence> joined = cs.endParallel();
+
+        TStream<String> valid_count = joined.transform(partitionCounter(count));
+
+        Tester tester = topology.getTester();
+        Condition<Long> expectedCount = tester.tupleCount(valid_count, 1);
+        Condition<List<String>> validCount = tester.stringContents(valid_count, "5");
+        
+        complete(tester, allConditions(expectedCount, validCount), 10, TimeUnit.SECONDS);
+
+        assertTrue(expectedCount.valid());
+        assertTrue(validCount.valid());
+    }
+    
+    @Test
+    public void testHashAdderFusedIntoUpstream() throws Exception {
+        assumeTrue(isMainRun());
+        
+        Topology topology = newTopology();
+        TStream<String> s = topology.strings("a", "b").modify(v -> v.trim());
+        s.parallel(Value.of(3), v -> v).endParallel().print();
+        
+        String spl = new SPLGenerator().generateSPL(topology.builder()._complete());
+        assertFalse(spl.contains("::HashAdder"));
+        assertTrue(spl.contains("outputHasher"));
+        
+        // Fan-out from the upstream operator requires the HashAdder.
+        topology = newTopology();
+        s = topology.strings("a", "b").modify(v -> v.trim());
+        s.print();
+        s.parallel(Value.of(3), v -> v).endParallel().print();
+        
+        spl = new SPLGenerator().generateSPL(topology.builder()._complete());
+        assertTrue(spl.contains("::HashAdder"));
+        assertFalse(spl.contains("outputHasher"));
+    }
+    
     @SuppressWarnings("serial")
     static Function<Integer, String> uniqueIdentifierMap(final int count) {
         return new Function<Integer, String>() {
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.test.api;
 
@@ -12,7 +12,10 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -23,8 +26,10 @@ import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.TWindow;
 import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.function.Function;
+import com.ibm.streamsx.topology.function.IncrementalAggregator;
 import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.function.Supplier;
+import com.ibm.streamsx.topology.function.ThreadSafe;
 import com.ibm.streamsx.topology.json.JSONStreams;
 import com.ibm.streamsx.topology.test.TestTopology;
 import com.ibm.streamsx.topology.tester.Condition;
@@ -59,6 +64,33 @@ public class WindowTest extends TestTopology {
         }
     }
 
+    @SuppressWarnings("serial")
+    private static final class IncrementalSumInt implements
+            IncrementalAggregator<Number, int[], Integer> {
+        @Override
+        public int[] initialState() {
+            return new int[2];
+        }
+        @Override
+        public int[] add(int[] state, Number tuple) {
+            state[0] += tuple.intValue();
+            state[1]++;
+            return state;
+        }
+        @Override
+        public int[] remove(int[] state, Number tuple) {
+            state[0] -= tuple.intValue();
+            state[1]--;
+            return state;
+        }
+        @Override
+        public Integer result(int[] state) {
+            if (state[1] > 3)
+                throw new IllegalStateException("more than three tuples for last(3)");
+            return state[0];
+        }
+    }
+
     public static void assertWindow(Topology f, TWindow<?,?> window) {
         TopologyTest.assertFlowElement(f, window);
     }
@@ -106,6 +138,16 @@ public class WindowTest extends TestTopology {
         completeAndValidate(aggregate, 10, "1", "3", "6", "9", "12", "15", "18");
     }
 
+    @Test
+    public void testIncrementalCountAggregate() throws Exception {
+        final Topology f = newTopology("IncrementalCountAggregate");
+        TStream<Number> source = f.numbers(1, 2, 3, 4, 5, 6, 7);
+        TWindow<Number,?> window = source.last(3);
+        TStream<Integer> aggregate = window.aggregate(new IncrementalSumInt());
+        
+        completeAndValidate(aggregate, 10, "1", "3", "6", "9", "12", "15", "18");
+    }
+
     @Test
     public void testKeyedAggregate() throws Exception {
         TStream<StockPrice> aggregate = _testKeyedAggregate();
@@ -168,6 +210,151 @@ public class WindowTest extends TestTopology {
         return aggregate;
     }
 
+    /**
+     * Keyed aggregate limited to a single partition, so each
+     * change of key evicts the previous key's partition.
+     */
+    @Test
+    public void testKeyedAggregateMaxPartitions() throws Exception {
+        // Partition eviction is not supported by embedded windows.
+        assumeTrue(!isEmbedded());
+        final Topology f = newTopology("MaxPartitionsAggregate");
+        TStream<StockPrice> source = f.constants(Arrays.asList(PRICES)).asType(StockPrice.class);
+
+        TStream<StockPrice> aggregate = source.last(2).key(StockPrice::getKey)
+                .maxPartitions(1).aggregate(new AveragePrice());
+
+        completeAndValidate(aggregate, 10, "A:1000", "B:4004", "C:2013", "A:1010",
+                "A:1010", "B:4007", "A:1010", "C:2002", "B:4010", "C:2004",
+                "A:1020", "B:4010", "B:4009", "B:4008", "A:1022", "C:2007",
+                "C:2018", "A:1026");
+    }
+
+    /**
+     * Partition eviction is retained when the window is keyed.
+     */
+    @Test
+    public void testKeyedAggregateIdlePartitions() throws Exception {
+        // Partition eviction is not supported by embedded windows.
+        assumeTrue(!isEmbedded());
+        final Topology f = newTopology("IdlePartitionsAggregate");
+        TStream<StockPrice> source = f.constants(Arrays.asList(PRICES)).asType(StockPrice.class);
+
+        TStream<StockPrice> aggregate = source.last(2)
+                .evictIdlePartitions(1, TimeUnit.HOURS)
+                .key(StockPrice::getKey).aggregate(new AveragePrice());
+
+        completeAndValidate(aggregate, 10, "A:1000", "B:4004", "C:2013", "A:1005",
+                "A:1010", "B:4005", "A:1010", "C:2007", "B:4008", "C:2003",
+                "A:1015", "B:4010", "B:4009", "B:4008", "A:1021", "C:2005",
+                "C:2018", "A:1024");
+    }
+
+    @Test
+    public void testKeyedIncrementalAggregateMaxTuples() throws Exception {
+        // Partition eviction is not supported by embedded windows.
+        assumeTrue(!isEmbedded());
+        final Topology f = newTopology("MaxTuplesAggregate");
+        TStream<Number> source = f.numbers(1, 2, 3, 4, 5, 6, 7);
+        TStream<Integer> aggregate = source.last(3).key(v -> v.intValue() % 2)
+                .maxTuples(100).aggregate(new IncrementalSumInt());
+
+        completeAndValidate(aggregate, 10, "1", "2", "4", "6", "9", "12", "15");
+    }
+
+    /**
+     * Aggregations with all but the newest tuple
+     * in each partition spilled to disk.
+     */
+    @Test
+    public void testKeyedAggregateSpillToDisk() throws Exception {
+        final Topology f = newTopology("SpillToDiskAggregate");
+        TStream<StockPrice> source = f.constants(Arrays.asList(PRICES)).asType(StockPrice.class);
+
+        TStream<StockPrice> aggregate = source.last(2).spillToDisk(1)
+                .key(StockPrice::getKey).aggregate(new AveragePrice());
+
+        completeAndValidate(aggregate, 10, "A:1000", "B:4004", "C:2013", "A:1005",
+                "A:1010", "B:4005", "A:1010", "C:2007", "B:4008", "C:2003",
+                "A:1015", "B:4010", "B:4009", "B:4008", "A:1021", "C:2005",
+                "C:2018", "A:1024");
+    }
+
+    @Test
+    public void testIncrementalCountAggregateSpillToDisk() throws Exception {
+        final Topology f = newTopology("SpillToDiskIncrementalAggregate");
+        TStream<Number> source = f.numbers(1, 2, 3, 4, 5, 6, 7);
+        TWindow<Number,?> window = source.last(3).spillToDisk(1);
+        TStream<Integer> aggregate = window.aggregate(new IncrementalSumInt());
+        
+        completeAndValidate(aggregate, 10, "1", "3", "6", "9", "12", "15", "18");
+    }
+
+    /**
+     * Rendezvous for calls to {@link Overlap}, two calls can only
+     * meet if they are running at the same time.
+     */
+    private static final CyclicBarrier OVERLAP = new CyclicBarrier(2);
+
+    /**
+     * Thread safe aggregator that only returns a value once
+     * it has met a concurrent call. Calls for a partition are made
+     * on its source's thread, so a call for one partition can only
+     * meet a call for the other partition.
+     */
+    @SuppressWarnings("serial")
+    private static final class Overlap implements
+            Function<List<String>, String>, ThreadSafe {
+        @Override
+        public String apply(List<String> tuples) {
+            try {
+                OVERLAP.await(30, TimeUnit.SECONDS);
+                return "overlap:" + tuples.get(0);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (BrokenBarrierException | TimeoutException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Test a thread safe aggregator is called concurrently
+     * for partitions whose tuples arrive on different threads.
+     */
+    @Test
+    public void testThreadSafeAggregatePartitionsOverlap() throws Exception {
+        // Embedded calls the window on each source's thread.
+        assumeTrue(isEmbedded());
+        OVERLAP.reset();
+        final Topology t = newTopology("PartitionsOverlap");
+        TStream<String> a = t.periodicSource(() -> "a", 10, TimeUnit.MILLISECONDS);
+        TStream<String> b = t.periodicSource(() -> "b", 10, TimeUnit.MILLISECONDS);
+
+        TStream<String> overlaps = a.union(b).last(1).key(v -> v).aggregate(new Overlap());
+
+        Tester tester = t.getTester();
+        Condition<Long> ending = tester.atLeastTupleCount(overlaps, 2);
+        complete(tester, ending, 30, TimeUnit.SECONDS);
+
+        assertTrue(ending.valid());
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testZeroSpillToDisk() throws Exception {
+        final Topology f = newTopology("ZeroSpillToDisk");
+        TStream<String> source = f.strings("a", "b", "c");
+        source.last(3).spillToDisk(0);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testZeroMaxPartitions() throws Exception {
+        final Topology f = newTopology("ZeroMaxPartitions");
+        TStream<String> source = f.strings("a", "b", "c");
+        source.last(3).key().maxPartitions(0);
+    }
+
     public static class StockPrice implements Serializable {
 
         private static final long serialVersionUID = 1L;
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015,2019
  */
 package com.ibm.streamsx.topology.test.distributed;
 
@@ -15,7 +15,9 @@ import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -25,13 +27,17 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.ibm.json.java.JSONObject;
+import com.ibm.streams.operator.StreamSchema;
+import com.ibm.streams.operator.Type;
 import com.ibm.streams.operator.types.Blob;
 import com.ibm.streams.operator.types.ValueFactory;
 import com.ibm.streams.operator.types.XML;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.function.Supplier;
+import com.ibm.streamsx.topology.internal.functional.ObjectSchemas;
 import com.ibm.streamsx.topology.jobconfig.JobConfig;
+import com.ibm.streamsx.topology.spl.SPL;
 import com.ibm.streamsx.topology.spl.SPLSchemas;
 import com.ibm.streamsx.topology.spl.SPLStream;
 import com.ibm.streamsx.topology.spl.SPLStreams;
@@ -235,6 +241,53 @@ public class PublishSubscribeTest extends TestTopology {
         checkSubscribedAsStrings(strings);
     }
     
+    /**
+     * TStream<Long> uses a native schema within an application
+     * but is published as a Java object.
+     */
+    @Test
+    public void testPublishLong() throws Exception {
+        TStream<String> source = source();
+        
+        TStream<Long> longs = source.map(s -> Long.valueOf(s.substring(1)));
+        
+        String topic = uniqueTopic("long");
+        longs.publish(topic);
+        
+        TStream<Long> subscribe = source.topology().subscribe(topic, Long.class);
+        
+        checkSubscribedAsStrings(subscribe.map(v -> "S" + v));
+    }
+    
+    /**
+     * An application built before TStream<Long> used a native
+     * schema subscribes using SubscribeJava and a Java object schema.
+     */
+    @Test
+    public void testPublishLongSubscribeJava() throws Exception {
+        TStream<String> source = source();
+        Topology t = source.topology();
+        
+        TStream<Long> longs = source.map(s -> Long.valueOf(s.substring(1)));
+        
+        String topic = uniqueTopic("longJava");
+        longs.publish(topic);
+        
+        Map<String,Object> params = new HashMap<>();
+        params.put("topic", topic);
+        params.put("class", Long.class.getName());
+        params.put("streamType", JAVA_OBJECT);
+        SPLStream subscribe = SPL.invokeSource(t,
+                "com.ibm.streamsx.topology.topic::SubscribeJava", params, JAVA_OBJECT);
+        
+        Condition<Long> atLeast = t.getTester().atLeastTupleCount(subscribe, 100);
+        complete(t.getTester(), atLeast, 60, TimeUnit.SECONDS);
+        assertTrue(atLeast.valid());
+    }
+    
+    private static final StreamSchema JAVA_OBJECT =
+            Type.Factory.getStreamSchema(ObjectSchemas.JAVA_OBJECT_SCHEMA);
+    
     /**
      * Publish two Java object streams to the same topic
      * but ensure that the subscriber selects the correct one
@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.test.embedded;
 
@@ -9,8 +9,14 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -22,6 +28,7 @@ import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.Type;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.ContextProperties;
 import com.ibm.streamsx.topology.context.StreamsContext;
 import com.ibm.streamsx.topology.context.StreamsContextFactory;
 import com.ibm.streamsx.topology.function.Function;
@@ -164,6 +171,51 @@ public class SimpleEmbeddedTest extends TestTopology {
         assertTrue(sc.isSupported(topology));
     }
 
+    private static final Set<String> threads = Collections.synchronizedSet(new HashSet<String>());
+
+    private static class RecordThread implements Function<String, String> {
+        private static final long serialVersionUID = 1L;
+        public String apply(String tuple) {
+            threads.add(Thread.currentThread().getName());
+            return tuple;
+        }
+    }
+
+    @Test
+    public void testThreadedParallel() throws Exception {
+
+        Topology topology = new Topology("testThreadedParallel");
+
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 300; i++)
+            values.add("v" + i);
+
+        TStream<String> s = topology.constants(values)
+                .parallel(3)
+                .transform(new RecordThread())
+                .endParallel()
+                .isolate();
+
+        Tester tester = topology.getTester();
+        Condition<Long> expectedCount = tester.tupleCount(s, values.size());
+        Condition<List<String>> expectedContents = tester.stringContentsUnordered(s,
+                values.toArray(new String[0]));
+
+        Map<String,Object> config = new HashMap<>();
+        config.put(ContextProperties.EMBEDDED_QUEUE_SIZE, 16);
+
+        threads.clear();
+        StreamsContextFactory
+                .getStreamsContext(StreamsContext.Type.EMBEDDED_TESTER)
+                .submit(topology, config).get();
+
+        assertTrue(expectedCount.toString(), expectedCount.valid());
+        assertTrue(expectedContents.toString(), expectedContents.valid());
+
+        // Each channel executes on its own thread.
+        assertEquals(threads.toString(), 3, threads.size());
+    }
+
     @Test
     public void testIsSupportedNeg() throws Exception {
         
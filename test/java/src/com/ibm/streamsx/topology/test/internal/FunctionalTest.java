@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015  
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.test.internal;
 
@@ -38,6 +38,23 @@ public class FunctionalTest extends TestTopology {
         assertFalse(ObjectUtils.isImmutable(new Primitive()));
         assertFalse(ObjectUtils.isImmutable(new Collection()));
     }
+    
+    @Test
+    public void testStatelessLogicTest() {
+        assumeTrue(isMainRun());
+        
+        assertTrue(ObjectUtils.isStateless(AllowAll.class));
+        assertTrue(ObjectUtils.isStateless(FinalPrimitive.class));
+        assertTrue(ObjectUtils.isStateless(FinalMixed.class));
+        
+        assertFalse(ObjectUtils.isStateless(Primitive.class));
+        assertFalse(ObjectUtils.isStateless(Collection.class));
+        
+        // Transient state is ignored for immutability (checkpointing)
+        // but is state for concurrent calls.
+        assertTrue(ObjectUtils.isImmutable(new TransientCounter()));
+        assertFalse(ObjectUtils.isStateless(TransientCounter.class));
+    }
 
     static class FinalPrimitive implements Supplier<Integer> {
         private final int v;
@@ -82,6 +99,14 @@ public class FunctionalTest extends TestTopology {
         }
     }
     
+    static class TransientCounter implements Supplier<Integer> {
+        private transient int v;
+        @Override
+        public Integer get() {
+            return v++;
+        }
+    }
+    
     static class Collection implements Supplier<List<String>> {
         private final List<String> v = null;
         Collection() {
@@ -0,0 +1,63 @@
+/*
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+ */
+package com.ibm.streamsx.topology.test.perf;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.ibm.streamsx.topology.TStream;
+import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.StreamsContext;
+import com.ibm.streamsx.topology.test.TestTopology;
+import com.ibm.streamsx.topology.tester.Condition;
+import com.ibm.streamsx.topology.tester.Tester;
+
+/**
+ * Measure the rate tuples are sent from the application
+ * under test to the tester.
+ */
+public class TesterThroughputTest extends TestTopology {
+
+    private static final int COUNT = 1000000;
+
+    @Test
+    public void testTesterMillion() throws Exception {
+        measure("TesterMillion", false);
+    }
+
+    @Test
+    public void testTesterMillionCompressed() throws Exception {
+        measure("TesterMillionCompressed", true);
+    }
+
+    private void measure(String name, boolean compress) throws Exception {
+        assumeTrue(PERF_OK);
+        assumeTrue(getTesterType() != StreamsContext.Type.EMBEDDED_TESTER);
+
+        Topology t = newTopology(name);
+        TStream<String> s = TuplePassingTest.stringSource(t, COUNT);
+
+        Tester tester = t.getTester();
+        Condition<Long> count = tester.tupleCount(s, COUNT);
+
+        if (compress)
+            System.setProperty(Tester.TEST_COMPRESS_TUPLES, "true");
+        try {
+            long start = System.currentTimeMillis();
+            boolean passed = complete(tester, count, 300, TimeUnit.SECONDS);
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue(count.toString(), passed);
+            System.err.println(name + ": " + COUNT + " tuples in " + elapsed + "ms ("
+                    + (COUNT * 1000L / Math.max(1, elapsed)) + " tuples/sec)");
+        } finally {
+            System.clearProperty(Tester.TEST_COMPRESS_TUPLES);
+        }
+    }
+}
@@ -70,6 +70,35 @@ public class TuplePassingTest extends TestTopology {
                 .get();
     }
 
+    /**
+     * TStream<Long> uses a native int64 schema
+     * rather than a serialized Java object.
+     */
+    @Test
+    public void testLongMillion5() throws Exception {
+        assumeTrue(PERF_OK);
+        assumeTrue(isMainRun());
+
+        Topology t = new Topology("t1m5Long");
+
+        System.err.println("Long");
+        addTimer(longWorkload(longSource(t, 1000000), 5));
+        StreamsContextFactory.getEmbedded().submit(t).get();
+    }
+
+    @Test
+    public void testLongMillion5Standalone() throws Exception {
+        assumeTrue(SC_OK && PERF_OK);
+        assumeTrue(isMainRun());
+
+        Topology t = new Topology("t1m5LongStandalone");
+
+        System.err.println("Long-Standalone");
+        addTimer(longWorkload(longSource(t, 1000000), 5));
+        StreamsContextFactory.getStreamsContext(Type.STANDALONE).submit(t)
+                .get();
+    }
+
     public static TStream<String> stringSource(Topology t, final int n) {
         return t.limitedSourceN(new Function<Long, String>() {
 
@@ -159,6 +188,55 @@ public class TuplePassingTest extends TestTopology {
 
     }
 
+    public static TStream<Long> longSource(Topology t, final int n) {
+        return t.limitedSourceN(new Function<Long, Long>() {
+
+            /**
+             * 
+             */
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Long apply(Long c) {
+                return c;
+            }
+        }, n);
+    }
+
+    @SuppressWarnings("serial")
+    public static TStream<Long> longWorkload(TStream<Long> input,
+            int repeat) {
+
+        // Add a chain of empty filters.
+        for (int i = 0; i < repeat; i++) {
+
+            input = input.filter(new Predicate<Long>() {
+
+                @Override
+                public boolean test(Long tuple) {
+                    return tuple != -1L;
+                }
+            });
+
+            input = input.transform(new Function<Long, Long>() {
+
+                @Override
+                public Long apply(Long v1) {
+                    return v1 + 9835435L;
+                }
+            });
+
+            input = input.transform(new Function<Long, Long>() {
+
+                @Override
+                public Long apply(Long v1) {
+                    return v1 - 9835435L;
+                }
+            });
+        }
+        return input;
+    }
+
     public static TStream<TestValue> objectSource(Topology t, final int n) {
         return t.limitedSourceN(new Function<Long, TestValue>() {
 
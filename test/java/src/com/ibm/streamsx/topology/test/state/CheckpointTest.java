@@ -1,6 +1,6 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2015, 2018 
+# Copyright IBM Corp. 2015, 2019
  */
 package com.ibm.streamsx.topology.test.state;
 
@@ -19,6 +19,8 @@ import com.ibm.streams.operator.logging.LogLevel;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
 import com.ibm.streamsx.topology.context.StreamsContext;
+import com.ibm.streamsx.topology.function.Checkpointable;
+import com.ibm.streamsx.topology.function.Function;
 import com.ibm.streamsx.topology.function.Predicate;
 import com.ibm.streamsx.topology.streams.BeaconStreams;
 import com.ibm.streamsx.topology.streams.StringStreams;
@@ -48,16 +50,22 @@ public class CheckpointTest extends TestTopology {
     
     @Test
     public void testPeriodicCheckpoint() throws Exception {
-        testPeriodicCheckpoint(2, 45);
+        testPeriodicCheckpoint(2, 45, null);
     }
     
     @Test
     @Ignore("Stream issue with crash before 1st checkpoint")
     public void testPeriodicCheckpointEarlyFail() throws Exception {
-        testPeriodicCheckpoint(2000, 45);
+        testPeriodicCheckpoint(2000, 45, null);
     }
     
-    private void testPeriodicCheckpoint(int period, final int crashAfterCount) throws Exception {
+    /**
+     * Run a checkpointed application that crashes after
+     * {@code crashAfterCount} tuples, optionally mapping
+     * the tuples through the stateful function {@code stateful}.
+     */
+    private void testPeriodicCheckpoint(int period, final int crashAfterCount,
+            Function<Long,Long> stateful) throws Exception {
 
         final Topology topology = new Topology();
         topology.checkpointPeriod(period, TimeUnit.SECONDS);
@@ -68,6 +76,10 @@ public class CheckpointTest extends TestTopology {
         lb.colocate(b);  
         b = b.filter(new CrashAfter<Long>(crashAfterCount));
         lb.colocate(b);
+        if (stateful != null) {
+            b = b.map(stateful);
+            lb.colocate(b);
+        }
         
         TStream<String> sb = StringStreams.toString(b.isolate());
                 
@@ -80,6 +92,41 @@ public class CheckpointTest extends TestTopology {
         assertTrue(outputChecker.valid());       
     }
     
+    /**
+     * Checkpoint of a function that implements {@code Checkpointable},
+     * the output is the count of tuples seen by the function which
+     * must resume from its compressed checkpoint snapshot.
+     */
+    @Test
+    public void testPeriodicCheckpointSnapshot() throws Exception {
+        testPeriodicCheckpoint(2, 45, new SnapshotCounter());
+    }
+    
+    public static class SnapshotCounter implements Function<Long,Long>, Checkpointable<Long> {
+        private static final long serialVersionUID = 1L;
+        private long count;
+
+        @Override
+        public Long apply(Long v) {
+            return count++;
+        }
+
+        @Override
+        public Long snapshot() {
+            return count;
+        }
+
+        @Override
+        public void restore(Long snapshot) {
+            count = snapshot;
+        }
+
+        @Override
+        public boolean compressCheckpoint() {
+            return true;
+        }
+    }
+    
     public static class CheckOutput implements Predicate<String> {
 		private static final long serialVersionUID = 1L;
 
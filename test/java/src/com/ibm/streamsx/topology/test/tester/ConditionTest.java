@@ -1,12 +1,13 @@
 /*
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2017  
+# Copyright IBM Corp. 2017, 2019
  */
 package com.ibm.streamsx.topology.test.tester;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
 
 import java.util.Arrays;
 import java.util.List;
@@ -19,11 +20,13 @@ import com.ibm.streams.operator.Tuple;
 import com.ibm.streams.operator.types.RString;
 import com.ibm.streamsx.topology.TStream;
 import com.ibm.streamsx.topology.Topology;
+import com.ibm.streamsx.topology.context.StreamsContext;
 import com.ibm.streamsx.topology.spl.SPLSchemas;
 import com.ibm.streamsx.topology.spl.SPLStream;
 import com.ibm.streamsx.topology.spl.SPLStreams;
 import com.ibm.streamsx.topology.test.TestTopology;
 import com.ibm.streamsx.topology.tester.Condition;
+import com.ibm.streamsx.topology.tester.Tester;
 import com.ibm.streamsx.topology.tester.spl.ExpectedTuples;
 
 public class ConditionTest extends TestTopology {
@@ -222,4 +225,47 @@ public class ConditionTest extends TestTopology {
         assertFalse(contents.toString(), contents.valid());
         assertFalse(passed);
     }
+    
+    @Test
+    public void testStringContentsFailsOnFirstMismatch() throws Exception {
+        final Topology topology = new Topology();
+        TStream<String> source = topology.strings("A", "X", "C", "D");
+
+        Condition<List<String>> contents = topology.getTester().stringContents(source, "A", "B", "C", "D");
+
+        boolean passed = complete(topology.getTester(), contents, 10, TimeUnit.SECONDS);
+        assertTrue(contents.toString(), contents.failed());
+        assertFalse(contents.valid());
+        assertFalse(passed);
+    }
+    
+    @Test
+    public void testStringContentsDigest() throws Exception {
+        // Digest mode only applies where the test application evaluates conditions.
+        assumeTrue(isEmbedded() || getTesterType() == StreamsContext.Type.STANDALONE_TESTER);
+
+        final Topology topology = new Topology();
+        String[] data = new String[10000];
+        for (int i = 0; i < data.length; i++)
+            data[i] = "T" + (i % 100);
+        TStream<String> source = topology.strings(data);
+
+        Condition<List<String>> contents = topology.getTester().stringContents(source, data);
+        Condition<List<String>> unordered = topology.getTester().stringContentsUnordered(source, data);
+
+        System.setProperty(Tester.TEST_CONTENTS_DIGEST, "true");
+        try {
+            boolean passed = complete(topology.getTester(), contents.and(unordered), 20, TimeUnit.SECONDS);
+            assertTrue(contents.toString(), contents.valid());
+            assertTrue(unordered.toString(), unordered.valid());
+            assertTrue(passed);
+
+            // Received tuples are not retained, only their count and digest.
+            assertTrue(contents.getResult().isEmpty());
+            assertTrue(unordered.getResult().isEmpty());
+            assertTrue(contents.toString(), contents.toString().contains("10000 tuples (digest "));
+        } finally {
+            System.clearProperty(Tester.TEST_CONTENTS_DIGEST);
+        }
+    }
 }
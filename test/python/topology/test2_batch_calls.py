@@ -0,0 +1,133 @@
+# coding=utf-8
+# Licensed Materials - Property of IBM
+# Copyright IBM Corp. 2019
+import unittest
+import datetime
+import time
+
+from streamsx.topology.topology import *
+from streamsx.topology.tester import Tester
+from streamsx.topology.schema import CommonSchema
+import streamsx.spl.op as op
+
+
+class SuppressMapCall(object):
+    def __enter__(self):
+        pass
+    def __exit__(self, exc_type, exc_value, traceback):
+        return exc_type == ValueError
+    def __call__(self, t):
+        if t == 2:
+            raise ValueError("INTENTIONAL ERROR: Skip 2")
+        return t
+
+
+def open_source():
+    """ Five tuples and then keeps the stream open without a final marker.
+    """
+    for x in range(5):
+        yield x
+    while True:
+        time.sleep(0.1)
+        yield None
+
+
+class TestBatchCallsDeclaration(unittest.TestCase):
+    """ Test batch_calls sets the operator parameters.
+    """
+    def test_params(self):
+        topo = Topology()
+        s = topo.source(range(10))
+        m = s.map(lambda x : x).batch_calls(50)
+        self.assertEqual(50, m._op().params['batchSize'].spl_json()['value'])
+        self.assertFalse('batchTimeout' in m._op().params)
+
+        f = s.filter(lambda x : True).batch_calls(20, timeout=datetime.timedelta(milliseconds=250))
+        self.assertEqual(0.25, f._op().params['batchTimeout'].spl_json()['value'])
+
+        e = s.for_each(lambda x : None).batch_calls(10, 2)
+        self.assertEqual(2.0, e._op().params['batchTimeout'].spl_json()['value'])
+
+    def test_invalid(self):
+        topo = Topology()
+        s = topo.source(range(10))
+        self.assertRaises(TypeError, s.batch_calls, 10)
+        m = s.map(lambda x : x)
+        self.assertRaises(ValueError, m.batch_calls, 0)
+        self.assertRaises(ValueError, m.batch_calls, 10, timeout=0)
+        self.assertRaises(TypeError, s.isolate().batch_calls, 10)
+        self.assertRaises(TypeError, op.Map('spl.relational::Filter', s).stream.batch_calls, 10)
+
+
+class TestBatchCalls(unittest.TestCase):
+    _multiprocess_can_split_ = True
+
+    def setUp(self):
+        Tester.setup_standalone(self)
+
+    def test_pickle(self):
+        topo = Topology()
+        s = topo.source(range(1000))
+        s = s.filter(lambda x : x % 2 == 0).batch_calls(64)
+        s = s.map(lambda x : x * 3).batch_calls(64)
+        s = s.flat_map(lambda x : [x, x+1]).batch_calls(7)
+        s.for_each(lambda x : None).batch_calls(100)
+
+        expected = []
+        for x in range(0, 1000, 2):
+            expected.extend([x * 3, x * 3 + 1])
+        tester = Tester(topo)
+        tester.contents(s, expected)
+        tester.test(self.test_ctxtype, self.test_config)
+
+    def test_not_by_ref(self):
+        topo = Topology()
+        s = topo.source(range(100))
+        s = s.map(lambda x : (x, str(x))).batch_calls(10)
+        f = op.Map('spl.relational::Filter', s)
+        s = f.stream.map(lambda x : x[1]).batch_calls(10)
+
+        tester = Tester(topo)
+        tester.contents(s, [str(x) for x in range(100)])
+        tester.test(self.test_ctxtype, self.test_config)
+
+    def test_string_and_structured(self):
+        topo = Topology()
+        s = topo.source(range(100)).as_string()
+        s = s.filter(lambda x : int(x) < 50).batch_calls(10)
+        s = s.map(lambda x : (int(x), x), schema='tuple<int32 n, rstring s>').batch_calls(10)
+        s = s.map(lambda t : t['s'] + '!', schema=CommonSchema.String).batch_calls(10)
+
+        tester = Tester(topo)
+        tester.contents(s, [str(x) + '!' for x in range(50)])
+        tester.test(self.test_ctxtype, self.test_config)
+
+    def test_json(self):
+        topo = Topology()
+        s = topo.source([{'a': i} for i in range(20)]).as_json()
+        s = s.map(lambda x : x['a']).batch_calls(8)
+
+        tester = Tester(topo)
+        tester.contents(s, list(range(20)))
+        tester.test(self.test_ctxtype, self.test_config)
+
+    def test_timeout(self):
+        # The source never sends a final marker so the
+        # partial batch can only be flushed by the timeout.
+        topo = Topology()
+        s = topo.source(open_source)
+        s = s.map(lambda x : x + 1).batch_calls(1000, timeout=0.2)
+
+        tester = Tester(topo)
+        tester.contents(s, [1, 2, 3, 4, 5])
+        tester.run_for(10)
+        tester.test(self.test_ctxtype, self.test_config)
+
+    def test_suppress(self):
+        topo = Topology()
+        s = topo.source([1, 2, 3, 2, 4])
+        s = s.map(SuppressMapCall()).batch_calls(10)
+
+        tester = Tester(topo)
+        tester.contents(s, [1, 3, 4])
+        tester.test(self.test_ctxtype, self.test_config)
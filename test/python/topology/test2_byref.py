@@ -1,5 +1,5 @@
 # Licensed Materials - Property of IBM
-# Copyright IBM Corp. 2016
+# Copyright IBM Corp. 2016,2019
 import unittest
 import sys
 import itertools
@@ -52,3 +52,45 @@ class TestByRef(unittest.TestCase):
         tester = Tester(topo)
         tester.contents(s, ['ByRef', 3, 'a', 42])
         tester.test(self.test_ctxtype, self.test_config)
+
+    def test_filter_split_byref(self):
+        topo = Topology()
+        s = topo.source(['ByRef', 3, list(('a', 42)), 'Drop'])
+        s = s.map(lambda x : x)
+        s = s.filter(lambda x : x != 'Drop')
+        a, b = s.split(2, lambda x : 0 if isinstance(x, list) else 1)
+        a = a.flat_map(lambda x : x)
+        s = a.union({b})
+        s.for_each(lambda x : None)
+
+        tester = Tester(topo)
+        tester.contents(s, ['ByRef', 3, 'a', 42], ordered=False)
+        tester.test(self.test_ctxtype, self.test_config)
+
+    def test_hash_parallel_byref(self):
+        topo = Topology()
+        s = topo.source(range(20))
+        s = s.map(lambda x : (x, str(x)))
+        s = s.parallel(3, routing=Routing.HASH_PARTITIONED, func=lambda t : t[0])
+        s = s.map(lambda t : t[1])
+        s = s.end_parallel()
+
+        tester = Tester(topo)
+        tester.contents(s, [str(x) for x in range(20)], ordered=False)
+        tester.test(self.test_ctxtype, self.test_config)
+
+    def test_mixed_consumers(self):
+        # Python and SPL consumers of the same stream,
+        # only the SPL operator requires pickled bytes.
+        topo = Topology()
+        s = topo.source(['ByRef', 3, list(('a', 42))])
+        s = s.map(lambda x : x)
+        f = op.Map('spl.relational::Filter', s)
+        fs = f.stream.flat_map(lambda x : x if isinstance(x, list) else [x])
+        s = s.flat_map(lambda x : x if isinstance(x, list) else [x])
+        s.for_each(CheckForEach())
+
+        tester = Tester(topo)
+        tester.contents(s, ['ByRef', 3, 'a', 42])
+        tester.contents(fs, ['ByRef', 3, 'a', 42])
+        tester.test(self.test_ctxtype, self.test_config)